@@ -0,0 +1,132 @@
+package top.wecoding.iam.sdk.api;
+
+import top.wecoding.iam.sdk.cache.UserInfoCache;
+import top.wecoding.iam.sdk.client.AsyncApiClient;
+import top.wecoding.iam.sdk.client.param.Header;
+import top.wecoding.iam.sdk.client.param.Query;
+import top.wecoding.iam.sdk.exception.ApiException;
+import top.wecoding.iam.sdk.exception.AuthenticationException;
+import top.wecoding.iam.sdk.model.TokenInfo;
+import top.wecoding.iam.sdk.model.request.AuthenticationRequest;
+import top.wecoding.iam.sdk.model.request.RequestHttpEntity;
+import top.wecoding.iam.sdk.model.response.AuthenticationResponse;
+import top.wecoding.iam.sdk.model.response.RefreshTokenResponse;
+import top.wecoding.iam.sdk.model.response.UserInfoResponse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Non-blocking authentication related API, the asynchronous counterpart of
+ * {@link AuthenticationApi}. The futures fail with the {@link ApiException} of the api
+ * client as is, and with an {@link AuthenticationException} otherwise.
+ *
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+public class AsyncAuthenticationApi {
+
+	private static final String AUTHENTICATE_API = "/api/v1/login";
+
+	private static final String REFRESH_TOKEN_API = "/api/v1/auth/refresh-token";
+
+	private static final String CURRENT_USER_INFO_API = "/api/v1/auth/user-info";
+
+	private static final String REFRESH_TOKEN_HEADER = "RefreshToken";
+
+	private final AsyncApiClient apiClient;
+
+	private final UserInfoCache userInfoCache;
+
+	public AsyncAuthenticationApi(AsyncApiClient apiClient) {
+		this(apiClient, null);
+	}
+
+	/**
+	 * Create the authentication API.
+	 * @param apiClient the api client
+	 * @param userInfoCache caches the current user info by credentials, may be shared by
+	 * the views of the api client
+	 */
+	public AsyncAuthenticationApi(AsyncApiClient apiClient, UserInfoCache userInfoCache) {
+		this.apiClient = apiClient;
+		this.userInfoCache = userInfoCache;
+	}
+
+	public CompletableFuture<AuthenticationResponse> authenticate(String username, String password) {
+		return this.authenticate(new AuthenticationRequest(username, password));
+	}
+
+	public CompletableFuture<AuthenticationResponse> authenticate(AuthenticationRequest request) {
+		final String[] authNames = new String[] {};
+
+		RequestHttpEntity requestEntity = new RequestHttpEntity(Header.EMPTY, Query.EMPTY, request, authNames);
+		requestEntity.setRouteTemplate(AUTHENTICATE_API);
+
+		return wrapException(this.apiClient.postAsync(AUTHENTICATE_API, requestEntity, AuthenticationResponse.class));
+	}
+
+	public CompletableFuture<RefreshTokenResponse> refreshToken(String refreshToken) {
+		final String[] authNames = new String[] {};
+
+		Header header = Header.newInstance();
+
+		header.addParam(REFRESH_TOKEN_HEADER, refreshToken);
+
+		RequestHttpEntity requestEntity = new RequestHttpEntity(header, Query.EMPTY, authNames);
+		requestEntity.setRouteTemplate(REFRESH_TOKEN_API);
+
+		return wrapException(this.apiClient.getAsync(REFRESH_TOKEN_API, requestEntity, RefreshTokenResponse.class));
+	}
+
+	/**
+	 * Refresh the given token, discarding the cached user info of its access token.
+	 * @param tokenInfo the token to refresh
+	 * @return the refreshed token
+	 */
+	public CompletableFuture<RefreshTokenResponse> refreshToken(TokenInfo tokenInfo) {
+		CompletableFuture<RefreshTokenResponse> response = refreshToken(tokenInfo.getRefreshToken());
+		if (this.userInfoCache == null) {
+			return response;
+		}
+		// the rotated token must not be resolved from the cache anymore
+		return response.thenApply(refreshed -> {
+			this.userInfoCache.invalidate(AuthHeaders.bearerCredentials(tokenInfo));
+			return refreshed;
+		});
+	}
+
+	public CompletableFuture<UserInfoResponse> currentUserInfo() {
+		final String[] authNames = new String[] { "basic", "bearer" };
+
+		RequestHttpEntity requestEntity = new RequestHttpEntity(Header.EMPTY, Query.EMPTY, authNames);
+		requestEntity.setRouteTemplate(CURRENT_USER_INFO_API);
+		requestEntity.setIdempotentRead(true);
+
+		if (this.userInfoCache != null) {
+			String credentials = AuthHeaders.credentials(this.apiClient, authNames);
+			if (credentials != null) {
+				return wrapException(this.userInfoCache.getAsync(credentials,
+						() -> this.apiClient.getAsync(CURRENT_USER_INFO_API, requestEntity, UserInfoResponse.class)));
+			}
+		}
+		return wrapException(this.apiClient.getAsync(CURRENT_USER_INFO_API, requestEntity, UserInfoResponse.class));
+	}
+
+	private static <T> CompletableFuture<T> wrapException(CompletableFuture<T> future) {
+		return future.handle((result, ex) -> {
+			if (ex != null) {
+				Throwable cause = ex instanceof CompletionException ? ex.getCause() : ex;
+				if (cause instanceof ApiException) {
+					throw (ApiException) cause;
+				}
+				if (cause instanceof AuthenticationException) {
+					throw (AuthenticationException) cause;
+				}
+				throw new AuthenticationException(cause);
+			}
+			return result;
+		});
+	}
+
+}
@@ -0,0 +1,269 @@
+package top.wecoding.iam.sdk.api;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.apache.hc.core5.http.HttpHeaders;
+import top.wecoding.iam.sdk.cache.UserCache;
+import top.wecoding.iam.sdk.client.AsyncApiClient;
+import top.wecoding.iam.sdk.client.param.Header;
+import top.wecoding.iam.sdk.client.param.Query;
+import top.wecoding.iam.sdk.client.retry.BackoffRetryStrategy;
+import top.wecoding.iam.sdk.exception.ApiException;
+import top.wecoding.iam.sdk.model.ApiResult;
+import top.wecoding.iam.sdk.model.ConditionalResponse;
+import top.wecoding.iam.sdk.model.UserInfo;
+import top.wecoding.iam.sdk.model.request.CreateUserRequest;
+import top.wecoding.iam.sdk.model.request.RequestHttpEntity;
+import top.wecoding.iam.sdk.model.request.UpdateUserRequest;
+import top.wecoding.iam.sdk.model.response.CreateUserResponse;
+import top.wecoding.iam.sdk.model.response.UpdateUserResponse;
+import top.wecoding.iam.sdk.model.response.UserInfoResponse;
+import top.wecoding.iam.sdk.util.Strings;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Non-blocking user management related API, the asynchronous counterpart of
+ * {@link UserApi}.
+ *
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+public class AsyncUserApi {
+
+	private static final String API_PREFIX = "/api/v1/users";
+
+	private static final String USER_ROUTE = API_PREFIX + "/{id}";
+
+	private static final String DISABLE_USER_ROUTE = USER_ROUTE + "/disable";
+
+	private static final String ENABLE_USER_ROUTE = USER_ROUTE + "/enable";
+
+	private static final Type CONDITIONAL_USER_INFO_TYPE = new TypeReference<ConditionalResponse<UserInfoResponse>>() {
+	}.getType();
+
+	private final AsyncApiClient apiClient;
+
+	public AsyncUserApi(AsyncApiClient apiClient) {
+		this.apiClient = apiClient;
+	}
+
+	public CompletableFuture<CreateUserResponse> createUser(CreateUserRequest createReq) {
+		return createUser(createReq, null);
+	}
+
+	/**
+	 * Create a user, sending the given idempotency key so that the request can be safely
+	 * retried when the server is unavailable or the connection fails.
+	 * @param createReq the user to create
+	 * @param idempotencyKey the key identifying the creation, reused across retries, or
+	 * null to create the user without one
+	 * @return the created user
+	 */
+	public CompletableFuture<CreateUserResponse> createUser(CreateUserRequest createReq, String idempotencyKey) {
+		final String[] authNames = new String[] { "basic", "bearer" };
+
+		Header header = idempotencyKey != null
+				? Header.newInstance().addParam(BackoffRetryStrategy.IDEMPOTENCY_KEY_HEADER, idempotencyKey)
+				: Header.EMPTY;
+
+		RequestHttpEntity requestEntity = new RequestHttpEntity(header, Query.EMPTY, createReq, authNames);
+		requestEntity.setRouteTemplate(API_PREFIX);
+
+		CompletableFuture<CreateUserResponse> future = this.apiClient.postAsync(API_PREFIX, requestEntity,
+				CreateUserResponse.class);
+		return wrapException(future.thenApply(response -> {
+			if (response != null) {
+				cacheUser(null, response.getCode(), response.getUserInfo());
+			}
+			return response;
+		}));
+	}
+
+	public CompletableFuture<UpdateUserResponse> updateUser(String user, UpdateUserRequest updateReq) {
+		final String[] authNames = new String[] { "basic", "bearer" };
+
+		RequestHttpEntity requestEntity = new RequestHttpEntity(Header.EMPTY, Query.EMPTY, updateReq, authNames);
+		requestEntity.setRouteTemplate(USER_ROUTE);
+
+		String api = Strings.format("{}/{}", API_PREFIX, user);
+
+		CompletableFuture<UpdateUserResponse> future = this.apiClient.putAsync(api, requestEntity,
+				UpdateUserResponse.class);
+		return wrapException(future.whenComplete((response, ex) -> {
+			if (ex != null || response == null || !cacheUser(user, response.getCode(), response.getUserInfo())) {
+				evictUser(user);
+			}
+		}));
+	}
+
+	public CompletableFuture<UserInfoResponse> getUserInfo(String userId) {
+		final String[] authNames = new String[] { "basic", "bearer" };
+
+		RequestHttpEntity requestEntity = new RequestHttpEntity(Header.EMPTY, Query.EMPTY, authNames);
+		requestEntity.setRouteTemplate(USER_ROUTE);
+		requestEntity.setIdempotentRead(true);
+
+		String api = Strings.format("{}/{}", API_PREFIX, userId);
+
+		UserCache userCache = this.apiClient.getUserCache();
+		if (userCache == null) {
+			return wrapException(this.apiClient.getAsync(api, requestEntity, UserInfoResponse.class));
+		}
+		UserInfo userInfo = userCache.getIfPresent(userId);
+		if (userInfo != null) {
+			return CompletableFuture.completedFuture(cachedUserInfo(userInfo));
+		}
+
+		// a user written or invalidated during the request is not cached
+		long stamp = userCache.stamp(userId);
+		// revalidate the stale user instead of downloading it again
+		UserCache.CachedUser stale = userCache.getForRevalidation(userId);
+		if (stale != null) {
+			requestEntity = new RequestHttpEntity(conditionalHeader(stale), Query.EMPTY, authNames);
+			requestEntity.setRouteTemplate(USER_ROUTE);
+			requestEntity.setIdempotentRead(true);
+		}
+		CompletableFuture<ConditionalResponse<UserInfoResponse>> future = this.apiClient.getAsync(api, requestEntity,
+				CONDITIONAL_USER_INFO_TYPE);
+		return wrapException(future.thenApply(response -> revalidated(userId, stale, stamp, response)));
+	}
+
+	public CompletableFuture<Void> deleteUser(String userId) {
+		final String[] authNames = new String[] { "basic", "bearer" };
+
+		RequestHttpEntity requestEntity = new RequestHttpEntity(Header.EMPTY, Query.EMPTY, userId, authNames);
+		requestEntity.setRouteTemplate(USER_ROUTE);
+
+		String api = Strings.format("{}/{}", API_PREFIX, userId);
+
+		CompletableFuture<ApiResult<?>> future = this.apiClient.deleteAsync(api, requestEntity, ApiResult.class);
+		return wrapException(
+				future.whenComplete((apiResult, ex) -> evictUser(userId)).thenAccept(AsyncUserApi::checkResult));
+	}
+
+	public CompletableFuture<Void> disableUser(String userId) {
+		final String[] authNames = new String[] { "basic", "bearer" };
+
+		RequestHttpEntity requestEntity = new RequestHttpEntity(Header.EMPTY, Query.EMPTY, authNames);
+		requestEntity.setRouteTemplate(DISABLE_USER_ROUTE);
+
+		String api = Strings.format("{}/{}/disable", API_PREFIX, userId);
+
+		CompletableFuture<ApiResult<?>> future = this.apiClient.getAsync(api, requestEntity, ApiResult.class);
+		return wrapException(
+				future.whenComplete((apiResult, ex) -> evictUser(userId)).thenAccept(AsyncUserApi::checkResult));
+	}
+
+	public CompletableFuture<Void> enableUser(String userId) {
+		final String[] authNames = new String[] { "basic", "bearer" };
+
+		RequestHttpEntity requestEntity = new RequestHttpEntity(Header.EMPTY, Query.EMPTY, authNames);
+		requestEntity.setRouteTemplate(ENABLE_USER_ROUTE);
+
+		String api = Strings.format("{}/{}/enable", API_PREFIX, userId);
+
+		CompletableFuture<ApiResult<?>> future = this.apiClient.getAsync(api, requestEntity, ApiResult.class);
+		return wrapException(
+				future.whenComplete((apiResult, ex) -> evictUser(userId)).thenAccept(AsyncUserApi::checkResult));
+	}
+
+	/**
+	 * Handle the answer of a conditional user request: a not modified user is served from
+	 * the cache, a modified one is cached with its new validators.
+	 */
+	private UserInfoResponse revalidated(String userId, UserCache.CachedUser stale, long stamp,
+			ConditionalResponse<UserInfoResponse> response) {
+		if (response == null) {
+			return null;
+		}
+		UserCache userCache = this.apiClient.getUserCache();
+		if (response.isNotModified()) {
+			if (stale == null) {
+				throw new ApiException("Not modified answer to an unconditional request");
+			}
+			userCache.revalidate(userId, stale);
+			return cachedUserInfo(stale.getUserInfo());
+		}
+		UserInfoResponse body = response.getBody();
+		if (body != null && ApiResult.isSuccessCode(body.getCode()) && body.getUserInfo() != null) {
+			userCache.put(userId, body.getUserInfo(), response.getETag(), response.getLastModified(), stamp);
+		}
+		return body;
+	}
+
+	/**
+	 * Fail when the server answered with an error code.
+	 */
+	private static void checkResult(ApiResult<?> apiResult) {
+		if (apiResult == null) {
+			throw new ApiException("No result in the response");
+		}
+		if (!ApiResult.isSuccessCode(apiResult)) {
+			throw new ApiException(apiResult.getCode(), apiResult.getMsg());
+		}
+	}
+
+	private static Header conditionalHeader(UserCache.CachedUser cached) {
+		Header header = Header.newInstance();
+		if (cached.getETag() != null) {
+			header.addParam(HttpHeaders.IF_NONE_MATCH, cached.getETag());
+		}
+		if (cached.getLastModified() != null) {
+			header.addParam(HttpHeaders.IF_MODIFIED_SINCE, cached.getLastModified());
+		}
+		return header;
+	}
+
+	private static UserInfoResponse cachedUserInfo(UserInfo userInfo) {
+		UserInfoResponse response = new UserInfoResponse();
+		response.setCode(ApiResult.SUCCESS_CODE);
+		response.setUserInfo(userInfo);
+		return response;
+	}
+
+	/**
+	 * Write the user through to the cache, if enabled.
+	 * @param userId the user id, or null to use the instance id of the user
+	 * @return whether the user was cached
+	 */
+	private boolean cacheUser(String userId, int code, UserInfo userInfo) {
+		UserCache userCache = this.apiClient.getUserCache();
+		if (userCache == null || !ApiResult.isSuccessCode(code) || userInfo == null) {
+			return false;
+		}
+		if (userId == null) {
+			if (userInfo.getMetadata() == null) {
+				return false;
+			}
+			userId = userInfo.getMetadata().getInstanceId();
+		}
+		if (userId == null) {
+			return false;
+		}
+		userCache.put(userId, userInfo);
+		return true;
+	}
+
+	private void evictUser(String userId) {
+		UserCache userCache = this.apiClient.getUserCache();
+		if (userCache != null) {
+			userCache.invalidate(userId);
+		}
+	}
+
+	private static <T> CompletableFuture<T> wrapException(CompletableFuture<T> future) {
+		return future.handle((result, ex) -> {
+			if (ex != null) {
+				Throwable cause = ex instanceof CompletionException ? ex.getCause() : ex;
+				if (cause instanceof ApiException) {
+					throw (ApiException) cause;
+				}
+				throw new ApiException(cause);
+			}
+			return result;
+		});
+	}
+
+}
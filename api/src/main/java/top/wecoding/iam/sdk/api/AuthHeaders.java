@@ -0,0 +1,46 @@
+package top.wecoding.iam.sdk.api;
+
+import top.wecoding.iam.sdk.client.ApiClient;
+import top.wecoding.iam.sdk.client.auth.Authentication;
+import top.wecoding.iam.sdk.model.TokenInfo;
+
+/**
+ * Resolves the credentials a request of an api client carries, the keys of the
+ * {@link top.wecoding.iam.sdk.cache.UserInfoCache}.
+ *
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+final class AuthHeaders {
+
+	private AuthHeaders() {
+	}
+
+	/**
+	 * Get the credentials of a request authenticated with the given schemes, without
+	 * requesting or refreshing a token. Like the {@code Authorization} header, the last
+	 * scheme with credentials wins.
+	 * @return the credentials, null if the request is anonymous or its token was not
+	 * obtained yet
+	 */
+	static String credentials(ApiClient apiClient, String[] authNames) {
+		String credentials = null;
+		for (String authName : authNames) {
+			Authentication authentication = apiClient.getAuthentication(authName);
+			String current = authentication != null ? authentication.getCredentials() : null;
+			if (current != null) {
+				credentials = current;
+			}
+		}
+		return credentials;
+	}
+
+	/**
+	 * Get the credentials of a request authenticated with the given token.
+	 * @return the header value, null if there is no token
+	 */
+	static String bearerCredentials(TokenInfo tokenInfo) {
+		return tokenInfo != null && tokenInfo.getAccessToken() != null ? "Bearer " + tokenInfo.getAccessToken() : null;
+	}
+
+}
@@ -16,22 +16,35 @@
 
 package top.wecoding.iam.sdk.api;
 
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.core5.http.HttpStatus;
+import top.wecoding.iam.sdk.cache.UserInfoCache;
 import top.wecoding.iam.sdk.client.ApiClient;
+import top.wecoding.iam.sdk.client.auth.StoredToken;
+import top.wecoding.iam.sdk.client.auth.TokenManager;
+import top.wecoding.iam.sdk.client.auth.TokenStore;
 import top.wecoding.iam.sdk.client.param.Header;
 import top.wecoding.iam.sdk.client.param.Query;
+import top.wecoding.iam.sdk.exception.ApiException;
 import top.wecoding.iam.sdk.exception.AuthenticationException;
+import top.wecoding.iam.sdk.model.TokenInfo;
 import top.wecoding.iam.sdk.model.request.AuthenticationRequest;
 import top.wecoding.iam.sdk.model.request.RequestHttpEntity;
 import top.wecoding.iam.sdk.model.response.AuthenticationResponse;
 import top.wecoding.iam.sdk.model.response.RefreshTokenResponse;
 import top.wecoding.iam.sdk.model.response.UserInfoResponse;
 
+import java.io.IOException;
+import java.time.Instant;
+
 /**
- * Authentication related API.
+ * Authentication related API. Failures of the api client are thrown as is, as an
+ * {@link ApiException}, and other failures as an {@link AuthenticationException}.
  *
  * @author Wecoding Liu liu
  * @since 0.8
  */
+@Slf4j
 public class AuthenticationApi {
 
 	private static final String AUTHENTICATE_API = "/api/v1/login";
@@ -44,8 +57,21 @@ public class AuthenticationApi {
 
 	private final ApiClient apiClient;
 
+	private final UserInfoCache userInfoCache;
+
 	public AuthenticationApi(ApiClient apiClient) {
+		this(apiClient, null);
+	}
+
+	/**
+	 * Create the authentication API.
+	 * @param apiClient the api client
+	 * @param userInfoCache caches the current user info by credentials, may be shared by
+	 * the views of the api client
+	 */
+	public AuthenticationApi(ApiClient apiClient, UserInfoCache userInfoCache) {
 		this.apiClient = apiClient;
+		this.userInfoCache = userInfoCache;
 	}
 
 	public AuthenticationResponse authenticate(String username, String password) {
@@ -56,9 +82,13 @@ public class AuthenticationApi {
 		final String[] authNames = new String[] {};
 
 		RequestHttpEntity requestEntity = new RequestHttpEntity(Header.EMPTY, Query.EMPTY, request, authNames);
+		requestEntity.setRouteTemplate(AUTHENTICATE_API);
 		try {
 			return this.apiClient.post(AUTHENTICATE_API, requestEntity, AuthenticationResponse.class);
 		}
+		catch (ApiException | AuthenticationException ex) {
+			throw ex;
+		}
 		catch (Exception ex) {
 			throw new AuthenticationException(ex);
 		}
@@ -72,21 +102,139 @@ public class AuthenticationApi {
 		header.addParam(REFRESH_TOKEN_HEADER, refreshToken);
 
 		RequestHttpEntity requestEntity = new RequestHttpEntity(header, Query.EMPTY, authNames);
+		requestEntity.setRouteTemplate(REFRESH_TOKEN_API);
 		try {
 			return this.apiClient.get(REFRESH_TOKEN_API, requestEntity, RefreshTokenResponse.class);
 		}
+		catch (ApiException | AuthenticationException ex) {
+			throw ex;
+		}
 		catch (Exception ex) {
 			throw new AuthenticationException(ex);
 		}
 	}
 
+	/**
+	 * Refresh the given token, discarding the cached user info of its access token.
+	 * @param tokenInfo the token to refresh
+	 * @return the refreshed token
+	 */
+	public RefreshTokenResponse refreshToken(TokenInfo tokenInfo) {
+		RefreshTokenResponse response = refreshToken(tokenInfo.getRefreshToken());
+		if (this.userInfoCache != null) {
+			// the rotated token must not be resolved from the cache anymore
+			this.userInfoCache.invalidate(AuthHeaders.bearerCredentials(tokenInfo));
+		}
+		return response;
+	}
+
+	/**
+	 * Authenticate the bearer requests of the api client with the given token, refreshed
+	 * through {@link #refreshToken(TokenInfo)} before it expires.
+	 * @param tokenInfo the token, typically issued by {@link #authenticate}
+	 * @return the token manager installed on the api client
+	 */
+	public TokenManager manageToken(TokenInfo tokenInfo) {
+		if (tokenInfo == null) {
+			throw new AuthenticationException("No access token was issued.");
+		}
+		TokenManager tokenManager = new TokenManager(current -> refreshToken(current).getTokenInfo(), tokenInfo);
+		this.apiClient.setTokenManager(tokenManager);
+		return tokenManager;
+	}
+
+	/**
+	 * Authenticate the bearer requests of the api client with a token persisted in the
+	 * given store, so that restarts do not log in again: a stored token that is still
+	 * valid is reused, an expired one is refreshed, and only when neither works does the
+	 * user log in. A stored token whose refresh is rejected is cleared from the store.
+	 * Every token the manager installs is stored.
+	 * @param request the credentials of the user
+	 * @param tokenStore the token store
+	 * @return the token manager installed on the api client
+	 */
+	public TokenManager manageToken(AuthenticationRequest request, TokenStore tokenStore) {
+		TokenInfo tokenInfo = restoreToken(tokenStore);
+		if (tokenInfo == null) {
+			tokenInfo = authenticate(request).getTokenInfo();
+		}
+		TokenManager tokenManager = new TokenManager(current -> refreshToken(current).getTokenInfo(), tokenInfo,
+				TokenManager.DEFAULT_REFRESH_RATIO, tokenStore);
+		this.apiClient.setTokenManager(tokenManager);
+		return tokenManager;
+	}
+
+	private TokenInfo restoreToken(TokenStore tokenStore) {
+		StoredToken storedToken;
+		try {
+			storedToken = tokenStore.load();
+		}
+		catch (IOException ex) {
+			log.warn("Failed to load the stored token", ex);
+			return null;
+		}
+		if (storedToken == null || storedToken.getTokenInfo() == null) {
+			return null;
+		}
+		TokenInfo tokenInfo = storedToken.getRemainingToken(Instant.now());
+		if (tokenInfo != null || storedToken.getTokenInfo().getRefreshToken() == null) {
+			return tokenInfo;
+		}
+		try {
+			TokenInfo refreshed = refreshToken(storedToken.getTokenInfo()).getTokenInfo();
+			if (refreshed == null) {
+				clearToken(tokenStore);
+			}
+			return refreshed;
+		}
+		catch (ApiException ex) {
+			log.debug("Failed to refresh the stored token", ex);
+			if (isRejection(ex)) {
+				clearToken(tokenStore);
+			}
+			return null;
+		}
+		catch (AuthenticationException ex) {
+			log.debug("Failed to refresh the stored token", ex);
+			return null;
+		}
+	}
+
+	private static void clearToken(TokenStore tokenStore) {
+		// the refresh token was rejected, do not try it again on the next restart
+		try {
+			tokenStore.clear();
+		}
+		catch (IOException ex) {
+			log.warn("Failed to clear the stored token", ex);
+		}
+	}
+
+	private static boolean isRejection(ApiException ex) {
+		// the server, not the transport or a guard of the client, refused the token
+		return ex.getCode() >= HttpStatus.SC_BAD_REQUEST && ex.getCode() < HttpStatus.SC_SERVER_ERROR
+				&& ex.getCode() != HttpStatus.SC_TOO_MANY_REQUESTS;
+	}
+
 	public UserInfoResponse currentUserInfo() {
 		final String[] authNames = new String[] { "basic", "bearer" };
 
 		RequestHttpEntity requestEntity = new RequestHttpEntity(Header.EMPTY, Query.EMPTY, authNames);
+		requestEntity.setRouteTemplate(CURRENT_USER_INFO_API);
+		requestEntity.setIdempotentRead(true);
 		try {
+			if (this.userInfoCache != null) {
+				String credentials = AuthHeaders.credentials(this.apiClient, authNames);
+				if (credentials != null) {
+					return this.userInfoCache.get(credentials,
+							() -> this.apiClient.get(CURRENT_USER_INFO_API, requestEntity, UserInfoResponse.class));
+				}
+			}
 			return this.apiClient.get(CURRENT_USER_INFO_API, requestEntity, UserInfoResponse.class);
 		}
+		catch (ApiException | AuthenticationException ex) {
+			throw ex;
+		}
 		catch (Exception ex) {
 			throw new AuthenticationException(ex);
 		}
@@ -0,0 +1,156 @@
+package top.wecoding.iam.sdk.api;
+
+import top.wecoding.iam.sdk.bulk.BulkExecutor;
+import top.wecoding.iam.sdk.bulk.BulkListener;
+import top.wecoding.iam.sdk.bulk.BulkOptions;
+import top.wecoding.iam.sdk.bulk.BulkResult;
+import top.wecoding.iam.sdk.client.AsyncApiClient;
+import top.wecoding.iam.sdk.exception.ApiException;
+import top.wecoding.iam.sdk.model.ApiResult;
+import top.wecoding.iam.sdk.model.request.CreateUserRequest;
+import top.wecoding.iam.sdk.model.request.UpdateUserRequest;
+import top.wecoding.iam.sdk.model.response.CreateUserResponse;
+import top.wecoding.iam.sdk.model.response.UpdateUserResponse;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Bulk user management: each operation runs on all the users of a collection or stream,
+ * pipelining the requests of {@link AsyncUserApi} over a bounded window. The failures of
+ * single users, including the answers with an error code, are recorded in the
+ * {@link BulkResult} and reported to the {@link BulkListener}, they never abort the other
+ * users.
+ *
+ * <p>
+ * The window should not exceed the connections per route of the client, unless it uses
+ * HTTP/2.
+ *
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+public class BulkUserApi {
+
+	private final AsyncUserApi userApi;
+
+	private final BulkExecutor executor;
+
+	public BulkUserApi(AsyncApiClient apiClient) {
+		this(apiClient, BulkOptions.ofDefaults());
+	}
+
+	public BulkUserApi(AsyncApiClient apiClient, BulkOptions options) {
+		this.userApi = new AsyncUserApi(apiClient);
+		this.executor = new BulkExecutor(options);
+	}
+
+	/**
+	 * Create the users. Each creation carries its own idempotency key, so that it can be
+	 * retried safely.
+	 * @param createReqs the users to create
+	 * @param listener receives the created users and the progress, may be null
+	 * @return the summary
+	 */
+	public BulkResult<CreateUserRequest, CreateUserResponse> createUsers(Iterable<CreateUserRequest> createReqs,
+			BulkListener<CreateUserRequest, CreateUserResponse> listener) {
+		return this.executor.execute(createReqs.iterator(),
+				createReq -> this.userApi.createUser(createReq, UUID.randomUUID().toString())
+					.thenApply(BulkUserApi::checked),
+				listener);
+	}
+
+	public BulkResult<CreateUserRequest, CreateUserResponse> createUsers(Stream<CreateUserRequest> createReqs,
+			BulkListener<CreateUserRequest, CreateUserResponse> listener) {
+		return createUsers(createReqs::iterator, listener);
+	}
+
+	/**
+	 * Update the users.
+	 * @param updateReqs the updates, keyed by user id
+	 * @param listener receives the updated users and the progress, may be null
+	 * @return the summary
+	 */
+	public BulkResult<Map.Entry<String, UpdateUserRequest>, UpdateUserResponse> updateUsers(
+			Iterable<Map.Entry<String, UpdateUserRequest>> updateReqs,
+			BulkListener<Map.Entry<String, UpdateUserRequest>, UpdateUserResponse> listener) {
+		return this.executor.execute(updateReqs.iterator(),
+				updateReq -> this.userApi.updateUser(updateReq.getKey(), updateReq.getValue())
+					.thenApply(BulkUserApi::checked),
+				listener);
+	}
+
+	public BulkResult<Map.Entry<String, UpdateUserRequest>, UpdateUserResponse> updateUsers(
+			Stream<Map.Entry<String, UpdateUserRequest>> updateReqs,
+			BulkListener<Map.Entry<String, UpdateUserRequest>, UpdateUserResponse> listener) {
+		return updateUsers(updateReqs::iterator, listener);
+	}
+
+	/**
+	 * Delete the users.
+	 * @param userIds the ids of the users
+	 * @param listener receives the outcome of each user and the progress, may be null
+	 * @return the summary
+	 */
+	public BulkResult<String, Void> deleteUsers(Iterable<String> userIds, BulkListener<String, Void> listener) {
+		return this.executor.execute(userIds.iterator(), this.userApi::deleteUser, listener);
+	}
+
+	public BulkResult<String, Void> deleteUsers(Stream<String> userIds, BulkListener<String, Void> listener) {
+		return deleteUsers(userIds::iterator, listener);
+	}
+
+	/**
+	 * Enable the users.
+	 * @param userIds the ids of the users
+	 * @param listener receives the outcome of each user and the progress, may be null
+	 * @return the summary
+	 */
+	public BulkResult<String, Void> enableUsers(Iterable<String> userIds, BulkListener<String, Void> listener) {
+		return this.executor.execute(userIds.iterator(), this.userApi::enableUser, listener);
+	}
+
+	public BulkResult<String, Void> enableUsers(Stream<String> userIds, BulkListener<String, Void> listener) {
+		return enableUsers(userIds::iterator, listener);
+	}
+
+	/**
+	 * Disable the users.
+	 * @param userIds the ids of the users
+	 * @param listener receives the outcome of each user and the progress, may be null
+	 * @return the summary
+	 */
+	public BulkResult<String, Void> disableUsers(Iterable<String> userIds, BulkListener<String, Void> listener) {
+		return this.executor.execute(userIds.iterator(), this.userApi::disableUser, listener);
+	}
+
+	public BulkResult<String, Void> disableUsers(Stream<String> userIds, BulkListener<String, Void> listener) {
+		return disableUsers(userIds::iterator, listener);
+	}
+
+	private static CreateUserResponse checked(CreateUserResponse response) {
+		checkCode(response != null, response != null ? response.getCode() : 0,
+				response != null ? response.getMsg() : null);
+		return response;
+	}
+
+	private static UpdateUserResponse checked(UpdateUserResponse response) {
+		checkCode(response != null, response != null ? response.getCode() : 0,
+				response != null ? response.getMsg() : null);
+		return response;
+	}
+
+	/**
+	 * Fail the item when the server answered with an error code, so that it is recorded
+	 * as a failure.
+	 */
+	private static void checkCode(boolean answered, int code, String msg) {
+		if (!answered) {
+			throw new ApiException("No result in the response");
+		}
+		if (!ApiResult.isSuccessCode(code)) {
+			throw new ApiException(code, msg);
+		}
+	}
+
+}
@@ -1,18 +1,33 @@
 package top.wecoding.iam.sdk.api;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.apache.hc.core5.http.HttpHeaders;
+import top.wecoding.iam.sdk.cache.UserCache;
 import top.wecoding.iam.sdk.client.ApiClient;
 import top.wecoding.iam.sdk.client.param.Header;
 import top.wecoding.iam.sdk.client.param.Query;
+import top.wecoding.iam.sdk.client.retry.BackoffRetryStrategy;
 import top.wecoding.iam.sdk.exception.ApiException;
 import top.wecoding.iam.sdk.model.ApiResult;
+import top.wecoding.iam.sdk.model.ConditionalResponse;
+import top.wecoding.iam.sdk.model.UserInfo;
+import top.wecoding.iam.sdk.model.UserPage;
 import top.wecoding.iam.sdk.model.request.CreateUserRequest;
+import top.wecoding.iam.sdk.model.request.ListUsersRequest;
 import top.wecoding.iam.sdk.model.request.RequestHttpEntity;
 import top.wecoding.iam.sdk.model.request.UpdateUserRequest;
 import top.wecoding.iam.sdk.model.response.CreateUserResponse;
+import top.wecoding.iam.sdk.model.response.ListUsersResponse;
 import top.wecoding.iam.sdk.model.response.UpdateUserResponse;
 import top.wecoding.iam.sdk.model.response.UserInfoResponse;
 import top.wecoding.iam.sdk.util.Strings;
 
+import java.lang.reflect.Type;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 /**
  * User management related API.
  *
@@ -23,6 +38,15 @@ public class UserApi {
 
 	private static final String API_PREFIX = "/api/v1/users";
 
+	private static final String USER_ROUTE = API_PREFIX + "/{id}";
+
+	private static final String DISABLE_USER_ROUTE = USER_ROUTE + "/disable";
+
+	private static final String ENABLE_USER_ROUTE = USER_ROUTE + "/enable";
+
+	private static final Type CONDITIONAL_USER_INFO_TYPE = new TypeReference<ConditionalResponse<UserInfoResponse>>() {
+	}.getType();
+
 	private final ApiClient apiClient;
 
 	public UserApi(ApiClient apiClient) {
@@ -30,11 +54,35 @@ public class UserApi {
 	}
 
 	public CreateUserResponse createUser(CreateUserRequest createReq) {
+		return createUser(createReq, null);
+	}
+
+	/**
+	 * Create a user, sending the given idempotency key so that the request can be safely
+	 * retried when the server is unavailable or the connection fails.
+	 * @param createReq the user to create
+	 * @param idempotencyKey the key identifying the creation, reused across retries, or
+	 * null to create the user without one
+	 * @return the created user
+	 */
+	public CreateUserResponse createUser(CreateUserRequest createReq, String idempotencyKey) {
 		final String[] authNames = new String[] { "basic", "bearer" };
 
-		RequestHttpEntity requestEntity = new RequestHttpEntity(Header.EMPTY, Query.EMPTY, createReq, authNames);
+		Header header = idempotencyKey != null
+				? Header.newInstance().addParam(BackoffRetryStrategy.IDEMPOTENCY_KEY_HEADER, idempotencyKey)
+				: Header.EMPTY;
+
+		RequestHttpEntity requestEntity = new RequestHttpEntity(header, Query.EMPTY, createReq, authNames);
+		requestEntity.setRouteTemplate(API_PREFIX);
 		try {
-			return this.apiClient.post(API_PREFIX, requestEntity, CreateUserResponse.class);
+			CreateUserResponse response = this.apiClient.post(API_PREFIX, requestEntity, CreateUserResponse.class);
+			if (response != null) {
+				cacheUser(null, response.getCode(), response.getUserInfo());
+			}
+			return response;
+		}
+		catch (ApiException ex) {
+			throw ex;
 		}
 		catch (Exception ex) {
 			throw new ApiException(ex);
@@ -45,13 +93,23 @@ public class UserApi {
 		final String[] authNames = new String[] { "basic", "bearer" };
 
 		RequestHttpEntity requestEntity = new RequestHttpEntity(Header.EMPTY, Query.EMPTY, updateReq, authNames);
+		requestEntity.setRouteTemplate(USER_ROUTE);
 
 		String api = Strings.format("{}/{}", API_PREFIX, user);
 
 		try {
-			return this.apiClient.put(api, requestEntity, UpdateUserResponse.class);
+			UpdateUserResponse response = this.apiClient.put(api, requestEntity, UpdateUserResponse.class);
+			if (response == null || !cacheUser(user, response.getCode(), response.getUserInfo())) {
+				evictUser(user);
+			}
+			return response;
+		}
+		catch (ApiException ex) {
+			evictUser(user);
+			throw ex;
 		}
 		catch (Exception ex) {
+			evictUser(user);
 			throw new ApiException(ex);
 		}
 	}
@@ -60,21 +118,112 @@ public class UserApi {
 		final String[] authNames = new String[] { "basic", "bearer" };
 
 		RequestHttpEntity requestEntity = new RequestHttpEntity(Header.EMPTY, Query.EMPTY, authNames);
+		requestEntity.setRouteTemplate(USER_ROUTE);
+		requestEntity.setIdempotentRead(true);
 
 		String api = Strings.format("{}/{}", API_PREFIX, userId);
 
+		UserCache userCache = this.apiClient.getUserCache();
+		if (userCache == null) {
+			try {
+				return this.apiClient.get(api, requestEntity, UserInfoResponse.class);
+			}
+			catch (ApiException ex) {
+				throw ex;
+			}
+			catch (Exception ex) {
+				throw new ApiException(ex);
+			}
+		}
+		UserInfo userInfo = userCache.getIfPresent(userId);
+		if (userInfo != null) {
+			return cachedUserInfo(userInfo);
+		}
+
+		// a user written or invalidated during the request is not cached
+		long stamp = userCache.stamp(userId);
+		// revalidate the stale user instead of downloading it again
+		UserCache.CachedUser stale = userCache.getForRevalidation(userId);
+		if (stale != null) {
+			requestEntity = new RequestHttpEntity(conditionalHeader(stale), Query.EMPTY, authNames);
+			requestEntity.setRouteTemplate(USER_ROUTE);
+			requestEntity.setIdempotentRead(true);
+		}
 		try {
-			return this.apiClient.get(api, requestEntity, UserInfoResponse.class);
+			ConditionalResponse<UserInfoResponse> response = this.apiClient.get(api, requestEntity,
+					CONDITIONAL_USER_INFO_TYPE);
+			return revalidated(userId, stale, stamp, response);
+		}
+		catch (ApiException ex) {
+			throw ex;
 		}
 		catch (Exception ex) {
 			throw new ApiException(ex);
 		}
 	}
 
+	/**
+	 * Get a page of the users matching the query.
+	 * @param listReq the filter, page size and page token
+	 * @return the page
+	 */
+	public UserPage listUserPage(ListUsersRequest listReq) {
+		final String[] authNames = new String[] { "basic", "bearer" };
+
+		Query query = Query.newInstance();
+		if (listReq.getFilter() != null) {
+			query.addParam("filter", listReq.getFilter());
+		}
+		if (listReq.getPageSize() != null) {
+			query.addParam("page_size", listReq.getPageSize());
+		}
+		if (listReq.getPageToken() != null) {
+			query.addParam("page_token", listReq.getPageToken());
+		}
+
+		RequestHttpEntity requestEntity = new RequestHttpEntity(Header.EMPTY, query, authNames);
+		requestEntity.setRouteTemplate(API_PREFIX);
+		requestEntity.setIdempotentRead(true);
+
+		try {
+			ListUsersResponse response = this.apiClient.get(API_PREFIX, requestEntity, ListUsersResponse.class);
+			if (response == null || response.getUserPage() == null) {
+				throw new ApiException("No user page in the response");
+			}
+			return response.getUserPage();
+		}
+		catch (ApiException ex) {
+			throw ex;
+		}
+		catch (Exception ex) {
+			throw new ApiException(ex);
+		}
+	}
+
+	public Stream<UserInfo> listUsers(String filter) {
+		return listUsers(ListUsersRequest.builder().filter(filter).build());
+	}
+
+	/**
+	 * List the users matching the query, across all the pages. The pages are fetched
+	 * lazily, each one prefetched while the previous one is consumed, so memory stays
+	 * bounded by two pages. Close the stream to stop early.
+	 * @param listReq the filter and page size, the page token of the first page
+	 * @return the users
+	 */
+	public Stream<UserInfo> listUsers(ListUsersRequest listReq) {
+		UserPageIterator iterator = new UserPageIterator(listReq.getPageToken(),
+				pageToken -> listUserPage(listReq.toBuilder().pageToken(pageToken).build()));
+		return StreamSupport
+			.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+			.onClose(iterator::close);
+	}
+
 	public void deleteUser(String userId) {
 		final String[] authNames = new String[] { "basic", "bearer" };
 
 		RequestHttpEntity requestEntity = new RequestHttpEntity(Header.EMPTY, Query.EMPTY, userId, authNames);
+		requestEntity.setRouteTemplate(USER_ROUTE);
 
 		String api = Strings.format("{}/{}", API_PREFIX, userId);
 
@@ -84,39 +233,131 @@ public class UserApi {
 				throw new ApiException(apiResult.getCode(), apiResult.getMsg());
 			}
 		}
+		catch (ApiException ex) {
+			throw ex;
+		}
 		catch (Exception ex) {
 			throw new ApiException(ex);
 		}
+		finally {
+			evictUser(userId);
+		}
 	}
 
 	public void disableUser(String userId) {
 		final String[] authNames = new String[] { "basic", "bearer" };
 
 		RequestHttpEntity requestEntity = new RequestHttpEntity(Header.EMPTY, Query.EMPTY, authNames);
+		requestEntity.setRouteTemplate(DISABLE_USER_ROUTE);
 
 		String api = Strings.format("{}/{}/disable", API_PREFIX, userId);
 
 		try {
 			this.apiClient.get(api, requestEntity, ApiResult.class);
 		}
+		catch (ApiException ex) {
+			throw ex;
+		}
 		catch (Exception ex) {
 			throw new ApiException(ex);
 		}
+		finally {
+			evictUser(userId);
+		}
 	}
 
 	public void enableUser(String userId) {
 		final String[] authNames = new String[] { "basic", "bearer" };
 
 		RequestHttpEntity requestEntity = new RequestHttpEntity(Header.EMPTY, Query.EMPTY, authNames);
+		requestEntity.setRouteTemplate(ENABLE_USER_ROUTE);
 
 		String api = Strings.format("{}/{}/enable", API_PREFIX, userId);
 
 		try {
 			this.apiClient.get(api, requestEntity, ApiResult.class);
 		}
+		catch (ApiException ex) {
+			throw ex;
+		}
 		catch (Exception ex) {
 			throw new ApiException(ex);
 		}
+		finally {
+			evictUser(userId);
+		}
+	}
+
+	/**
+	 * Handle the answer of a conditional user request: a not modified user is served from
+	 * the cache, a modified one is cached with its new validators.
+	 */
+	private UserInfoResponse revalidated(String userId, UserCache.CachedUser stale, long stamp,
+			ConditionalResponse<UserInfoResponse> response) {
+		if (response == null) {
+			return null;
+		}
+		UserCache userCache = this.apiClient.getUserCache();
+		if (response.isNotModified()) {
+			if (stale == null) {
+				throw new ApiException("Not modified answer to an unconditional request");
+			}
+			userCache.revalidate(userId, stale);
+			return cachedUserInfo(stale.getUserInfo());
+		}
+		UserInfoResponse body = response.getBody();
+		if (body != null && ApiResult.isSuccessCode(body.getCode()) && body.getUserInfo() != null) {
+			userCache.put(userId, body.getUserInfo(), response.getETag(), response.getLastModified(), stamp);
+		}
+		return body;
+	}
+
+	private static Header conditionalHeader(UserCache.CachedUser cached) {
+		Header header = Header.newInstance();
+		if (cached.getETag() != null) {
+			header.addParam(HttpHeaders.IF_NONE_MATCH, cached.getETag());
+		}
+		if (cached.getLastModified() != null) {
+			header.addParam(HttpHeaders.IF_MODIFIED_SINCE, cached.getLastModified());
+		}
+		return header;
+	}
+
+	private static UserInfoResponse cachedUserInfo(UserInfo userInfo) {
+		UserInfoResponse response = new UserInfoResponse();
+		response.setCode(ApiResult.SUCCESS_CODE);
+		response.setUserInfo(userInfo);
+		return response;
+	}
+
+	/**
+	 * Write the user through to the cache, if enabled.
+	 * @param userId the user id, or null to use the instance id of the user
+	 * @return whether the user was cached
+	 */
+	private boolean cacheUser(String userId, int code, UserInfo userInfo) {
+		UserCache userCache = this.apiClient.getUserCache();
+		if (userCache == null || !ApiResult.isSuccessCode(code) || userInfo == null) {
+			return false;
+		}
+		if (userId == null) {
+			if (userInfo.getMetadata() == null) {
+				return false;
+			}
+			userId = userInfo.getMetadata().getInstanceId();
+		}
+		if (userId == null) {
+			return false;
+		}
+		userCache.put(userId, userInfo);
+		return true;
+	}
+
+	private void evictUser(String userId) {
+		UserCache userCache = this.apiClient.getUserCache();
+		if (userCache != null) {
+			userCache.invalidate(userId);
+		}
 	}
 
 }
@@ -0,0 +1,167 @@
+package top.wecoding.iam.sdk.api;
+
+import top.wecoding.iam.sdk.client.AsyncApiClient;
+import top.wecoding.iam.sdk.model.response.UserInfoResponse;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Loads users by id in batches, e.g. for the resolvers of a GraphQL query: the
+ * {@link #load} calls of a short window, or up to the maximum batch size, are collected
+ * and sent together, and each caller receives its own future.
+ *
+ * <p>
+ * An id loaded several times in the same batch is requested once. As the API has no batch
+ * endpoint, a batch is sent as a burst of pipelined {@link AsyncUserApi} requests, which
+ * are served from the user cache when it is enabled.
+ *
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+public class UserLoader {
+
+	public static final Duration DEFAULT_BATCH_WINDOW = Duration.ofMillis(2);
+
+	public static final int DEFAULT_MAX_BATCH_SIZE = 100;
+
+	private static final ScheduledExecutorService DISPATCH_SCHEDULER = Executors
+		.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "iam-user-loader");
+			thread.setDaemon(true);
+			return thread;
+		});
+
+	private final AsyncUserApi userApi;
+
+	private final long batchWindowNanos;
+
+	private final int maxBatchSize;
+
+	// guarded by this
+	private Map<String, CompletableFuture<UserInfoResponse>> batch = new LinkedHashMap<>();
+
+	private ScheduledFuture<?> scheduledDispatch;
+
+	public UserLoader(AsyncApiClient apiClient) {
+		this(apiClient, DEFAULT_BATCH_WINDOW, DEFAULT_MAX_BATCH_SIZE);
+	}
+
+	/**
+	 * Create a user loader.
+	 * @param apiClient the client sending the requests
+	 * @param batchWindow how long the first load of a batch waits for the next ones
+	 * @param maxBatchSize the number of ids dispatching a batch before the end of its
+	 * window
+	 */
+	public UserLoader(AsyncApiClient apiClient, Duration batchWindow, int maxBatchSize) {
+		if (maxBatchSize <= 0) {
+			throw new IllegalArgumentException("maxBatchSize must be positive.");
+		}
+		this.userApi = new AsyncUserApi(apiClient);
+		this.batchWindowNanos = batchWindow.toNanos();
+		this.maxBatchSize = maxBatchSize;
+	}
+
+	/**
+	 * Load the user with the next batch.
+	 * @param userId the user id
+	 * @return the user, completed exceptionally with an {@code ApiException} when it
+	 * could not be loaded
+	 */
+	public CompletableFuture<UserInfoResponse> load(String userId) {
+		if (userId == null) {
+			throw new IllegalArgumentException("userId cannot be null.");
+		}
+		CompletableFuture<UserInfoResponse> future;
+		Map<String, CompletableFuture<UserInfoResponse>> fullBatch = null;
+		synchronized (this) {
+			future = this.batch.get(userId);
+			if (future == null) {
+				future = new CompletableFuture<>();
+				this.batch.put(userId, future);
+				if (this.batch.size() >= this.maxBatchSize) {
+					fullBatch = takeBatch();
+				}
+				else if (this.batch.size() == 1) {
+					this.scheduledDispatch = DISPATCH_SCHEDULER.schedule(this::dispatch, this.batchWindowNanos,
+							TimeUnit.NANOSECONDS);
+				}
+			}
+		}
+		if (fullBatch != null) {
+			send(fullBatch);
+		}
+		// a future per caller, so that one cannot complete or cancel the others
+		return future.thenApply(Function.identity());
+	}
+
+	/**
+	 * Load the users with the next batch.
+	 * @param userIds the user ids
+	 * @return the users keyed by id, in the order of the ids
+	 */
+	public CompletableFuture<Map<String, UserInfoResponse>> loadMany(Collection<String> userIds) {
+		Map<String, CompletableFuture<UserInfoResponse>> futures = new LinkedHashMap<>();
+		for (String userId : userIds) {
+			futures.computeIfAbsent(userId, this::load);
+		}
+		return CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[0])).thenApply(ignored -> {
+			Map<String, UserInfoResponse> users = new LinkedHashMap<>();
+			futures.forEach((userId, future) -> users.put(userId, future.join()));
+			return users;
+		});
+	}
+
+	/**
+	 * Send the pending batch now, without waiting for the end of its window.
+	 */
+	public void dispatch() {
+		Map<String, CompletableFuture<UserInfoResponse>> pending;
+		synchronized (this) {
+			pending = takeBatch();
+		}
+		send(pending);
+	}
+
+	private Map<String, CompletableFuture<UserInfoResponse>> takeBatch() {
+		if (this.scheduledDispatch != null) {
+			this.scheduledDispatch.cancel(false);
+			this.scheduledDispatch = null;
+		}
+		Map<String, CompletableFuture<UserInfoResponse>> pending = this.batch;
+		this.batch = new LinkedHashMap<>();
+		return pending;
+	}
+
+	private void send(Map<String, CompletableFuture<UserInfoResponse>> pending) {
+		pending.forEach((userId, future) -> {
+			CompletableFuture<UserInfoResponse> response;
+			try {
+				response = this.userApi.getUserInfo(userId);
+			}
+			catch (RuntimeException ex) {
+				response = CompletableFuture.failedFuture(ex);
+			}
+			response.whenComplete((userInfo, ex) -> {
+				if (ex != null) {
+					future.completeExceptionally(
+							ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+				}
+				else {
+					future.complete(userInfo);
+				}
+			});
+		});
+	}
+
+}
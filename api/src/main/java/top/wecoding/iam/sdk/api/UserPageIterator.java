@@ -0,0 +1,112 @@
+package top.wecoding.iam.sdk.api;
+
+import top.wecoding.iam.sdk.exception.ApiException;
+import top.wecoding.iam.sdk.model.UserInfo;
+import top.wecoding.iam.sdk.model.UserPage;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Iterates over the users of all the pages of a query. The next page is fetched in the
+ * background as soon as the current one is received, so at most two pages are held in
+ * memory however many users match.
+ *
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+final class UserPageIterator implements Iterator<UserInfo>, AutoCloseable {
+
+	private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+	private static final ExecutorService PREFETCH_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+		Thread thread = new Thread(runnable, "iam-page-prefetch-" + THREAD_COUNT.incrementAndGet());
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final Function<String, UserPage> pageFetcher;
+
+	private final String firstPageToken;
+
+	private Iterator<UserInfo> current = Collections.emptyIterator();
+
+	private CompletableFuture<UserPage> next;
+
+	private boolean started;
+
+	private boolean closed;
+
+	/**
+	 * Create an iterator, the first page is fetched by the first call to
+	 * {@link #hasNext()}.
+	 * @param firstPageToken the token of the first page, may be null
+	 * @param pageFetcher fetches the page of the given token
+	 */
+	UserPageIterator(String firstPageToken, Function<String, UserPage> pageFetcher) {
+		this.firstPageToken = firstPageToken;
+		this.pageFetcher = pageFetcher;
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (!this.started && !this.closed) {
+			this.started = true;
+			this.next = prefetch(this.firstPageToken);
+		}
+		while (!this.current.hasNext()) {
+			if (this.next == null || this.closed) {
+				return false;
+			}
+			UserPage page = await(this.next);
+			this.next = page.getNextPageToken() != null ? prefetch(page.getNextPageToken()) : null;
+			this.current = page.getUsers() != null ? page.getUsers().iterator() : Collections.emptyIterator();
+		}
+		return true;
+	}
+
+	@Override
+	public UserInfo next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		return this.current.next();
+	}
+
+	/**
+	 * Stop iterating, discarding the prefetched page.
+	 */
+	@Override
+	public void close() {
+		this.closed = true;
+		this.current = Collections.emptyIterator();
+		if (this.next != null) {
+			this.next.cancel(false);
+			this.next = null;
+		}
+	}
+
+	private CompletableFuture<UserPage> prefetch(String pageToken) {
+		return CompletableFuture.supplyAsync(() -> this.pageFetcher.apply(pageToken), PREFETCH_EXECUTOR);
+	}
+
+	private static UserPage await(CompletableFuture<UserPage> page) {
+		try {
+			return page.join();
+		}
+		catch (CompletionException ex) {
+			if (ex.getCause() instanceof ApiException) {
+				throw (ApiException) ex.getCause();
+			}
+			throw new ApiException(ex.getCause());
+		}
+	}
+
+}
@@ -0,0 +1,191 @@
+package top.wecoding.iam.sdk.bulk;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+
+/**
+ * Runs an asynchronous operation on every item of a source, with at most
+ * {@link BulkOptions#getConcurrency()} operations in flight.
+ *
+ * <p>
+ * The source is read lazily, one item per free slot of the window, so a source of
+ * millions of items, e.g. a stream over a file or a database cursor, is never loaded in
+ * memory. A failed item is recorded and the next items go on.
+ *
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+@Slf4j
+public class BulkExecutor {
+
+	private final BulkOptions options;
+
+	public BulkExecutor() {
+		this(BulkOptions.ofDefaults());
+	}
+
+	public BulkExecutor(BulkOptions options) {
+		if (options.getConcurrency() <= 0) {
+			throw new IllegalArgumentException("concurrency must be positive.");
+		}
+		this.options = options;
+	}
+
+	/**
+	 * Run the operation on every item of the source, blocking until all of them
+	 * completed. The calling thread reads the source and submits the operations; when it
+	 * is interrupted, the remaining items are not submitted.
+	 * @param source the items
+	 * @param operation starts the operation on an item
+	 * @param listener receives the outcome of each item and the progress, may be null
+	 * @param <T> the type of the items
+	 * @param <R> the type of the results
+	 * @return the summary of the operation
+	 */
+	public <T, R> BulkResult<T, R> execute(Iterator<? extends T> source,
+			Function<? super T, ? extends CompletableFuture<? extends R>> operation, BulkListener<T, R> listener) {
+		Run<T, R> run = new Run<>(listener);
+		Semaphore window = new Semaphore(this.options.getConcurrency());
+		boolean interrupted = false;
+		long index = 0;
+		try {
+			while (source.hasNext()) {
+				try {
+					window.acquire();
+				}
+				catch (InterruptedException ex) {
+					interrupted = true;
+					break;
+				}
+				T item;
+				try {
+					item = source.next();
+				}
+				catch (RuntimeException ex) {
+					window.release();
+					throw ex;
+				}
+				submit(run, window, index++, item, operation);
+			}
+		}
+		catch (RuntimeException ex) {
+			// the source failed, let the operations in flight complete
+			window.acquireUninterruptibly(this.options.getConcurrency());
+			throw ex;
+		}
+		// wait for the operations in flight
+		window.acquireUninterruptibly(this.options.getConcurrency());
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+		return run.finish(interrupted);
+	}
+
+	private <T, R> void submit(Run<T, R> run, Semaphore window, long index, T item,
+			Function<? super T, ? extends CompletableFuture<? extends R>> operation) {
+		run.submitted();
+		CompletableFuture<? extends R> future;
+		try {
+			future = operation.apply(item);
+		}
+		catch (RuntimeException ex) {
+			future = CompletableFuture.failedFuture(ex);
+		}
+		future.whenComplete((result, ex) -> {
+			try {
+				run.completed(index, item, result, ex);
+			}
+			finally {
+				window.release();
+			}
+		});
+	}
+
+	private final class Run<T, R> {
+
+		private final BulkListener<T, R> listener;
+
+		private final long startNanos = System.nanoTime();
+
+		private final List<BulkItemResult<T, R>> failures = new ArrayList<>();
+
+		// guarded by this
+		private long submitted;
+
+		private long succeeded;
+
+		private long failed;
+
+		private Run(BulkListener<T, R> listener) {
+			this.listener = listener;
+		}
+
+		synchronized void submitted() {
+			this.submitted++;
+		}
+
+		synchronized void completed(long index, T item, R result, Throwable ex) {
+			BulkItemResult<T, R> itemResult;
+			if (ex == null) {
+				this.succeeded++;
+				itemResult = new BulkItemResult<>(index, item, result, null);
+			}
+			else {
+				this.failed++;
+				itemResult = new BulkItemResult<>(index, item, null,
+						ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+				if (this.failures.size() < BulkExecutor.this.options.getMaxRecordedFailures()) {
+					this.failures.add(itemResult);
+				}
+			}
+			if (this.listener == null) {
+				return;
+			}
+			try {
+				this.listener.onItem(itemResult);
+				long completed = this.succeeded + this.failed;
+				int interval = BulkExecutor.this.options.getProgressInterval();
+				if (interval > 0 && completed % interval == 0) {
+					this.listener.onProgress(progress());
+				}
+			}
+			catch (RuntimeException listenerEx) {
+				log.warn("Bulk listener failed", listenerEx);
+			}
+		}
+
+		synchronized BulkResult<T, R> finish(boolean interrupted) {
+			int interval = BulkExecutor.this.options.getProgressInterval();
+			boolean reported = interval > 0 && (this.succeeded + this.failed) % interval == 0 && this.submitted > 0;
+			if (this.listener != null && !reported) {
+				try {
+					this.listener.onProgress(progress());
+				}
+				catch (RuntimeException listenerEx) {
+					log.warn("Bulk listener failed", listenerEx);
+				}
+			}
+			return new BulkResult<>(this.succeeded, this.failed, Collections.unmodifiableList(this.failures),
+					interrupted, elapsed());
+		}
+
+		private BulkProgress progress() {
+			return new BulkProgress(this.submitted, this.succeeded, this.failed, elapsed());
+		}
+
+		private Duration elapsed() {
+			return Duration.ofNanos(System.nanoTime() - this.startNanos);
+		}
+
+	}
+
+}
@@ -0,0 +1,46 @@
+package top.wecoding.iam.sdk.bulk;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Outcome of the operation on one item of a bulk operation.
+ *
+ * @param <T> the type of the items
+ * @param <R> the type of the results
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+@Getter
+@ToString
+public class BulkItemResult<T, R> {
+
+	/**
+	 * Position of the item in the source, starting at 0.
+	 */
+	private final long index;
+
+	private final T item;
+
+	/**
+	 * Result of the operation, null when it failed.
+	 */
+	private final R result;
+
+	/**
+	 * Failure of the operation, null when it succeeded.
+	 */
+	private final Throwable error;
+
+	BulkItemResult(long index, T item, R result, Throwable error) {
+		this.index = index;
+		this.item = item;
+		this.result = result;
+		this.error = error;
+	}
+
+	public boolean isSuccess() {
+		return this.error == null;
+	}
+
+}
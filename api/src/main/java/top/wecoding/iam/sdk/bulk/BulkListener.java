@@ -0,0 +1,30 @@
+package top.wecoding.iam.sdk.bulk;
+
+/**
+ * Receives the outcome of each item and the progress of a bulk operation. The callbacks
+ * are never invoked concurrently, but may be invoked from the I/O threads of the client,
+ * so they should not block.
+ *
+ * @param <T> the type of the items
+ * @param <R> the type of the results
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+public interface BulkListener<T, R> {
+
+	/**
+	 * Called when the operation on an item completed, successfully or not.
+	 * @param itemResult the outcome of the item
+	 */
+	default void onItem(BulkItemResult<T, R> itemResult) {
+	}
+
+	/**
+	 * Called every {@link BulkOptions#getProgressInterval()} completed items and once all
+	 * the items completed.
+	 * @param progress the progress
+	 */
+	default void onProgress(BulkProgress progress) {
+	}
+
+}
@@ -0,0 +1,40 @@
+package top.wecoding.iam.sdk.bulk;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Configuration of a {@link BulkExecutor}.
+ *
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+@Getter
+@Builder
+public class BulkOptions {
+
+	/**
+	 * Maximum number of requests in flight, which also bounds the number of items read
+	 * ahead from the source.
+	 */
+	@Builder.Default
+	private final int concurrency = 16;
+
+	/**
+	 * Number of completed items between two progress callbacks.
+	 */
+	@Builder.Default
+	private final int progressInterval = 1000;
+
+	/**
+	 * Maximum number of failures kept in the {@link BulkResult}, the others are only
+	 * counted and reported to the listener.
+	 */
+	@Builder.Default
+	private final int maxRecordedFailures = 1000;
+
+	public static BulkOptions ofDefaults() {
+		return builder().build();
+	}
+
+}
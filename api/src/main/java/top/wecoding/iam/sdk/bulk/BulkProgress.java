@@ -0,0 +1,37 @@
+package top.wecoding.iam.sdk.bulk;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Duration;
+
+/**
+ * Snapshot of the progress of a bulk operation.
+ *
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+@Getter
+@ToString
+public class BulkProgress {
+
+	private final long submitted;
+
+	private final long succeeded;
+
+	private final long failed;
+
+	private final Duration elapsed;
+
+	BulkProgress(long submitted, long succeeded, long failed, Duration elapsed) {
+		this.submitted = submitted;
+		this.succeeded = succeeded;
+		this.failed = failed;
+		this.elapsed = elapsed;
+	}
+
+	public long getCompleted() {
+		return this.succeeded + this.failed;
+	}
+
+}
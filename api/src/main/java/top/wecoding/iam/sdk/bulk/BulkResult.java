@@ -0,0 +1,56 @@
+package top.wecoding.iam.sdk.bulk;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Summary of a bulk operation. The results of the successful items are only reported to
+ * the {@link BulkListener}, so that memory does not grow with the number of items.
+ *
+ * @param <T> the type of the items
+ * @param <R> the type of the results
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+@Getter
+@ToString
+public class BulkResult<T, R> {
+
+	private final long succeeded;
+
+	private final long failed;
+
+	/**
+	 * The first {@link BulkOptions#getMaxRecordedFailures()} failures.
+	 */
+	private final List<BulkItemResult<T, R>> failures;
+
+	/**
+	 * Whether the operation stopped reading the source because the calling thread was
+	 * interrupted.
+	 */
+	private final boolean interrupted;
+
+	private final Duration elapsed;
+
+	BulkResult(long succeeded, long failed, List<BulkItemResult<T, R>> failures, boolean interrupted,
+			Duration elapsed) {
+		this.succeeded = succeeded;
+		this.failed = failed;
+		this.failures = failures;
+		this.interrupted = interrupted;
+		this.elapsed = elapsed;
+	}
+
+	public long getTotal() {
+		return this.succeeded + this.failed;
+	}
+
+	public boolean isSuccess() {
+		return this.failed == 0 && !this.interrupted;
+	}
+
+}
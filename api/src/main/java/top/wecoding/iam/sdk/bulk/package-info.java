@@ -0,0 +1,4 @@
+/**
+ * bulk operations pipelined over a bounded window of requests in flight.
+ */
+package top.wecoding.iam.sdk.bulk;
@@ -0,0 +1,53 @@
+package top.wecoding.iam.sdk.cache;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Snapshot of the statistics of a cache.
+ *
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+@Getter
+@ToString
+public class CacheStats {
+
+	private final long hitCount;
+
+	private final long missCount;
+
+	/**
+	 * Entries evicted, or rejected by the admission policy, to respect the maximum size.
+	 */
+	private final long evictionCount;
+
+	/**
+	 * Entries removed because their time to live or time to idle elapsed.
+	 */
+	private final long expirationCount;
+
+	/**
+	 * Stale entries made fresh again by a conditional request answered with
+	 * {@code 304 Not Modified}.
+	 */
+	private final long revalidationCount;
+
+	CacheStats(long hitCount, long missCount, long evictionCount, long expirationCount, long revalidationCount) {
+		this.hitCount = hitCount;
+		this.missCount = missCount;
+		this.evictionCount = evictionCount;
+		this.expirationCount = expirationCount;
+		this.revalidationCount = revalidationCount;
+	}
+
+	public long getRequestCount() {
+		return this.hitCount + this.missCount;
+	}
+
+	public double getHitRate() {
+		long requestCount = getRequestCount();
+		return requestCount == 0 ? 1.0 : (double) this.hitCount / requestCount;
+	}
+
+}
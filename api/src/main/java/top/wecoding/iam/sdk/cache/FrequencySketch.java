@@ -0,0 +1,94 @@
+package top.wecoding.iam.sdk.cache;
+
+/**
+ * Approximate access frequency of the keys of a cache: a count-min sketch of 4-bit
+ * counters, halved periodically so that the frequencies follow the recent accesses.
+ *
+ * <p>
+ * Updates are not atomic, a few increments may be lost under contention, which only makes
+ * the estimate slightly lower.
+ *
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+final class FrequencySketch {
+
+	private static final long RESET_MASK = 0x7777777777777777L;
+
+	private static final long[] SEEDS = { 0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL,
+			0xcbf29ce484222325L };
+
+	private final long[] table;
+
+	private final int tableMask;
+
+	private final int sampleSize;
+
+	private int additions;
+
+	FrequencySketch(int maximumSize) {
+		int size = Integer.highestOneBit(Math.max(maximumSize, 16) - 1) << 1;
+		this.table = new long[size];
+		this.tableMask = size - 1;
+		this.sampleSize = 10 * Math.max(maximumSize, 16);
+	}
+
+	/**
+	 * Estimate the number of recent accesses of the key, at most 15.
+	 */
+	int frequency(Object key) {
+		int hash = spread(key.hashCode());
+		int frequency = Integer.MAX_VALUE;
+		for (int i = 0; i < 4; i++) {
+			int index = indexOf(hash, i);
+			int count = (int) ((this.table[index] >>> offsetOf(hash, i)) & 0xfL);
+			frequency = Math.min(frequency, count);
+		}
+		return frequency;
+	}
+
+	/**
+	 * Record an access of the key.
+	 */
+	void increment(Object key) {
+		int hash = spread(key.hashCode());
+		boolean added = false;
+		for (int i = 0; i < 4; i++) {
+			int index = indexOf(hash, i);
+			int offset = offsetOf(hash, i);
+			long value = this.table[index];
+			if (((value >>> offset) & 0xfL) != 0xfL) {
+				this.table[index] = value + (1L << offset);
+				added = true;
+			}
+		}
+		if (added && ++this.additions >= this.sampleSize) {
+			reset();
+		}
+	}
+
+	private void reset() {
+		for (int i = 0; i < this.table.length; i++) {
+			this.table[i] = (this.table[i] >>> 1) & RESET_MASK;
+		}
+		this.additions = this.additions / 2;
+	}
+
+	private int indexOf(int hash, int i) {
+		long h = (hash + SEEDS[i]) * SEEDS[i];
+		h += h >>> 32;
+		return ((int) h) & this.tableMask;
+	}
+
+	private static int offsetOf(int hash, int i) {
+		// one of the 16 counters of the slot, distinct bits of the hash per row
+		return ((hash >>> (i << 3)) & 0xf) << 2;
+	}
+
+	private static int spread(int x) {
+		x = ((x >>> 16) ^ x) * 0x45d9f3b;
+		x = ((x >>> 16) ^ x) * 0x45d9f3b;
+		return (x >>> 16) ^ x;
+	}
+
+}
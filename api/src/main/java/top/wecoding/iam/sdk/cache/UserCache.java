@@ -0,0 +1,400 @@
+package top.wecoding.iam.sdk.cache;
+
+import top.wecoding.iam.sdk.model.Metadata;
+import top.wecoding.iam.sdk.model.UserInfo;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache of the users, keyed by user id.
+ *
+ * <p>
+ * The size is bounded with a TinyLFU admission policy: when the cache is full, a new user
+ * only replaces the least frequently used of a sample of cached users if it was requested
+ * more often, so a scan of cold users does not flush the hot set. Entries expire after
+ * the time to live since they were written and the time to idle since they were last
+ * read. Reads do not lock.
+ *
+ * <p>
+ * Users cached with a validator, their {@code ETag} or last modification date, are kept
+ * once their time to live elapsed so that they can be revalidated with a conditional
+ * request: when the server answers they were not modified, {@link #revalidate} makes them
+ * fresh again without downloading them.
+ *
+ * <p>
+ * The cache holds its own copies of the users: each read returns a copy that the caller
+ * may modify. A user fetched from the server is cached with the {@link #stamp} taken
+ * before the request, and discarded when the user was written or invalidated meanwhile,
+ * so that a slow read never brings back a user that was updated or deleted.
+ *
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+public class UserCache {
+
+	private static final int EVICTION_SAMPLE_SIZE = 8;
+
+	// power of two
+	private static final int STAMP_STRIPES = 256;
+
+	private final int maximumSize;
+
+	private final long timeToLiveNanos;
+
+	private final long timeToIdleNanos;
+
+	private final ConcurrentMap<String, CachedUser> entries = new ConcurrentHashMap<>();
+
+	private final FrequencySketch sketch;
+
+	// bumped by the writes and invalidations of the users of each stripe
+	private final AtomicLongArray stamps = new AtomicLongArray(STAMP_STRIPES);
+
+	private final LongAdder hitCount = new LongAdder();
+
+	private final LongAdder missCount = new LongAdder();
+
+	private final LongAdder evictionCount = new LongAdder();
+
+	private final LongAdder expirationCount = new LongAdder();
+
+	private final LongAdder revalidationCount = new LongAdder();
+
+	// clock hand over the entries, guarded by this
+	private Iterator<Map.Entry<String, CachedUser>> evictionHand;
+
+	/**
+	 * Create a user cache.
+	 * @param maximumSize the maximum number of cached users
+	 * @param timeToLive the maximum time a user is served after it was written, zero for
+	 * no limit
+	 * @param timeToIdle the maximum time a user is kept without being read, zero for no
+	 * limit
+	 */
+	public UserCache(int maximumSize, Duration timeToLive, Duration timeToIdle) {
+		if (maximumSize <= 0) {
+			throw new IllegalArgumentException("maximumSize must be positive.");
+		}
+		this.maximumSize = maximumSize;
+		this.timeToLiveNanos = timeToLive.toNanos();
+		this.timeToIdleNanos = timeToIdle.toNanos();
+		this.sketch = new FrequencySketch(maximumSize);
+	}
+
+	/**
+	 * Get the cached user.
+	 * @param userId the user id
+	 * @return the user, null when not cached or expired
+	 */
+	public UserInfo getIfPresent(String userId) {
+		this.sketch.increment(userId);
+		CachedUser entry = this.entries.get(userId);
+		if (entry == null) {
+			this.missCount.increment();
+			return null;
+		}
+		long now = System.nanoTime();
+		if (isExpired(entry, now)) {
+			if (!isIdle(entry, now) && entry.hasValidator()) {
+				// stale, kept for revalidation
+				this.missCount.increment();
+				return null;
+			}
+			if (this.entries.remove(userId, entry)) {
+				this.expirationCount.increment();
+			}
+			this.missCount.increment();
+			return null;
+		}
+		if (this.timeToIdleNanos > 0) {
+			entry.accessNanos = now;
+		}
+		this.hitCount.increment();
+		return copy(entry.userInfo);
+	}
+
+	/**
+	 * Cache the user after it was created or updated. When the cache is full, the user is
+	 * only cached if it is used more often than the evicted one.
+	 * @param userId the user id
+	 * @param userInfo the user
+	 */
+	public void put(String userId, UserInfo userInfo) {
+		if (userId == null || userInfo == null) {
+			return;
+		}
+		// the reads in flight may return the previous user
+		this.stamps.incrementAndGet(stripe(userId));
+		write(userId, userInfo, null, null);
+	}
+
+	/**
+	 * Take the stamp of the user before fetching it, see
+	 * {@link #put(String, UserInfo, String, String, long)}.
+	 * @param userId the user id
+	 * @return the stamp
+	 */
+	public long stamp(String userId) {
+		return this.stamps.get(stripe(userId));
+	}
+
+	/**
+	 * Cache the user fetched from the server, with its validators, unless it was written
+	 * or invalidated since the stamp was taken. Without a {@code Last-Modified} date, the
+	 * {@code updatedAt} of the user metadata is used.
+	 * @param userId the user id
+	 * @param userInfo the user
+	 * @param eTag the {@code ETag} of the user, may be null
+	 * @param lastModified the {@code Last-Modified} date of the user, may be null
+	 * @param stamp the stamp of the user taken before the request
+	 */
+	public void put(String userId, UserInfo userInfo, String eTag, String lastModified, long stamp) {
+		if (userId == null || userInfo == null || stamp(userId) != stamp) {
+			return;
+		}
+		CachedUser entry = write(userId, userInfo, eTag, lastModified);
+		// written or invalidated between the check and the write
+		if (entry != null && stamp(userId) != stamp) {
+			this.entries.remove(userId, entry);
+		}
+	}
+
+	/**
+	 * Get the cached user to revalidate, fresh or stale, without counting a request.
+	 * @param userId the user id
+	 * @return the user, null when not cached or cached without validator
+	 */
+	public CachedUser getForRevalidation(String userId) {
+		CachedUser entry = this.entries.get(userId);
+		return entry != null && entry.hasValidator() ? entry : null;
+	}
+
+	/**
+	 * Make the user fresh again, after the server answered it was not modified. Nothing
+	 * is cached when the user was written, invalidated or evicted meanwhile.
+	 * @param userId the user id
+	 * @param cached the revalidated user, as returned by {@link #getForRevalidation}
+	 */
+	public void revalidate(String userId, CachedUser cached) {
+		this.revalidationCount.increment();
+		CachedUser entry = new CachedUser(cached.userInfo, cached.eTag, cached.lastModified, System.nanoTime());
+		this.entries.replace(userId, cached, entry);
+	}
+
+	/**
+	 * Discard the cached user, e.g. after it was deleted or its state changed.
+	 * @param userId the user id
+	 */
+	public void invalidate(String userId) {
+		if (userId != null) {
+			// discard the reads in flight before the cached user
+			this.stamps.incrementAndGet(stripe(userId));
+			this.entries.remove(userId);
+		}
+	}
+
+	public void invalidateAll() {
+		for (int i = 0; i < STAMP_STRIPES; i++) {
+			this.stamps.incrementAndGet(i);
+		}
+		this.entries.clear();
+	}
+
+	public int size() {
+		return this.entries.size();
+	}
+
+	public CacheStats stats() {
+		return new CacheStats(this.hitCount.sum(), this.missCount.sum(), this.evictionCount.sum(),
+				this.expirationCount.sum(), this.revalidationCount.sum());
+	}
+
+	/**
+	 * Write a copy of the user, unless the cache is full and the user is used less often
+	 * than the evicted one.
+	 * @return the cached entry, null when not admitted
+	 */
+	private CachedUser write(String userId, UserInfo userInfo, String eTag, String lastModified) {
+		if (lastModified == null) {
+			lastModified = updatedAt(userInfo);
+		}
+		long now = System.nanoTime();
+		CachedUser entry = new CachedUser(copy(userInfo), eTag, lastModified, now);
+		if (this.entries.replace(userId, entry) != null) {
+			return entry;
+		}
+		if (this.entries.size() >= this.maximumSize && !makeRoom(userId, now)) {
+			this.evictionCount.increment();
+			return null;
+		}
+		this.entries.put(userId, entry);
+		return entry;
+	}
+
+	/**
+	 * Evict the least frequently used user of a sample, unless the candidate is used less
+	 * often. Expired users of the sample are evicted first.
+	 * @return whether the candidate can be admitted
+	 */
+	private synchronized boolean makeRoom(String candidate, long now) {
+		String victim = null;
+		CachedUser victimEntry = null;
+		int victimFrequency = Integer.MAX_VALUE;
+		for (int i = 0; i < EVICTION_SAMPLE_SIZE; i++) {
+			if (this.evictionHand == null || !this.evictionHand.hasNext()) {
+				this.evictionHand = this.entries.entrySet().iterator();
+				if (!this.evictionHand.hasNext()) {
+					return true;
+				}
+			}
+			Map.Entry<String, CachedUser> sampled = this.evictionHand.next();
+			if (isExpired(sampled.getValue(), now)) {
+				if (this.entries.remove(sampled.getKey(), sampled.getValue())) {
+					this.expirationCount.increment();
+				}
+				return true;
+			}
+			int frequency = this.sketch.frequency(sampled.getKey());
+			if (frequency < victimFrequency) {
+				victim = sampled.getKey();
+				victimEntry = sampled.getValue();
+				victimFrequency = frequency;
+			}
+		}
+		if (this.sketch.frequency(candidate) <= victimFrequency) {
+			return false;
+		}
+		if (this.entries.remove(victim, victimEntry)) {
+			this.evictionCount.increment();
+		}
+		return true;
+	}
+
+	private boolean isExpired(CachedUser entry, long now) {
+		return (this.timeToLiveNanos > 0 && now - entry.writeNanos >= this.timeToLiveNanos) || isIdle(entry, now);
+	}
+
+	private boolean isIdle(CachedUser entry, long now) {
+		return this.timeToIdleNanos > 0 && now - entry.accessNanos >= this.timeToIdleNanos;
+	}
+
+	private static int stripe(String userId) {
+		int hash = userId.hashCode();
+		return (hash ^ (hash >>> 16)) & (STAMP_STRIPES - 1);
+	}
+
+	/**
+	 * Copy the user, so that the cached user cannot be modified by the callers.
+	 */
+	private static UserInfo copy(UserInfo userInfo) {
+		UserInfo copy = new UserInfo();
+		copy.setAlias(userInfo.getAlias());
+		copy.setEmail(userInfo.getEmail());
+		copy.setPhone(userInfo.getPhone());
+		copy.setUserType(userInfo.getUserType());
+		Metadata metadata = userInfo.getMetadata();
+		if (metadata != null) {
+			Metadata metadataCopy = new Metadata();
+			metadataCopy.setInstanceId(metadata.getInstanceId());
+			metadataCopy.setName(metadata.getName());
+			metadataCopy.setCreatedAt(metadata.getCreatedAt());
+			metadataCopy.setUpdatedAt(metadata.getUpdatedAt());
+			metadataCopy.setExtend(metadata.getExtend() != null ? deepCopy(metadata.getExtend()) : null);
+			copy.setMetadata(metadataCopy);
+		}
+		return copy;
+	}
+
+	/**
+	 * Copy the maps and lists of a JSON value, the other values are immutable.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> T deepCopy(T value) {
+		if (value instanceof Map) {
+			Map<Object, Object> copy = new LinkedHashMap<>();
+			((Map<?, ?>) value).forEach((key, item) -> copy.put(key, deepCopy(item)));
+			return (T) copy;
+		}
+		if (value instanceof List) {
+			List<Object> copy = new ArrayList<>(((List<?>) value).size());
+			((List<?>) value).forEach(item -> copy.add(deepCopy(item)));
+			return (T) copy;
+		}
+		return value;
+	}
+
+	/**
+	 * The {@code updatedAt} of the user as an HTTP date, null when unknown.
+	 */
+	private static String updatedAt(UserInfo userInfo) {
+		if (userInfo.getMetadata() == null || userInfo.getMetadata().getUpdatedAt() == null) {
+			return null;
+		}
+		try {
+			return DateTimeFormatter.RFC_1123_DATE_TIME.format(
+					OffsetDateTime.parse(userInfo.getMetadata().getUpdatedAt()).withOffsetSameInstant(ZoneOffset.UTC));
+		}
+		catch (DateTimeParseException ex) {
+			return null;
+		}
+	}
+
+	/**
+	 * A cached user with its validators.
+	 */
+	public static final class CachedUser {
+
+		private final UserInfo userInfo;
+
+		private final String eTag;
+
+		private final String lastModified;
+
+		private final long writeNanos;
+
+		private volatile long accessNanos;
+
+		private CachedUser(UserInfo userInfo, String eTag, String lastModified, long writeNanos) {
+			this.userInfo = userInfo;
+			this.eTag = eTag;
+			this.lastModified = lastModified;
+			this.writeNanos = writeNanos;
+			this.accessNanos = writeNanos;
+		}
+
+		/**
+		 * Get a copy of the cached user.
+		 * @return the user
+		 */
+		public UserInfo getUserInfo() {
+			return copy(this.userInfo);
+		}
+
+		public String getETag() {
+			return this.eTag;
+		}
+
+		public String getLastModified() {
+			return this.lastModified;
+		}
+
+		private boolean hasValidator() {
+			return this.eTag != null || this.lastModified != null;
+		}
+
+	}
+
+}
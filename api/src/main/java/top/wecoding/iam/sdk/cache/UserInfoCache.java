@@ -0,0 +1,330 @@
+package top.wecoding.iam.sdk.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.extern.slf4j.Slf4j;
+import top.wecoding.iam.sdk.model.ApiResult;
+import top.wecoding.iam.sdk.model.response.UserInfoResponse;
+import top.wecoding.iam.sdk.util.JacksonUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Cache of the user info of the current user, keyed by the digest of the credentials of
+ * the request, e.g. {@code Bearer <access token>}.
+ *
+ * <p>
+ * Only successful results are cached. Entries live until the time to live elapses or the
+ * access token expires, when it is a JWT. An entry read after the refresh-ahead fraction
+ * of its lifetime is reloaded in the background while the cached user info is still
+ * served, so hot tokens never wait for IAM. Concurrent misses of the same credentials
+ * send a single request.
+ *
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+@Slf4j
+public class UserInfoCache {
+
+	private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	});
+
+	private final int maximumSize;
+
+	private final long timeToLiveNanos;
+
+	private final double refreshAheadRatio;
+
+	private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+	private volatile ExecutorService executor;
+
+	/**
+	 * Create a user info cache.
+	 * @param maximumSize the maximum number of cached credentials
+	 * @param timeToLive the maximum time an entry is served
+	 * @param refreshAheadRatio the fraction of the lifetime of an entry after which a
+	 * read reloads it in the background, {@code 1} to disable refresh-ahead
+	 */
+	public UserInfoCache(int maximumSize, Duration timeToLive, double refreshAheadRatio) {
+		if (maximumSize <= 0) {
+			throw new IllegalArgumentException("maximumSize must be positive.");
+		}
+		if (refreshAheadRatio <= 0 || refreshAheadRatio > 1) {
+			throw new IllegalArgumentException("refreshAheadRatio must be in (0, 1].");
+		}
+		this.maximumSize = maximumSize;
+		this.timeToLiveNanos = timeToLive.toNanos();
+		this.refreshAheadRatio = refreshAheadRatio;
+	}
+
+	/**
+	 * Cache up to 10000 credentials for 5 minutes, refreshing them ahead after 3/4 of
+	 * their lifetime.
+	 * @return the user info cache
+	 */
+	public static UserInfoCache ofDefaults() {
+		return new UserInfoCache(10000, Duration.ofMinutes(5), 0.75);
+	}
+
+	/**
+	 * Get the cached user info of the credentials, or load it on the calling thread.
+	 * @param credentials the credentials of the request
+	 * @param loader loads the user info
+	 * @return the user info
+	 * @throws Exception the exception of the loader
+	 */
+	public UserInfoResponse get(String credentials, Callable<UserInfoResponse> loader) throws Exception {
+		CompletableFuture<UserInfoResponse> future = lookup(credentials, () -> {
+			try {
+				return CompletableFuture.completedFuture(loader.call());
+			}
+			catch (Exception ex) {
+				return CompletableFuture.failedFuture(ex);
+			}
+		}, () -> CompletableFuture.supplyAsync(() -> {
+			try {
+				return loader.call();
+			}
+			catch (Exception ex) {
+				throw new IllegalStateException(ex);
+			}
+		}, executor()));
+		try {
+			return future.get();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw ex;
+		}
+		catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof Exception) {
+				throw (Exception) cause;
+			}
+			throw (Error) cause;
+		}
+	}
+
+	/**
+	 * Get the cached user info of the credentials, or load it.
+	 * @param credentials the credentials of the request
+	 * @param loader loads the user info
+	 * @return a future completed with the user info
+	 */
+	public CompletableFuture<UserInfoResponse> getAsync(String credentials,
+			Supplier<CompletableFuture<UserInfoResponse>> loader) {
+		return lookup(credentials, loader, loader).thenApply(userInfo -> userInfo);
+	}
+
+	/**
+	 * Discard the user info of the credentials, e.g. when their token is rotated.
+	 * @param credentials the credentials of the request
+	 */
+	public void invalidate(String credentials) {
+		if (credentials != null) {
+			this.entries.remove(digest(credentials));
+		}
+	}
+
+	public void invalidateAll() {
+		this.entries.clear();
+	}
+
+	public int size() {
+		return this.entries.size();
+	}
+
+	private CompletableFuture<UserInfoResponse> lookup(String credentials,
+			Supplier<CompletableFuture<UserInfoResponse>> loader,
+			Supplier<CompletableFuture<UserInfoResponse>> refresher) {
+		String key = digest(credentials);
+		while (true) {
+			Entry entry = this.entries.get(key);
+			long now = System.nanoTime();
+			if (entry != null && entry.isUsable(now)) {
+				if (entry.shouldRefresh(now)) {
+					refresh(key, entry, credentials, refresher);
+				}
+				return entry.value;
+			}
+			Entry loading = new Entry(new CompletableFuture<>(), now, now);
+			boolean claimed = entry == null ? this.entries.putIfAbsent(key, loading) == null
+					: this.entries.replace(key, entry, loading);
+			if (claimed) {
+				if (entry == null && this.entries.size() > this.maximumSize) {
+					evict(now);
+				}
+				load(key, loading, credentials, loader);
+				return loading.value;
+			}
+		}
+	}
+
+	private void load(String key, Entry loading, String credentials,
+			Supplier<CompletableFuture<UserInfoResponse>> loader) {
+		loader.get().whenComplete((userInfo, ex) -> {
+			if (ex != null) {
+				this.entries.remove(key, loading);
+				loading.value.completeExceptionally(ex);
+				return;
+			}
+			if (!isSuccess(userInfo)) {
+				// answered to the waiters, but not cached
+				this.entries.remove(key, loading);
+				loading.value.complete(userInfo);
+				return;
+			}
+			// publish the deadlines before waking up the waiters
+			this.entries.replace(key, loading, loaded(loading.value, credentials));
+			loading.value.complete(userInfo);
+		});
+	}
+
+	private void refresh(String key, Entry entry, String credentials,
+			Supplier<CompletableFuture<UserInfoResponse>> refresher) {
+		if (!entry.refreshing.compareAndSet(false, true)) {
+			return;
+		}
+		refresher.get().whenComplete((userInfo, ex) -> {
+			if (ex != null || !isSuccess(userInfo)) {
+				// keep serving the entry until it expires
+				log.debug("Failed to refresh the cached user info", ex);
+				entry.refreshing.set(false);
+				return;
+			}
+			this.entries.replace(key, entry, loaded(CompletableFuture.completedFuture(userInfo), credentials));
+		});
+	}
+
+	private Entry loaded(CompletableFuture<UserInfoResponse> value, String credentials) {
+		long now = System.nanoTime();
+		long lifetime = this.timeToLiveNanos;
+		long tokenLifetime = remainingTokenLifetime(credentials);
+		if (tokenLifetime >= 0) {
+			lifetime = Math.min(lifetime, tokenLifetime);
+		}
+		return new Entry(value, now + (long) (lifetime * this.refreshAheadRatio), now + lifetime);
+	}
+
+	private void evict(long now) {
+		this.entries.values().removeIf(entry -> entry.value.isDone() && now - entry.expiresAt >= 0);
+		// make room for a tenth of the cache at once
+		int excess = this.entries.size() - this.maximumSize * 9 / 10;
+		Iterator<Entry> iterator = this.entries.values().iterator();
+		while (excess > 0 && iterator.hasNext()) {
+			if (iterator.next().value.isDone()) {
+				iterator.remove();
+				excess--;
+			}
+		}
+	}
+
+	private ExecutorService executor() {
+		ExecutorService current = this.executor;
+		if (current == null) {
+			synchronized (this) {
+				current = this.executor;
+				if (current == null) {
+					AtomicInteger count = new AtomicInteger();
+					current = Executors.newCachedThreadPool(runnable -> {
+						Thread thread = new Thread(runnable, "iam-user-info-refresh-" + count.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					});
+					this.executor = current;
+				}
+			}
+		}
+		return current;
+	}
+
+	/**
+	 * Get the remaining lifetime of a JWT bearer token from its {@code exp} claim. The
+	 * token is not verified, IAM did when it returned the user info.
+	 * @return the lifetime in nanoseconds, or -1 when unknown
+	 */
+	private static long remainingTokenLifetime(String credentials) {
+		if (!credentials.regionMatches(true, 0, "Bearer ", 0, 7)) {
+			return -1;
+		}
+		int first = credentials.indexOf('.');
+		int second = credentials.indexOf('.', first + 1);
+		if (first < 0 || second < 0) {
+			return -1;
+		}
+		try {
+			byte[] payload = Base64.getUrlDecoder().decode(credentials.substring(first + 1, second));
+			JsonNode exp = JacksonUtils.toObj(new String(payload, StandardCharsets.UTF_8)).path("exp");
+			if (!exp.isNumber()) {
+				return -1;
+			}
+			long remainingMillis = exp.asLong() * 1000 - System.currentTimeMillis();
+			return Math.max(0, TimeUnit.MILLISECONDS.toNanos(remainingMillis));
+		}
+		catch (RuntimeException ex) {
+			return -1;
+		}
+	}
+
+	private static boolean isSuccess(UserInfoResponse userInfo) {
+		return userInfo != null && ApiResult.isSuccessCode(userInfo.getCode());
+	}
+
+	private static String digest(String credentials) {
+		byte[] hash = SHA_256.get().digest(credentials.getBytes(StandardCharsets.UTF_8));
+		return Base64.getEncoder().withoutPadding().encodeToString(hash);
+	}
+
+	private static final class Entry {
+
+		private final CompletableFuture<UserInfoResponse> value;
+
+		private final long refreshAt;
+
+		private final long expiresAt;
+
+		private final AtomicBoolean refreshing = new AtomicBoolean();
+
+		private Entry(CompletableFuture<UserInfoResponse> value, long refreshAt, long expiresAt) {
+			this.value = value;
+			this.refreshAt = refreshAt;
+			this.expiresAt = expiresAt;
+		}
+
+		boolean isUsable(long now) {
+			return !this.value.isDone() || now - this.expiresAt < 0;
+		}
+
+		boolean shouldRefresh(long now) {
+			return this.value.isDone() && now - this.refreshAt >= 0 && this.refreshAheadEnabled();
+		}
+
+		private boolean refreshAheadEnabled() {
+			return this.refreshAt != this.expiresAt;
+		}
+
+	}
+
+}
@@ -0,0 +1,4 @@
+/**
+ * client side caches of IAM resources.
+ */
+package top.wecoding.iam.sdk.cache;
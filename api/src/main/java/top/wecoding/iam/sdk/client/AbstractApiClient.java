@@ -3,13 +3,17 @@ package top.wecoding.iam.sdk.client;
 import com.fasterxml.jackson.databind.JavaType;
 import top.wecoding.iam.sdk.client.handler.ApiResultResponseHandler;
 import top.wecoding.iam.sdk.client.handler.BeanResponseHandler;
+import top.wecoding.iam.sdk.client.handler.ConditionalResponseHandler;
 import top.wecoding.iam.sdk.client.handler.ResponseHandler;
 import top.wecoding.iam.sdk.client.handler.StringResponseHandler;
-import top.wecoding.iam.sdk.util.JacksonUtils;
+import top.wecoding.iam.sdk.codec.Codec;
+import top.wecoding.iam.sdk.codec.JacksonCodec;
+import top.wecoding.iam.sdk.model.ApiResult;
+import top.wecoding.iam.sdk.model.ConditionalResponse;
 
 import java.lang.reflect.Type;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * For ApiClient, provide initialization and register of response converter.
@@ -20,26 +24,72 @@ import java.util.Map;
 @SuppressWarnings("all")
 public abstract class AbstractApiClient {
 
-	private final Map<String, ResponseHandler> responseHandlerMap = new HashMap<String, ResponseHandler>();
+	/**
+	 * Registered response handlers, keyed by the name of the response class they convert.
+	 */
+	private final Map<String, ResponseHandler> responseHandlerMap;
+
+	/**
+	 * Immutable response handlers bound to a response type, resolved once per codec and
+	 * type.
+	 */
+	private final Map<Codec, Map<Type, ResponseHandler>> responseHandlerCache;
+
+	/**
+	 * Encodes the requests and decodes the responses.
+	 */
+	private Codec codec = JacksonCodec.getDefault();
 
 	public AbstractApiClient() {
+		this.responseHandlerMap = new ConcurrentHashMap<String, ResponseHandler>();
+		this.responseHandlerCache = new ConcurrentHashMap<Codec, Map<Type, ResponseHandler>>();
 		initDefaultResponseHandler();
 	}
 
+	/**
+	 * Share the response handlers of another client, including the handlers registered
+	 * later on either client.
+	 * @param parent the client whose response handlers are shared
+	 */
+	protected AbstractApiClient(AbstractApiClient parent) {
+		this.responseHandlerMap = parent.responseHandlerMap;
+		this.responseHandlerCache = parent.responseHandlerCache;
+		this.codec = parent.codec;
+	}
+
 	private void initDefaultResponseHandler() {
 		// init response handler
-		this.responseHandlerMap.put(StringResponseHandler.class.getName(), new StringResponseHandler());
-		this.responseHandlerMap.put(ApiResultResponseHandler.class.getName(), new ApiResultResponseHandler());
+		this.responseHandlerMap.put(String.class.getName(), new StringResponseHandler());
+		this.responseHandlerMap.put(ApiResult.class.getName(), new ApiResultResponseHandler());
 		this.responseHandlerMap.put(BeanResponseHandler.class.getName(), new BeanResponseHandler());
+		this.responseHandlerMap.put(ConditionalResponse.class.getName(), new ConditionalResponseHandler());
 	}
 
 	/**
 	 * register customization Response Handler.
-	 * @param responseHandlerType handler type
+	 * @param responseHandlerType handler type, the name of the response class converted
+	 * by the handler
 	 * @param responseHandler {@link ResponseHandler}
 	 */
 	public void registerResponseHandler(String responseHandlerType, ResponseHandler responseHandler) {
 		this.responseHandlerMap.put(responseHandlerType, responseHandler);
+		this.responseHandlerCache.clear();
+	}
+
+	public Codec getCodec() {
+		return this.codec;
+	}
+
+	/**
+	 * Set the codec of the requests and responses, the views created before keep their
+	 * codec.
+	 * @param codec the codec
+	 */
+	public void setCodec(Codec codec) {
+		if (codec == null) {
+			throw new IllegalArgumentException("codec cannot be null.");
+		}
+		this.codec = codec;
 	}
 
 	/**
@@ -48,22 +98,30 @@ public abstract class AbstractApiClient {
 	 * @return HttpClientResponseHandler
 	 */
 	protected ResponseHandler selectResponseHandler(Type responseType) {
-		ResponseHandler responseHandler = null;
 		if (responseType == null) {
-			responseHandler = this.responseHandlerMap.get(String.class.getName());
+			responseType = String.class;
+		}
+		Codec codec = this.codec;
+		Map<Type, ResponseHandler> responseHandlers = this.responseHandlerCache.get(codec);
+		if (responseHandlers == null) {
+			responseHandlers = this.responseHandlerCache.computeIfAbsent(codec, key -> new ConcurrentHashMap<>());
 		}
+		ResponseHandler responseHandler = responseHandlers.get(responseType);
 		if (responseHandler == null) {
-			JavaType javaType = JacksonUtils.constructJavaType(responseType);
-			String name = javaType.getRawClass().getName();
-			responseHandler = this.responseHandlerMap.get(name);
+			responseHandler = responseHandlers.computeIfAbsent(responseType, key -> createResponseHandler(key, codec));
 		}
+		return responseHandler;
+	}
+
+	private ResponseHandler createResponseHandler(Type responseType, Codec codec) {
+		JavaType javaType = codec.constructType(responseType);
+		ResponseHandler responseHandler = this.responseHandlerMap.get(javaType.getRawClass().getName());
 		// When the corresponding type of response handler cannot be obtained,
 		// the default bean response handler is used
 		if (responseHandler == null) {
 			responseHandler = this.responseHandlerMap.get(BeanResponseHandler.class.getName());
 		}
-		responseHandler.setResponseType(responseType);
-		return responseHandler;
+		return responseHandler.withResponseType(responseType, codec);
 	}
 
 }
@@ -1,49 +1,81 @@
 package top.wecoding.iam.sdk.client;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.HttpRoute;
 import org.apache.hc.client5.http.classic.methods.HttpDelete;
 import org.apache.hc.client5.http.classic.methods.HttpGet;
 import org.apache.hc.client5.http.classic.methods.HttpPost;
 import org.apache.hc.client5.http.classic.methods.HttpPut;
+import org.apache.hc.client5.http.classic.methods.HttpUriRequestBase;
 import org.apache.hc.client5.http.cookie.BasicCookieStore;
 import org.apache.hc.client5.http.cookie.Cookie;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
 import org.apache.hc.client5.http.impl.cookie.BasicClientCookie;
 import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.ClassicHttpRequest;
 import org.apache.hc.core5.http.ContentType;
 import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.NameValuePair;
 import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
 import org.apache.hc.core5.http.io.entity.FileEntity;
 import org.apache.hc.core5.http.io.entity.StringEntity;
 import org.apache.hc.core5.http.io.support.ClassicRequestBuilder;
+import org.apache.hc.core5.http.protocol.HttpCoreContext;
+import org.apache.hc.core5.pool.ConnPoolControl;
+import org.apache.hc.core5.pool.PoolStats;
+import top.wecoding.iam.sdk.cache.UserCache;
 import top.wecoding.iam.sdk.client.auth.ApiKeyAuth;
 import top.wecoding.iam.sdk.client.auth.Authentication;
 import top.wecoding.iam.sdk.client.auth.HttpBasicAuth;
 import top.wecoding.iam.sdk.client.auth.HttpBearerAuth;
+import top.wecoding.iam.sdk.client.auth.PrivateKeyJwtAuth;
+import top.wecoding.iam.sdk.client.auth.TokenManager;
+import top.wecoding.iam.sdk.client.circuit.CircuitBreaker;
+import top.wecoding.iam.sdk.client.circuit.CircuitBreakerRegistry;
+import top.wecoding.iam.sdk.client.entity.ContentCoding;
+import top.wecoding.iam.sdk.client.entity.EncodedHttpEntity;
+import top.wecoding.iam.sdk.client.entity.JsonHttpEntity;
+import top.wecoding.iam.sdk.client.entity.StandardContentCoding;
 import top.wecoding.iam.sdk.client.handler.ResponseHandler;
+import top.wecoding.iam.sdk.client.hedge.HedgingPolicy;
+import top.wecoding.iam.sdk.client.limit.ConcurrencyLimiter;
+import top.wecoding.iam.sdk.client.limit.ConcurrencyLimiter.Permit;
 import top.wecoding.iam.sdk.client.param.Header;
 import top.wecoding.iam.sdk.client.param.MediaType;
 import top.wecoding.iam.sdk.client.param.Query;
+import top.wecoding.iam.sdk.client.retry.BackoffRetryStrategy;
+import top.wecoding.iam.sdk.codec.Codec;
+import top.wecoding.iam.sdk.codec.JacksonCodec;
 import top.wecoding.iam.sdk.config.ClientConfiguration;
 import top.wecoding.iam.sdk.exception.ApiException;
+import top.wecoding.iam.sdk.exception.CallNotPermittedException;
+import top.wecoding.iam.sdk.exception.LimitExceededException;
 import top.wecoding.iam.sdk.model.request.RequestHttpEntity;
 import top.wecoding.iam.sdk.util.Objects;
 import top.wecoding.iam.sdk.util.Strings;
 
 import java.io.File;
+import java.io.IOException;
 import java.lang.reflect.Type;
 import java.net.URI;
+import java.net.URISyntaxException;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 
 /**
  * IAM API client.
@@ -64,25 +96,165 @@ public class ApiClient extends AbstractApiClient {
 
 	private ClientConfiguration clientConfig;
 
-	private Map<String, Authentication> authentications;
+	/**
+	 * Immutable snapshot of the authentication schemes, replaced as a whole.
+	 */
+	private volatile Map<String, Authentication> authentications;
 
-	private ObjectMapper objectMapper;
+	/**
+	 * Whether the JSON request bodies are streamed in chunks rather than sent with their
+	 * length.
+	 */
+	private boolean chunkedRequestBody;
+
+	/**
+	 * Content codings of the responses, in order of preference. The first one encodes the
+	 * request bodies.
+	 */
+	private List<ContentCoding> contentCodings = StandardContentCoding.defaults();
+
+	/**
+	 * The {@code Accept-Encoding} header of the content codings.
+	 */
+	@Getter(AccessLevel.PROTECTED)
+	@Setter(AccessLevel.NONE)
+	private String acceptEncoding = acceptEncoding(this.contentCodings);
+
+	/**
+	 * Size from which the JSON request bodies are encoded, negative to never encode them.
+	 */
+	private int requestCompressionThreshold = -1;
+
+	/**
+	 * Control of the connection pool, null when the transport does not pool connections.
+	 */
+	@Setter(AccessLevel.PACKAGE)
+	private ConnPoolControl<HttpRoute> connPoolControl;
+
+	@Setter(AccessLevel.NONE)
+	private TokenManager tokenManager;
+
+	private ConcurrencyLimiter concurrencyLimiter;
+
+	private CircuitBreakerRegistry circuitBreakerRegistry;
+
+	private HedgingPolicy hedgingPolicy;
+
+	@Getter(AccessLevel.PACKAGE)
+	@Setter(AccessLevel.NONE)
+	private RequestCoalescer requestCoalescer;
+
+	/**
+	 * Cache of the users read and written through this client, null when disabled. Not
+	 * shared with the views, which may not see the same users.
+	 */
+	private UserCache userCache;
 
 	public ApiClient() {
 		this(null, HttpClients.createDefault());
 	}
 
 	public ApiClient(ClientConfiguration clientConfig, CloseableHttpClient httpClient) {
-		this.objectMapper = new ObjectMapper();
 		this.basePath = "https://iam.wecoding.top";
 		this.clientConfig = clientConfig;
 		this.httpClient = httpClient;
 
-		this.authentications = new HashMap<>();
-		this.authentications.put(ApiKeyAuth.NAME, new ApiKeyAuth("header", "Authorization"));
-		this.authentications.put(HttpBasicAuth.NAME, new HttpBasicAuth());
-		this.authentications.put(HttpBearerAuth.NAME, new HttpBearerAuth());
-		this.authentications = Collections.unmodifiableMap(this.authentications);
+		Map<String, Authentication> authentications = new HashMap<>();
+		authentications.put(ApiKeyAuth.NAME, new ApiKeyAuth("header", "Authorization"));
+		authentications.put(HttpBasicAuth.NAME, new HttpBasicAuth());
+		authentications.put(HttpBearerAuth.NAME, new HttpBearerAuth());
+		this.authentications = Collections.unmodifiableMap(authentications);
+	}
+
+	/**
+	 * Create a view of the parent client with its own authentications.
+	 * @param parent the client whose transport and state are shared
+	 * @param authentications the authentications of the view
+	 */
+	protected ApiClient(ApiClient parent, Map<String, Authentication> authentications) {
+		super(parent);
+		this.basePath = parent.basePath;
+		this.httpClient = parent.httpClient;
+		this.clientConfig = parent.clientConfig;
+		this.chunkedRequestBody = parent.chunkedRequestBody;
+		this.contentCodings = parent.contentCodings;
+		this.acceptEncoding = parent.acceptEncoding;
+		this.requestCompressionThreshold = parent.requestCompressionThreshold;
+		this.connPoolControl = parent.connPoolControl;
+		this.concurrencyLimiter = parent.concurrencyLimiter;
+		this.circuitBreakerRegistry = parent.circuitBreakerRegistry;
+		this.hedgingPolicy = parent.hedgingPolicy;
+		// coalescing keys include the credentials
+		this.requestCoalescer = parent.requestCoalescer;
+		this.authentications = Collections.unmodifiableMap(authentications);
+		Authentication bearer = authentications.get(HttpBearerAuth.NAME);
+		this.tokenManager = bearer instanceof TokenManager ? (TokenManager) bearer : null;
+	}
+
+	/**
+	 * Get a lightweight view of this client authenticating with the given scheme instead,
+	 * e.g. with the credentials of a tenant or the token of an end user. The view shares
+	 * the connection pool, codecs, response handlers, concurrency limits and circuit
+	 * breakers of this client, only its authentications are its own. Settings changed on
+	 * this client after the view is created are not seen by the view.
+	 * @param authName the authentication name, such as {@link HttpBearerAuth#NAME}
+	 * @param authentication the authentication of the view
+	 * @return the view
+	 */
+	public ApiClient withAuthentication(String authName, Authentication authentication) {
+		if (authentication == null) {
+			throw new IllegalArgumentException("authentication argument cannot be null.");
+		}
+		Map<String, Authentication> authentications = new HashMap<>(this.authentications);
+		if (authentications.put(authName, authentication) == null) {
+			throw new RuntimeException(authName + " authentication not configured!");
+		}
+		return derive(authentications);
+	}
+
+	/**
+	 * Get a lightweight view of this client authenticating with the given bearer token.
+	 * @param bearerToken the bearer token
+	 * @return the view
+	 * @see #withAuthentication(String, Authentication)
+	 */
+	public ApiClient withBearerToken(String bearerToken) {
+		HttpBearerAuth bearerAuth = new HttpBearerAuth();
+		bearerAuth.setBearerToken(bearerToken);
+		return withAuthentication(HttpBearerAuth.NAME, bearerAuth);
+	}
+
+	/**
+	 * Override to derive views of subclasses.
+	 * @param authentications the authentications of the view
+	 * @return a view of this client
+	 */
+	protected ApiClient derive(Map<String, Authentication> authentications) {
+		return new ApiClient(this, authentications);
+	}
+
+	/**
+	 * Get a snapshot of the connection pool.
+	 * @return the leased, pending, available and max connections of the pool, null when
+	 * the transport does not pool connections, such as HTTP/2
+	 */
+	public PoolStats getPoolStats() {
+		return this.connPoolControl != null ? this.connPoolControl.getTotalStats() : null;
+	}
+
+	/**
+	 * Get a snapshot of the connection pool of each route.
+	 * @return Map of pool statistics, empty when the transport does not pool connections
+	 */
+	public Map<HttpRoute, PoolStats> getRoutePoolStats() {
+		if (this.connPoolControl == null) {
+			return Collections.emptyMap();
+		}
+		Map<HttpRoute, PoolStats> stats = new HashMap<>();
+		for (HttpRoute route : this.connPoolControl.getRoutes()) {
+			stats.put(route, this.connPoolControl.getStats(route));
+		}
+		return stats;
 	}
 
 	/**
@@ -108,7 +280,7 @@ public class ApiClient extends AbstractApiClient {
 	 * @param authentication The new implementation (must be of the same type of the
 	 * existing implementation)
 	 */
-	public void replaceAuthentication(String authName, Authentication authentication) {
+	public synchronized void replaceAuthentication(String authName, Authentication authentication) {
 		Authentication previous = this.authentications.get(authName);
 		if (previous == null) {
 			throw new RuntimeException(authName + " authentication not configured!");
@@ -117,9 +289,32 @@ public class ApiClient extends AbstractApiClient {
 			throw new RuntimeException(
 					authentication.getClass().getSimpleName() + " cannot replace authentication " + authName);
 		}
-		this.authentications = new HashMap<>(this.authentications);
-		this.authentications.put(authName, authentication);
-		this.authentications = Collections.unmodifiableMap(this.authentications);
+		Map<String, Authentication> authentications = new HashMap<>(this.authentications);
+		authentications.put(authName, authentication);
+		this.authentications = Collections.unmodifiableMap(authentications);
+	}
+
+	/**
+	 * Authenticate the bearer requests with the tokens of a token manager, which
+	 * refreshes them before they expire. New tokens are installed by the manager itself,
+	 * without replacing the authentication.
+	 * @param tokenManager the token manager
+	 */
+	public synchronized void setTokenManager(TokenManager tokenManager) {
+		setBearerAuthentication(tokenManager);
+	}
+
+	/**
+	 * Authenticate the bearer requests with a scheme obtaining its own tokens, such as a
+	 * {@link TokenManager} or a {@link PrivateKeyJwtAuth}.
+	 * @param authentication the authentication, null to restore a plain
+	 * {@link HttpBearerAuth}
+	 */
+	public synchronized void setBearerAuthentication(Authentication authentication) {
+		Map<String, Authentication> authentications = new HashMap<>(this.authentications);
+		authentications.put(HttpBearerAuth.NAME, authentication != null ? authentication : new HttpBearerAuth());
+		this.authentications = Collections.unmodifiableMap(authentications);
+		this.tokenManager = authentication instanceof TokenManager ? (TokenManager) authentication : null;
 	}
 
 	/**
@@ -171,7 +366,257 @@ public class ApiClient extends AbstractApiClient {
 	@SuppressWarnings("unchecked")
 	public <T> T execute(String path, String method, RequestHttpEntity requestEntity, Type responseType)
 			throws Exception {
-		String url = buildUrl(path, requestEntity.getQuery().buildQueryUrl());
+		ClassicHttpRequest request = buildRequest(path, method, requestEntity);
+
+		ResponseHandler<T> responseHandler = super.selectResponseHandler(responseType);
+
+		try {
+			RequestCoalescer coalescer = this.requestCoalescer;
+			if (coalescer != null && isIdempotentRead(method, requestEntity)) {
+				return coalescer.execute(coalescingKey(request, responseType),
+						() -> executeRead(path, requestEntity, request, responseHandler));
+			}
+			return executeRead(path, requestEntity, request, responseHandler);
+		}
+		catch (Exception ex) {
+			if (ex instanceof ApiException) {
+				throw ex;
+			}
+			throw new ApiException(ex.getMessage());
+		}
+	}
+
+	private <T> T executeRead(String path, RequestHttpEntity requestEntity, ClassicHttpRequest request,
+			ResponseHandler<T> responseHandler) throws Exception {
+		HedgingPolicy policy = this.hedgingPolicy;
+		if (policy != null && isIdempotentRead(request.getMethod(), requestEntity)) {
+			return executeHedged(policy, path, requestEntity, request, responseHandler);
+		}
+		return executeAttempt(path, requestEntity, request, responseHandler);
+	}
+
+	private <T> T executeAttempt(String path, RequestHttpEntity requestEntity, ClassicHttpRequest request,
+			ResponseHandler<T> responseHandler) throws Exception {
+		HttpClientContext context = buildContext(request, requestEntity);
+
+		GuardedCall call = admit(path, requestEntity);
+		try {
+			T result = this.httpClient.execute(request, context, responseHandler);
+			call.complete(null);
+			return result;
+		}
+		catch (Exception ex) {
+			if (request instanceof HttpUriRequestBase && ((HttpUriRequestBase) request).isCancelled()) {
+				// lost the race against its hedge
+				call.abandon();
+			}
+			else {
+				call.complete(ex);
+			}
+			throw ex;
+		}
+	}
+
+	/**
+	 * Send the request on the caller thread and, if it has not answered after the hedge
+	 * delay, a hedge on the executor of the policy. The first successful answer wins and
+	 * aborts the other attempt.
+	 */
+	private <T> T executeHedged(HedgingPolicy policy, String path, RequestHttpEntity requestEntity,
+			ClassicHttpRequest request, ResponseHandler<T> responseHandler) throws Exception {
+		String route = hedgeRoute(path, requestEntity);
+		HttpUriRequestBase primary = copyRequest(request);
+		AtomicReference<HttpUriRequestBase> hedgeRequest = new AtomicReference<>();
+		CompletableFuture<T> hedgeResult = new CompletableFuture<>();
+
+		policy.onRequest();
+		long startNanos = System.nanoTime();
+		ScheduledFuture<?> hedgeTimer = policy.schedule(() -> policy.executor().execute(() -> {
+			if (primary.isCancelled() || hedgeResult.isDone() || !policy.tryAcquireHedge()) {
+				hedgeResult.cancel(false);
+				return;
+			}
+			try {
+				HttpUriRequestBase hedge = copyRequest(request);
+				hedgeRequest.set(hedge);
+				if (hedgeResult.isDone()) {
+					// the primary completed meanwhile
+					return;
+				}
+				T result = executeAttempt(path, requestEntity, hedge, responseHandler);
+				if (hedgeResult.complete(result)) {
+					primary.cancel();
+				}
+			}
+			catch (Exception ex) {
+				hedgeResult.completeExceptionally(ex);
+			}
+		}), policy.getDelayNanos(route));
+
+		try {
+			T result = executeAttempt(path, requestEntity, primary, responseHandler);
+			policy.recordLatency(route, System.nanoTime() - startNanos);
+			return result;
+		}
+		catch (Exception ex) {
+			if (!primary.isCancelled()) {
+				policy.recordLatency(route, System.nanoTime() - startNanos);
+			}
+			if (hedgeTimer.cancel(false)) {
+				throw ex;
+			}
+			// the hedge is running, or won
+			try {
+				return hedgeResult.get();
+			}
+			catch (CancellationException | ExecutionException hedgeEx) {
+				throw ex;
+			}
+		}
+		finally {
+			hedgeTimer.cancel(false);
+			hedgeResult.cancel(false);
+			HttpUriRequestBase hedge = hedgeRequest.get();
+			if (hedge != null) {
+				hedge.cancel();
+			}
+		}
+	}
+
+	/**
+	 * Whether the request is an idempotent read, flagged for hedging and coalescing.
+	 */
+	protected boolean isIdempotentRead(String method, RequestHttpEntity requestEntity) {
+		return requestEntity.isIdempotentRead() && HttpGet.METHOD_NAME.equals(method);
+	}
+
+	/**
+	 * Get the identity of a read for coalescing: its method, URL and headers, which carry
+	 * the credentials, and the type it is converted to.
+	 */
+	protected String coalescingKey(ClassicHttpRequest request, Type responseType) throws URISyntaxException {
+		StringBuilder key = new StringBuilder(256);
+		key.append(request.getMethod()).append(' ').append(request.getUri());
+		for (NameValuePair header : request.getHeaders()) {
+			key.append('\n').append(header.getName()).append(": ").append(header.getValue());
+		}
+		key.append('\n').append(responseType != null ? responseType.getTypeName() : "");
+		return key.toString();
+	}
+
+	/**
+	 * Coalesce identical reads in flight into a single request, whose result or exception
+	 * is shared by all the callers.
+	 * @param requestCoalescingEnabled whether to coalesce identical reads
+	 */
+	public void setRequestCoalescingEnabled(boolean requestCoalescingEnabled) {
+		this.requestCoalescer = requestCoalescingEnabled ? new RequestCoalescer() : null;
+	}
+
+	public boolean isRequestCoalescingEnabled() {
+		return this.requestCoalescer != null;
+	}
+
+	/**
+	 * Get the mapper of the codec.
+	 * @return the object mapper encoding and decoding the JSON bodies
+	 */
+	public ObjectMapper getObjectMapper() {
+		return getCodec().getObjectMapper();
+	}
+
+	/**
+	 * Encode and decode with the given mapper, see {@link #setCodec(Codec)}.
+	 * @param objectMapper the object mapper
+	 */
+	public void setObjectMapper(ObjectMapper objectMapper) {
+		setCodec(new JacksonCodec(objectMapper));
+	}
+
+	/**
+	 * Set the content codings of the responses, in order of preference, the first one
+	 * also encodes the large request bodies. The synchronous client decodes the responses
+	 * with the codings of its {@code HttpClient}.
+	 * @param contentCodings the content codings, empty to only accept identity
+	 */
+	public void setContentCodings(List<ContentCoding> contentCodings) {
+		this.contentCodings = List.copyOf(contentCodings);
+		this.acceptEncoding = acceptEncoding(this.contentCodings);
+	}
+
+	private static String acceptEncoding(List<ContentCoding> contentCodings) {
+		return contentCodings.stream().map(ContentCoding::getName).collect(Collectors.joining(", "));
+	}
+
+	/**
+	 * Get the route whose latencies define the hedge delay of the request.
+	 */
+	protected String hedgeRoute(String path, RequestHttpEntity requestEntity) {
+		return requestEntity.getRouteTemplate() != null ? requestEntity.getRouteTemplate() : path;
+	}
+
+	private HttpUriRequestBase copyRequest(ClassicHttpRequest request) throws URISyntaxException {
+		HttpUriRequestBase copy = new HttpUriRequestBase(request.getMethod(), request.getUri());
+		copy.setHeaders(request.getHeaders());
+		// the entity of a read is empty and repeatable
+		copy.setEntity(request.getEntity());
+		return copy;
+	}
+
+	/**
+	 * Admit a call through the circuit breaker of its route template and the concurrency
+	 * limiter of its endpoint group, if configured.
+	 * @param path the request path
+	 * @param requestEntity the request entity
+	 * @return the admitted call, to be completed with its outcome
+	 * @throws CallNotPermittedException if the circuit breaker of the route is open
+	 * @throws LimitExceededException if the endpoint group of the request is at its limit
+	 */
+	GuardedCall admit(String path, RequestHttpEntity requestEntity)
+			throws CallNotPermittedException, LimitExceededException {
+		CircuitBreakerRegistry registry = this.circuitBreakerRegistry;
+		ConcurrencyLimiter limiter = this.concurrencyLimiter;
+		String routeTemplate = requestEntity.getRouteTemplate();
+		if (limiter == null && (registry == null || routeTemplate == null)) {
+			return GuardedCall.UNGUARDED;
+		}
+
+		CircuitBreaker circuitBreaker = null;
+		if (registry != null && routeTemplate != null) {
+			circuitBreaker = registry.circuitBreaker(routeTemplate);
+			if (!circuitBreaker.tryAcquirePermission()) {
+				throw new CallNotPermittedException(routeTemplate);
+			}
+		}
+		Permit permit;
+		try {
+			permit = limiter != null ? limiter.acquire(path) : null;
+		}
+		catch (LimitExceededException ex) {
+			if (circuitBreaker != null) {
+				circuitBreaker.releasePermission();
+			}
+			throw ex;
+		}
+		return new GuardedCall(circuitBreaker, permit);
+	}
+
+	/**
+	 * Build the http request for the given path, applying the configured authentications,
+	 * headers and body of the request entity.
+	 * @param path the request path
+	 * @param method the http method
+	 * @param requestEntity the request entity
+	 * @return the http request
+	 * @throws ApiException if the request body can not be serialized
+	 */
+	protected ClassicHttpRequest buildRequest(String path, String method, RequestHttpEntity requestEntity)
+			throws ApiException {
+		String url = buildUrl(path);
+		String queryString = requestEntity.getQuery().buildQueryUrl();
+		if (!queryString.isEmpty()) {
+			url = url + '?' + queryString;
+		}
 		if (log.isDebugEnabled()) {
 			log.debug("HTTP method: {}, url: {}, body: {}", method, url, requestEntity.getBody());
 		}
@@ -189,18 +634,6 @@ public class ApiClient extends AbstractApiClient {
 			}
 		});
 
-		// build cookie
-		BasicCookieStore store = new BasicCookieStore();
-		Optional.ofNullable(requestEntity.getCookie()).ifPresent(cookie -> {
-			if (!Objects.isEmpty(cookie.getCookies())) {
-				return;
-			}
-			cookie.getCookies().forEach((k, v) -> store.addCookie(buildCookie(k, v, builder.getUri())));
-		});
-
-		HttpClientContext context = HttpClientContext.create();
-		context.setCookieStore(store);
-
 		Object body = requestEntity.getBody();
 		Query query = requestEntity.getQuery();
 		ContentType contentTypeObj = Optional.ofNullable(requestEntity.getHeaders())
@@ -221,22 +654,44 @@ public class ApiClient extends AbstractApiClient {
 			builder.setEntity(new StringEntity("", contentTypeObj));
 		}
 
-		ResponseHandler<T> responseHandler = super.selectResponseHandler(responseType);
+		return builder.build();
+	}
 
-		try {
-			return this.httpClient.execute(builder.build(), context, responseHandler);
-		}
-		catch (Exception ex) {
-			if (ex instanceof ApiException) {
-				throw ex;
+	/**
+	 * Build the execution context of the given request, carrying the cookies of the
+	 * request entity.
+	 * @param request the http request
+	 * @param requestEntity the request entity
+	 * @return the execution context
+	 * @throws URISyntaxException if the request uri is invalid
+	 */
+	protected HttpClientContext buildContext(ClassicHttpRequest request, RequestHttpEntity requestEntity)
+			throws URISyntaxException {
+		URI uri = request.getUri();
+
+		// build cookie
+		BasicCookieStore store = new BasicCookieStore();
+		Optional.ofNullable(requestEntity.getCookie()).ifPresent(cookie -> {
+			if (!Objects.isEmpty(cookie.getCookies())) {
+				return;
 			}
-			throw new ApiException(ex.getMessage());
-		}
+			cookie.getCookies().forEach((k, v) -> store.addCookie(buildCookie(k, v, uri)));
+		});
+
+		HttpClientContext context = HttpClientContext.create();
+		context.setCookieStore(store);
+		// the retry strategy needs the request to check its idempotency, and its time
+		// budget counts from here
+		context.setAttribute(HttpCoreContext.HTTP_REQUEST, request);
+		context.setAttribute(BackoffRetryStrategy.START_TIME_ATTRIBUTE, System.nanoTime());
+		return context;
 	}
 
 	/**
-	 * Serialize the given Java object into string according the given Content-Type (only
-	 * JSON is supported for now).
+	 * Serialize the given Java object according the given Content-Type (only JSON is
+	 * supported for now). JSON is written straight to the connection by a
+	 * {@link JsonHttpEntity}. Bodies sent with their length are serialized before the
+	 * request, only the chunked ones are streamed.
 	 * @param obj Object
 	 * @param contentType Content type
 	 * @param formParams Form parameters
@@ -247,10 +702,29 @@ public class ApiClient extends AbstractApiClient {
 			throws ApiException {
 		String mimeType = contentType.getMimeType();
 		if (MediaType.isJsonMime(mimeType)) {
+			JsonHttpEntity entity = new JsonHttpEntity(obj, getCodec().writer(obj.getClass()), contentType,
+					this.chunkedRequestBody);
+			boolean compressed = this.requestCompressionThreshold >= 0 && !this.contentCodings.isEmpty();
 			try {
-				return new StringEntity(this.objectMapper.writeValueAsString(obj), contentType);
+				if (this.chunkedRequestBody) {
+					if (!compressed) {
+						return entity;
+					}
+					// the length is unknown, only serialize the bodies below the
+					// threshold
+					byte[] content = entity.toByteArray(this.requestCompressionThreshold - 1);
+					return content != null ? new ByteArrayEntity(content, contentType)
+							: new EncodedHttpEntity(entity, this.contentCodings.get(0));
+				}
+				// precompute the length, failing before the request is sent
+				byte[] content = entity.toByteArray();
+				if (!compressed || content.length < this.requestCompressionThreshold) {
+					return entity;
+				}
+				ContentCoding coding = this.contentCodings.get(0);
+				return new ByteArrayEntity(coding.encode(content), contentType, coding.getName());
 			}
-			catch (JsonProcessingException ex) {
+			catch (IOException ex) {
 				throw new ApiException(ex);
 			}
 		}
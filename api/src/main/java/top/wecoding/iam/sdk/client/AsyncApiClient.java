@@ -0,0 +1,438 @@
+package top.wecoding.iam.sdk.client;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestProducer;
+import org.apache.hc.client5.http.async.methods.SimpleResponseConsumer;
+import org.apache.hc.client5.http.classic.methods.HttpDelete;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.classic.methods.HttpPost;
+import org.apache.hc.client5.http.classic.methods.HttpPut;
+import org.apache.hc.client5.http.entity.DecompressingEntity;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.http.message.BasicClassicHttpResponse;
+import org.apache.hc.core5.io.CloseMode;
+import top.wecoding.iam.sdk.client.auth.Authentication;
+import top.wecoding.iam.sdk.client.entity.ContentCoding;
+import top.wecoding.iam.sdk.client.entity.EncodedHttpEntity;
+import top.wecoding.iam.sdk.client.entity.JsonHttpEntity;
+import top.wecoding.iam.sdk.client.handler.ResponseHandler;
+import top.wecoding.iam.sdk.client.hedge.HedgingPolicy;
+import top.wecoding.iam.sdk.config.ClientConfiguration;
+import top.wecoding.iam.sdk.exception.ApiException;
+import top.wecoding.iam.sdk.model.request.RequestHttpEntity;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Non-blocking IAM API client, executing requests on the I/O reactor of a
+ * {@link CloseableHttpAsyncClient} so that a few reactor threads can keep many requests
+ * in flight.
+ *
+ * <p>
+ * Requests are built from the same {@link RequestHttpEntity} model and authentications as
+ * {@link ApiClient}, and responses are converted by the same {@link ResponseHandler}s.
+ * The blocking operations inherited from {@link ApiClient} wait for the asynchronous
+ * result, so this client can also back the blocking APIs.
+ *
+ * <p>
+ * Over HTTP/2 the number of streams the client has in flight can be bounded by
+ * {@link ClientConfiguration#getMaxStreamsInFlight()}, requests beyond the limit wait in
+ * a queue without holding any thread.
+ *
+ * <p>
+ * With a {@link top.wecoding.iam.sdk.client.limit.ConcurrencyLimiter}, requests beyond
+ * the adaptive limit of their endpoint group fail fast with a
+ * {@link top.wecoding.iam.sdk.exception.LimitExceededException}, and with a
+ * {@link top.wecoding.iam.sdk.client.circuit.CircuitBreakerRegistry}, requests to an
+ * endpoint whose circuit is open fail fast with a
+ * {@link top.wecoding.iam.sdk.exception.CallNotPermittedException}.
+ *
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+@Getter
+public class AsyncApiClient extends ApiClient implements Closeable {
+
+	private final CloseableHttpAsyncClient httpAsyncClient;
+
+	private final StreamLimiter streamLimiter;
+
+	// views do not own the shared transport
+	@Getter(AccessLevel.NONE)
+	private final boolean derived;
+
+	public AsyncApiClient(ClientConfiguration clientConfig, CloseableHttpAsyncClient httpAsyncClient) {
+		super(clientConfig, null);
+		this.httpAsyncClient = httpAsyncClient;
+		this.streamLimiter = clientConfig != null && clientConfig.isHttp2Enabled()
+				&& clientConfig.getMaxStreamsInFlight() > 0 ? new StreamLimiter(clientConfig.getMaxStreamsInFlight())
+						: null;
+		this.derived = false;
+	}
+
+	/**
+	 * Create a view of the parent client with its own authentications.
+	 * @param parent the client whose transport and state are shared
+	 * @param authentications the authentications of the view
+	 */
+	protected AsyncApiClient(AsyncApiClient parent, Map<String, Authentication> authentications) {
+		super(parent, authentications);
+		this.httpAsyncClient = parent.httpAsyncClient;
+		this.streamLimiter = parent.streamLimiter;
+		this.derived = true;
+	}
+
+	@Override
+	public AsyncApiClient withAuthentication(String authName, Authentication authentication) {
+		return (AsyncApiClient) super.withAuthentication(authName, authentication);
+	}
+
+	@Override
+	public AsyncApiClient withBearerToken(String bearerToken) {
+		return (AsyncApiClient) super.withBearerToken(bearerToken);
+	}
+
+	@Override
+	protected ApiClient derive(Map<String, Authentication> authentications) {
+		return new AsyncApiClient(this, authentications);
+	}
+
+	public <T> CompletableFuture<T> getAsync(String path, RequestHttpEntity requestEntity, Type responseType) {
+		return executeAsync(path, HttpGet.METHOD_NAME, requestEntity, responseType);
+	}
+
+	public <T> CompletableFuture<T> postAsync(String path, RequestHttpEntity requestEntity, Type responseType) {
+		return executeAsync(path, HttpPost.METHOD_NAME, requestEntity, responseType);
+	}
+
+	public <T> CompletableFuture<T> putAsync(String path, RequestHttpEntity requestEntity, Type responseType) {
+		return executeAsync(path, HttpPut.METHOD_NAME, requestEntity, responseType);
+	}
+
+	public <T> CompletableFuture<T> deleteAsync(String path, RequestHttpEntity requestEntity, Type responseType) {
+		return executeAsync(path, HttpDelete.METHOD_NAME, requestEntity, responseType);
+	}
+
+	/**
+	 * Execute the request without blocking the caller thread.
+	 * @param path the request path
+	 * @param method the http method
+	 * @param requestEntity the request entity
+	 * @param responseType the response type
+	 * @return a future completed with the converted response, or exceptionally with an
+	 * {@link ApiException}
+	 */
+	public <T> CompletableFuture<T> executeAsync(String path, String method, RequestHttpEntity requestEntity,
+			Type responseType) {
+		// built and authenticated once, for the coalescing key and all the attempts
+		ClassicHttpRequest request;
+		try {
+			request = buildRequest(path, method, requestEntity);
+		}
+		catch (Exception ex) {
+			return CompletableFuture.failedFuture(translateException(ex));
+		}
+		if (!isIdempotentRead(method, requestEntity)) {
+			return send(path, requestEntity, request, responseType);
+		}
+		RequestCoalescer coalescer = getRequestCoalescer();
+		if (coalescer == null) {
+			return executeReadAsync(path, requestEntity, request, responseType);
+		}
+		String key;
+		try {
+			key = coalescingKey(request, responseType);
+		}
+		catch (Exception ex) {
+			return CompletableFuture.failedFuture(translateException(ex));
+		}
+		return coalescer.executeAsync(key, () -> executeReadAsync(path, requestEntity, request, responseType));
+	}
+
+	private <T> CompletableFuture<T> executeReadAsync(String path, RequestHttpEntity requestEntity,
+			ClassicHttpRequest request, Type responseType) {
+		HedgingPolicy policy = getHedgingPolicy();
+		if (policy != null) {
+			return executeHedgedAsync(policy, path, requestEntity, request, responseType);
+		}
+		return send(path, requestEntity, request, responseType);
+	}
+
+	/**
+	 * Send the request and, if it has not answered after the hedge delay, a hedge. The
+	 * first successful answer wins and cancels the other attempt.
+	 */
+	private <T> CompletableFuture<T> executeHedgedAsync(HedgingPolicy policy, String path,
+			RequestHttpEntity requestEntity, ClassicHttpRequest request, Type responseType) {
+		String route = hedgeRoute(path, requestEntity);
+		CompletableFuture<T> result = new CompletableFuture<>();
+		List<CompletableFuture<T>> attempts = new CopyOnWriteArrayList<>();
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		// the primary attempt and the hedge, scheduled or sent
+		AtomicInteger pending = new AtomicInteger(2);
+
+		Runnable releaseAttempt = () -> {
+			if (pending.decrementAndGet() == 0) {
+				result.completeExceptionally(failure.get());
+			}
+		};
+		Consumer<CompletableFuture<T>> track = attempt -> {
+			attempts.add(attempt);
+			attempt.whenComplete((response, ex) -> {
+				if (ex == null) {
+					result.complete(response);
+				}
+				else {
+					failure.compareAndSet(null, ex);
+					releaseAttempt.run();
+				}
+			});
+			if (result.isDone()) {
+				attempt.cancel(true);
+			}
+		};
+
+		policy.onRequest();
+		ScheduledFuture<?> hedgeTimer = policy.schedule(() -> {
+			if (result.isDone() || !policy.tryAcquireHedge()) {
+				releaseAttempt.run();
+				return;
+			}
+			track.accept(send(path, requestEntity, request, responseType));
+		}, policy.getDelayNanos(route));
+
+		long startNanos = System.nanoTime();
+		CompletableFuture<T> primary = send(path, requestEntity, request, responseType);
+		primary.whenComplete((response, ex) -> {
+			if (!primary.isCancelled()) {
+				policy.recordLatency(route, System.nanoTime() - startNanos);
+			}
+			if (ex != null && hedgeTimer.cancel(false)) {
+				// fail fast rather than waiting for the hedge delay
+				releaseAttempt.run();
+			}
+		});
+		track.accept(primary);
+
+		result.whenComplete((response, ex) -> {
+			hedgeTimer.cancel(false);
+			attempts.forEach(attempt -> attempt.cancel(true));
+		});
+		return result;
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> CompletableFuture<T> send(String path, RequestHttpEntity requestEntity,
+			ClassicHttpRequest classicRequest, Type responseType) {
+		CompletableFuture<T> result = new CompletableFuture<>();
+
+		SimpleHttpRequest request;
+		HttpClientContext context;
+		ResponseHandler<T> responseHandler;
+		GuardedCall call;
+		try {
+			context = buildContext(classicRequest, requestEntity);
+			request = toSimpleRequest(classicRequest);
+			responseHandler = selectResponseHandler(responseType);
+			call = admit(path, requestEntity);
+		}
+		catch (Exception ex) {
+			result.completeExceptionally(translateException(ex));
+			return result;
+		}
+		// cancelled before completion, the outcome is unknown
+		result.whenComplete((response, ex) -> {
+			if (result.isCancelled()) {
+				call.abandon();
+			}
+		});
+
+		StreamLimiter limiter = this.streamLimiter;
+		if (limiter == null) {
+			dispatch(request, context, responseHandler, call, result);
+		}
+		else {
+			limiter.submit(() -> {
+				if (result.isDone()) {
+					// cancelled while waiting for a stream
+					limiter.release();
+					return;
+				}
+				result.whenComplete((response, ex) -> limiter.release());
+				dispatch(request, context, responseHandler, call, result);
+			});
+		}
+		return result;
+	}
+
+	private <T> void dispatch(SimpleHttpRequest request, HttpClientContext context, ResponseHandler<T> responseHandler,
+			GuardedCall call, CompletableFuture<T> result) {
+		Future<SimpleHttpResponse> future;
+		try {
+			future = this.httpAsyncClient.execute(SimpleRequestProducer.create(request),
+					SimpleResponseConsumer.create(), context, new FutureCallback<>() {
+
+						@Override
+						public void completed(SimpleHttpResponse response) {
+							T converted;
+							try {
+								converted = responseHandler.handleResponse(toClassicResponse(response));
+							}
+							catch (Exception ex) {
+								call.complete(ex);
+								result.completeExceptionally(translateException(ex));
+								return;
+							}
+							call.complete(null);
+							result.complete(converted);
+						}
+
+						@Override
+						public void failed(Exception ex) {
+							call.complete(ex);
+							result.completeExceptionally(translateException(ex));
+						}
+
+						@Override
+						public void cancelled() {
+							result.cancel(false);
+						}
+
+					});
+		}
+		catch (RuntimeException ex) {
+			call.complete(ex);
+			result.completeExceptionally(translateException(ex));
+			return;
+		}
+
+		// propagate the cancellation of the caller to the exchange
+		result.whenComplete((response, ex) -> {
+			if (result.isCancelled()) {
+				future.cancel(true);
+			}
+		});
+	}
+
+	/**
+	 * Blocking execution, waiting for the result of
+	 * {@link #executeAsync(String, String, RequestHttpEntity, Type)}.
+	 */
+	@Override
+	public <T> T execute(String path, String method, RequestHttpEntity requestEntity, Type responseType)
+			throws Exception {
+		CompletableFuture<T> future = executeAsync(path, method, requestEntity, responseType);
+		try {
+			return future.get();
+		}
+		catch (InterruptedException ex) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new ApiException(ex);
+		}
+		catch (ExecutionException ex) {
+			throw translateException(ex.getCause());
+		}
+	}
+
+	/**
+	 * Close the transport. Closing a view of a client does nothing, the transport is
+	 * closed with the client it was derived from.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (!this.derived) {
+			this.httpAsyncClient.close(CloseMode.GRACEFUL);
+		}
+	}
+
+	private SimpleHttpRequest toSimpleRequest(ClassicHttpRequest classicRequest) throws Exception {
+		SimpleHttpRequest request = SimpleHttpRequest.create(classicRequest.getMethod(), classicRequest.getUri());
+		request.setHeaders(classicRequest.getHeaders());
+		if (!request.containsHeader(HttpHeaders.ACCEPT_ENCODING) && !getContentCodings().isEmpty()) {
+			request.setHeader(HttpHeaders.ACCEPT_ENCODING, getAcceptEncoding());
+		}
+		HttpEntity entity = classicRequest.getEntity();
+		if (entity != null && (entity.getContentLength() != 0 || isBodyAllowed(classicRequest.getMethod()))) {
+			ContentType contentType = entity.getContentType() != null ? ContentType.parse(entity.getContentType())
+					: null;
+			// a JSON body is serialized once, the request holds its bytes
+			byte[] body;
+			if (entity instanceof JsonHttpEntity) {
+				body = ((JsonHttpEntity) entity).toByteArray();
+			}
+			else if (entity instanceof EncodedHttpEntity) {
+				body = ((EncodedHttpEntity) entity).toByteArray();
+			}
+			else {
+				body = EntityUtils.toByteArray(entity);
+			}
+			request.setBody(body, contentType);
+			if (entity.getContentEncoding() != null) {
+				request.setHeader(HttpHeaders.CONTENT_ENCODING, entity.getContentEncoding());
+			}
+		}
+		return request;
+	}
+
+	private ClassicHttpResponse toClassicResponse(SimpleHttpResponse response) {
+		BasicClassicHttpResponse classicResponse = new BasicClassicHttpResponse(response.getCode(),
+				response.getReasonPhrase());
+		classicResponse.setVersion(response.getVersion());
+		classicResponse.setHeaders(response.getHeaders());
+		byte[] body = response.getBodyBytes();
+		if (body != null) {
+			HttpEntity entity = new ByteArrayEntity(body, response.getContentType());
+			ContentCoding coding = contentCoding(response.getFirstHeader(HttpHeaders.CONTENT_ENCODING));
+			// decoded while the handler reads it
+			classicResponse.setEntity(coding != null ? new DecompressingEntity(entity, coding::decode) : entity);
+		}
+		return classicResponse;
+	}
+
+	private ContentCoding contentCoding(Header contentEncoding) {
+		if (contentEncoding == null) {
+			return null;
+		}
+		String name = contentEncoding.getValue().trim();
+		for (ContentCoding coding : getContentCodings()) {
+			if (coding.getName().equalsIgnoreCase(name)) {
+				return coding;
+			}
+		}
+		return null;
+	}
+
+	private ApiException translateException(Throwable ex) {
+		if (ex instanceof ApiException) {
+			return (ApiException) ex;
+		}
+		return new ApiException(ex);
+	}
+
+}
@@ -1,5 +1,14 @@
 package top.wecoding.iam.sdk.client;
 
+import top.wecoding.iam.sdk.client.circuit.CircuitBreakerConfig;
+import top.wecoding.iam.sdk.client.entity.ContentCoding;
+import top.wecoding.iam.sdk.client.hedge.HedgingPolicy;
+import top.wecoding.iam.sdk.codec.Codec;
+import top.wecoding.iam.sdk.codec.JacksonCodec;
+
+import java.util.List;
+import java.util.Set;
+
 /**
  * @author Wecoding Liu
  * @since 0.8
@@ -7,7 +16,8 @@ package top.wecoding.iam.sdk.client;
 public interface ClientBuilder {
 
 	/**
-	 * Sets the HTTP proxy to be used when communicating with the IAM API server.
+	 * Sets the HTTP proxy to be used when communicating with the IAM API server. Not
+	 * supported by the HTTP/2 transport.
 	 * @param proxy the {@code Proxy} you need to use.
 	 * @return ClientBuilder
 	 */
@@ -21,12 +31,284 @@ public interface ClientBuilder {
 	ClientBuilder setRetryMaxElapsed(int maxElapsed);
 
 	/**
-	 * Sets the maximum number of attempts to retrying before giving up.
+	 * Sets the maximum number of attempts of a request, the first one included, before
+	 * giving up. Defaults to {@code 1}, no retry.
 	 * @param maxAttempts retry max attempts
 	 * @return ClientBuilder
 	 */
 	ClientBuilder setRetryMaxAttempts(int maxAttempts);
 
+	/**
+	 * Sets the share of retries allowed relative to first attempts, by default
+	 * {@code 0.1}. Retries beyond this share are not attempted, so that a failing server
+	 * is not flooded with retries.
+	 * @param retryBudgetRatio retry budget ratio
+	 * @return ClientBuilder
+	 */
+	ClientBuilder setRetryBudgetRatio(double retryBudgetRatio);
+
+	/**
+	 * Enables the adaptive concurrency limiter: the number of requests in flight to each
+	 * endpoint group (authentication, user management) is adjusted from the observed
+	 * latency and errors, and requests beyond it fail fast with a
+	 * {@link top.wecoding.iam.sdk.exception.LimitExceededException}.
+	 * @param concurrencyLimitEnabled whether to limit the requests in flight
+	 * @return ClientBuilder
+	 */
+	ClientBuilder setConcurrencyLimitEnabled(boolean concurrencyLimitEnabled);
+
+	/**
+	 * Sets the upper bound of the adaptive concurrency limit of each endpoint group, by
+	 * default {@code 200}.
+	 * @param maxConcurrencyLimit max concurrency limit
+	 * @return ClientBuilder
+	 */
+	ClientBuilder setMaxConcurrencyLimit(int maxConcurrencyLimit);
+
+	/**
+	 * Enables a circuit breaker per endpoint: calls to an endpoint whose recent calls
+	 * mostly failed or were slow fail fast with a
+	 * {@link top.wecoding.iam.sdk.exception.CallNotPermittedException}, until probe calls
+	 * succeed again. State transitions can be observed through
+	 * {@link ApiClient#getCircuitBreakerRegistry()}.
+	 * @param circuitBreakerEnabled whether to use circuit breakers
+	 * @return ClientBuilder
+	 */
+	ClientBuilder setCircuitBreakerEnabled(boolean circuitBreakerEnabled);
+
+	/**
+	 * Sets the thresholds of the circuit breakers.
+	 * @param circuitBreakerConfig the circuit breaker config
+	 * @return ClientBuilder
+	 */
+	ClientBuilder setCircuitBreakerConfig(CircuitBreakerConfig circuitBreakerConfig);
+
+	/**
+	 * Enables hedged reads: idempotent reads on latency critical paths, such as
+	 * {@link top.wecoding.iam.sdk.api.UserApi#getUserInfo(String)}, send a second attempt
+	 * when the first one has not answered after the hedge delay of the policy, and use
+	 * the first answer.
+	 * @param hedgingPolicy the hedging policy, null to disable hedging
+	 * @return ClientBuilder
+	 */
+	ClientBuilder setHedgingPolicy(HedgingPolicy hedgingPolicy);
+
+	/**
+	 * Enables the coalescing of identical reads: while a read such as
+	 * {@link top.wecoding.iam.sdk.api.UserApi#getUserInfo(String)} is in flight, the same
+	 * read with the same credentials waits for its outcome instead of sending another
+	 * request. All the callers get the same result object, or the same exception.
+	 * @param requestCoalescingEnabled whether to coalesce identical reads
+	 * @return ClientBuilder
+	 */
+	ClientBuilder setRequestCoalescingEnabled(boolean requestCoalescingEnabled);
+
+	/**
+	 * Streams the JSON request bodies in chunks as they are serialized, instead of
+	 * serializing them first to send their length. Chunks save the memory of large
+	 * bodies, e.g. of bulk operations, but some servers and proxies reject them. The
+	 * asynchronous client always sends the length.
+	 * @param chunkedRequestBody whether to send the JSON request bodies in chunks
+	 * @return ClientBuilder
+	 */
+	ClientBuilder setChunkedRequestBody(boolean chunkedRequestBody);
+
+	/**
+	 * Sets the content codings accepted for the responses, in order of preference, by
+	 * default gzip and deflate. Other codings, e.g. zstd, are plugged by implementing
+	 * {@link ContentCoding}.
+	 * @param contentCodings the content codings, empty to disable the compression
+	 * @return ClientBuilder
+	 */
+	ClientBuilder setContentCodings(List<ContentCoding> contentCodings);
+
+	/**
+	 * Enables the compression of the JSON request bodies from the
+	 * {@link #setRequestCompressionThreshold(int) threshold}, with the first content
+	 * coding. The server must accept the coding.
+	 * @param requestCompressionEnabled whether to compress the large request bodies
+	 * @return ClientBuilder
+	 */
+	ClientBuilder setRequestCompressionEnabled(boolean requestCompressionEnabled);
+
+	/**
+	 * Sets the size in bytes from which the JSON request bodies are compressed, by
+	 * default 8 KiB. The chunked bodies below it are sent with their length instead.
+	 * @param requestCompressionThreshold the size of the smallest compressed body
+	 * @return ClientBuilder
+	 */
+	ClientBuilder setRequestCompressionThreshold(int requestCompressionThreshold);
+
+	/**
+	 * Sets the codec of the requests and responses, by default the shared
+	 * {@link JacksonCodec#getDefault() default codec}. {@link JacksonCodec#accelerated()}
+	 * speeds up (de)serialization when {@code jackson-module-blackbird} is on the
+	 * classpath.
+	 * @param codec the codec
+	 * @return ClientBuilder
+	 */
+	ClientBuilder setCodec(Codec codec);
+
+	/**
+	 * Sets the number of I/O reactor threads used by the asynchronous client, by default
+	 * the number of available processors.
+	 * @param ioThreadCount I/O reactor thread count
+	 * @return ClientBuilder
+	 */
+	ClientBuilder setIoThreadCount(int ioThreadCount);
+
+	/**
+	 * Enables the HTTP/2 only transport: {@code h2} is selected with ALPN over TLS and
+	 * used with prior knowledge over plain connections (h2c), without falling back to
+	 * HTTP/1.1, so the server must support HTTP/2. Concurrent requests, from both
+	 * {@link #build()} and {@link #buildAsync()} clients, are multiplexed as streams over
+	 * a single connection per route. The transport does not support a proxy nor the
+	 * eviction of expired connections, building a client with them fails.
+	 * @param http2Enabled whether to use the HTTP/2 transport
+	 * @return ClientBuilder
+	 */
+	ClientBuilder setHttp2Enabled(boolean http2Enabled);
+
+	/**
+	 * Sets the maximum number of HTTP/2 streams a client opens at once, across all its
+	 * routes, additional requests are queued until a stream completes. The server still
+	 * bounds the streams of each connection with its own setting. Only applies when
+	 * HTTP/2 is enabled.
+	 * @param maxStreamsInFlight max streams in flight per client
+	 * @return ClientBuilder
+	 */
+	ClientBuilder setMaxStreamsInFlight(int maxStreamsInFlight);
+
+	/**
+	 * Sets the maximum number of pooled connections, by default 25. Does not apply when
+	 * HTTP/2 is enabled.
+	 * @param maxConnTotal max total connections
+	 * @return ClientBuilder
+	 */
+	ClientBuilder setMaxConnTotal(int maxConnTotal);
+
+	/**
+	 * Sets the maximum number of pooled connections per route, by default 5. Does not
+	 * apply when HTTP/2 is enabled.
+	 * @param maxConnPerRoute max connections per route
+	 * @return ClientBuilder
+	 */
+	ClientBuilder setMaxConnPerRoute(int maxConnPerRoute);
+
+	/**
+	 * Sets the time to live of connections in seconds, after which they are closed
+	 * instead of reused. Connections live as long as they are kept alive by default.
+	 * @param connectionTimeToLive connection time to live in seconds
+	 * @return ClientBuilder
+	 */
+	ClientBuilder setConnectionTimeToLive(long connectionTimeToLive);
+
+	/**
+	 * Sets the inactivity in seconds after which pooled connections are checked for
+	 * staleness before being leased.
+	 * @param validateAfterInactivity inactivity in seconds
+	 * @return ClientBuilder
+	 */
+	ClientBuilder setValidateAfterInactivity(long validateAfterInactivity);
+
+	/**
+	 * Sets the idle time in seconds after which a background thread closes pooled
+	 * connections, {@code 0} to keep idle connections.
+	 * @param connectionMaxIdleTime max idle time in seconds
+	 * @return ClientBuilder
+	 */
+	ClientBuilder setConnectionMaxIdleTime(long connectionMaxIdleTime);
+
+	/**
+	 * Sets whether a background thread closes pooled connections past their time to live
+	 * or keep-alive duration. Not supported by the HTTP/2 transport, whose idle
+	 * connections are evicted with {@link #setConnectionMaxIdleTime(long)}.
+	 * @param evictExpiredConnections whether to evict expired connections
+	 * @return ClientBuilder
+	 */
+	ClientBuilder setEvictExpiredConnections(boolean evictExpiredConnections);
+
+	/**
+	 * Enables the user cache:
+	 * {@link top.wecoding.iam.sdk.api.UserApi#getUserInfo(String)} is served from memory,
+	 * kept up to date by the writes of the same client, see
+	 * {@link top.wecoding.iam.sdk.cache.UserCache}.
+	 * @param cacheManagerEnabled whether to cache the users
+	 * @return ClientBuilder
+	 */
+	ClientBuilder setCacheManagerEnabled(boolean cacheManagerEnabled);
+
+	/**
+	 * Sets the number of seconds a cached user is served after it was written, by default
+	 * {@code 300}. Expired users are then revalidated with a conditional request. With
+	 * {@code 0} users never expire, so the changes made by other clients are never seen.
+	 * @param cacheManagerTtl time to live in seconds
+	 * @return ClientBuilder
+	 */
+	ClientBuilder setCacheManagerTtl(long cacheManagerTtl);
+
+	/**
+	 * Sets the number of seconds a cached user is kept without being read, by default
+	 * {@code 0}, without limit.
+	 * @param cacheManagerTti time to idle in seconds
+	 * @return ClientBuilder
+	 */
+	ClientBuilder setCacheManagerTti(long cacheManagerTti);
+
+	/**
+	 * Sets the maximum number of cached users, by default {@code 10000}.
+	 * @param cacheManagerMaxSize max size
+	 * @return ClientBuilder
+	 */
+	ClientBuilder setCacheManagerMaxSize(int cacheManagerMaxSize);
+
+	/**
+	 * Sets the base URL of the IAM API server, by default
+	 * {@code https://iam.wecoding.top}.
+	 * @param baseUrl base URL
+	 * @return ClientBuilder
+	 */
+	ClientBuilder setBaseUrl(String baseUrl);
+
+	/**
+	 * Sets the client id, the issuer of the client assertions signed with the
+	 * {@link #setPrivateKey(String) private key}.
+	 * @param clientId client id
+	 * @return ClientBuilder
+	 */
+	ClientBuilder setClientId(String clientId);
+
+	/**
+	 * Sets the private key of the client, in PEM format. When set, the bearer requests
+	 * are authenticated with the client credentials tokens obtained through
+	 * {@code private_key_jwt} assertions, see
+	 * {@link top.wecoding.iam.sdk.client.auth.PrivateKeyJwtAuth}.
+	 * @param privateKey the PKCS#8 RSA or EC private key
+	 * @return ClientBuilder
+	 */
+	ClientBuilder setPrivateKey(String privateKey);
+
+	/**
+	 * Sets the id of the key of the client, set in the header of the client assertions.
+	 * @param kid key id
+	 * @return ClientBuilder
+	 */
+	ClientBuilder setKid(String kid);
+
+	/**
+	 * Sets the scopes of the client credentials tokens.
+	 * @param scopes scopes
+	 * @return ClientBuilder
+	 */
+	ClientBuilder setScopes(Set<String> scopes);
+
 	ApiClient build();
 
+	/**
+	 * Builds a non-blocking client on top of the I/O reactor, whose operations return
+	 * {@link java.util.concurrent.CompletableFuture}.
+	 * @return AsyncApiClient
+	 */
+	AsyncApiClient buildAsync();
+
 }
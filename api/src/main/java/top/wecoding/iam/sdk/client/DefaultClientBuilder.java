@@ -1,28 +1,72 @@
 package top.wecoding.iam.sdk.client;
 
+import org.apache.hc.client5.http.HttpRequestRetryStrategy;
+import org.apache.hc.client5.http.HttpRoute;
 import org.apache.hc.client5.http.auth.AuthScope;
 import org.apache.hc.client5.http.auth.UsernamePasswordCredentials;
 import org.apache.hc.client5.http.config.ConnectionConfig;
 import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.entity.InputStreamFactory;
 import org.apache.hc.client5.http.impl.DefaultAuthenticationStrategy;
 import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
-import org.apache.hc.client5.http.impl.DefaultHttpRequestRetryStrategy;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.H2AsyncClientBuilder;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClientBuilder;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
 import org.apache.hc.client5.http.impl.auth.BasicCredentialsProvider;
 import org.apache.hc.client5.http.impl.classic.DefaultBackoffStrategy;
 import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
 import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.ssl.ClientTlsStrategyBuilder;
 import org.apache.hc.core5.http.HttpHost;
 import org.apache.hc.core5.http.impl.DefaultConnectionReuseStrategy;
+import org.apache.hc.core5.http2.config.H2Config;
+import org.apache.hc.core5.pool.ConnPoolControl;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.apache.hc.core5.util.TimeValue;
 import org.apache.hc.core5.util.Timeout;
+import top.wecoding.iam.sdk.cache.UserCache;
+import top.wecoding.iam.sdk.client.auth.Authentication;
+import top.wecoding.iam.sdk.client.auth.PrivateKeyJwtAuth;
+import top.wecoding.iam.sdk.client.circuit.CircuitBreakerConfig;
+import top.wecoding.iam.sdk.client.circuit.CircuitBreakerRegistry;
+import top.wecoding.iam.sdk.client.entity.ContentCoding;
+import top.wecoding.iam.sdk.client.hedge.HedgingPolicy;
+import top.wecoding.iam.sdk.client.limit.AimdLimit;
+import top.wecoding.iam.sdk.client.limit.ConcurrencyLimiter;
+import top.wecoding.iam.sdk.client.limit.VegasLimit;
+import top.wecoding.iam.sdk.client.retry.BackoffRetryStrategy;
+import top.wecoding.iam.sdk.client.retry.RetryBudget;
+import top.wecoding.iam.sdk.codec.Codec;
 import top.wecoding.iam.sdk.config.ClientConfiguration;
 
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * @author Wecoding Liu
  * @since 0.8
  */
 public class DefaultClientBuilder implements ClientBuilder {
 
+	private static final int RETRY_BUDGET_CAPACITY = 10;
+
+	private static final int INITIAL_CONCURRENCY_LIMIT = 20;
+
+	private static final String AUTH_ENDPOINT_GROUP = "auth";
+
+	private static final String USER_ENDPOINT_GROUP = "users";
+
+	private static final String DEFAULT_ENDPOINT_GROUP = "default";
+
 	private final ClientConfiguration clientConfig = new ClientConfiguration();
 
 	@Override
@@ -35,6 +79,7 @@ public class DefaultClientBuilder implements ClientBuilder {
 			this.clientConfig.setProxyPort(proxy.getPort());
 			this.clientConfig.setProxyUsername(proxy.getUsername());
 			this.clientConfig.setProxyPassword(proxy.getPassword());
+			this.clientConfig.setProxy(proxy);
 			return this;
 		}
 	}
@@ -52,34 +97,366 @@ public class DefaultClientBuilder implements ClientBuilder {
 	}
 
 	@Override
-	public ApiClient build() {
-		HttpClientBuilder httpClientBuilder = createHttpClientBuilder(clientConfig);
+	public ClientBuilder setRetryBudgetRatio(double retryBudgetRatio) {
+		this.clientConfig.setRetryBudgetRatio(retryBudgetRatio);
+		return this;
+	}
 
-		ApiClient apiClient = new ApiClient(clientConfig, httpClientBuilder.build());
+	@Override
+	public ClientBuilder setConcurrencyLimitEnabled(boolean concurrencyLimitEnabled) {
+		this.clientConfig.setConcurrencyLimitEnabled(concurrencyLimitEnabled);
+		return this;
+	}
 
-		apiClient.setBasePath(clientConfig.getClientId());
+	@Override
+	public ClientBuilder setMaxConcurrencyLimit(int maxConcurrencyLimit) {
+		this.clientConfig.setMaxConcurrencyLimit(maxConcurrencyLimit);
+		return this;
+	}
+
+	@Override
+	public ClientBuilder setCircuitBreakerEnabled(boolean circuitBreakerEnabled) {
+		this.clientConfig.setCircuitBreakerEnabled(circuitBreakerEnabled);
+		return this;
+	}
+
+	@Override
+	public ClientBuilder setCircuitBreakerConfig(CircuitBreakerConfig circuitBreakerConfig) {
+		if (circuitBreakerConfig == null) {
+			throw new IllegalArgumentException("circuitBreakerConfig argument cannot be null.");
+		}
+		this.clientConfig.setCircuitBreakerConfig(circuitBreakerConfig);
+		return this;
+	}
+
+	@Override
+	public ClientBuilder setHedgingPolicy(HedgingPolicy hedgingPolicy) {
+		this.clientConfig.setHedgingPolicy(hedgingPolicy);
+		return this;
+	}
+
+	@Override
+	public ClientBuilder setRequestCoalescingEnabled(boolean requestCoalescingEnabled) {
+		this.clientConfig.setRequestCoalescingEnabled(requestCoalescingEnabled);
+		return this;
+	}
+
+	@Override
+	public ClientBuilder setChunkedRequestBody(boolean chunkedRequestBody) {
+		this.clientConfig.setChunkedRequestBody(chunkedRequestBody);
+		return this;
+	}
+
+	@Override
+	public ClientBuilder setContentCodings(List<ContentCoding> contentCodings) {
+		this.clientConfig.setContentCodings(List.copyOf(contentCodings));
+		return this;
+	}
+
+	@Override
+	public ClientBuilder setRequestCompressionEnabled(boolean requestCompressionEnabled) {
+		this.clientConfig.setRequestCompressionEnabled(requestCompressionEnabled);
+		return this;
+	}
+
+	@Override
+	public ClientBuilder setRequestCompressionThreshold(int requestCompressionThreshold) {
+		this.clientConfig.setRequestCompressionThreshold(requestCompressionThreshold);
+		return this;
+	}
+
+	@Override
+	public ClientBuilder setCodec(Codec codec) {
+		this.clientConfig.setCodec(codec);
+		return this;
+	}
+
+	@Override
+	public ClientBuilder setIoThreadCount(int ioThreadCount) {
+		this.clientConfig.setIoThreadCount(ioThreadCount);
+		return this;
+	}
+
+	@Override
+	public ClientBuilder setHttp2Enabled(boolean http2Enabled) {
+		this.clientConfig.setHttp2Enabled(http2Enabled);
+		return this;
+	}
+
+	@Override
+	public ClientBuilder setMaxStreamsInFlight(int maxStreamsInFlight) {
+		this.clientConfig.setMaxStreamsInFlight(maxStreamsInFlight);
+		return this;
+	}
+
+	@Override
+	public ClientBuilder setMaxConnTotal(int maxConnTotal) {
+		this.clientConfig.setMaxConnTotal(maxConnTotal);
+		return this;
+	}
+
+	@Override
+	public ClientBuilder setMaxConnPerRoute(int maxConnPerRoute) {
+		this.clientConfig.setMaxConnPerRoute(maxConnPerRoute);
+		return this;
+	}
+
+	@Override
+	public ClientBuilder setConnectionTimeToLive(long connectionTimeToLive) {
+		this.clientConfig.setConnectionTimeToLive(connectionTimeToLive);
+		return this;
+	}
+
+	@Override
+	public ClientBuilder setValidateAfterInactivity(long validateAfterInactivity) {
+		this.clientConfig.setValidateAfterInactivity(validateAfterInactivity);
+		return this;
+	}
+
+	@Override
+	public ClientBuilder setConnectionMaxIdleTime(long connectionMaxIdleTime) {
+		this.clientConfig.setConnectionMaxIdleTime(connectionMaxIdleTime);
+		return this;
+	}
+
+	@Override
+	public ClientBuilder setEvictExpiredConnections(boolean evictExpiredConnections) {
+		this.clientConfig.setEvictExpiredConnections(evictExpiredConnections);
+		return this;
+	}
+
+	@Override
+	public ClientBuilder setCacheManagerEnabled(boolean cacheManagerEnabled) {
+		this.clientConfig.setCacheManagerEnabled(cacheManagerEnabled);
+		return this;
+	}
+
+	@Override
+	public ClientBuilder setCacheManagerTtl(long cacheManagerTtl) {
+		this.clientConfig.setCacheManagerTtl(cacheManagerTtl);
+		return this;
+	}
+
+	@Override
+	public ClientBuilder setCacheManagerTti(long cacheManagerTti) {
+		this.clientConfig.setCacheManagerTti(cacheManagerTti);
+		return this;
+	}
+
+	@Override
+	public ClientBuilder setCacheManagerMaxSize(int cacheManagerMaxSize) {
+		this.clientConfig.setCacheManagerMaxSize(cacheManagerMaxSize);
+		return this;
+	}
+
+	@Override
+	public ClientBuilder setBaseUrl(String baseUrl) {
+		this.clientConfig.setBaseUrl(baseUrl);
+		return this;
+	}
+
+	@Override
+	public ClientBuilder setClientId(String clientId) {
+		this.clientConfig.setClientId(clientId);
+		return this;
+	}
+
+	@Override
+	public ClientBuilder setPrivateKey(String privateKey) {
+		this.clientConfig.setPrivateKey(privateKey);
+		return this;
+	}
+
+	@Override
+	public ClientBuilder setKid(String kid) {
+		this.clientConfig.setKid(kid);
+		return this;
+	}
+
+	@Override
+	public ClientBuilder setScopes(Set<String> scopes) {
+		this.clientConfig.setScopes(new HashSet<>(scopes));
+		return this;
+	}
+
+	@Override
+	public ApiClient build() {
+		if (this.clientConfig.isHttp2Enabled()) {
+			// the classic client is HTTP/1.1 only, block on the multiplexed transport
+			return buildAsync();
+		}
+
+		PoolingHttpClientConnectionManager connectionManager = createHttpClientConnectionManagerBuilder(clientConfig)
+			.build();
+		HttpClientBuilder httpClientBuilder = createHttpClientBuilder(clientConfig)
+			.setConnectionManager(connectionManager);
 
 		if (this.clientConfig.getProxy() != null) {
 			this.setProxy(httpClientBuilder, this.clientConfig);
 		}
 
+		return configure(new ApiClient(clientConfig, httpClientBuilder.build()), connectionManager);
+	}
+
+	@Override
+	public AsyncApiClient buildAsync() {
+		CloseableHttpAsyncClient httpAsyncClient;
+		PoolingAsyncClientConnectionManager connectionManager = null;
+		if (this.clientConfig.isHttp2Enabled()) {
+			// the HTTP/2 transport connects directly and evicts idle connections only
+			if (this.clientConfig.getProxy() != null) {
+				throw new IllegalStateException("proxy is not supported by the HTTP/2 transport.");
+			}
+			if (this.clientConfig.isEvictExpiredConnections()) {
+				throw new IllegalStateException("evictExpiredConnections is not supported by the HTTP/2 transport.");
+			}
+			httpAsyncClient = createH2AsyncClientBuilder(clientConfig).build();
+		}
+		else {
+			connectionManager = createAsyncClientConnectionManagerBuilder(clientConfig).build();
+			HttpAsyncClientBuilder httpAsyncClientBuilder = createHttpAsyncClientBuilder(clientConfig)
+				.setConnectionManager(connectionManager);
+
+			if (this.clientConfig.getProxy() != null) {
+				this.setProxy(httpAsyncClientBuilder, this.clientConfig);
+			}
+
+			httpAsyncClient = httpAsyncClientBuilder.build();
+		}
+		httpAsyncClient.start();
+
+		return configure(new AsyncApiClient(clientConfig, httpAsyncClient), connectionManager);
+	}
+
+	/**
+	 * Apply the settings shared by the blocking and the asynchronous clients.
+	 * @param apiClient the client to configure
+	 * @param connPoolControl the connection pool of the client, or null
+	 * @return the configured client
+	 */
+	private <T extends ApiClient> T configure(T apiClient, ConnPoolControl<HttpRoute> connPoolControl) {
+		if (clientConfig.getBaseUrl() != null) {
+			apiClient.setBasePath(clientConfig.getBaseUrl());
+		}
+		apiClient.setConnPoolControl(connPoolControl);
+		apiClient.setConcurrencyLimiter(createConcurrencyLimiter(clientConfig));
+		apiClient.setCircuitBreakerRegistry(createCircuitBreakerRegistry(clientConfig));
+		apiClient.setHedgingPolicy(clientConfig.getHedgingPolicy());
+		apiClient.setRequestCoalescingEnabled(clientConfig.isRequestCoalescingEnabled());
+		apiClient.setChunkedRequestBody(clientConfig.isChunkedRequestBody());
+		apiClient.setContentCodings(clientConfig.getContentCodings());
+		apiClient.setRequestCompressionThreshold(
+				clientConfig.isRequestCompressionEnabled() ? clientConfig.getRequestCompressionThreshold() : -1);
+		if (clientConfig.getCodec() != null) {
+			apiClient.setCodec(clientConfig.getCodec());
+		}
+		apiClient.setUserCache(createUserCache(clientConfig));
+		if (clientConfig.getPrivateKey() != null) {
+			apiClient.setBearerAuthentication(createPrivateKeyJwtAuth(apiClient, clientConfig));
+		}
+
 		return apiClient;
 	}
 
 	/**
-	 * Override to customize the client, allowing one to add additional interceptors.
+	 * Override to customize the client, allowing one to add additional interceptors. The
+	 * connection manager is created by {@link #createHttpClientConnectionManagerBuilder}.
 	 * @param clientConfig the current ClientConfiguration
 	 * @return an {@link HttpClientBuilder} initialized with default configuration
 	 */
 	protected HttpClientBuilder createHttpClientBuilder(ClientConfiguration clientConfig) {
-		return HttpClients.custom()
+		HttpClientBuilder builder = HttpClients.custom()
 			.setDefaultRequestConfig(createHttpRequestConfigBuilder(clientConfig).build())
-			.setConnectionManager(createHttpClientConnectionManagerBuilder(clientConfig).build())
-			.setRetryStrategy(new DefaultHttpRequestRetryStrategy())
+			.setRetryStrategy(createRetryStrategy(clientConfig))
 			.setConnectionBackoffStrategy(new DefaultBackoffStrategy())
 			.setKeepAliveStrategy(new DefaultConnectionKeepAliveStrategy())
 			.setConnectionReuseStrategy(new DefaultConnectionReuseStrategy())
 			.disableCookieManagement();
+		// advertise the content codings and decode the responses
+		LinkedHashMap<String, InputStreamFactory> contentDecoders = new LinkedHashMap<>();
+		clientConfig.getContentCodings().forEach(coding -> contentDecoders.put(coding.getName(), coding::decode));
+		if (contentDecoders.isEmpty()) {
+			builder.disableContentCompression();
+		}
+		else {
+			builder.setContentDecoderRegistry(contentDecoders);
+		}
+		if (clientConfig.isEvictExpiredConnections()) {
+			builder.evictExpiredConnections();
+		}
+		if (clientConfig.getConnectionMaxIdleTime() > 0) {
+			builder.evictIdleConnections(TimeValue.ofSeconds(clientConfig.getConnectionMaxIdleTime()));
+		}
+		return builder;
+	}
+
+	/**
+	 * Override to customize the retries. Each client gets its own retry budget.
+	 * @param clientConfig the current clientConfig
+	 * @return a {@link HttpRequestRetryStrategy} initialized with the retry settings
+	 */
+	protected HttpRequestRetryStrategy createRetryStrategy(ClientConfiguration clientConfig) {
+		// the first attempt is not a retry
+		return new BackoffRetryStrategy(Math.max(0, clientConfig.getRetryMaxAttempts() - 1),
+				Duration.ofSeconds(clientConfig.getRetryMaxElapsed()),
+				new RetryBudget(clientConfig.getRetryBudgetRatio(), RETRY_BUDGET_CAPACITY));
+	}
+
+	/**
+	 * Override to customize the concurrency limits, e.g. to use an {@link AimdLimit} or
+	 * other endpoint groups. Each endpoint group gets its own {@link VegasLimit}.
+	 * @param clientConfig the current clientConfig
+	 * @return a {@link ConcurrencyLimiter}, or null when the limiter is disabled
+	 */
+	protected ConcurrencyLimiter createConcurrencyLimiter(ClientConfiguration clientConfig) {
+		if (!clientConfig.isConcurrencyLimitEnabled()) {
+			return null;
+		}
+		Map<String, String> groups = new LinkedHashMap<>();
+		groups.put("/api/v1/auth", AUTH_ENDPOINT_GROUP);
+		groups.put("/api/v1/login", AUTH_ENDPOINT_GROUP);
+		groups.put("/api/v1/users", USER_ENDPOINT_GROUP);
+		return new ConcurrencyLimiter(
+				() -> new VegasLimit(INITIAL_CONCURRENCY_LIMIT, clientConfig.getMaxConcurrencyLimit()),
+				ConcurrencyLimiter.groupByPrefix(groups, DEFAULT_ENDPOINT_GROUP));
+	}
+
+	/**
+	 * Override to customize the circuit breakers, e.g. to register listeners.
+	 * @param clientConfig the current clientConfig
+	 * @return a {@link CircuitBreakerRegistry}, or null when circuit breakers are
+	 * disabled
+	 */
+	protected CircuitBreakerRegistry createCircuitBreakerRegistry(ClientConfiguration clientConfig) {
+		if (!clientConfig.isCircuitBreakerEnabled()) {
+			return null;
+		}
+		return new CircuitBreakerRegistry(clientConfig.getCircuitBreakerConfig());
+	}
+
+	/**
+	 * Override to customize the user cache.
+	 * @param clientConfig the current clientConfig
+	 * @return a {@link UserCache}, or null when the cache is disabled
+	 */
+	protected UserCache createUserCache(ClientConfiguration clientConfig) {
+		if (!clientConfig.isCacheManagerEnabled()) {
+			return null;
+		}
+		return new UserCache(clientConfig.getCacheManagerMaxSize(),
+				Duration.ofSeconds(clientConfig.getCacheManagerTtl()),
+				Duration.ofSeconds(clientConfig.getCacheManagerTti()));
+	}
+
+	/**
+	 * Override to customize the client credentials authentication, e.g. the token path or
+	 * the lifetime of the client assertions.
+	 * @param apiClient the client sending the token requests
+	 * @param clientConfig the current clientConfig
+	 * @return the authentication of the bearer requests
+	 */
+	protected Authentication createPrivateKeyJwtAuth(ApiClient apiClient, ClientConfiguration clientConfig) {
+		return new PrivateKeyJwtAuth(apiClient, clientConfig);
 	}
 
 	/**
@@ -88,9 +465,14 @@ public class DefaultClientBuilder implements ClientBuilder {
 	 * @return a {@link RequestConfig.Builder} initialized with default configuration
 	 */
 	protected RequestConfig.Builder createHttpRequestConfigBuilder(ClientConfiguration clientConfig) {
-		return RequestConfig.custom()
-			.setResponseTimeout(Timeout.ofSeconds(clientConfig.getConnectionTimeout()))
-			.setConnectionRequestTimeout(Timeout.ofSeconds(clientConfig.getConnectionTimeout()));
+		RequestConfig.Builder builder = RequestConfig.custom();
+		// a zero response timeout would also veto every delayed retry of the classic
+		// client
+		if (clientConfig.getConnectionTimeout() > 0) {
+			builder.setResponseTimeout(Timeout.ofSeconds(clientConfig.getConnectionTimeout()))
+				.setConnectionRequestTimeout(Timeout.ofSeconds(clientConfig.getConnectionTimeout()));
+		}
+		return builder;
 	}
 
 	/**
@@ -102,10 +484,121 @@ public class DefaultClientBuilder implements ClientBuilder {
 	 */
 	protected PoolingHttpClientConnectionManagerBuilder createHttpClientConnectionManagerBuilder(
 			ClientConfiguration clientConfig) {
-		return PoolingHttpClientConnectionManagerBuilder.create()
-			.setDefaultConnectionConfig(ConnectionConfig.custom()
-				.setConnectTimeout(Timeout.ofSeconds(clientConfig.getConnectionTimeout()))
-				.build());
+		PoolingHttpClientConnectionManagerBuilder builder = PoolingHttpClientConnectionManagerBuilder.create()
+			.setDefaultConnectionConfig(createConnectionConfigBuilder(clientConfig).build());
+		if (clientConfig.getMaxConnTotal() > 0) {
+			builder.setMaxConnTotal(clientConfig.getMaxConnTotal());
+		}
+		if (clientConfig.getMaxConnPerRoute() > 0) {
+			builder.setMaxConnPerRoute(clientConfig.getMaxConnPerRoute());
+		}
+		return builder;
+	}
+
+	/**
+	 * Override to customize the connection settings shared by all transports
+	 * @param clientConfig the current clientConfig
+	 * @return a {@link ConnectionConfig.Builder} initialized with default configuration
+	 */
+	protected ConnectionConfig.Builder createConnectionConfigBuilder(ClientConfiguration clientConfig) {
+		ConnectionConfig.Builder builder = ConnectionConfig.custom()
+			.setConnectTimeout(Timeout.ofSeconds(clientConfig.getConnectionTimeout()));
+		if (clientConfig.getConnectionTimeToLive() > 0) {
+			builder.setTimeToLive(TimeValue.ofSeconds(clientConfig.getConnectionTimeToLive()));
+		}
+		if (clientConfig.getValidateAfterInactivity() > 0) {
+			builder.setValidateAfterInactivity(TimeValue.ofSeconds(clientConfig.getValidateAfterInactivity()));
+		}
+		return builder;
+	}
+
+	/**
+	 * Override to customize the asynchronous client, allowing one to add additional
+	 * interceptors. The connection manager is created by
+	 * {@link #createAsyncClientConnectionManagerBuilder}.
+	 * @param clientConfig the current ClientConfiguration
+	 * @return an {@link HttpAsyncClientBuilder} initialized with default configuration
+	 */
+	protected HttpAsyncClientBuilder createHttpAsyncClientBuilder(ClientConfiguration clientConfig) {
+		HttpAsyncClientBuilder builder = HttpAsyncClients.custom()
+			.setDefaultRequestConfig(createHttpRequestConfigBuilder(clientConfig).build())
+			.setIOReactorConfig(createIOReactorConfigBuilder(clientConfig).build())
+			.setRetryStrategy(createRetryStrategy(clientConfig))
+			.setKeepAliveStrategy(new DefaultConnectionKeepAliveStrategy())
+			.setConnectionReuseStrategy(new DefaultConnectionReuseStrategy())
+			.disableCookieManagement();
+		if (clientConfig.isEvictExpiredConnections()) {
+			builder.evictExpiredConnections();
+		}
+		if (clientConfig.getConnectionMaxIdleTime() > 0) {
+			builder.evictIdleConnections(TimeValue.ofSeconds(clientConfig.getConnectionMaxIdleTime()));
+		}
+		return builder;
+	}
+
+	/**
+	 * Override to customize the HTTP/2 client, allowing one to add additional
+	 * interceptors. The client only speaks HTTP/2: {@code h2} over TLS, selected with
+	 * ALPN, and prior knowledge over plain connections. All requests to a route are
+	 * multiplexed over a single connection.
+	 * @param clientConfig the current ClientConfiguration
+	 * @return an {@link H2AsyncClientBuilder} initialized with default configuration
+	 */
+	protected H2AsyncClientBuilder createH2AsyncClientBuilder(ClientConfiguration clientConfig) {
+		H2AsyncClientBuilder builder = HttpAsyncClients.customHttp2()
+			.setDefaultRequestConfig(createHttpRequestConfigBuilder(clientConfig).build())
+			.setDefaultConnectionConfig(createConnectionConfigBuilder(clientConfig).build())
+			.setH2Config(createH2ConfigBuilder(clientConfig).build())
+			.setIOReactorConfig(createIOReactorConfigBuilder(clientConfig).build())
+			.setTlsStrategy(ClientTlsStrategyBuilder.create().useSystemProperties().build())
+			.setRetryStrategy(createRetryStrategy(clientConfig))
+			.disableCookieManagement();
+		if (clientConfig.getConnectionMaxIdleTime() > 0) {
+			builder.evictIdleConnections(TimeValue.ofSeconds(clientConfig.getConnectionMaxIdleTime()));
+		}
+		return builder;
+	}
+
+	/**
+	 * Override to customize the HTTP/2 protocol settings
+	 * @param clientConfig the current clientConfig
+	 * @return a {@link H2Config.Builder} initialized with default configuration
+	 */
+	protected H2Config.Builder createH2ConfigBuilder(ClientConfiguration clientConfig) {
+		return H2Config.custom().setPushEnabled(false);
+	}
+
+	/**
+	 * Override to customize the asynchronous connection manager, allowing the increase of
+	 * max connections
+	 * @param clientConfig the current clientConfig
+	 * @return a {@link PoolingAsyncClientConnectionManagerBuilder} initialized with
+	 * default configuration
+	 */
+	protected PoolingAsyncClientConnectionManagerBuilder createAsyncClientConnectionManagerBuilder(
+			ClientConfiguration clientConfig) {
+		PoolingAsyncClientConnectionManagerBuilder builder = PoolingAsyncClientConnectionManagerBuilder.create()
+			.setDefaultConnectionConfig(createConnectionConfigBuilder(clientConfig).build());
+		if (clientConfig.getMaxConnTotal() > 0) {
+			builder.setMaxConnTotal(clientConfig.getMaxConnTotal());
+		}
+		if (clientConfig.getMaxConnPerRoute() > 0) {
+			builder.setMaxConnPerRoute(clientConfig.getMaxConnPerRoute());
+		}
+		return builder;
+	}
+
+	/**
+	 * Override to customize the I/O reactor shared by all asynchronous requests
+	 * @param clientConfig the current clientConfig
+	 * @return a {@link IOReactorConfig.Builder} initialized with default configuration
+	 */
+	protected IOReactorConfig.Builder createIOReactorConfigBuilder(ClientConfiguration clientConfig) {
+		IOReactorConfig.Builder builder = IOReactorConfig.custom();
+		if (clientConfig.getIoThreadCount() > 0) {
+			builder.setIoThreadCount(clientConfig.getIoThreadCount());
+		}
+		return builder;
 	}
 
 	private void setProxy(HttpClientBuilder clientBuilder, ClientConfiguration clientConfig) {
@@ -122,4 +615,18 @@ public class DefaultClientBuilder implements ClientBuilder {
 		}
 	}
 
+	private void setProxy(HttpAsyncClientBuilder clientBuilder, ClientConfiguration clientConfig) {
+		clientBuilder.useSystemProperties();
+		clientBuilder.setProxy(new HttpHost(clientConfig.getProxyHost(), clientConfig.getProxyPort()));
+		if (clientConfig.getProxyUsername() != null) {
+			BasicCredentialsProvider credentialsProvider = new BasicCredentialsProvider();
+			AuthScope authScope = new AuthScope(clientConfig.getProxyHost(), clientConfig.getProxyPort());
+			UsernamePasswordCredentials usernamePasswordCredentials = new UsernamePasswordCredentials(
+					clientConfig.getProxyUsername(), clientConfig.getProxyPassword().toCharArray());
+			credentialsProvider.setCredentials(authScope, usernamePasswordCredentials);
+			clientBuilder.setDefaultCredentialsProvider(credentialsProvider);
+			clientBuilder.setProxyAuthenticationStrategy(new DefaultAuthenticationStrategy());
+		}
+	}
+
 }
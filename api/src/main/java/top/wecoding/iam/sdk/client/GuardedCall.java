@@ -0,0 +1,95 @@
+package top.wecoding.iam.sdk.client;
+
+import org.apache.hc.core5.http.HttpStatus;
+import top.wecoding.iam.sdk.client.circuit.CircuitBreaker;
+import top.wecoding.iam.sdk.client.limit.ConcurrencyLimiter.Permit;
+import top.wecoding.iam.sdk.exception.ApiException;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admission of a call by the circuit breaker of its route and the concurrency limiter of
+ * its endpoint group, reporting the outcome of the call to both once it completes.
+ *
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+final class GuardedCall {
+
+	static final GuardedCall UNGUARDED = new GuardedCall(null, null);
+
+	private final CircuitBreaker circuitBreaker;
+
+	private final Permit permit;
+
+	private final long startNanos = System.nanoTime();
+
+	private final AtomicBoolean completed = new AtomicBoolean();
+
+	GuardedCall(CircuitBreaker circuitBreaker, Permit permit) {
+		this.circuitBreaker = circuitBreaker;
+		this.permit = permit;
+	}
+
+	/**
+	 * Report the outcome of the call.
+	 * @param ex the failure of the call, null on success
+	 */
+	void complete(Throwable ex) {
+		if (this == UNGUARDED || !this.completed.compareAndSet(false, true)) {
+			return;
+		}
+		if (this.permit != null) {
+			if (ex == null) {
+				this.permit.onSuccess();
+			}
+			else if (isOverload(ex)) {
+				this.permit.onDropped();
+			}
+			else {
+				this.permit.onSuccess();
+			}
+		}
+		if (this.circuitBreaker != null) {
+			this.circuitBreaker.onResult(System.nanoTime() - this.startNanos, ex != null && isFailure(ex));
+		}
+	}
+
+	/**
+	 * Release the call without outcome, when it is cancelled or not sent.
+	 */
+	void abandon() {
+		if (this == UNGUARDED || !this.completed.compareAndSet(false, true)) {
+			return;
+		}
+		if (this.permit != null) {
+			this.permit.onIgnore();
+		}
+		if (this.circuitBreaker != null) {
+			this.circuitBreaker.releasePermission();
+		}
+	}
+
+	/**
+	 * I/O errors, {@code 429} and server errors reveal an overloaded server.
+	 */
+	private static boolean isOverload(Throwable ex) {
+		if (ex instanceof ApiException) {
+			int code = ((ApiException) ex).getCode();
+			return code == HttpStatus.SC_TOO_MANY_REQUESTS || code >= HttpStatus.SC_SERVER_ERROR;
+		}
+		return true;
+	}
+
+	/**
+	 * I/O errors and server errors count as failures of the endpoint, client errors do
+	 * not.
+	 */
+	private static boolean isFailure(Throwable ex) {
+		if (ex instanceof ApiException) {
+			return ((ApiException) ex).getCode() >= HttpStatus.SC_SERVER_ERROR;
+		}
+		return true;
+	}
+
+}
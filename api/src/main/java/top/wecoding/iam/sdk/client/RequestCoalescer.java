@@ -0,0 +1,118 @@
+package top.wecoding.iam.sdk.client;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight execution of identical reads: while a read is in flight, identical reads
+ * wait for its outcome instead of sending their own request, and all of them get the same
+ * result or exception.
+ *
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+final class RequestCoalescer {
+
+	private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+	/**
+	 * Execute the call, or wait for the identical call in flight.
+	 * @param key the identity of the call
+	 * @param call the call
+	 * @return the shared result
+	 * @throws Exception the shared exception
+	 */
+	@SuppressWarnings("unchecked")
+	<T> T execute(String key, Callable<T> call) throws Exception {
+		CompletableFuture<Object> flight = new CompletableFuture<>();
+		CompletableFuture<Object> existing = this.inFlight.putIfAbsent(key, flight);
+		if (existing != null) {
+			try {
+				return (T) existing.get();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw ex;
+			}
+			catch (ExecutionException ex) {
+				Throwable cause = ex.getCause();
+				if (cause instanceof Exception) {
+					throw (Exception) cause;
+				}
+				throw (Error) cause;
+			}
+		}
+
+		try {
+			T result = call.call();
+			flight.complete(result);
+			return result;
+		}
+		catch (Exception | Error ex) {
+			flight.completeExceptionally(ex);
+			throw ex;
+		}
+		finally {
+			this.inFlight.remove(key, flight);
+		}
+	}
+
+	/**
+	 * Execute the asynchronous call, or share the outcome of the identical call in
+	 * flight. Cancelling the returned future does not cancel the shared call.
+	 * @param key the identity of the call
+	 * @param call the call
+	 * @return a future completed with the shared outcome
+	 */
+	<T> CompletableFuture<T> executeAsync(String key, Supplier<CompletableFuture<T>> call) {
+		CompletableFuture<Object> flight = new CompletableFuture<>();
+		CompletableFuture<Object> existing = this.inFlight.putIfAbsent(key, flight);
+		if (existing != null) {
+			return share(existing);
+		}
+
+		CompletableFuture<T> response;
+		try {
+			response = call.get();
+		}
+		catch (RuntimeException | Error ex) {
+			// failed before it was sent, the waiting calls share the failure
+			this.inFlight.remove(key, flight);
+			flight.completeExceptionally(ex);
+			return share(flight);
+		}
+		response.whenComplete((result, ex) -> {
+			this.inFlight.remove(key, flight);
+			if (ex != null) {
+				flight.completeExceptionally(ex);
+			}
+			else {
+				flight.complete(result);
+			}
+		});
+		return share(flight);
+	}
+
+	/**
+	 * Get a future of the shared outcome, completed with the exception of the call rather
+	 * than a {@link java.util.concurrent.CompletionException}.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> CompletableFuture<T> share(CompletableFuture<Object> flight) {
+		CompletableFuture<T> shared = new CompletableFuture<>();
+		flight.whenComplete((result, ex) -> {
+			if (ex != null) {
+				shared.completeExceptionally(ex);
+			}
+			else {
+				shared.complete((T) result);
+			}
+		});
+		return shared;
+	}
+
+}
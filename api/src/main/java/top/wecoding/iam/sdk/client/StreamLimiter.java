@@ -0,0 +1,80 @@
+package top.wecoding.iam.sdk.client;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking gate bounding the number of exchanges a client has in flight over its
+ * multiplexed connections, whatever their route. Exchanges beyond the limit are queued
+ * and dispatched, in submission order, as soon as a running exchange releases its stream.
+ *
+ * <p>
+ * Exchanges are dispatched inline, by the thread submitting an exchange or releasing a
+ * stream, which is usually an I/O reactor thread. They must only hand their request to
+ * the non-blocking transport.
+ *
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+final class StreamLimiter {
+
+	private final int maxStreamsInFlight;
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+
+	private final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+
+	// held by the single thread draining the queue
+	private final AtomicBoolean draining = new AtomicBoolean();
+
+	StreamLimiter(int maxStreamsInFlight) {
+		this.maxStreamsInFlight = maxStreamsInFlight;
+	}
+
+	/**
+	 * Dispatch the exchange now if a stream is available, or once one is released. The
+	 * exchange must neither block nor throw, and must call {@link #release()} when it
+	 * completes, possibly before returning.
+	 * @param exchange the exchange to dispatch
+	 */
+	void submit(Runnable exchange) {
+		this.pending.offer(exchange);
+		drain();
+	}
+
+	/**
+	 * Release the stream of a completed exchange.
+	 */
+	void release() {
+		this.inFlight.decrementAndGet();
+		drain();
+	}
+
+	private void drain() {
+		// a thread finding the queue drained by another leaves its work to it, the
+		// drainer checks again for streams released or exchanges queued meanwhile, even
+		// by the exchanges it dispatched
+		while (this.draining.compareAndSet(false, true)) {
+			try {
+				// only the drainer reserves streams, releases can only make room
+				while (this.inFlight.get() < this.maxStreamsInFlight) {
+					Runnable exchange = this.pending.poll();
+					if (exchange == null) {
+						break;
+					}
+					this.inFlight.incrementAndGet();
+					exchange.run();
+				}
+			}
+			finally {
+				this.draining.set(false);
+			}
+			if (this.pending.isEmpty() || this.inFlight.get() >= this.maxStreamsInFlight) {
+				return;
+			}
+		}
+	}
+
+}
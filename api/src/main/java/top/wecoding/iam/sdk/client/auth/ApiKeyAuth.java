@@ -1,46 +1,56 @@
 package top.wecoding.iam.sdk.client.auth;
 
 import lombok.Getter;
-import lombok.Setter;
 import top.wecoding.iam.sdk.client.param.Cookie;
 import top.wecoding.iam.sdk.client.param.Header;
 import top.wecoding.iam.sdk.client.param.Query;
 
 /**
+ * API key authentication. The parameter value is computed when the key or its prefix
+ * changes, not on every request.
+ *
  * @author Wecoding Liu
  * @since 0.8
  */
-@Getter
-@Setter
 public class ApiKeyAuth implements Authentication {
 
 	public static final String NAME = "apiKey";
 
+	@Getter
 	private final String location;
 
+	@Getter
 	private final String paramName;
 
-	private String apiKey;
-
-	private String apiKeyPrefix;
+	private volatile Key key = Key.EMPTY;
 
 	public ApiKeyAuth(String location, String paramName) {
 		this.location = location;
 		this.paramName = paramName;
 	}
 
+	public String getApiKey() {
+		return this.key.apiKey;
+	}
+
+	public synchronized void setApiKey(String apiKey) {
+		this.key = new Key(apiKey, this.key.apiKeyPrefix);
+	}
+
+	public String getApiKeyPrefix() {
+		return this.key.apiKeyPrefix;
+	}
+
+	public synchronized void setApiKeyPrefix(String apiKeyPrefix) {
+		this.key = new Key(this.key.apiKey, apiKeyPrefix);
+	}
+
 	@Override
 	public void apply(Query queryParams, Header headerParams, Cookie cookieParams) {
-		if (apiKey == null) {
+		String value = this.key.value;
+		if (value == null) {
 			return;
 		}
-		String value;
-		if (apiKeyPrefix != null) {
-			value = apiKeyPrefix + " " + apiKey;
-		}
-		else {
-			value = apiKey;
-		}
 		if ("query".equals(location)) {
 			queryParams.addParam(paramName, value);
 		}
@@ -52,4 +62,35 @@ public class ApiKeyAuth implements Authentication {
 		}
 	}
 
+	@Override
+	public String getCredentials() {
+		return this.key.value;
+	}
+
+	private static final class Key {
+
+		private static final Key EMPTY = new Key(null, null);
+
+		private final String apiKey;
+
+		private final String apiKeyPrefix;
+
+		private final String value;
+
+		private Key(String apiKey, String apiKeyPrefix) {
+			this.apiKey = apiKey;
+			this.apiKeyPrefix = apiKeyPrefix;
+			if (apiKey == null) {
+				this.value = null;
+			}
+			else if (apiKeyPrefix != null) {
+				this.value = apiKeyPrefix + " " + apiKey;
+			}
+			else {
+				this.value = apiKey;
+			}
+		}
+
+	}
+
 }
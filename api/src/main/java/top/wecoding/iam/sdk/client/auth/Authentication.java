@@ -18,4 +18,14 @@ public interface Authentication {
 	 */
 	void apply(Query queryParams, Header headerParams, Cookie cookieParams);
 
+	/**
+	 * Get the credentials currently applied, e.g. to key caches by caller. Unlike
+	 * {@link #apply}, never requests, refreshes or signs anything.
+	 * @return the credentials, null if there are none or they are not known without side
+	 * effects
+	 */
+	default String getCredentials() {
+		return null;
+	}
+
 }
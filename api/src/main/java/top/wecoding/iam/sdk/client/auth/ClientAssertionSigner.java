@@ -0,0 +1,177 @@
+package top.wecoding.iam.sdk.client.auth;
+
+import top.wecoding.iam.sdk.util.JacksonUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.security.interfaces.ECPrivateKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Signs the {@code private_key_jwt} client assertions of RFC 7523 with the private key of
+ * the client.
+ *
+ * <p>
+ * The key is parsed once. Each token request gets a new assertion with its own
+ * {@code jti}, as authorization servers may reject a replayed one.
+ *
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+public class ClientAssertionSigner {
+
+	public static final Duration DEFAULT_LIFETIME = Duration.ofMinutes(5);
+
+	// DER prefix wrapping a PKCS#1 RSA key into a PKCS#8 one, before the lengths
+	private static final byte[] RSA_ALGORITHM_IDENTIFIER = { 0x30, 0x0d, 0x06, 0x09, 0x2a, (byte) 0x86, 0x48,
+			(byte) 0x86, (byte) 0xf7, 0x0d, 0x01, 0x01, 0x01, 0x05, 0x00 };
+
+	private final String clientId;
+
+	private final String kid;
+
+	private final long lifetimeSeconds;
+
+	private final PrivateKey privateKey;
+
+	private final String algorithm;
+
+	private final String signatureAlgorithm;
+
+	/**
+	 * Create a signer.
+	 * @param clientId the client id, issuer and subject of the assertions
+	 * @param privateKeyPem the PKCS#8 or PKCS#1 RSA, or PKCS#8 EC private key in PEM
+	 * format
+	 * @param kid the key id, may be null
+	 */
+	public ClientAssertionSigner(String clientId, String privateKeyPem, String kid) {
+		this(clientId, privateKeyPem, kid, DEFAULT_LIFETIME);
+	}
+
+	/**
+	 * Create a signer.
+	 * @param clientId the client id, issuer and subject of the assertions
+	 * @param privateKeyPem the PKCS#8 or PKCS#1 RSA, or PKCS#8 EC private key in PEM
+	 * format
+	 * @param kid the key id, may be null
+	 * @param lifetime the lifetime of the assertions
+	 */
+	public ClientAssertionSigner(String clientId, String privateKeyPem, String kid, Duration lifetime) {
+		if (clientId == null || privateKeyPem == null) {
+			throw new IllegalArgumentException("clientId and privateKey cannot be null.");
+		}
+		if (lifetime.getSeconds() <= 0) {
+			throw new IllegalArgumentException("lifetime must be at least one second.");
+		}
+		this.clientId = clientId;
+		this.kid = kid;
+		this.lifetimeSeconds = lifetime.getSeconds();
+		this.privateKey = parsePrivateKey(privateKeyPem);
+		if (this.privateKey instanceof ECPrivateKey) {
+			int fieldSize = ((ECPrivateKey) this.privateKey).getParams().getCurve().getField().getFieldSize();
+			int digestSize = fieldSize <= 256 ? 256 : fieldSize <= 384 ? 384 : 512;
+			this.algorithm = "ES" + digestSize;
+			this.signatureAlgorithm = "SHA" + digestSize + "withECDSAinP1363Format";
+		}
+		else {
+			this.algorithm = "RS256";
+			this.signatureAlgorithm = "SHA256withRSA";
+		}
+	}
+
+	public String getClientId() {
+		return this.clientId;
+	}
+
+	/**
+	 * Sign a new assertion for the given audience.
+	 * @param audience the token endpoint URL
+	 * @return the signed assertion
+	 */
+	public String getAssertion(String audience) {
+		long now = System.currentTimeMillis() / 1000;
+		Map<String, Object> header = new LinkedHashMap<>();
+		header.put("alg", this.algorithm);
+		header.put("typ", "JWT");
+		if (this.kid != null) {
+			header.put("kid", this.kid);
+		}
+		long expiresAt = now + this.lifetimeSeconds;
+		Map<String, Object> claims = new LinkedHashMap<>();
+		claims.put("iss", this.clientId);
+		claims.put("sub", this.clientId);
+		claims.put("aud", audience);
+		claims.put("jti", UUID.randomUUID().toString());
+		claims.put("iat", now);
+		claims.put("exp", expiresAt);
+
+		Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+		String signingInput = encoder.encodeToString(JacksonUtils.toJsonBytes(header)) + "."
+				+ encoder.encodeToString(JacksonUtils.toJsonBytes(claims));
+		try {
+			Signature signature = Signature.getInstance(this.signatureAlgorithm);
+			signature.initSign(this.privateKey);
+			signature.update(signingInput.getBytes(StandardCharsets.US_ASCII));
+			return signingInput + "." + encoder.encodeToString(signature.sign());
+		}
+		catch (GeneralSecurityException ex) {
+			throw new IllegalStateException("Failed to sign the client assertion", ex);
+		}
+	}
+
+	private static PrivateKey parsePrivateKey(String pem) {
+		boolean pkcs1 = pem.contains("BEGIN RSA PRIVATE KEY");
+		String base64 = pem.replaceAll("-----(BEGIN|END)[A-Z ]*-----", "").replaceAll("\\s", "");
+		byte[] der = Base64.getDecoder().decode(base64);
+		if (pkcs1) {
+			der = pkcs1ToPkcs8(der);
+		}
+		PKCS8EncodedKeySpec spec = new PKCS8EncodedKeySpec(der);
+		for (String keyAlgorithm : new String[] { "RSA", "EC" }) {
+			try {
+				return KeyFactory.getInstance(keyAlgorithm).generatePrivate(spec);
+			}
+			catch (GeneralSecurityException ex) {
+				// try the next algorithm
+			}
+		}
+		throw new IllegalArgumentException("Unsupported private key, expected a PKCS#8 RSA or EC key");
+	}
+
+	private static byte[] pkcs1ToPkcs8(byte[] pkcs1) {
+		ByteArrayOutputStream privateKeyInfo = new ByteArrayOutputStream();
+		privateKeyInfo.writeBytes(new byte[] { 0x02, 0x01, 0x00 });
+		privateKeyInfo.writeBytes(RSA_ALGORITHM_IDENTIFIER);
+		privateKeyInfo.write(0x04);
+		writeLength(privateKeyInfo, pkcs1.length);
+		privateKeyInfo.writeBytes(pkcs1);
+		ByteArrayOutputStream pkcs8 = new ByteArrayOutputStream();
+		pkcs8.write(0x30);
+		writeLength(pkcs8, privateKeyInfo.size());
+		pkcs8.writeBytes(privateKeyInfo.toByteArray());
+		return pkcs8.toByteArray();
+	}
+
+	private static void writeLength(ByteArrayOutputStream out, int length) {
+		if (length < 0x80) {
+			out.write(length);
+			return;
+		}
+		int bytes = length > 0xffffff ? 4 : length > 0xffff ? 3 : length > 0xff ? 2 : 1;
+		out.write(0x80 | bytes);
+		for (int i = bytes - 1; i >= 0; i--) {
+			out.write(length >>> (8 * i));
+		}
+	}
+
+}
@@ -0,0 +1,201 @@
+package top.wecoding.iam.sdk.client.auth;
+
+import top.wecoding.iam.sdk.util.JacksonUtils;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+/**
+ * Stores the token in a local file, encrypted with AES-GCM.
+ *
+ * <p>
+ * The key is either given or derived from a password with PBKDF2, with a random salt
+ * stored in the file. The file is replaced atomically and, on POSIX file systems, only
+ * readable by its owner.
+ *
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+public class FileTokenStore implements TokenStore {
+
+	private static final byte[] MAGIC = "IAMT".getBytes(StandardCharsets.US_ASCII);
+
+	private static final byte VERSION = 1;
+
+	private static final int SALT_LENGTH = 16;
+
+	private static final int IV_LENGTH = 12;
+
+	private static final int TAG_LENGTH = 128;
+
+	private static final int PBKDF2_ITERATIONS = 210000;
+
+	private static final SecureRandom RANDOM = new SecureRandom();
+
+	private final Path file;
+
+	private final SecretKey key;
+
+	private final char[] password;
+
+	// key derived from the password for the salt of the file, guarded by this
+	private byte[] derivedSalt;
+
+	private SecretKey derivedKey;
+
+	/**
+	 * Store the token encrypted with the given AES key.
+	 * @param file the file of the token
+	 * @param key the AES key, 128 or 256 bits
+	 */
+	public FileTokenStore(Path file, SecretKey key) {
+		this(file, key, null);
+	}
+
+	/**
+	 * Store the token encrypted with a key derived from the given password.
+	 * @param file the file of the token
+	 * @param password the password
+	 */
+	public FileTokenStore(Path file, char[] password) {
+		this(file, null, password.clone());
+	}
+
+	private FileTokenStore(Path file, SecretKey key, char[] password) {
+		if (file == null) {
+			throw new IllegalArgumentException("file argument cannot be null.");
+		}
+		this.file = file;
+		this.key = key;
+		this.password = password;
+	}
+
+	@Override
+	public StoredToken load() throws IOException {
+		byte[] content;
+		try {
+			content = Files.readAllBytes(this.file);
+		}
+		catch (NoSuchFileException ex) {
+			return null;
+		}
+		ByteBuffer buffer = ByteBuffer.wrap(content);
+		byte[] magic = new byte[MAGIC.length];
+		if (content.length < MAGIC.length + 1 + SALT_LENGTH + IV_LENGTH) {
+			throw new IOException("Invalid token file " + this.file);
+		}
+		buffer.get(magic);
+		if (!Arrays.equals(magic, MAGIC) || buffer.get() != VERSION) {
+			throw new IOException("Invalid token file " + this.file);
+		}
+		byte[] salt = new byte[SALT_LENGTH];
+		byte[] iv = new byte[IV_LENGTH];
+		buffer.get(salt).get(iv);
+		try {
+			Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+			cipher.init(Cipher.DECRYPT_MODE, key(salt), new GCMParameterSpec(TAG_LENGTH, iv));
+			cipher.updateAAD(content, 0, MAGIC.length + 1);
+			byte[] json = cipher.doFinal(content, buffer.position(), buffer.remaining());
+			return JacksonUtils.toObj(json, StoredToken.class);
+		}
+		catch (GeneralSecurityException ex) {
+			throw new IOException("Failed to decrypt token file " + this.file, ex);
+		}
+	}
+
+	@Override
+	public void save(StoredToken token) throws IOException {
+		byte[] salt = new byte[SALT_LENGTH];
+		byte[] iv = new byte[IV_LENGTH];
+		synchronized (this) {
+			if (this.derivedSalt != null) {
+				// reuse the salt of the derived key, the IV makes every encryption unique
+				salt = this.derivedSalt.clone();
+			}
+			else {
+				RANDOM.nextBytes(salt);
+			}
+		}
+		RANDOM.nextBytes(iv);
+		byte[] encrypted;
+		try {
+			Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+			cipher.init(Cipher.ENCRYPT_MODE, key(salt), new GCMParameterSpec(TAG_LENGTH, iv));
+			byte[] header = ByteBuffer.allocate(MAGIC.length + 1).put(MAGIC).put(VERSION).array();
+			cipher.updateAAD(header);
+			byte[] ciphertext = cipher.doFinal(JacksonUtils.toJsonBytes(token));
+			encrypted = ByteBuffer.allocate(header.length + SALT_LENGTH + IV_LENGTH + ciphertext.length)
+				.put(header)
+				.put(salt)
+				.put(iv)
+				.put(ciphertext)
+				.array();
+		}
+		catch (GeneralSecurityException ex) {
+			throw new IOException("Failed to encrypt token file " + this.file, ex);
+		}
+		write(encrypted);
+	}
+
+	@Override
+	public void clear() throws IOException {
+		Files.deleteIfExists(this.file);
+	}
+
+	private void write(byte[] content) throws IOException {
+		Path directory = this.file.toAbsolutePath().getParent();
+		Files.createDirectories(directory);
+		Path temp = Files.createTempFile(directory, this.file.getFileName().toString(), ".tmp");
+		try {
+			try {
+				Files.setPosixFilePermissions(temp, PosixFilePermissions.fromString("rw-------"));
+			}
+			catch (UnsupportedOperationException ex) {
+				// not a POSIX file system
+			}
+			Files.write(temp, content);
+			try {
+				Files.move(temp, this.file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			}
+			catch (AtomicMoveNotSupportedException ex) {
+				Files.move(temp, this.file, StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+		finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	private SecretKey key(byte[] salt) throws GeneralSecurityException {
+		if (this.key != null) {
+			return this.key;
+		}
+		synchronized (this) {
+			if (this.derivedKey == null || !Arrays.equals(this.derivedSalt, salt)) {
+				PBEKeySpec spec = new PBEKeySpec(this.password, salt, PBKDF2_ITERATIONS, 256);
+				byte[] encoded = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256").generateSecret(spec).getEncoded();
+				spec.clearPassword();
+				this.derivedKey = new SecretKeySpec(encoded, "AES");
+				this.derivedSalt = salt.clone();
+			}
+			return this.derivedKey;
+		}
+	}
+
+}
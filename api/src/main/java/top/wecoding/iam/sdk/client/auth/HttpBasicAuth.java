@@ -1,7 +1,5 @@
 package top.wecoding.iam.sdk.client.auth;
 
-import lombok.Getter;
-import lombok.Setter;
 import top.wecoding.iam.sdk.client.param.Cookie;
 import top.wecoding.iam.sdk.client.param.Header;
 import top.wecoding.iam.sdk.client.param.Query;
@@ -10,35 +8,87 @@ import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 
 /**
+ * HTTP basic authentication. The header value is encoded when the credentials change, not
+ * on every request.
+ *
  * @author Wecoding Liu
  * @since 0.8
  */
-@Getter
-@Setter
 public class HttpBasicAuth implements Authentication {
 
 	public static final String NAME = "basic";
 
-	private String username;
-
-	private String password;
+	private volatile Credentials credentials = Credentials.EMPTY;
 
 	public HttpBasicAuth() {
 	}
 
 	public HttpBasicAuth(String username, String password) {
-		this.username = username;
-		this.password = password;
+		this.credentials = new Credentials(username, password);
+	}
+
+	public String getUsername() {
+		return this.credentials.username;
+	}
+
+	public synchronized void setUsername(String username) {
+		this.credentials = new Credentials(username, this.credentials.password);
+	}
+
+	public String getPassword() {
+		return this.credentials.password;
+	}
+
+	public synchronized void setPassword(String password) {
+		this.credentials = new Credentials(this.credentials.username, password);
+	}
+
+	/**
+	 * Set the username and the password at once, so that no request is sent with the new
+	 * username and the old password.
+	 * @param username the username
+	 * @param password the password
+	 */
+	public synchronized void setCredentials(String username, String password) {
+		this.credentials = new Credentials(username, password);
 	}
 
 	@Override
 	public void apply(Query queryParams, Header headerParams, Cookie cookieParams) {
-		if (username == null && password == null) {
+		String headerValue = this.credentials.headerValue;
+		if (headerValue == null) {
 			return;
 		}
-		String str = (username == null ? "" : username) + ":" + (password == null ? "" : password);
-		headerParams.addParam("Authorization",
-				"Basic " + Base64.getEncoder().encodeToString(str.getBytes(StandardCharsets.UTF_8)));
+		headerParams.addParam("Authorization", headerValue);
+	}
+
+	@Override
+	public String getCredentials() {
+		return this.credentials.headerValue;
+	}
+
+	private static final class Credentials {
+
+		private static final Credentials EMPTY = new Credentials(null, null);
+
+		private final String username;
+
+		private final String password;
+
+		private final String headerValue;
+
+		private Credentials(String username, String password) {
+			this.username = username;
+			this.password = password;
+			if (username == null && password == null) {
+				this.headerValue = null;
+			}
+			else {
+				String str = (username == null ? "" : username) + ":" + (password == null ? "" : password);
+				this.headerValue = "Basic " + Base64.getEncoder().encodeToString(str.getBytes(StandardCharsets.UTF_8));
+			}
+		}
+
 	}
 
 }
@@ -1,26 +1,29 @@
 package top.wecoding.iam.sdk.client.auth;
 
 import lombok.Getter;
-import lombok.Setter;
 import top.wecoding.iam.sdk.client.param.Cookie;
 import top.wecoding.iam.sdk.client.param.Header;
 import top.wecoding.iam.sdk.client.param.Query;
 
 /**
+ * HTTP bearer authentication. The header value is computed when the token changes, not on
+ * every request.
+ *
  * @author Wecoding Liu
  * @since 0.8
  */
-@Getter
-@Setter
 public class HttpBearerAuth implements Authentication {
 
 	public static final String NAME = "bearer";
 
 	public static final String DEFAULT_SCHEME = "bearer";
 
+	@Getter
 	private final String scheme;
 
-	private String bearerToken;
+	private volatile String bearerToken;
+
+	private volatile String headerValue;
 
 	public HttpBearerAuth() {
 		this(DEFAULT_SCHEME);
@@ -30,12 +33,28 @@ public class HttpBearerAuth implements Authentication {
 		this.scheme = scheme;
 	}
 
+	public String getBearerToken() {
+		return this.bearerToken;
+	}
+
+	public synchronized void setBearerToken(String bearerToken) {
+		this.headerValue = bearerToken != null ? (scheme != null ? upperCaseBearer(scheme) + " " : "") + bearerToken
+				: null;
+		this.bearerToken = bearerToken;
+	}
+
 	@Override
 	public void apply(Query queryParams, Header headerParams, Cookie cookieParams) {
-		if (bearerToken == null) {
+		String value = this.headerValue;
+		if (value == null) {
 			return;
 		}
-		headerParams.addParam("Authorization", (scheme != null ? upperCaseBearer(scheme) + " " : "") + bearerToken);
+		headerParams.addParam("Authorization", value);
+	}
+
+	@Override
+	public String getCredentials() {
+		return this.headerValue;
 	}
 
 	private String upperCaseBearer(String scheme) {
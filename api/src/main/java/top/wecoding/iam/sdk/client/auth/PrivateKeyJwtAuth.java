@@ -0,0 +1,174 @@
+package top.wecoding.iam.sdk.client.auth;
+
+import top.wecoding.iam.sdk.client.ApiClient;
+import top.wecoding.iam.sdk.client.param.Cookie;
+import top.wecoding.iam.sdk.client.param.Header;
+import top.wecoding.iam.sdk.client.param.MediaType;
+import top.wecoding.iam.sdk.client.param.Query;
+import top.wecoding.iam.sdk.config.ClientConfiguration;
+import top.wecoding.iam.sdk.exception.AuthenticationException;
+import top.wecoding.iam.sdk.model.TokenInfo;
+import top.wecoding.iam.sdk.model.request.RequestHttpEntity;
+
+import java.io.Closeable;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Client credentials authentication of the client itself, with the
+ * {@code private_key_jwt} method of OpenID Connect: the token request carries an
+ * assertion signed with the private key of the client instead of a secret.
+ *
+ * <p>
+ * The access tokens are cached per scope set, each by a {@link TokenManager} that
+ * requests the first one when needed and a new one before it expires. Each token request
+ * carries a new assertion of the {@link ClientAssertionSigner}.
+ *
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+public class PrivateKeyJwtAuth implements Authentication, Closeable {
+
+	public static final String DEFAULT_TOKEN_PATH = "/oauth2/token";
+
+	private static final String CLIENT_ASSERTION_TYPE = "urn:ietf:params:oauth:client-assertion-type:jwt-bearer";
+
+	private final ApiClient apiClient;
+
+	private final ClientAssertionSigner signer;
+
+	private final String defaultScope;
+
+	private final String tokenPath;
+
+	private final ConcurrentMap<String, TokenManager> tokenManagers = new ConcurrentHashMap<>();
+
+	/**
+	 * Authenticate with the {@code clientId}, {@code privateKey}, {@code kid} and
+	 * {@code scopes} of the client configuration.
+	 * @param apiClient the client sending the token requests
+	 * @param clientConfig the client configuration
+	 */
+	public PrivateKeyJwtAuth(ApiClient apiClient, ClientConfiguration clientConfig) {
+		this(apiClient, new ClientAssertionSigner(clientConfig.getClientId(), clientConfig.getPrivateKey(),
+				clientConfig.getKid()), clientConfig.getScopes(), DEFAULT_TOKEN_PATH);
+	}
+
+	/**
+	 * Create a private key JWT authentication.
+	 * @param apiClient the client sending the token requests
+	 * @param signer signs the client assertions
+	 * @param defaultScopes the scopes of the tokens applied to the requests
+	 * @param tokenPath the path of the token endpoint
+	 */
+	public PrivateKeyJwtAuth(ApiClient apiClient, ClientAssertionSigner signer, Collection<String> defaultScopes,
+			String tokenPath) {
+		if (apiClient == null || signer == null) {
+			throw new IllegalArgumentException("apiClient and signer cannot be null.");
+		}
+		this.apiClient = apiClient;
+		this.signer = signer;
+		this.defaultScope = defaultScopes != null ? scope(defaultScopes) : "";
+		this.tokenPath = tokenPath;
+	}
+
+	@Override
+	public void apply(Query queryParams, Header headerParams, Cookie cookieParams) {
+		tokenManager(this.defaultScope).apply(queryParams, headerParams, cookieParams);
+	}
+
+	/**
+	 * Get the credentials of the current token of the default scopes, without requesting
+	 * or refreshing it.
+	 * @return the header value, null if no token was obtained yet
+	 */
+	@Override
+	public String getCredentials() {
+		TokenManager tokenManager = this.tokenManagers.get(this.defaultScope);
+		return tokenManager != null ? tokenManager.getCredentials() : null;
+	}
+
+	/**
+	 * Get a valid access token of the default scopes.
+	 * @return the access token
+	 * @throws AuthenticationException if no token could be obtained
+	 */
+	public String getAccessToken() {
+		return tokenManager(this.defaultScope).getAccessToken();
+	}
+
+	/**
+	 * Get the current token of the default scopes, without requesting or refreshing it.
+	 * @return the token, null if none was obtained yet
+	 */
+	public TokenInfo getTokenInfo() {
+		TokenManager tokenManager = this.tokenManagers.get(this.defaultScope);
+		return tokenManager != null ? tokenManager.getTokenInfo() : null;
+	}
+
+	/**
+	 * Get a valid access token of the given scopes, e.g. to call another resource server.
+	 * @param scopes the scopes of the token
+	 * @return the access token
+	 * @throws AuthenticationException if no token could be obtained
+	 */
+	public String getAccessToken(Collection<String> scopes) {
+		return tokenManager(scope(scopes)).getAccessToken();
+	}
+
+	@Override
+	public void close() {
+		this.tokenManagers.values().forEach(TokenManager::close);
+		this.tokenManagers.clear();
+	}
+
+	private TokenManager tokenManager(String scope) {
+		TokenManager tokenManager = this.tokenManagers.get(scope);
+		if (tokenManager != null) {
+			return tokenManager;
+		}
+		// the manager requests the first token of its scope set when it is first needed
+		return this.tokenManagers.computeIfAbsent(scope, key -> new TokenManager(current -> requestToken(key), null));
+	}
+
+	private TokenInfo requestToken(String scope) {
+		String audience = this.apiClient.getBasePath() + this.tokenPath;
+		StringBuilder form = new StringBuilder("grant_type=client_credentials");
+		appendParam(form, "client_id", this.signer.getClientId());
+		appendParam(form, "client_assertion_type", CLIENT_ASSERTION_TYPE);
+		appendParam(form, "client_assertion", this.signer.getAssertion(audience));
+		if (!scope.isEmpty()) {
+			appendParam(form, "scope", scope);
+		}
+
+		final String[] authNames = new String[] {};
+		Header header = Header.newInstance().setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+		RequestHttpEntity requestEntity = new RequestHttpEntity(header, Query.EMPTY,
+				form.toString().getBytes(StandardCharsets.UTF_8), authNames);
+		requestEntity.setRouteTemplate(this.tokenPath);
+		TokenInfo tokenInfo;
+		try {
+			tokenInfo = this.apiClient.post(this.tokenPath, requestEntity, TokenInfo.class);
+		}
+		catch (Exception ex) {
+			throw new AuthenticationException(ex);
+		}
+		if (tokenInfo == null || tokenInfo.getAccessToken() == null) {
+			throw new AuthenticationException("No access token in the token response");
+		}
+		return tokenInfo;
+	}
+
+	private static String scope(Collection<String> scopes) {
+		return String.join(" ", new TreeSet<>(scopes));
+	}
+
+	private static void appendParam(StringBuilder form, String name, String value) {
+		form.append('&').append(name).append('=').append(URLEncoder.encode(value, StandardCharsets.UTF_8));
+	}
+
+}
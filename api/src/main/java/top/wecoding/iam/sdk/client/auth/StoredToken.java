@@ -0,0 +1,71 @@
+package top.wecoding.iam.sdk.client.auth;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+import top.wecoding.iam.sdk.model.TokenInfo;
+
+import java.time.Instant;
+
+/**
+ * Token persisted by a {@link TokenStore}, with the time it was issued so that its expiry
+ * survives restarts.
+ *
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+@Data
+public class StoredToken {
+
+	@JsonProperty("token")
+	private TokenInfo tokenInfo;
+
+	/**
+	 * Epoch second the token was issued at.
+	 */
+	@JsonProperty("issued_at")
+	private long issuedAt;
+
+	public StoredToken() {
+	}
+
+	public StoredToken(TokenInfo tokenInfo, Instant issuedAt) {
+		this.tokenInfo = tokenInfo;
+		this.issuedAt = issuedAt.getEpochSecond();
+	}
+
+	/**
+	 * Get the expiry of the access token.
+	 * @return the expiry, null if the token does not expire
+	 */
+	@JsonIgnore
+	public Instant getExpiresAt() {
+		return this.tokenInfo.getExpiresIn() > 0 ? Instant.ofEpochSecond(this.issuedAt + this.tokenInfo.getExpiresIn())
+				: null;
+	}
+
+	/**
+	 * Get the access token with its lifetime counted from now, to be managed by a
+	 * {@link TokenManager}.
+	 * @param now the current time
+	 * @return the token, null if it has expired
+	 */
+	@JsonIgnore
+	public TokenInfo getRemainingToken(Instant now) {
+		Instant expiresAt = getExpiresAt();
+		if (expiresAt == null) {
+			return this.tokenInfo;
+		}
+		long remaining = expiresAt.getEpochSecond() - now.getEpochSecond();
+		if (remaining <= 0) {
+			return null;
+		}
+		TokenInfo remainingToken = new TokenInfo();
+		remainingToken.setAccessToken(this.tokenInfo.getAccessToken());
+		remainingToken.setTokenType(this.tokenInfo.getTokenType());
+		remainingToken.setRefreshToken(this.tokenInfo.getRefreshToken());
+		remainingToken.setExpiresIn((int) remaining);
+		return remainingToken;
+	}
+
+}
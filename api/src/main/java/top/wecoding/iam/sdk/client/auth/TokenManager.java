@@ -0,0 +1,394 @@
+package top.wecoding.iam.sdk.client.auth;
+
+import lombok.extern.slf4j.Slf4j;
+import top.wecoding.iam.sdk.client.param.Cookie;
+import top.wecoding.iam.sdk.client.param.Header;
+import top.wecoding.iam.sdk.client.param.Query;
+import top.wecoding.iam.sdk.exception.AuthenticationException;
+import top.wecoding.iam.sdk.model.TokenInfo;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Bearer authentication with a token that is refreshed before it expires.
+ *
+ * <p>
+ * The token is refreshed in the background once the configured fraction of its lifetime
+ * has elapsed. Requests keep using the current token until the new one is installed and
+ * only wait for the refresh when the current token has expired. However many threads
+ * notice that a token is due, a single refresh is sent. All the managers share a timer
+ * thread, the refreshes run on a shared pool of daemon threads.
+ *
+ * <p>
+ * A failed refresh is retried in the background with an exponential backoff, from 1
+ * second up to 1 minute, at most {@value #MAX_RETRIES} times in a row. The failures are
+ * reported to the {@link RefreshListener}; once the retries are exhausted the token is
+ * only refreshed on demand, by the requests or {@link #refresh()}.
+ *
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+@Slf4j
+public class TokenManager implements Authentication, Closeable {
+
+	public static final double DEFAULT_REFRESH_RATIO = 0.8;
+
+	public static final int MAX_RETRIES = 8;
+
+	private static final long INITIAL_RETRY_DELAY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+	private static final long MAX_RETRY_DELAY_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+	private static final ScheduledThreadPoolExecutor SCHEDULER = createScheduler();
+
+	private static final AtomicInteger REFRESH_THREAD_COUNT = new AtomicInteger();
+
+	private static final ExecutorService REFRESH_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+		Thread thread = new Thread(runnable, "iam-token-refresh-" + REFRESH_THREAD_COUNT.incrementAndGet());
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	/**
+	 * Obtains a new token, typically through the refresh token of the current one.
+	 */
+	@FunctionalInterface
+	public interface TokenRefresher {
+
+		/**
+		 * Obtain a new token.
+		 * @param current the current token
+		 * @return the new token
+		 */
+		TokenInfo refresh(TokenInfo current);
+
+	}
+
+	/**
+	 * Notified of the failed refreshes.
+	 */
+	@FunctionalInterface
+	public interface RefreshListener {
+
+		/**
+		 * Called on the refresh thread after a refresh failed.
+		 * @param failure the failure of the refresher
+		 * @param consecutiveFailures the number of refreshes that failed in a row,
+		 * {@code 1} for the first one
+		 * @param retrying whether the refresh is retried in the background
+		 */
+		void onRefreshFailure(Throwable failure, int consecutiveFailures, boolean retrying);
+
+	}
+
+	private final TokenRefresher refresher;
+
+	private final double refreshRatio;
+
+	private final TokenStore tokenStore;
+
+	private final AtomicReference<CompletableFuture<Token>> refreshing = new AtomicReference<>();
+
+	private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+	private volatile RefreshListener refreshListener;
+
+	private volatile Token token;
+
+	private volatile ScheduledFuture<?> scheduledRefresh;
+
+	private volatile boolean closed;
+
+	public TokenManager(TokenRefresher refresher, TokenInfo tokenInfo) {
+		this(refresher, tokenInfo, DEFAULT_REFRESH_RATIO);
+	}
+
+	/**
+	 * Create a token manager.
+	 * @param refresher obtains the new tokens
+	 * @param tokenInfo the current token
+	 * @param refreshRatio the fraction of the lifetime of a token after which it is
+	 * refreshed, e.g. {@code 0.8}
+	 */
+	public TokenManager(TokenRefresher refresher, TokenInfo tokenInfo, double refreshRatio) {
+		this(refresher, tokenInfo, refreshRatio, null);
+	}
+
+	/**
+	 * Create a token manager persisting its tokens.
+	 * @param refresher obtains the new tokens
+	 * @param tokenInfo the current token, or null to obtain the first one from the
+	 * refresher when it is first needed
+	 * @param refreshRatio the fraction of the lifetime of a token after which it is
+	 * refreshed, e.g. {@code 0.8}
+	 * @param tokenStore stores every token the manager installs, may be null
+	 */
+	public TokenManager(TokenRefresher refresher, TokenInfo tokenInfo, double refreshRatio, TokenStore tokenStore) {
+		if (refresher == null) {
+			throw new IllegalArgumentException("refresher argument cannot be null.");
+		}
+		if (refreshRatio <= 0 || refreshRatio > 1) {
+			throw new IllegalArgumentException("refreshRatio must be in (0, 1].");
+		}
+		this.refresher = refresher;
+		this.refreshRatio = refreshRatio;
+		this.tokenStore = tokenStore;
+		if (tokenInfo != null) {
+			install(tokenInfo);
+		}
+	}
+
+	/**
+	 * Get the current token, without waiting for a refresh.
+	 * @return the token, null if the first one has not been obtained yet
+	 */
+	public TokenInfo getTokenInfo() {
+		Token current = this.token;
+		return current != null ? current.tokenInfo : null;
+	}
+
+	/**
+	 * Get a valid access token, waiting for the refresh only when the current token has
+	 * expired.
+	 * @return the access token
+	 * @throws AuthenticationException if the expired token could not be refreshed
+	 */
+	public String getAccessToken() {
+		return currentToken().tokenInfo.getAccessToken();
+	}
+
+	@Override
+	public void apply(Query queryParams, Header headerParams, Cookie cookieParams) {
+		headerParams.addParam("Authorization", currentToken().headerValue);
+	}
+
+	/**
+	 * Get the credentials of the current token, without waiting for a refresh.
+	 * @return the header value, null if the first token has not been obtained yet
+	 */
+	@Override
+	public String getCredentials() {
+		Token current = this.token;
+		return current != null ? current.headerValue : null;
+	}
+
+	/**
+	 * Set the listener notified of the failed refreshes.
+	 * @param refreshListener the listener, or null
+	 */
+	public void setRefreshListener(RefreshListener refreshListener) {
+		this.refreshListener = refreshListener;
+	}
+
+	/**
+	 * Refresh the token now, e.g. after the server rejected it. Joins the refresh in
+	 * flight, if any.
+	 * @return a future completed with the new token
+	 */
+	public CompletableFuture<TokenInfo> refresh() {
+		return refresh(this.token).thenApply(fresh -> fresh.tokenInfo);
+	}
+
+	/**
+	 * Stop refreshing the token.
+	 */
+	@Override
+	public void close() {
+		this.closed = true;
+		ScheduledFuture<?> scheduled = this.scheduledRefresh;
+		if (scheduled != null) {
+			scheduled.cancel(false);
+		}
+	}
+
+	private Token currentToken() {
+		Token current = this.token;
+		if (current == null) {
+			return await(refresh(null));
+		}
+		if (!current.expiring) {
+			return current;
+		}
+		long now = System.nanoTime();
+		if (now - current.refreshAt < 0) {
+			return current;
+		}
+		CompletableFuture<Token> refresh = refresh(current);
+		if (now - current.expiresAt < 0) {
+			return current;
+		}
+		return await(refresh);
+	}
+
+	private CompletableFuture<Token> refresh(Token stale) {
+		while (true) {
+			CompletableFuture<Token> inFlight = this.refreshing.get();
+			if (inFlight != null) {
+				return inFlight;
+			}
+			Token current = this.token;
+			if (current != stale) {
+				return CompletableFuture.completedFuture(current);
+			}
+			CompletableFuture<Token> flight = new CompletableFuture<>();
+			if (this.refreshing.compareAndSet(null, flight)) {
+				if (this.token != stale) {
+					// refreshed between the check and the claim
+					this.refreshing.set(null);
+					flight.complete(this.token);
+				}
+				else if (this.closed) {
+					this.refreshing.set(null);
+					flight.completeExceptionally(new IllegalStateException("TokenManager is closed."));
+				}
+				else {
+					REFRESH_EXECUTOR.execute(() -> doRefresh(stale, flight));
+				}
+				return flight;
+			}
+		}
+	}
+
+	private void doRefresh(Token stale, CompletableFuture<Token> flight) {
+		Token fresh;
+		try {
+			fresh = install(this.refresher.refresh(stale != null ? stale.tokenInfo : null));
+		}
+		catch (Throwable ex) {
+			// errors too, a flight left in place would block all the refreshes
+			log.warn("Failed to refresh the access token", ex);
+			this.refreshing.set(null);
+			int failures = this.consecutiveFailures.incrementAndGet();
+			// the first token is only requested on demand
+			boolean retrying = stale != null && failures <= MAX_RETRIES;
+			if (retrying) {
+				schedule(stale, retryDelayNanos(failures));
+			}
+			notifyFailure(ex, failures, retrying);
+			flight.completeExceptionally(ex);
+			return;
+		}
+		this.consecutiveFailures.set(0);
+		this.refreshing.set(null);
+		flight.complete(fresh);
+	}
+
+	private void notifyFailure(Throwable failure, int failures, boolean retrying) {
+		RefreshListener listener = this.refreshListener;
+		if (listener == null) {
+			return;
+		}
+		try {
+			listener.onRefreshFailure(failure, failures, retrying);
+		}
+		catch (RuntimeException listenerEx) {
+			log.warn("Token refresh listener failed", listenerEx);
+		}
+	}
+
+	private Token install(TokenInfo tokenInfo) {
+		if (tokenInfo == null || tokenInfo.getAccessToken() == null) {
+			throw new AuthenticationException("No access token was issued.");
+		}
+		Token fresh = new Token(tokenInfo, this.refreshRatio);
+		this.token = fresh;
+		if (this.tokenStore != null) {
+			try {
+				this.tokenStore.save(new StoredToken(tokenInfo, Instant.now()));
+			}
+			catch (IOException | RuntimeException ex) {
+				log.warn("Failed to store the access token", ex);
+			}
+		}
+		if (fresh.expiring) {
+			schedule(fresh, fresh.refreshAt - System.nanoTime());
+		}
+		return fresh;
+	}
+
+	private void schedule(Token stale, long delayNanos) {
+		ScheduledFuture<?> previous = this.scheduledRefresh;
+		if (previous != null) {
+			previous.cancel(false);
+		}
+		if (this.closed) {
+			return;
+		}
+		ScheduledFuture<?> scheduled = SCHEDULER.schedule(() -> refresh(stale), Math.max(0, delayNanos),
+				TimeUnit.NANOSECONDS);
+		this.scheduledRefresh = scheduled;
+		if (this.closed) {
+			// closed while scheduling
+			scheduled.cancel(false);
+		}
+	}
+
+	private static long retryDelayNanos(int failures) {
+		return Math.min(MAX_RETRY_DELAY_NANOS, INITIAL_RETRY_DELAY_NANOS << Math.min(failures - 1, 20));
+	}
+
+	private static Token await(CompletableFuture<Token> refresh) {
+		try {
+			return refresh.get();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new AuthenticationException(ex);
+		}
+		catch (ExecutionException ex) {
+			if (ex.getCause() instanceof AuthenticationException) {
+				throw (AuthenticationException) ex.getCause();
+			}
+			throw new AuthenticationException(ex.getCause());
+		}
+	}
+
+	private static ScheduledThreadPoolExecutor createScheduler() {
+		ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+			Thread thread = new Thread(runnable, "iam-token-refresh-timer");
+			thread.setDaemon(true);
+			return thread;
+		});
+		scheduler.setRemoveOnCancelPolicy(true);
+		return scheduler;
+	}
+
+	/**
+	 * Immutable snapshot of a token with its precomputed header and deadlines.
+	 */
+	private static final class Token {
+
+		private final TokenInfo tokenInfo;
+
+		private final String headerValue;
+
+		private final boolean expiring;
+
+		private final long refreshAt;
+
+		private final long expiresAt;
+
+		private Token(TokenInfo tokenInfo, double refreshRatio) {
+			long issuedAt = System.nanoTime();
+			long lifetime = TimeUnit.SECONDS.toNanos(tokenInfo.getExpiresIn());
+			this.tokenInfo = tokenInfo;
+			this.headerValue = "Bearer " + tokenInfo.getAccessToken();
+			this.expiring = lifetime > 0;
+			this.refreshAt = issuedAt + (long) (lifetime * refreshRatio);
+			this.expiresAt = issuedAt + lifetime;
+		}
+
+	}
+
+}
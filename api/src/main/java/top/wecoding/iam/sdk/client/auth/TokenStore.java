@@ -0,0 +1,34 @@
+package top.wecoding.iam.sdk.client.auth;
+
+import java.io.IOException;
+
+/**
+ * Persists the token of a {@link TokenManager}, so that a restarted client reuses or
+ * refreshes it instead of logging in again.
+ *
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+public interface TokenStore {
+
+	/**
+	 * Load the stored token.
+	 * @return the token, null if none is stored
+	 * @throws IOException if the token can not be read
+	 */
+	StoredToken load() throws IOException;
+
+	/**
+	 * Store a token, replacing the stored one.
+	 * @param token the token
+	 * @throws IOException if the token can not be written
+	 */
+	void save(StoredToken token) throws IOException;
+
+	/**
+	 * Remove the stored token, e.g. when it was rejected.
+	 * @throws IOException if the token can not be removed
+	 */
+	void clear() throws IOException;
+
+}
@@ -0,0 +1,206 @@
+package top.wecoding.iam.sdk.client.circuit;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Circuit breaker of an endpoint, recording the outcome of the last calls in a sliding
+ * window.
+ *
+ * <ul>
+ * <li>{@link State#CLOSED}: calls are permitted, the circuit opens when the failure rate
+ * or the slow call rate of the window reaches its threshold;</li>
+ * <li>{@link State#OPEN}: calls are rejected without being sent until the wait duration
+ * elapses;</li>
+ * <li>{@link State#HALF_OPEN}: a few probe calls are permitted, the circuit closes if
+ * they succeed and opens again otherwise.</li>
+ * </ul>
+ *
+ * <p>
+ * Checking for permission is a volatile read while the circuit is closed or open, only
+ * recording outcomes synchronizes on the window.
+ *
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+@Slf4j
+public class CircuitBreaker {
+
+	public enum State {
+
+		CLOSED, OPEN, HALF_OPEN
+
+	}
+
+	private static final byte FAILURE = 1;
+
+	private static final byte SLOW = 2;
+
+	private final String name;
+
+	private final CircuitBreakerConfig config;
+
+	private final List<CircuitBreakerListener> listeners;
+
+	private final long slowCallNanos;
+
+	private final long waitNanos;
+
+	private final AtomicInteger halfOpenPermits = new AtomicInteger();
+
+	private volatile State state = State.CLOSED;
+
+	private volatile long openedAt;
+
+	// sliding window, guarded by this
+	private final byte[] window;
+
+	private int windowIndex;
+
+	private int windowCount;
+
+	private int failures;
+
+	private int slowCalls;
+
+	CircuitBreaker(String name, CircuitBreakerConfig config, List<CircuitBreakerListener> listeners) {
+		this.name = name;
+		this.config = config;
+		this.listeners = listeners;
+		this.slowCallNanos = config.getSlowCallDuration().toNanos();
+		this.waitNanos = config.getWaitDurationInOpenState().toNanos();
+		this.window = new byte[Math.max(1, config.getSlidingWindowSize())];
+	}
+
+	public String getName() {
+		return this.name;
+	}
+
+	public State getState() {
+		return this.state;
+	}
+
+	/**
+	 * Try to obtain the permission to send a call. A permitted call must report its
+	 * outcome with {@link #onResult(long, boolean)} or give the permission back with
+	 * {@link #releasePermission()}.
+	 * @return {@code true} if the call is permitted
+	 */
+	public boolean tryAcquirePermission() {
+		State current = this.state;
+		if (current == State.CLOSED) {
+			return true;
+		}
+		if (current == State.OPEN) {
+			if (System.nanoTime() - this.openedAt < this.waitNanos) {
+				return false;
+			}
+			transition(State.OPEN, State.HALF_OPEN);
+		}
+		return this.halfOpenPermits.getAndUpdate(permits -> permits > 0 ? permits - 1 : 0) > 0;
+	}
+
+	/**
+	 * Give back the permission of a call that was not sent or whose outcome is unknown.
+	 */
+	public void releasePermission() {
+		if (this.state == State.HALF_OPEN) {
+			this.halfOpenPermits.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Record the outcome of a permitted call.
+	 * @param durationNanos the duration of the call in nanoseconds
+	 * @param failure whether the call failed
+	 */
+	public void onResult(long durationNanos, boolean failure) {
+		byte outcome = (byte) ((failure ? FAILURE : 0) | (durationNanos >= this.slowCallNanos ? SLOW : 0));
+		State from;
+		State to;
+		synchronized (this) {
+			from = this.state;
+			if (from == State.OPEN) {
+				// call sent before the circuit opened
+				return;
+			}
+			record(outcome);
+			to = evaluate(from);
+			if (to == from) {
+				return;
+			}
+			changeState(to);
+		}
+		notifyListeners(from, to);
+	}
+
+	private void record(byte outcome) {
+		if (this.windowCount == this.window.length) {
+			byte evicted = this.window[this.windowIndex];
+			this.failures -= evicted & FAILURE;
+			this.slowCalls -= (evicted & SLOW) >> 1;
+		}
+		else {
+			this.windowCount++;
+		}
+		this.window[this.windowIndex] = outcome;
+		this.windowIndex = (this.windowIndex + 1) % this.window.length;
+		this.failures += outcome & FAILURE;
+		this.slowCalls += (outcome & SLOW) >> 1;
+	}
+
+	private State evaluate(State current) {
+		int minimumCalls = Math.min(current == State.HALF_OPEN ? this.config.getPermittedCallsInHalfOpenState()
+				: this.config.getMinimumNumberOfCalls(), this.window.length);
+		if (this.windowCount < minimumCalls) {
+			return current;
+		}
+		float failureRate = this.failures * 100f / this.windowCount;
+		float slowCallRate = this.slowCalls * 100f / this.windowCount;
+		if (failureRate >= this.config.getFailureRateThreshold()
+				|| slowCallRate >= this.config.getSlowCallRateThreshold()) {
+			return State.OPEN;
+		}
+		return State.CLOSED;
+	}
+
+	private void transition(State from, State to) {
+		synchronized (this) {
+			if (this.state != from) {
+				return;
+			}
+			changeState(to);
+		}
+		notifyListeners(from, to);
+	}
+
+	// called holding the lock
+	private void changeState(State to) {
+		this.windowIndex = 0;
+		this.windowCount = 0;
+		this.failures = 0;
+		this.slowCalls = 0;
+		if (to == State.OPEN) {
+			this.openedAt = System.nanoTime();
+		}
+		else if (to == State.HALF_OPEN) {
+			this.halfOpenPermits.set(this.config.getPermittedCallsInHalfOpenState());
+		}
+		this.state = to;
+	}
+
+	private void notifyListeners(State from, State to) {
+		log.debug("Circuit breaker for {} changed from {} to {}", this.name, from, to);
+		for (CircuitBreakerListener listener : this.listeners) {
+			try {
+				listener.onStateTransition(this, from, to);
+			}
+			catch (RuntimeException ex) {
+				log.warn("Circuit breaker listener failed", ex);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,64 @@
+package top.wecoding.iam.sdk.client.circuit;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Thresholds of the circuit breakers.
+ *
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+@Getter
+@Builder
+public class CircuitBreakerConfig {
+
+	/**
+	 * Percentage of failed calls in the sliding window above which the circuit opens.
+	 */
+	@Builder.Default
+	private final float failureRateThreshold = 50;
+
+	/**
+	 * Percentage of slow calls in the sliding window above which the circuit opens.
+	 */
+	@Builder.Default
+	private final float slowCallRateThreshold = 100;
+
+	/**
+	 * Duration above which a call is slow.
+	 */
+	@Builder.Default
+	private final Duration slowCallDuration = Duration.ofSeconds(5);
+
+	/**
+	 * Number of the last calls whose outcome is recorded.
+	 */
+	@Builder.Default
+	private final int slidingWindowSize = 20;
+
+	/**
+	 * Number of calls to record before the rates are evaluated.
+	 */
+	@Builder.Default
+	private final int minimumNumberOfCalls = 10;
+
+	/**
+	 * Time the circuit stays open before probing the endpoint.
+	 */
+	@Builder.Default
+	private final Duration waitDurationInOpenState = Duration.ofSeconds(30);
+
+	/**
+	 * Number of probe calls permitted while half-open.
+	 */
+	@Builder.Default
+	private final int permittedCallsInHalfOpenState = 3;
+
+	public static CircuitBreakerConfig ofDefaults() {
+		return CircuitBreakerConfig.builder().build();
+	}
+
+}
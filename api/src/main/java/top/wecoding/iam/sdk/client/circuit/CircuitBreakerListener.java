@@ -0,0 +1,21 @@
+package top.wecoding.iam.sdk.client.circuit;
+
+/**
+ * Callback notified of the state transitions of the circuit breakers.
+ *
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+@FunctionalInterface
+public interface CircuitBreakerListener {
+
+	/**
+	 * Called after the circuit breaker changed state, on the thread completing the call
+	 * that caused the transition.
+	 * @param circuitBreaker the circuit breaker
+	 * @param from the previous state
+	 * @param to the new state
+	 */
+	void onStateTransition(CircuitBreaker circuitBreaker, CircuitBreaker.State from, CircuitBreaker.State to);
+
+}
@@ -0,0 +1,66 @@
+package top.wecoding.iam.sdk.client.circuit;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Circuit breakers of a client, one per route template such as
+ * {@code /api/v1/users/{id}}, sharing the same thresholds and listeners.
+ *
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+public class CircuitBreakerRegistry {
+
+	private final CircuitBreakerConfig config;
+
+	private final List<CircuitBreakerListener> listeners = new CopyOnWriteArrayList<>();
+
+	private final ConcurrentMap<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+
+	public CircuitBreakerRegistry(CircuitBreakerConfig config) {
+		if (config == null) {
+			throw new IllegalArgumentException("config argument cannot be null.");
+		}
+		this.config = config;
+	}
+
+	/**
+	 * Get the circuit breaker of a route, creating it if needed.
+	 * @param routeTemplate the route template
+	 * @return the circuit breaker
+	 */
+	public CircuitBreaker circuitBreaker(String routeTemplate) {
+		CircuitBreaker circuitBreaker = this.circuitBreakers.get(routeTemplate);
+		if (circuitBreaker != null) {
+			return circuitBreaker;
+		}
+		return this.circuitBreakers.computeIfAbsent(routeTemplate,
+				key -> new CircuitBreaker(key, this.config, this.listeners));
+	}
+
+	/**
+	 * Register a listener notified of the state transitions of all the circuit breakers.
+	 * @param listener the listener
+	 */
+	public void addListener(CircuitBreakerListener listener) {
+		this.listeners.add(listener);
+	}
+
+	public void removeListener(CircuitBreakerListener listener) {
+		this.listeners.remove(listener);
+	}
+
+	public Collection<CircuitBreaker> getCircuitBreakers() {
+		return Collections.unmodifiableCollection(this.circuitBreakers.values());
+	}
+
+	public CircuitBreakerConfig getConfig() {
+		return this.config;
+	}
+
+}
@@ -0,0 +1,4 @@
+/**
+ * circuit breakers of the http clients.
+ */
+package top.wecoding.iam.sdk.client.circuit;
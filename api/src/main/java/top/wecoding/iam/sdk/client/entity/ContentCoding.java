@@ -0,0 +1,56 @@
+package top.wecoding.iam.sdk.client.entity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * An HTTP content coding, advertised in {@code Accept-Encoding} to decode the responses
+ * and optionally used to encode the large request bodies. Implement it to plug other
+ * codings, e.g. {@code zstd} with a native library.
+ *
+ * @author Wecoding Liu
+ * @since 0.8
+ * @see StandardContentCoding
+ */
+public interface ContentCoding {
+
+	/**
+	 * Get the name of the coding in the {@code Content-Encoding} header.
+	 * @return the name, e.g. {@code gzip}
+	 */
+	String getName();
+
+	/**
+	 * Wrap the stream of an encoded response body to decode it while it is read.
+	 * @param encoded the encoded stream
+	 * @return the decoded stream
+	 * @throws IOException if the stream can not be decoded
+	 */
+	InputStream decode(InputStream encoded) throws IOException;
+
+	/**
+	 * Wrap the stream of a request body to encode what is written. Closing the returned
+	 * stream finishes the encoding and closes the given one.
+	 * @param out the stream of the encoded body
+	 * @return the stream to write the body to
+	 * @throws IOException if the encoder can not be created
+	 */
+	OutputStream encode(OutputStream out) throws IOException;
+
+	/**
+	 * Encode a whole body.
+	 * @param content the body
+	 * @return the encoded body
+	 * @throws IOException if the body can not be encoded
+	 */
+	default byte[] encode(byte[] content) throws IOException {
+		ByteArrayOutputStream encoded = new ByteArrayOutputStream(Math.max(content.length / 4, 64));
+		try (OutputStream out = encode(encoded)) {
+			out.write(content);
+		}
+		return encoded.toByteArray();
+	}
+
+}
@@ -0,0 +1,84 @@
+package top.wecoding.iam.sdk.client.entity;
+
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.io.entity.HttpEntityWrapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Request entity encoding another one with a content coding while it is written, in
+ * chunks since the encoded length is not known beforehand. It is repeatable when the
+ * wrapped entity is, each write encodes it again.
+ *
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+public class EncodedHttpEntity extends HttpEntityWrapper {
+
+	private final ContentCoding coding;
+
+	public EncodedHttpEntity(HttpEntity entity, ContentCoding coding) {
+		super(entity);
+		this.coding = coding;
+	}
+
+	@Override
+	public String getContentEncoding() {
+		return this.coding.getName();
+	}
+
+	@Override
+	public long getContentLength() {
+		return -1;
+	}
+
+	@Override
+	public boolean isChunked() {
+		return true;
+	}
+
+	/**
+	 * Encode the whole entity, for the callers reading it rather than writing it.
+	 * @return a stream of the encoded body
+	 * @throws IOException if the entity can not be encoded
+	 */
+	@Override
+	public InputStream getContent() throws IOException {
+		return new ByteArrayInputStream(toByteArray());
+	}
+
+	@Override
+	public void writeTo(OutputStream outStream) throws IOException {
+		// closing the encoder finishes the coding, the connection stays open
+		try (OutputStream encoder = this.coding.encode(new FilterOutputStream(outStream) {
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				this.out.write(b, off, len);
+			}
+
+			@Override
+			public void close() throws IOException {
+				flush();
+			}
+		})) {
+			super.writeTo(encoder);
+		}
+	}
+
+	/**
+	 * Encode the whole entity, e.g. for the clients sending bodies of known length.
+	 * @return the encoded body
+	 * @throws IOException if the entity can not be encoded
+	 */
+	public byte[] toByteArray() throws IOException {
+		ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+		writeTo(encoded);
+		return encoded.toByteArray();
+	}
+
+}
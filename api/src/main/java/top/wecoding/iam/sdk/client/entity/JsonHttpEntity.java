@@ -0,0 +1,169 @@
+package top.wecoding.iam.sdk.client.entity;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.io.entity.AbstractHttpEntity;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Request entity serializing an object to JSON straight into the output stream of the
+ * connection, without building a string of the body first.
+ *
+ * <p>
+ * A chunked entity is serialized each time it is written, so it is never held in memory.
+ * Otherwise its length is sent with the request, and the object is serialized once to
+ * bytes, which are written again by the retries. Both are repeatable.
+ *
+ * <p>
+ * The writer must not close its target, see
+ * {@link com.fasterxml.jackson.core.JsonGenerator.Feature#AUTO_CLOSE_TARGET}.
+ *
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+public class JsonHttpEntity extends AbstractHttpEntity {
+
+	private final Object value;
+
+	private final ObjectWriter writer;
+
+	// serialized lazily, when the length or the content is needed
+	private volatile byte[] bytes;
+
+	public JsonHttpEntity(Object value, ObjectWriter writer, ContentType contentType, boolean chunked) {
+		super(contentType, null, chunked);
+		this.value = value;
+		this.writer = writer;
+	}
+
+	public Object getValue() {
+		return this.value;
+	}
+
+	/**
+	 * Get the serialized object, serializing it on the first call.
+	 * @return the JSON bytes
+	 * @throws IOException if the object can not be serialized
+	 */
+	public byte[] toByteArray() throws IOException {
+		byte[] result = this.bytes;
+		if (result == null) {
+			result = this.writer.writeValueAsBytes(this.value);
+			this.bytes = result;
+		}
+		return result;
+	}
+
+	/**
+	 * Serialize the object if it is short, without serializing the rest of a longer one,
+	 * e.g. to send the short chunked bodies with their length instead. Serialized each
+	 * time it is called.
+	 * @param maxLength the length of the longest serialized object
+	 * @return the JSON bytes, null if longer than the given length
+	 * @throws IOException if the object can not be serialized
+	 */
+	public byte[] toByteArray(int maxLength) throws IOException {
+		if (maxLength < 0) {
+			return null;
+		}
+		BoundedOutputStream out = new BoundedOutputStream(maxLength);
+		try {
+			this.writer.writeValue(out, this.value);
+		}
+		catch (LengthExceededException ex) {
+			return null;
+		}
+		return out.toByteArray();
+	}
+
+	@Override
+	public boolean isRepeatable() {
+		return true;
+	}
+
+	@Override
+	public long getContentLength() {
+		if (isChunked()) {
+			return -1;
+		}
+		try {
+			return toByteArray().length;
+		}
+		catch (IOException ex) {
+			// reported when the entity is written
+			return -1;
+		}
+	}
+
+	@Override
+	public InputStream getContent() throws IOException {
+		return new ByteArrayInputStream(toByteArray());
+	}
+
+	@Override
+	public void writeTo(OutputStream outStream) throws IOException {
+		byte[] serialized = this.bytes;
+		if (serialized != null) {
+			outStream.write(serialized);
+		}
+		else if (isChunked()) {
+			this.writer.writeValue(outStream, this.value);
+		}
+		else {
+			outStream.write(toByteArray());
+		}
+	}
+
+	@Override
+	public boolean isStreaming() {
+		return false;
+	}
+
+	@Override
+	public void close() {
+	}
+
+	private static final class BoundedOutputStream extends ByteArrayOutputStream {
+
+		private final int maxLength;
+
+		private BoundedOutputStream(int maxLength) {
+			super(Math.min(maxLength, 8192));
+			this.maxLength = maxLength;
+		}
+
+		@Override
+		public void write(int b) {
+			ensureLength(1);
+			super.write(b);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			ensureLength(len);
+			super.write(b, off, len);
+		}
+
+		private void ensureLength(int len) {
+			if (this.count + len > this.maxLength) {
+				throw new LengthExceededException();
+			}
+		}
+
+	}
+
+	private static final class LengthExceededException extends UncheckedIOException {
+
+		private LengthExceededException() {
+			super(new IOException("Serialized object exceeds the maximum length"));
+		}
+
+	}
+
+}
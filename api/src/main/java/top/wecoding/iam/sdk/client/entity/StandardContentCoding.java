@@ -0,0 +1,78 @@
+package top.wecoding.iam.sdk.client.entity;
+
+import org.apache.hc.client5.http.entity.DeflateInputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The content codings of the JDK.
+ *
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+public enum StandardContentCoding implements ContentCoding {
+
+	GZIP("gzip") {
+		@Override
+		public InputStream decode(InputStream encoded) throws IOException {
+			return new GZIPInputStream(encoded, BUFFER_SIZE);
+		}
+
+		@Override
+		public OutputStream encode(OutputStream out) throws IOException {
+			return new GZIPOutputStream(out, BUFFER_SIZE);
+		}
+	},
+
+	DEFLATE("deflate") {
+		@Override
+		public InputStream decode(InputStream encoded) throws IOException {
+			// also accepts the raw deflate streams of some servers
+			return new DeflateInputStream(encoded);
+		}
+
+		@Override
+		public OutputStream encode(OutputStream out) {
+			return new DeflaterOutputStream(out, new Deflater(), BUFFER_SIZE, false) {
+				@Override
+				public void close() throws IOException {
+					try {
+						super.close();
+					}
+					finally {
+						this.def.end();
+					}
+				}
+			};
+		}
+	};
+
+	private static final int BUFFER_SIZE = 8192;
+
+	private final String name;
+
+	StandardContentCoding(String name) {
+		this.name = name;
+	}
+
+	@Override
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Get the codings advertised by default, in order of preference.
+	 * @return gzip and deflate
+	 */
+	public static List<ContentCoding> defaults() {
+		return List.of(GZIP, DEFLATE);
+	}
+
+}
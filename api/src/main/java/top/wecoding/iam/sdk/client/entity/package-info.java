@@ -0,0 +1,4 @@
+/**
+ * request entities of the http clients.
+ */
+package top.wecoding.iam.sdk.client.entity;
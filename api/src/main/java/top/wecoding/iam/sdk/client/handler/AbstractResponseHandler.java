@@ -1,11 +1,15 @@
 package top.wecoding.iam.sdk.client.handler;
 
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectReader;
 import org.apache.hc.core5.http.ClassicHttpResponse;
 import org.apache.hc.core5.http.Header;
 import org.apache.hc.core5.http.HttpEntity;
 import org.apache.hc.core5.http.HttpStatus;
 import org.apache.hc.core5.http.ParseException;
 import org.apache.hc.core5.http.io.entity.EntityUtils;
+import top.wecoding.iam.sdk.codec.Codec;
+import top.wecoding.iam.sdk.codec.JacksonCodec;
 import top.wecoding.iam.sdk.exception.ApiException;
 
 import java.io.IOException;
@@ -21,16 +25,81 @@ import java.util.Map;
  */
 public abstract class AbstractResponseHandler<T> implements ResponseHandler<T> {
 
-	private Type responseType;
+	private final Type responseType;
 
-	@Override
-	public final void setResponseType(Type responseType) {
+	private final JavaType javaType;
+
+	private final ObjectReader objectReader;
+
+	private final Codec codec;
+
+	protected AbstractResponseHandler() {
+		this(null);
+	}
+
+	/**
+	 * Create a handler bound to the given response type, decoding with the default codec.
+	 * @param responseType responseType
+	 */
+	protected AbstractResponseHandler(Type responseType) {
+		this(responseType, JacksonCodec.getDefault());
+	}
+
+	/**
+	 * Create a handler bound to the given response type, resolving its {@link JavaType}
+	 * and {@link ObjectReader} once.
+	 * @param responseType responseType
+	 * @param codec the codec of the client
+	 */
+	protected AbstractResponseHandler(Type responseType, Codec codec) {
 		this.responseType = responseType;
+		this.codec = codec;
+		this.javaType = responseType != null ? codec.constructType(responseType) : null;
+		this.objectReader = this.javaType != null ? codec.reader(this.javaType) : null;
+	}
+
+	public Type getResponseType() {
+		return this.responseType;
+	}
+
+	public JavaType getJavaType() {
+		return this.javaType;
+	}
+
+	public ObjectReader getObjectReader() {
+		return this.objectReader;
+	}
+
+	public Codec getCodec() {
+		return this.codec;
+	}
+
+	/**
+	 * Bind the handler to the given response type, passed to
+	 * {@link #convertResult(ClassicHttpResponse, Type)}. The handlers decoding with the
+	 * resolved {@link #getObjectReader() reader} override it to create a new instance.
+	 * @param responseType responseType
+	 * @return the handler for the response type
+	 */
+	@Override
+	public ResponseHandler<T> withResponseType(Type responseType) {
+		return response -> handleResponse(response, responseType);
 	}
 
 	@Override
 	public final T handleResponse(ClassicHttpResponse response) throws IOException {
+		return handleResponse(response, this.responseType);
+	}
+
+	private T handleResponse(ClassicHttpResponse response, Type responseType) throws IOException {
 		final HttpEntity entity = response.getEntity();
+		if (response.getCode() == HttpStatus.SC_NOT_MODIFIED) {
+			T notModified = convertNotModified(response);
+			if (notModified != null) {
+				EntityUtils.consume(entity);
+				return notModified;
+			}
+		}
 		if (response.getCode() >= HttpStatus.SC_REDIRECTION) {
 			String body = null;
 			try {
@@ -55,6 +124,16 @@ public abstract class AbstractResponseHandler<T> implements ResponseHandler<T> {
 	 */
 	public abstract T convertResult(ClassicHttpResponse response, Type responseType) throws IOException;
 
+	/**
+	 * Override to accept the {@code 304 Not Modified} answers of conditional requests,
+	 * which are errors otherwise.
+	 * @param response http client response
+	 * @return the result of the response, or null to handle it as an error
+	 */
+	protected T convertNotModified(ClassicHttpResponse response) {
+		return null;
+	}
+
 	protected Map<String, List<String>> transformResponseHeaders(Header[] headers) {
 		Map<String, List<String>> headersMap = new HashMap<>();
 		for (Header header : headers) {
@@ -1,42 +1,64 @@
 package top.wecoding.iam.sdk.client.handler;
 
 import org.apache.hc.core5.http.ClassicHttpResponse;
-import org.apache.hc.core5.http.Header;
+import top.wecoding.iam.sdk.codec.Codec;
+import top.wecoding.iam.sdk.exception.ApiException;
 import top.wecoding.iam.sdk.model.ApiResult;
-import top.wecoding.iam.sdk.util.JacksonUtils;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Type;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
+ * Decodes the responses to an {@link ApiResult} in a single pass, its data straight to
+ * the type argument of the response type, e.g. {@code ApiResult<UserInfo>}, or to maps
+ * for a raw {@code ApiResult}. The response headers are exposed as a read-only view.
+ *
  * @author Wecoding Liu
  * @since 0.8
  */
 public class ApiResultResponseHandler<T> extends AbstractResponseHandler<T> {
 
-	private static <T> ApiResult<T> convert(ClassicHttpResponse response, ApiResult<T> apiResult) {
-		ApiResult<T> httpRestResult = new ApiResult<>();
-		httpRestResult.setCode(apiResult.getCode());
-		httpRestResult.setMsg(apiResult.getMsg());
-		httpRestResult.setData(apiResult.getData());
-		Header[] headers = response.getHeaders();
-		Map<String, String> responseHeaders = new HashMap<>();
-		for (Header header : headers) {
-			responseHeaders.put(header.getName(), header.getValue());
-		}
-		httpRestResult.setHeaders(responseHeaders);
-		return httpRestResult;
+	public ApiResultResponseHandler() {
+	}
+
+	/**
+	 * Create a handler decoding the data to the type argument of the response type, see
+	 * {@link ApiResult#typeOf(Type)}.
+	 * @param responseType the response type
+	 */
+	public ApiResultResponseHandler(Type responseType) {
+		super(responseType);
+	}
+
+	public ApiResultResponseHandler(Type responseType, Codec codec) {
+		super(responseType, codec);
+	}
+
+	@Override
+	public ResponseHandler<T> withResponseType(Type responseType) {
+		return new ApiResultResponseHandler<>(responseType);
+	}
+
+	@Override
+	public ResponseHandler<T> withResponseType(Type responseType, Codec codec) {
+		return new ApiResultResponseHandler<>(responseType, codec);
 	}
 
 	@Override
 	@SuppressWarnings("unchecked")
 	public T convertResult(ClassicHttpResponse response, Type responseType) throws IOException {
-		InputStream body = response.getEntity().getContent();
-		T extractBody = (T) JacksonUtils.toObj(body, ApiResult.class);
-		return (T) convert(response, (ApiResult<T>) extractBody);
+		ApiResult<Object> apiResult;
+		try (InputStream body = response.getEntity().getContent()) {
+			apiResult = getObjectReader().readValue(body);
+		}
+		catch (IOException ex) {
+			throw new ApiException(ex);
+		}
+		if (apiResult != null) {
+			apiResult.setHeaders(new ResponseHeaderMap(response.getHeaders()));
+		}
+		return (T) apiResult;
 	}
 
 }
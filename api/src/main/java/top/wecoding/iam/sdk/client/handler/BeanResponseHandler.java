@@ -1,7 +1,8 @@
 package top.wecoding.iam.sdk.client.handler;
 
 import org.apache.hc.core5.http.ClassicHttpResponse;
-import top.wecoding.iam.sdk.util.JacksonUtils;
+import top.wecoding.iam.sdk.codec.Codec;
+import top.wecoding.iam.sdk.exception.ApiException;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -13,10 +14,35 @@ import java.lang.reflect.Type;
  */
 public class BeanResponseHandler<T> extends AbstractResponseHandler<T> {
 
+	public BeanResponseHandler() {
+	}
+
+	public BeanResponseHandler(Type responseType) {
+		super(responseType);
+	}
+
+	public BeanResponseHandler(Type responseType, Codec codec) {
+		super(responseType, codec);
+	}
+
+	@Override
+	public ResponseHandler<T> withResponseType(Type responseType) {
+		return new BeanResponseHandler<>(responseType);
+	}
+
+	@Override
+	public ResponseHandler<T> withResponseType(Type responseType, Codec codec) {
+		return new BeanResponseHandler<>(responseType, codec);
+	}
+
 	@Override
 	public T convertResult(ClassicHttpResponse response, Type responseType) throws IOException {
-		InputStream body = response.getEntity().getContent();
-		return JacksonUtils.toObj(body, responseType);
+		try (InputStream body = response.getEntity().getContent()) {
+			return getObjectReader().readValue(body);
+		}
+		catch (IOException ex) {
+			throw new ApiException(ex);
+		}
 	}
 
 }
@@ -0,0 +1,77 @@
+package top.wecoding.iam.sdk.client.handler;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpHeaders;
+import top.wecoding.iam.sdk.codec.Codec;
+import top.wecoding.iam.sdk.codec.JacksonCodec;
+import top.wecoding.iam.sdk.exception.ApiException;
+import top.wecoding.iam.sdk.model.ConditionalResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+
+/**
+ * Converts the responses of conditional requests to a {@link ConditionalResponse}: a
+ * {@code 304 Not Modified} is returned without reading any body, other responses are
+ * decoded to the type argument of the response type along with their validators.
+ *
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+public class ConditionalResponseHandler<T> extends AbstractResponseHandler<ConditionalResponse<T>> {
+
+	private final ObjectReader bodyReader;
+
+	public ConditionalResponseHandler() {
+		this.bodyReader = null;
+	}
+
+	public ConditionalResponseHandler(Type responseType) {
+		this(responseType, JacksonCodec.getDefault());
+	}
+
+	public ConditionalResponseHandler(Type responseType, Codec codec) {
+		super(responseType, codec);
+		JavaType bodyType = getJavaType().containedTypeOrUnknown(0);
+		this.bodyReader = codec.reader(bodyType);
+	}
+
+	@Override
+	public ResponseHandler<ConditionalResponse<T>> withResponseType(Type responseType) {
+		return new ConditionalResponseHandler<>(responseType);
+	}
+
+	@Override
+	public ResponseHandler<ConditionalResponse<T>> withResponseType(Type responseType, Codec codec) {
+		return new ConditionalResponseHandler<>(responseType, codec);
+	}
+
+	@Override
+	protected ConditionalResponse<T> convertNotModified(ClassicHttpResponse response) {
+		return new ConditionalResponse<>(null, headerValue(response, HttpHeaders.ETAG),
+				headerValue(response, HttpHeaders.LAST_MODIFIED), true);
+	}
+
+	@Override
+	public ConditionalResponse<T> convertResult(ClassicHttpResponse response, Type responseType) throws IOException {
+		T body;
+		try (InputStream content = response.getEntity().getContent()) {
+			body = this.bodyReader.readValue(content);
+		}
+		catch (IOException ex) {
+			throw new ApiException(ex);
+		}
+		return new ConditionalResponse<>(body, headerValue(response, HttpHeaders.ETAG),
+				headerValue(response, HttpHeaders.LAST_MODIFIED), false);
+	}
+
+	private static String headerValue(ClassicHttpResponse response, String name) {
+		Header header = response.getFirstHeader(name);
+		return header != null ? header.getValue() : null;
+	}
+
+}
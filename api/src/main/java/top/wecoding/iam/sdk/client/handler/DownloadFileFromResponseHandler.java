@@ -18,6 +18,12 @@ import java.util.regex.Pattern;
  */
 public class DownloadFileFromResponseHandler extends AbstractResponseHandler<File> {
 
+	@Override
+	public ResponseHandler<File> withResponseType(Type responseType) {
+		// stateless, the response type does not affect the conversion
+		return this;
+	}
+
 	@Override
 	public File convertResult(ClassicHttpResponse response, Type responseType) throws IOException {
 		Header contentDispositionHeader = response.getFirstHeader(HttpHeaders.CONTENT_DISPOSITION);
@@ -1,6 +1,7 @@
 package top.wecoding.iam.sdk.client.handler;
 
 import org.apache.hc.core5.http.io.HttpClientResponseHandler;
+import top.wecoding.iam.sdk.codec.Codec;
 
 import java.lang.reflect.Type;
 
@@ -11,9 +12,36 @@ import java.lang.reflect.Type;
 public interface ResponseHandler<T> extends HttpClientResponseHandler<T> {
 
 	/**
-	 * set response type.
+	 * Set the response type of the handler.
 	 * @param responseType responseType
+	 * @deprecated handlers are bound to a response type, override
+	 * {@link #withResponseType(Type)} instead
 	 */
-	void setResponseType(Type responseType);
+	@Deprecated
+	default void setResponseType(Type responseType) {
+	}
+
+	/**
+	 * Create a handler bound to the given response type. The returned instance is cached
+	 * and shared by concurrent requests, handlers overriding it are immutable. The
+	 * default sets the response type of this handler and returns it.
+	 * @param responseType responseType
+	 * @return the handler for the response type
+	 */
+	default ResponseHandler<T> withResponseType(Type responseType) {
+		setResponseType(responseType);
+		return this;
+	}
+
+	/**
+	 * Create a handler bound to the given response type, decoding with the given codec.
+	 * Handlers decoding JSON override it, the default ignores the codec.
+	 * @param responseType responseType
+	 * @param codec the codec of the client
+	 * @return the handler for the response type
+	 */
+	default ResponseHandler<T> withResponseType(Type responseType, Codec codec) {
+		return withResponseType(responseType);
+	}
 
 }
@@ -0,0 +1,81 @@
+package top.wecoding.iam.sdk.client.handler;
+
+import org.apache.hc.core5.http.Header;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Read-only view of the response headers, by name. Lookups scan the headers of the
+ * response, ignoring the case of the names; the map of all the headers is only built when
+ * iterated. A repeated header maps to its last value.
+ *
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+final class ResponseHeaderMap extends AbstractMap<String, String> implements Serializable {
+
+	@Serial
+	private static final long serialVersionUID = 1L;
+
+	private final transient Header[] headers;
+
+	private transient Map<String, String> entries;
+
+	ResponseHeaderMap(Header[] headers) {
+		this.headers = headers;
+	}
+
+	@Override
+	public String get(Object key) {
+		Header header = find(key);
+		return header != null ? header.getValue() : null;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return find(key) != null;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return this.headers.length == 0;
+	}
+
+	@Override
+	public Set<Entry<String, String>> entrySet() {
+		Map<String, String> result = this.entries;
+		if (result == null) {
+			result = new LinkedHashMap<>();
+			for (Header header : this.headers) {
+				result.put(header.getName(), header.getValue());
+			}
+			result = Collections.unmodifiableMap(result);
+			this.entries = result;
+		}
+		return result.entrySet();
+	}
+
+	private Header find(Object key) {
+		if (!(key instanceof String)) {
+			return null;
+		}
+		for (int i = this.headers.length - 1; i >= 0; i--) {
+			if (this.headers[i].getName().equalsIgnoreCase((String) key)) {
+				return this.headers[i];
+			}
+		}
+		return null;
+	}
+
+	@Serial
+	private Object writeReplace() {
+		return new LinkedHashMap<>(this);
+	}
+
+}
@@ -14,6 +14,12 @@ import java.lang.reflect.Type;
  */
 public class StringResponseHandler extends AbstractResponseHandler<String> {
 
+	@Override
+	public ResponseHandler<String> withResponseType(Type responseType) {
+		// stateless, the response type does not affect the conversion
+		return this;
+	}
+
 	@Override
 	public String convertResult(ClassicHttpResponse response, Type responseType) throws IOException {
 		try {
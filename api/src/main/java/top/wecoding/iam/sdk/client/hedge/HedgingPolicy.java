@@ -0,0 +1,182 @@
+package top.wecoding.iam.sdk.client.hedge;
+
+import top.wecoding.iam.sdk.client.retry.RetryBudget;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Policy of hedged requests: when the first attempt of an idempotent read has not
+ * answered after the hedge delay, a second attempt is sent and the first answer wins.
+ *
+ * <p>
+ * The hedge delay is either fixed or a percentile of the latencies observed for the
+ * route, e.g. the p95 so that only the slowest 5% of the requests are hedged. The share
+ * of hedged requests is capped by a budget, so that hedging does not double the load on a
+ * server that slows down.
+ *
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+public class HedgingPolicy {
+
+	private static final int MIN_SAMPLES = 20;
+
+	private static final int DECAY_INTERVAL = 1000;
+
+	private static final int BUDGET_CAPACITY = 10;
+
+	private final double percentile;
+
+	private final long delayNanos;
+
+	// first attempts earn hedges the way they earn retries
+	private final RetryBudget hedgeBudget;
+
+	private final ConcurrentMap<String, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+
+	private volatile ScheduledThreadPoolExecutor scheduler;
+
+	private volatile ExecutorService executor;
+
+	private HedgingPolicy(double percentile, Duration delay, double maxHedgeRatio) {
+		if (percentile < 0 || percentile >= 100) {
+			throw new IllegalArgumentException("percentile must be in [0, 100).");
+		}
+		if (delay == null || delay.isNegative()) {
+			throw new IllegalArgumentException("delay must not be negative.");
+		}
+		this.percentile = percentile;
+		this.delayNanos = delay.toNanos();
+		this.hedgeBudget = new RetryBudget(maxHedgeRatio, BUDGET_CAPACITY);
+	}
+
+	/**
+	 * Hedge the requests that have not answered after a fixed delay.
+	 * @param delay the hedge delay
+	 * @param maxHedgeRatio the maximum share of hedged requests, e.g. {@code 0.05}
+	 * @return the hedging policy
+	 */
+	public static HedgingPolicy fixedDelay(Duration delay, double maxHedgeRatio) {
+		return new HedgingPolicy(0, delay, maxHedgeRatio);
+	}
+
+	/**
+	 * Hedge the requests that have not answered after the given percentile of the
+	 * latencies observed for their route.
+	 * @param percentile the percentile, e.g. {@code 95}
+	 * @param initialDelay the hedge delay until enough latencies are observed
+	 * @param maxHedgeRatio the maximum share of hedged requests, e.g. {@code 0.05}
+	 * @return the hedging policy
+	 */
+	public static HedgingPolicy percentile(double percentile, Duration initialDelay, double maxHedgeRatio) {
+		if (percentile <= 0) {
+			throw new IllegalArgumentException("percentile must be positive.");
+		}
+		return new HedgingPolicy(percentile, initialDelay, maxHedgeRatio);
+	}
+
+	/**
+	 * Get the hedge delay of a route.
+	 * @param route the route template or path of the request
+	 * @return the delay in nanoseconds
+	 */
+	public long getDelayNanos(String route) {
+		if (this.percentile > 0) {
+			LatencyHistogram histogram = this.latencies.get(route);
+			long observed = histogram != null ? histogram.percentile(this.percentile, MIN_SAMPLES) : -1;
+			if (observed >= 0) {
+				return observed;
+			}
+		}
+		return this.delayNanos;
+	}
+
+	/**
+	 * Record the latency of an attempt.
+	 * @param route the route template or path of the request
+	 * @param nanos the latency in nanoseconds
+	 */
+	public void recordLatency(String route, long nanos) {
+		if (this.percentile > 0) {
+			this.latencies.computeIfAbsent(route, key -> new LatencyHistogram(DECAY_INTERVAL)).record(nanos);
+		}
+	}
+
+	/**
+	 * Record a first attempt, earning a share of a hedge.
+	 */
+	public void onRequest() {
+		this.hedgeBudget.deposit();
+	}
+
+	/**
+	 * Try to spend a hedge.
+	 * @return {@code true} if the request may be hedged
+	 */
+	public boolean tryAcquireHedge() {
+		return this.hedgeBudget.tryWithdraw();
+	}
+
+	/**
+	 * Schedule the hedge of a request.
+	 * @param hedge the task sending the hedge
+	 * @param delayNanos the delay
+	 * @return the scheduled hedge
+	 */
+	public ScheduledFuture<?> schedule(Runnable hedge, long delayNanos) {
+		return scheduler().schedule(hedge, delayNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Get the executor of the hedges of blocking requests.
+	 * @return the executor
+	 */
+	public Executor executor() {
+		ExecutorService current = this.executor;
+		if (current == null) {
+			synchronized (this) {
+				current = this.executor;
+				if (current == null) {
+					current = Executors.newCachedThreadPool(daemonThreadFactory("iam-hedge-"));
+					this.executor = current;
+				}
+			}
+		}
+		return current;
+	}
+
+	private ScheduledThreadPoolExecutor scheduler() {
+		ScheduledThreadPoolExecutor current = this.scheduler;
+		if (current == null) {
+			synchronized (this) {
+				current = this.scheduler;
+				if (current == null) {
+					current = new ScheduledThreadPoolExecutor(1, daemonThreadFactory("iam-hedge-timer-"));
+					current.setRemoveOnCancelPolicy(true);
+					this.scheduler = current;
+				}
+			}
+		}
+		return current;
+	}
+
+	private static ThreadFactory daemonThreadFactory(String prefix) {
+		AtomicInteger count = new AtomicInteger();
+		return runnable -> {
+			Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+
+}
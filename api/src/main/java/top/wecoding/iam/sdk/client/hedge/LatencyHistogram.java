@@ -0,0 +1,80 @@
+package top.wecoding.iam.sdk.client.hedge;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of latencies with quarter-octave buckets, from one microsecond to
+ * about an hour. Counts are halved every {@code decayInterval} samples so that the
+ * percentiles follow the recent latencies.
+ *
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+final class LatencyHistogram {
+
+	private static final int BUCKETS = 128;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+	private final AtomicLong samples = new AtomicLong();
+
+	private final int decayInterval;
+
+	LatencyHistogram(int decayInterval) {
+		this.decayInterval = decayInterval;
+	}
+
+	void record(long nanos) {
+		this.counts.incrementAndGet(bucket(nanos / 1000));
+		if (this.samples.incrementAndGet() % this.decayInterval == 0) {
+			for (int i = 0; i < BUCKETS; i++) {
+				this.counts.getAndUpdate(i, count -> count >> 1);
+			}
+		}
+	}
+
+	/**
+	 * Get the given percentile of the recorded latencies.
+	 * @param percentile the percentile, between 0 and 100
+	 * @param minSamples the number of samples below which the percentile is unknown
+	 * @return the percentile in nanoseconds, or {@code -1} if unknown
+	 */
+	long percentile(double percentile, int minSamples) {
+		long total = 0;
+		long[] snapshot = new long[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++) {
+			snapshot[i] = this.counts.get(i);
+			total += snapshot[i];
+		}
+		if (total < minSamples) {
+			return -1;
+		}
+		long rank = (long) Math.ceil(total * percentile / 100);
+		long cumulative = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			cumulative += snapshot[i];
+			if (cumulative >= rank) {
+				return upperBoundMicros(i) * 1000;
+			}
+		}
+		return upperBoundMicros(BUCKETS - 1) * 1000;
+	}
+
+	private static int bucket(long micros) {
+		if (micros <= 1) {
+			return 0;
+		}
+		// 4 buckets per power of two
+		int log2 = 63 - Long.numberOfLeadingZeros(micros);
+		int quarter = (int) ((micros - (1L << log2)) * 4 >> log2);
+		return Math.min(BUCKETS - 1, log2 * 4 + quarter);
+	}
+
+	private static long upperBoundMicros(int bucket) {
+		int log2 = bucket / 4;
+		int quarter = bucket % 4;
+		return (1L << log2) + ((quarter + 1) * (1L << log2) >> 2);
+	}
+
+}
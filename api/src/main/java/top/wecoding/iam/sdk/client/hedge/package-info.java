@@ -0,0 +1,4 @@
+/**
+ * hedged requests of the http clients.
+ */
+package top.wecoding.iam.sdk.client.hedge;
@@ -0,0 +1,64 @@
+package top.wecoding.iam.sdk.client.limit;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Additive increase, multiplicative decrease limit: the limit grows by one for every
+ * successful request while the limit is in use, and is multiplied by the backoff ratio on
+ * every drop or request slower than the timeout.
+ *
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+public class AimdLimit implements Limit {
+
+	private final int minLimit;
+
+	private final int maxLimit;
+
+	private final double backoffRatio;
+
+	private final long timeoutNanos;
+
+	private final AtomicInteger limit;
+
+	/**
+	 * Create an AIMD limit.
+	 * @param initialLimit the initial limit
+	 * @param minLimit the minimum limit
+	 * @param maxLimit the maximum limit
+	 * @param backoffRatio the ratio applied to the limit on a drop, between 0.5 and 1
+	 * @param timeout the round-trip time above which a request counts as a drop
+	 */
+	public AimdLimit(int initialLimit, int minLimit, int maxLimit, double backoffRatio, Duration timeout) {
+		if (minLimit < 1 || maxLimit < minLimit) {
+			throw new IllegalArgumentException("limits must satisfy 1 <= minLimit <= maxLimit.");
+		}
+		if (backoffRatio < 0.5 || backoffRatio >= 1) {
+			throw new IllegalArgumentException("backoffRatio must be in [0.5, 1).");
+		}
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+		this.backoffRatio = backoffRatio;
+		this.timeoutNanos = timeout.toNanos();
+		this.limit = new AtomicInteger(Math.max(minLimit, Math.min(maxLimit, initialLimit)));
+	}
+
+	@Override
+	public int getLimit() {
+		return this.limit.get();
+	}
+
+	@Override
+	public void onSample(long rttNanos, int inFlight, boolean dropped) {
+		if (dropped || rttNanos > this.timeoutNanos) {
+			this.limit.updateAndGet(current -> Math.max(this.minLimit, (int) (current * this.backoffRatio)));
+		}
+		else if (inFlight * 2 >= this.limit.get()) {
+			// only grow while the limit is actually used
+			this.limit.updateAndGet(current -> Math.min(this.maxLimit, current + 1));
+		}
+	}
+
+}
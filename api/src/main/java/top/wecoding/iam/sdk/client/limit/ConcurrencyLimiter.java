@@ -0,0 +1,166 @@
+package top.wecoding.iam.sdk.client.limit;
+
+import top.wecoding.iam.sdk.exception.LimitExceededException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Lock-free limiter of the requests in flight, with an adaptive {@link Limit} per
+ * endpoint group. A request acquires a {@link Permit} before being sent and is rejected
+ * with a {@link LimitExceededException} when its group is at its limit, instead of
+ * queueing behind a slow server.
+ *
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+public class ConcurrencyLimiter {
+
+	private final Supplier<Limit> limitFactory;
+
+	private final Function<String, String> groupResolver;
+
+	private final ConcurrentMap<String, Group> groups = new ConcurrentHashMap<>();
+
+	/**
+	 * Create a limiter.
+	 * @param limitFactory the factory of the limit of each endpoint group
+	 * @param groupResolver resolves the endpoint group of a request path
+	 */
+	public ConcurrencyLimiter(Supplier<Limit> limitFactory, Function<String, String> groupResolver) {
+		this.limitFactory = limitFactory;
+		this.groupResolver = groupResolver;
+	}
+
+	/**
+	 * Resolve endpoint groups from path prefixes.
+	 * @param prefixes the groups by path prefix, the first matching prefix wins
+	 * @param defaultGroup the group of the paths matching no prefix
+	 * @return the group resolver
+	 */
+	public static Function<String, String> groupByPrefix(Map<String, String> prefixes, String defaultGroup) {
+		Map<String, String> copy = new LinkedHashMap<>(prefixes);
+		return path -> {
+			if (path != null) {
+				for (Map.Entry<String, String> entry : copy.entrySet()) {
+					if (path.startsWith(entry.getKey())) {
+						return entry.getValue();
+					}
+				}
+			}
+			return defaultGroup;
+		};
+	}
+
+	/**
+	 * Acquire a permit to send a request.
+	 * @param path the request path
+	 * @return the permit, to be completed when the request completes
+	 * @throws LimitExceededException if the endpoint group of the request is at its limit
+	 */
+	public Permit acquire(String path) throws LimitExceededException {
+		String name = this.groupResolver.apply(path);
+		Group group = this.groups.computeIfAbsent(name, key -> new Group(this.limitFactory.get()));
+		for (;;) {
+			int current = group.inFlight.get();
+			int limit = group.limit.getLimit();
+			if (current >= limit) {
+				throw new LimitExceededException(name, limit);
+			}
+			if (group.inFlight.compareAndSet(current, current + 1)) {
+				return new Permit(group, current + 1);
+			}
+		}
+	}
+
+	/**
+	 * Get the current limit of an endpoint group.
+	 * @param group the endpoint group
+	 * @return the limit, or {@code -1} if the group did not serve any request yet
+	 */
+	public int getLimit(String group) {
+		Group state = this.groups.get(group);
+		return state != null ? state.limit.getLimit() : -1;
+	}
+
+	/**
+	 * Get the number of requests in flight of an endpoint group.
+	 * @param group the endpoint group
+	 * @return the requests in flight
+	 */
+	public int getInFlight(String group) {
+		Group state = this.groups.get(group);
+		return state != null ? state.inFlight.get() : 0;
+	}
+
+	private static final class Group {
+
+		private final Limit limit;
+
+		private final AtomicInteger inFlight = new AtomicInteger();
+
+		private Group(Limit limit) {
+			this.limit = limit;
+		}
+
+	}
+
+	/**
+	 * Slot of a request in flight, released by the first call to one of its completion
+	 * methods.
+	 */
+	public static final class Permit {
+
+		private final Group group;
+
+		private final int inFlight;
+
+		private final long startNanos = System.nanoTime();
+
+		private final AtomicBoolean released = new AtomicBoolean();
+
+		private Permit(Group group, int inFlight) {
+			this.group = group;
+			this.inFlight = inFlight;
+		}
+
+		/**
+		 * The request completed, its round-trip time is a sample of the server latency.
+		 */
+		public void onSuccess() {
+			release(true, false);
+		}
+
+		/**
+		 * The request failed because of an overload.
+		 */
+		public void onDropped() {
+			release(true, true);
+		}
+
+		/**
+		 * The request failed before reaching the server, release it without sample.
+		 */
+		public void onIgnore() {
+			release(false, false);
+		}
+
+		private void release(boolean sample, boolean dropped) {
+			if (!this.released.compareAndSet(false, true)) {
+				return;
+			}
+			this.group.inFlight.decrementAndGet();
+			if (sample) {
+				this.group.limit.onSample(System.nanoTime() - this.startNanos, this.inFlight, dropped);
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,28 @@
+package top.wecoding.iam.sdk.client.limit;
+
+/**
+ * Algorithm adjusting the number of requests allowed in flight from the observed
+ * round-trip times and drops. Implementations must be thread safe and should not block,
+ * samples are recorded on the completion path of every request.
+ *
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+public interface Limit {
+
+	/**
+	 * Get the current limit.
+	 * @return the number of requests allowed in flight
+	 */
+	int getLimit();
+
+	/**
+	 * Record the outcome of a request.
+	 * @param rttNanos the round-trip time of the request in nanoseconds
+	 * @param inFlight the number of requests in flight when the request was sent
+	 * @param dropped whether the request failed because of an overload: an I/O error, a
+	 * timeout or a server error
+	 */
+	void onSample(long rttNanos, int inFlight, boolean dropped);
+
+}
@@ -0,0 +1,87 @@
+package top.wecoding.iam.sdk.client.limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delay based limit derived from TCP Vegas. The queue building up at the server is
+ * estimated as {@code limit * (1 - rttNoLoad / rtt)}, where {@code rttNoLoad} is the
+ * lowest round-trip time observed: the limit grows while the queue is short, shrinks when
+ * it gets long or on drops, so that latency stays close to the unloaded latency.
+ *
+ * <p>
+ * The unloaded latency is re-probed every {@code probeInterval} samples, so that the
+ * limit follows a lasting change of the latency of the server.
+ *
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+public class VegasLimit implements Limit {
+
+	private static final int DEFAULT_PROBE_INTERVAL = 1000;
+
+	private final int maxLimit;
+
+	private final int probeInterval;
+
+	private final AtomicInteger limit;
+
+	private final AtomicLong rttNoLoad = new AtomicLong(Long.MAX_VALUE);
+
+	private final AtomicLong samples = new AtomicLong();
+
+	public VegasLimit(int initialLimit, int maxLimit) {
+		this(initialLimit, maxLimit, DEFAULT_PROBE_INTERVAL);
+	}
+
+	/**
+	 * Create a Vegas limit.
+	 * @param initialLimit the initial limit
+	 * @param maxLimit the maximum limit
+	 * @param probeInterval the number of samples after which the unloaded latency is
+	 * measured again
+	 */
+	public VegasLimit(int initialLimit, int maxLimit, int probeInterval) {
+		if (maxLimit < 1) {
+			throw new IllegalArgumentException("maxLimit must be positive.");
+		}
+		this.maxLimit = maxLimit;
+		this.probeInterval = probeInterval;
+		this.limit = new AtomicInteger(Math.max(1, Math.min(maxLimit, initialLimit)));
+	}
+
+	@Override
+	public int getLimit() {
+		return this.limit.get();
+	}
+
+	@Override
+	public void onSample(long rttNanos, int inFlight, boolean dropped) {
+		if (rttNanos <= 0) {
+			return;
+		}
+		if (this.probeInterval > 0 && this.samples.incrementAndGet() % this.probeInterval == 0) {
+			this.rttNoLoad.set(rttNanos);
+			return;
+		}
+		long noLoad = this.rttNoLoad.accumulateAndGet(rttNanos, Math::min);
+
+		this.limit.updateAndGet(current -> {
+			int step = Math.max(1, (int) Math.log10(current));
+			if (dropped) {
+				return Math.max(1, current - step);
+			}
+			int queueSize = (int) Math.ceil(current * (1 - (double) noLoad / rttNanos));
+			int alpha = 3 * step;
+			int beta = 6 * step;
+			if (queueSize < alpha && inFlight * 2 >= current) {
+				return Math.min(this.maxLimit, current + step);
+			}
+			if (queueSize > beta) {
+				return Math.max(1, current - step);
+			}
+			return current;
+		});
+	}
+
+}
@@ -0,0 +1,4 @@
+/**
+ * adaptive concurrency limits of the http clients.
+ */
+package top.wecoding.iam.sdk.client.limit;
@@ -22,8 +22,6 @@ public class Header {
 
 	private static final String DEFAULT_CHARSET = "UTF-8";
 
-	private static final String DEFAULT_ENCODING = "gzip";
-
 	private final Map<String, String> header;
 
 	private final Map<String, List<String>> originalResponseHeader;
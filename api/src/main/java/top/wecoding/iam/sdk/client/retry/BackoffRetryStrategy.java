@@ -0,0 +1,248 @@
+package top.wecoding.iam.sdk.client.retry;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.ConnectTimeoutException;
+import org.apache.hc.client5.http.HttpRequestRetryStrategy;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.client5.http.utils.DateUtils;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.util.TimeValue;
+
+import javax.net.ssl.SSLException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retry strategy with exponential backoff and full jitter, bounded by a number of
+ * retries, an overall time budget and a {@link RetryBudget}.
+ *
+ * <p>
+ * Retries follow the idempotency of the request:
+ * <ul>
+ * <li>requests that could not be sent, because the connection could not be established,
+ * are retried whatever the method;</li>
+ * <li>{@code 429} and {@code 503} responses, for which the server did not process the
+ * request, are retried whatever the method, after the {@code Retry-After} delay when the
+ * server sends one and it does not exceed the maximum delay;</li>
+ * <li>I/O errors, {@code 502} and {@code 504} responses are only retried for idempotent
+ * requests: {@code GET}, {@code HEAD}, {@code OPTIONS}, {@code PUT}, {@code DELETE} and
+ * requests carrying an {@value #IDEMPOTENCY_KEY_HEADER} header.</li>
+ * </ul>
+ *
+ * <p>
+ * The time budget is counted from the {@link #START_TIME_ATTRIBUTE} context attribute,
+ * set when the request is built, a retry whose delay would exceed it is not attempted.
+ *
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+@Slf4j
+public class BackoffRetryStrategy implements HttpRequestRetryStrategy {
+
+	/**
+	 * Header making a non idempotent request safe to retry.
+	 */
+	public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+	/**
+	 * Context attribute holding the {@link System#nanoTime()} of the first attempt.
+	 */
+	public static final String START_TIME_ATTRIBUTE = "iam.retry.start-time";
+
+	private static final String RETRY_INTERVAL_ATTRIBUTE = "iam.retry.interval";
+
+	private static final Duration DEFAULT_BASE_DELAY = Duration.ofMillis(100);
+
+	private static final Duration DEFAULT_MAX_DELAY = Duration.ofSeconds(10);
+
+	private static final Set<String> IDEMPOTENT_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE", "PUT", "DELETE");
+
+	private static final Set<Class<? extends IOException>> NON_RETRIABLE_EXCEPTIONS = Set
+		.of(InterruptedIOException.class, UnknownHostException.class, NoRouteToHostException.class, SSLException.class);
+
+	private final int maxRetries;
+
+	private final long maxElapsedNanos;
+
+	private final long baseDelayMillis;
+
+	private final long maxDelayMillis;
+
+	private final RetryBudget retryBudget;
+
+	/**
+	 * Create a retry strategy with the default delays.
+	 * @param maxRetries the maximum number of retries of a request
+	 * @param maxElapsed the overall time budget of a request and its retries, zero for no
+	 * limit
+	 * @param retryBudget the retry budget shared by the requests of the client
+	 */
+	public BackoffRetryStrategy(int maxRetries, Duration maxElapsed, RetryBudget retryBudget) {
+		this(maxRetries, maxElapsed, DEFAULT_BASE_DELAY, DEFAULT_MAX_DELAY, retryBudget);
+	}
+
+	/**
+	 * Create a retry strategy.
+	 * @param maxRetries the maximum number of retries of a request
+	 * @param maxElapsed the overall time budget of a request and its retries, zero for no
+	 * limit
+	 * @param baseDelay the upper bound of the delay before the first retry, doubled for
+	 * each following retry
+	 * @param maxDelay the upper bound of the delay before any retry
+	 * @param retryBudget the retry budget shared by the requests of the client
+	 */
+	public BackoffRetryStrategy(int maxRetries, Duration maxElapsed, Duration baseDelay, Duration maxDelay,
+			RetryBudget retryBudget) {
+		if (maxRetries < 0) {
+			throw new IllegalArgumentException("maxRetries must not be negative.");
+		}
+		if (retryBudget == null) {
+			throw new IllegalArgumentException("retryBudget argument cannot be null.");
+		}
+		this.maxRetries = maxRetries;
+		this.maxElapsedNanos = maxElapsed.toNanos();
+		this.baseDelayMillis = Math.max(1, baseDelay.toMillis());
+		this.maxDelayMillis = Math.max(this.baseDelayMillis, maxDelay.toMillis());
+		this.retryBudget = retryBudget;
+	}
+
+	@Override
+	public boolean retryRequest(HttpRequest request, IOException exception, int execCount, HttpContext context) {
+		recordAttempt(execCount);
+		if (execCount > this.maxRetries) {
+			return false;
+		}
+		// the request never reached the server
+		boolean notSent = exception instanceof ConnectException || exception instanceof ConnectTimeoutException;
+		if (!notSent && (isNonRetriable(exception) || !isIdempotent(request))) {
+			return false;
+		}
+		return scheduleRetry(request, execCount, null, context);
+	}
+
+	@Override
+	public boolean retryRequest(HttpResponse response, int execCount, HttpContext context) {
+		recordAttempt(execCount);
+		if (execCount > this.maxRetries) {
+			return false;
+		}
+		HttpRequest request = HttpClientContext.adapt(context).getRequest();
+		switch (response.getCode()) {
+			case HttpStatus.SC_TOO_MANY_REQUESTS:
+			case HttpStatus.SC_SERVICE_UNAVAILABLE:
+				return scheduleRetry(request, execCount, getRetryAfter(response), context);
+			case HttpStatus.SC_BAD_GATEWAY:
+			case HttpStatus.SC_GATEWAY_TIMEOUT:
+				return isIdempotent(request) && scheduleRetry(request, execCount, null, context);
+			default:
+				return false;
+		}
+	}
+
+	@Override
+	public TimeValue getRetryInterval(HttpRequest request, IOException exception, int execCount, HttpContext context) {
+		return getRetryInterval(execCount, context);
+	}
+
+	@Override
+	public TimeValue getRetryInterval(HttpResponse response, int execCount, HttpContext context) {
+		return getRetryInterval(execCount, context);
+	}
+
+	private TimeValue getRetryInterval(int execCount, HttpContext context) {
+		Object interval = context.removeAttribute(RETRY_INTERVAL_ATTRIBUTE);
+		if (interval instanceof TimeValue) {
+			return (TimeValue) interval;
+		}
+		return TimeValue.ofMilliseconds(backoff(execCount));
+	}
+
+	private void recordAttempt(int execCount) {
+		if (execCount == 1) {
+			this.retryBudget.deposit();
+		}
+	}
+
+	private boolean scheduleRetry(HttpRequest request, int execCount, Long retryAfterMillis, HttpContext context) {
+		if (retryAfterMillis != null && retryAfterMillis > this.maxDelayMillis) {
+			log.debug("Not retrying {}, server asked to retry after {} ms", request, retryAfterMillis);
+			return false;
+		}
+		long delayMillis = retryAfterMillis != null ? retryAfterMillis : backoff(execCount);
+
+		if (this.maxElapsedNanos > 0 && context.getAttribute(START_TIME_ATTRIBUTE) instanceof Long) {
+			long elapsed = System.nanoTime() - (Long) context.getAttribute(START_TIME_ATTRIBUTE);
+			if (elapsed + Duration.ofMillis(delayMillis).toNanos() > this.maxElapsedNanos) {
+				log.debug("Not retrying {}, retry delay of {} ms exceeds the time budget", request, delayMillis);
+				return false;
+			}
+		}
+		if (!this.retryBudget.tryWithdraw()) {
+			log.debug("Not retrying {}, retry budget exhausted", request);
+			return false;
+		}
+
+		log.debug("Retrying {} in {} ms, retry {} of {}", request, delayMillis, execCount, this.maxRetries);
+		context.setAttribute(RETRY_INTERVAL_ATTRIBUTE, TimeValue.ofMilliseconds(delayMillis));
+		return true;
+	}
+
+	/**
+	 * Full jitter backoff, a random delay between zero and the exponential bound.
+	 */
+	private long backoff(int execCount) {
+		int shift = Math.min(Math.max(execCount - 1, 0), 30);
+		long bound = Math.min(this.maxDelayMillis, this.baseDelayMillis << shift);
+		return ThreadLocalRandom.current().nextLong(bound + 1);
+	}
+
+	private Long getRetryAfter(HttpResponse response) {
+		Header header = response.getFirstHeader(HttpHeaders.RETRY_AFTER);
+		if (header == null || header.getValue() == null) {
+			return null;
+		}
+		String value = header.getValue().trim();
+		try {
+			return Math.max(0, Long.parseLong(value)) * 1000;
+		}
+		catch (NumberFormatException ignored) {
+			// not delta-seconds, try an http-date
+		}
+		Instant date = DateUtils.parseStandardDate(value);
+		if (date == null) {
+			return null;
+		}
+		return Math.max(0, Duration.between(Instant.now(), date).toMillis());
+	}
+
+	private boolean isNonRetriable(IOException exception) {
+		for (Class<? extends IOException> type : NON_RETRIABLE_EXCEPTIONS) {
+			if (type.isInstance(exception)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean isIdempotent(HttpRequest request) {
+		if (request == null) {
+			return false;
+		}
+		return IDEMPOTENT_METHODS.contains(request.getMethod().toUpperCase(Locale.ROOT))
+				|| request.containsHeader(IDEMPOTENCY_KEY_HEADER);
+	}
+
+}
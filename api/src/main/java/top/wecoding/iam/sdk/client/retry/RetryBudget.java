@@ -0,0 +1,88 @@
+package top.wecoding.iam.sdk.client.retry;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket capping the retry traffic of a client at a share of its normal traffic.
+ * Every first attempt deposits {@code ratio} of a token and every retry withdraws a whole
+ * one, so that during an outage retries stop once the balance is spent instead of
+ * multiplying the load on the server.
+ *
+ * <p>
+ * The balance starts full, at {@code capacity} tokens, so that a quiet client can still
+ * retry a few sporadic failures.
+ *
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+public class RetryBudget {
+
+	private static final long TOKEN = 1000;
+
+	private final long deposit;
+
+	private final long capacity;
+
+	private final AtomicLong balance;
+
+	/**
+	 * Create a retry budget.
+	 * @param ratio the share of retries allowed relative to first attempts, e.g.
+	 * {@code 0.1} for one retry every ten requests
+	 * @param capacity the maximum number of retries that can be saved up
+	 */
+	public RetryBudget(double ratio, int capacity) {
+		if (ratio < 0) {
+			throw new IllegalArgumentException("ratio must not be negative.");
+		}
+		if (capacity < 0) {
+			throw new IllegalArgumentException("capacity must not be negative.");
+		}
+		this.deposit = Math.round(ratio * TOKEN);
+		this.capacity = capacity * TOKEN;
+		this.balance = new AtomicLong(this.capacity);
+	}
+
+	/**
+	 * Record a first attempt, earning a share of a retry.
+	 */
+	public void deposit() {
+		if (this.deposit == 0) {
+			return;
+		}
+		for (;;) {
+			long current = this.balance.get();
+			if (current >= this.capacity) {
+				return;
+			}
+			if (this.balance.compareAndSet(current, Math.min(this.capacity, current + this.deposit))) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Try to spend a retry.
+	 * @return {@code true} if the retry is allowed
+	 */
+	public boolean tryWithdraw() {
+		for (;;) {
+			long current = this.balance.get();
+			if (current < TOKEN) {
+				return false;
+			}
+			if (this.balance.compareAndSet(current, current - TOKEN)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Get the number of retries currently available.
+	 * @return the available retries
+	 */
+	public double getAvailable() {
+		return (double) this.balance.get() / TOKEN;
+	}
+
+}
@@ -0,0 +1,4 @@
+/**
+ * retry strategy and retry budget of the http clients.
+ */
+package top.wecoding.iam.sdk.client.retry;
@@ -0,0 +1,47 @@
+package top.wecoding.iam.sdk.codec;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.lang.reflect.Type;
+
+/**
+ * Encodes the request bodies and decodes the responses of a client. Readers and writers
+ * are immutable and thread-safe, implementations cache them per type.
+ *
+ * @author Wecoding Liu
+ * @since 0.8
+ * @see JacksonCodec
+ */
+public interface Codec {
+
+	/**
+	 * Get the mapper the readers and writers are created from.
+	 * @return the object mapper
+	 */
+	ObjectMapper getObjectMapper();
+
+	/**
+	 * Resolve the Jackson type of the given type.
+	 * @param type the type, e.g. a class or a parameterized type
+	 * @return the Jackson type
+	 */
+	JavaType constructType(Type type);
+
+	/**
+	 * Get the reader decoding the given type.
+	 * @param type the type
+	 * @return the reader
+	 */
+	ObjectReader reader(Type type);
+
+	/**
+	 * Get the writer encoding the given type. It never closes the stream it writes to.
+	 * @param type the type
+	 * @return the writer
+	 */
+	ObjectWriter writer(Type type);
+
+}
@@ -0,0 +1,155 @@
+package top.wecoding.iam.sdk.codec;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.jsontype.NamedType;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Jackson codec, with the readers and writers cached per type.
+ *
+ * <p>
+ * The {@link #getDefault() default codec} ignores unknown properties and writes the null
+ * values, so that a request can clear a property. Jackson recycles its parsing and
+ * generation buffers per thread, so decoding and encoding do not allocate them for each
+ * request. The {@link #accelerated()} codec also replaces the reflection of the
+ * (de)serializers with generated lambdas when {@code jackson-module-blackbird} is on the
+ * classpath.
+ *
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+@Slf4j
+public class JacksonCodec implements Codec {
+
+	private static final String BLACKBIRD_MODULE = "com.fasterxml.jackson.module.blackbird.BlackbirdModule";
+
+	private static volatile JacksonCodec defaultCodec = new JacksonCodec(createObjectMapper(false));
+
+	private final ObjectMapper objectMapper;
+
+	private final ConcurrentMap<Type, ObjectReader> readers = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<Type, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+	/**
+	 * Create a codec of the given mapper, which must not be modified afterwards.
+	 * @param objectMapper the object mapper
+	 */
+	public JacksonCodec(ObjectMapper objectMapper) {
+		if (objectMapper == null) {
+			throw new IllegalArgumentException("objectMapper cannot be null.");
+		}
+		this.objectMapper = objectMapper;
+	}
+
+	/**
+	 * Get the codec shared by the clients that do not set their own.
+	 * @return the default codec
+	 */
+	public static JacksonCodec getDefault() {
+		return defaultCodec;
+	}
+
+	/**
+	 * Register a subtype in a copy of the default mapper, whose codec becomes the default
+	 * one of the clients created afterwards.
+	 * @param clz child class
+	 * @param type type name of child class
+	 */
+	public static synchronized void registerDefaultSubtype(Class<?> clz, String type) {
+		ObjectMapper objectMapper = defaultCodec.objectMapper.copy();
+		objectMapper.registerSubtypes(new NamedType(clz, type));
+		defaultCodec = new JacksonCodec(objectMapper);
+	}
+
+	/**
+	 * Create a codec configured as the default one, with its registered subtypes,
+	 * accelerated by the Blackbird module when it is on the classpath.
+	 * @return the codec
+	 */
+	public static JacksonCodec accelerated() {
+		ObjectMapper objectMapper = defaultCodec.objectMapper.copy();
+		Module module = blackbirdModule();
+		if (module != null) {
+			objectMapper.registerModule(module);
+		}
+		return new JacksonCodec(objectMapper);
+	}
+
+	/**
+	 * Create a mapper configured as the one of the default codec.
+	 * @param accelerated whether to register the Blackbird module, if on the classpath
+	 * @return the object mapper
+	 */
+	public static ObjectMapper createObjectMapper(boolean accelerated) {
+		JsonFactory jsonFactory = JsonFactory.builder()
+			.enable(JsonFactory.Feature.USE_THREAD_LOCAL_FOR_BUFFER_RECYCLING)
+			.build();
+		JsonMapper.Builder builder = JsonMapper.builder(jsonFactory)
+			.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+		if (accelerated) {
+			Module module = blackbirdModule();
+			if (module != null) {
+				builder.addModule(module);
+			}
+		}
+		return builder.build();
+	}
+
+	@Override
+	public ObjectMapper getObjectMapper() {
+		return this.objectMapper;
+	}
+
+	@Override
+	public JavaType constructType(Type type) {
+		return this.objectMapper.constructType(type);
+	}
+
+	@Override
+	public ObjectReader reader(Type type) {
+		ObjectReader reader = this.readers.get(type);
+		if (reader == null) {
+			reader = this.readers.computeIfAbsent(type, key -> this.objectMapper.readerFor(constructType(key)));
+		}
+		return reader;
+	}
+
+	@Override
+	public ObjectWriter writer(Type type) {
+		ObjectWriter writer = this.writers.get(type);
+		if (writer == null) {
+			// the entities write to the connection, which they must not close
+			writer = this.writers.computeIfAbsent(type, key -> this.objectMapper.writerFor(constructType(key))
+				.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET));
+		}
+		return writer;
+	}
+
+	private static Module blackbirdModule() {
+		try {
+			return (Module) Class.forName(BLACKBIRD_MODULE).getDeclaredConstructor().newInstance();
+		}
+		catch (ClassNotFoundException ex) {
+			log.debug("Blackbird module not found, the codec is not accelerated");
+			return null;
+		}
+		catch (ReflectiveOperationException | LinkageError ex) {
+			log.warn("Failed to load the Blackbird module, the codec is not accelerated", ex);
+			return null;
+		}
+	}
+
+}
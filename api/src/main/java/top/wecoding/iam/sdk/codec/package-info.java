@@ -0,0 +1,4 @@
+/**
+ * JSON codecs of the requests and responses.
+ */
+package top.wecoding.iam.sdk.codec;
@@ -2,8 +2,14 @@ package top.wecoding.iam.sdk.config;
 
 import lombok.Data;
 import top.wecoding.iam.sdk.client.Proxy;
+import top.wecoding.iam.sdk.client.circuit.CircuitBreakerConfig;
+import top.wecoding.iam.sdk.client.entity.ContentCoding;
+import top.wecoding.iam.sdk.client.entity.StandardContentCoding;
+import top.wecoding.iam.sdk.client.hedge.HedgingPolicy;
+import top.wecoding.iam.sdk.codec.Codec;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -17,10 +23,12 @@ public class ClientConfiguration {
 
 	private boolean cacheManagerEnabled;
 
-	private long cacheManagerTtl;
+	private long cacheManagerTtl = 300;
 
 	private long cacheManagerTti;
 
+	private int cacheManagerMaxSize = 10000;
+
 	private String clientId;
 
 	private Set<String> scopes = new HashSet<>();
@@ -35,7 +43,49 @@ public class ClientConfiguration {
 
 	private int retryMaxElapsed;
 
-	private int retryMaxAttempts;
+	private int retryMaxAttempts = 1;
+
+	private double retryBudgetRatio = 0.1;
+
+	private boolean concurrencyLimitEnabled;
+
+	private int maxConcurrencyLimit = 200;
+
+	private boolean circuitBreakerEnabled;
+
+	private CircuitBreakerConfig circuitBreakerConfig = CircuitBreakerConfig.ofDefaults();
+
+	private HedgingPolicy hedgingPolicy;
+
+	private boolean requestCoalescingEnabled;
+
+	private boolean chunkedRequestBody;
+
+	private List<ContentCoding> contentCodings = StandardContentCoding.defaults();
+
+	private boolean requestCompressionEnabled;
+
+	private int requestCompressionThreshold = 8192;
+
+	private Codec codec;
+
+	private int ioThreadCount;
+
+	private boolean http2Enabled;
+
+	private int maxStreamsInFlight;
+
+	private int maxConnTotal;
+
+	private int maxConnPerRoute;
+
+	private long connectionTimeToLive;
+
+	private long validateAfterInactivity;
+
+	private long connectionMaxIdleTime;
+
+	private boolean evictExpiredConnections;
 
 	private String baseUrl;
 
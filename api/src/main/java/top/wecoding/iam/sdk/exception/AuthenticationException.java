@@ -9,6 +9,14 @@ public class AuthenticationException extends RuntimeException {
 	public AuthenticationException() {
 	}
 
+	public AuthenticationException(String message) {
+		super(message);
+	}
+
+	public AuthenticationException(String message, Throwable throwable) {
+		super(message, throwable);
+	}
+
 	public AuthenticationException(Throwable throwable) {
 		super(throwable);
 	}
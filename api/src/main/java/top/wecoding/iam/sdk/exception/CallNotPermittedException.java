@@ -0,0 +1,21 @@
+package top.wecoding.iam.sdk.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown without sending the request when the circuit breaker of its endpoint is open.
+ *
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+@Getter
+public class CallNotPermittedException extends ApiException {
+
+	private final String routeTemplate;
+
+	public CallNotPermittedException(String routeTemplate) {
+		super("Circuit breaker for " + routeTemplate + " is open");
+		this.routeTemplate = routeTemplate;
+	}
+
+}
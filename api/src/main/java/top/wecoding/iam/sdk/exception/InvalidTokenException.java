@@ -0,0 +1,20 @@
+package top.wecoding.iam.sdk.exception;
+
+/**
+ * Thrown when an access token is malformed, not signed by a trusted key, expired or
+ * issued for another audience.
+ *
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+public class InvalidTokenException extends AuthenticationException {
+
+	public InvalidTokenException(String message) {
+		super(message);
+	}
+
+	public InvalidTokenException(String message, Throwable throwable) {
+		super(message, throwable);
+	}
+
+}
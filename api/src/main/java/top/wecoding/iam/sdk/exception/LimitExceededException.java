@@ -0,0 +1,25 @@
+package top.wecoding.iam.sdk.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown without sending the request when the concurrency limit of its endpoint group is
+ * reached.
+ *
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+@Getter
+public class LimitExceededException extends ApiException {
+
+	private final String group;
+
+	private final int limit;
+
+	public LimitExceededException(String group, int limit) {
+		super("Concurrency limit of " + limit + " reached for endpoint group " + group);
+		this.group = group;
+		this.limit = limit;
+	}
+
+}
@@ -0,0 +1,53 @@
+package top.wecoding.iam.sdk.jwt;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Bounded cache of the claims of verified tokens, keyed by the hash of the token. When
+ * full, the expired tokens are evicted first, then arbitrary ones.
+ *
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+final class ClaimsCache {
+
+	private final int maximumSize;
+
+	private final ConcurrentMap<String, JwtClaims> claims = new ConcurrentHashMap<>();
+
+	ClaimsCache(int maximumSize) {
+		this.maximumSize = maximumSize;
+	}
+
+	JwtClaims get(String tokenHash) {
+		return this.claims.get(tokenHash);
+	}
+
+	void put(String tokenHash, JwtClaims jwtClaims, long epochSecond) {
+		if (this.maximumSize <= 0) {
+			return;
+		}
+		if (this.claims.size() >= this.maximumSize) {
+			evict(epochSecond);
+		}
+		this.claims.put(tokenHash, jwtClaims);
+	}
+
+	void remove(String tokenHash) {
+		this.claims.remove(tokenHash);
+	}
+
+	private void evict(long epochSecond) {
+		this.claims.values().removeIf(cached -> cached.getExpiresAtSecond() <= epochSecond);
+		// make room for a tenth of the cache at once
+		int excess = this.claims.size() - this.maximumSize * 9 / 10;
+		Iterator<String> iterator = this.claims.keySet().iterator();
+		while (excess-- > 0 && iterator.hasNext()) {
+			iterator.next();
+			iterator.remove();
+		}
+	}
+
+}
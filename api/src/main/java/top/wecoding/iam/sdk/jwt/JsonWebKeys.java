@@ -0,0 +1,120 @@
+package top.wecoding.iam.sdk.jwt;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.extern.slf4j.Slf4j;
+import top.wecoding.iam.sdk.util.JacksonUtils;
+
+import java.math.BigInteger;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable set of the public signing keys of a JSON Web Key Set, by key id.
+ *
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+@Slf4j
+final class JsonWebKeys {
+
+	static final JsonWebKeys EMPTY = new JsonWebKeys(Collections.emptyMap());
+
+	private final Map<String, JsonWebKey> keys;
+
+	private JsonWebKeys(Map<String, JsonWebKey> keys) {
+		this.keys = keys;
+	}
+
+	JsonWebKey get(String kid) {
+		return this.keys.get(kid);
+	}
+
+	int size() {
+		return this.keys.size();
+	}
+
+	/**
+	 * Parse the signing keys of a key set, skipping the keys that are not supported.
+	 */
+	static JsonWebKeys parse(String keySet) {
+		Map<String, JsonWebKey> keys = new HashMap<>();
+		for (JsonNode node : JacksonUtils.toObj(keySet).path("keys")) {
+			String kid = node.path("kid").asText(null);
+			if (kid == null || "enc".equals(node.path("use").asText())) {
+				continue;
+			}
+			try {
+				PublicKey publicKey = toPublicKey(node);
+				if (publicKey != null) {
+					keys.put(kid, new JsonWebKey(publicKey, node.path("alg").asText(null)));
+				}
+			}
+			catch (GeneralSecurityException | IllegalArgumentException ex) {
+				log.warn("Skipping invalid JSON web key {}", kid, ex);
+			}
+		}
+		return new JsonWebKeys(keys);
+	}
+
+	private static PublicKey toPublicKey(JsonNode node) throws GeneralSecurityException {
+		String kty = node.path("kty").asText();
+		if ("RSA".equals(kty)) {
+			RSAPublicKeySpec spec = new RSAPublicKeySpec(decode(node, "n"), decode(node, "e"));
+			return KeyFactory.getInstance("RSA").generatePublic(spec);
+		}
+		if ("EC".equals(kty)) {
+			AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+			parameters.init(new ECGenParameterSpec(curveName(node.path("crv").asText())));
+			ECPublicKeySpec spec = new ECPublicKeySpec(new ECPoint(decode(node, "x"), decode(node, "y")),
+					parameters.getParameterSpec(ECParameterSpec.class));
+			return KeyFactory.getInstance("EC").generatePublic(spec);
+		}
+		return null;
+	}
+
+	private static String curveName(String crv) {
+		switch (crv) {
+			case "P-256":
+				return "secp256r1";
+			case "P-384":
+				return "secp384r1";
+			case "P-521":
+				return "secp521r1";
+			default:
+				throw new IllegalArgumentException("Unsupported curve " + crv);
+		}
+	}
+
+	private static BigInteger decode(JsonNode node, String name) {
+		String value = node.path(name).asText(null);
+		if (value == null) {
+			throw new IllegalArgumentException("Missing " + name);
+		}
+		return new BigInteger(1, Base64.getUrlDecoder().decode(value));
+	}
+
+	static final class JsonWebKey {
+
+		final PublicKey publicKey;
+
+		final String algorithm;
+
+		JsonWebKey(PublicKey publicKey, String algorithm) {
+			this.publicKey = publicKey;
+			this.algorithm = algorithm;
+		}
+
+	}
+
+}
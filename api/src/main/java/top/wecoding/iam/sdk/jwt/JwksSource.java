@@ -0,0 +1,62 @@
+package top.wecoding.iam.sdk.jwt;
+
+import top.wecoding.iam.sdk.client.ApiClient;
+import top.wecoding.iam.sdk.client.param.Header;
+import top.wecoding.iam.sdk.client.param.Query;
+import top.wecoding.iam.sdk.model.request.RequestHttpEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Source of the JSON Web Key Set holding the public keys that sign the access tokens.
+ *
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+@FunctionalInterface
+public interface JwksSource {
+
+	/**
+	 * Path of the key set published by IAM.
+	 */
+	String DEFAULT_JWKS_PATH = "/.well-known/jwks.json";
+
+	/**
+	 * Get the current key set.
+	 * @return the JSON document of the key set
+	 * @throws Exception if the key set can not be obtained
+	 */
+	String getKeySet() throws Exception;
+
+	/**
+	 * Get the key set published by IAM.
+	 * @param apiClient the client of the IAM server
+	 * @return the key set source
+	 */
+	static JwksSource fromApiClient(ApiClient apiClient) {
+		return fromApiClient(apiClient, DEFAULT_JWKS_PATH);
+	}
+
+	/**
+	 * Get the key set published at the given path of the IAM server.
+	 * @param apiClient the client of the IAM server
+	 * @param path the path of the key set
+	 * @return the key set source
+	 */
+	static JwksSource fromApiClient(ApiClient apiClient, String path) {
+		return () -> apiClient.get(path, new RequestHttpEntity(Header.EMPTY, Query.EMPTY, new String[] {}),
+				String.class);
+	}
+
+	/**
+	 * Read the key set from a file, e.g. in tests.
+	 * @param file the file of the key set
+	 * @return the key set source
+	 */
+	static JwksSource fromFile(Path file) {
+		return () -> Files.readString(file, StandardCharsets.UTF_8);
+	}
+
+}
@@ -0,0 +1,103 @@
+package top.wecoding.iam.sdk.jwt;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Claims of a verified access token.
+ *
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+public class JwtClaims {
+
+	private final Map<String, Object> claims;
+
+	private final long expiresAt;
+
+	private final long notBefore;
+
+	private final long issuedAt;
+
+	JwtClaims(Map<String, Object> claims) {
+		this.claims = Collections.unmodifiableMap(claims);
+		this.expiresAt = numericDate("exp", Long.MAX_VALUE);
+		this.notBefore = numericDate("nbf", Long.MIN_VALUE);
+		this.issuedAt = numericDate("iat", Long.MIN_VALUE);
+	}
+
+	public String getSubject() {
+		return getString("sub");
+	}
+
+	public String getIssuer() {
+		return getString("iss");
+	}
+
+	/**
+	 * Get the audience, a single string or an array in the token.
+	 * @return the audience, empty if none
+	 */
+	public List<String> getAudience() {
+		Object audience = this.claims.get("aud");
+		if (audience instanceof Collection) {
+			return ((Collection<?>) audience).stream().map(String::valueOf).collect(Collectors.toList());
+		}
+		return audience != null ? Collections.singletonList(String.valueOf(audience)) : Collections.emptyList();
+	}
+
+	public Instant getExpiresAt() {
+		return this.expiresAt != Long.MAX_VALUE ? Instant.ofEpochSecond(this.expiresAt) : null;
+	}
+
+	public Instant getNotBefore() {
+		return this.notBefore != Long.MIN_VALUE ? Instant.ofEpochSecond(this.notBefore) : null;
+	}
+
+	public Instant getIssuedAt() {
+		return this.issuedAt != Long.MIN_VALUE ? Instant.ofEpochSecond(this.issuedAt) : null;
+	}
+
+	public Object getClaim(String name) {
+		return this.claims.get(name);
+	}
+
+	public Map<String, Object> getClaims() {
+		return this.claims;
+	}
+
+	/**
+	 * Whether the token is valid at the given time: not expired, nor used before its
+	 * {@code nbf} or {@code iat} date.
+	 * @param epochSecond the time
+	 * @param skewSeconds the tolerated clock difference
+	 */
+	boolean isActive(long epochSecond, long skewSeconds) {
+		return epochSecond - skewSeconds < this.expiresAt && epochSecond + skewSeconds >= this.notBefore
+				&& epochSecond + skewSeconds >= this.issuedAt;
+	}
+
+	long getExpiresAtSecond() {
+		return this.expiresAt;
+	}
+
+	private String getString(String name) {
+		Object value = this.claims.get(name);
+		return value != null ? String.valueOf(value) : null;
+	}
+
+	private long numericDate(String name, long defaultValue) {
+		Object value = this.claims.get(name);
+		return value instanceof Number ? ((Number) value).longValue() : defaultValue;
+	}
+
+	@Override
+	public String toString() {
+		return "JwtClaims" + this.claims;
+	}
+
+}
@@ -0,0 +1,294 @@
+package top.wecoding.iam.sdk.jwt;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import lombok.extern.slf4j.Slf4j;
+import top.wecoding.iam.sdk.client.ApiClient;
+import top.wecoding.iam.sdk.config.ClientConfiguration;
+import top.wecoding.iam.sdk.exception.AuthenticationException;
+import top.wecoding.iam.sdk.exception.InvalidTokenException;
+import top.wecoding.iam.sdk.jwt.JsonWebKeys.JsonWebKey;
+import top.wecoding.iam.sdk.util.JacksonUtils;
+
+import java.io.Closeable;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.MGF1ParameterSpec;
+import java.security.spec.PSSParameterSpec;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifies the JWT access tokens issued by IAM locally, without a request to the server:
+ * the signature with the keys of the JSON Web Key Set, the expiry, the audience and the
+ * issuer.
+ *
+ * <p>
+ * The key set is refreshed in the background, and on demand when a token is signed by an
+ * unknown key. The claims of verified tokens are cached by token hash, so verifying a
+ * token again only checks its expiry.
+ *
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+@Slf4j
+public class JwtVerifier implements Closeable {
+
+	private static final TypeReference<Map<String, Object>> CLAIMS_TYPE = new TypeReference<Map<String, Object>>() {
+	};
+
+	private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	});
+
+	private final JwksSource jwksSource;
+
+	private final JwtVerifierConfig config;
+
+	private final long skewSeconds;
+
+	private final ClaimsCache claimsCache;
+
+	private final ScheduledThreadPoolExecutor scheduler;
+
+	private volatile JsonWebKeys keys;
+
+	private volatile long keysLoadedAt;
+
+	public JwtVerifier(JwksSource jwksSource) {
+		this(jwksSource, JwtVerifierConfig.ofDefaults());
+	}
+
+	public JwtVerifier(JwksSource jwksSource, JwtVerifierConfig config) {
+		if (jwksSource == null) {
+			throw new IllegalArgumentException("jwksSource argument cannot be null.");
+		}
+		this.jwksSource = jwksSource;
+		this.config = config;
+		this.skewSeconds = config.getClockSkew().getSeconds();
+		this.claimsCache = new ClaimsCache(config.getClaimsCacheSize());
+		this.scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+			Thread thread = new Thread(runnable, "iam-jwks-refresh");
+			thread.setDaemon(true);
+			return thread;
+		});
+		long interval = config.getKeysRefreshInterval().toNanos();
+		this.scheduler.scheduleWithFixedDelay(this::refreshKeys, interval, interval, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Create a verifier of the tokens issued for the client: the key set is the one
+	 * published by its IAM server, the audience is its client id and the tokens without
+	 * key id are signed by its {@code kid}.
+	 * @param apiClient the client of the IAM server
+	 * @return the verifier
+	 */
+	public static JwtVerifier forClient(ApiClient apiClient) {
+		ClientConfiguration clientConfig = apiClient.getClientConfig();
+		JwtVerifierConfig.JwtVerifierConfigBuilder config = JwtVerifierConfig.builder();
+		if (clientConfig != null) {
+			config.audience(clientConfig.getClientId()).defaultKid(clientConfig.getKid());
+		}
+		return new JwtVerifier(JwksSource.fromApiClient(apiClient), config.build());
+	}
+
+	/**
+	 * Verify an access token.
+	 * @param token the access token, without the {@code Bearer} scheme
+	 * @return the claims of the token
+	 * @throws InvalidTokenException if the token is not valid
+	 * @throws AuthenticationException if the key set can not be obtained
+	 */
+	public JwtClaims verify(String token) {
+		if (token == null || token.isEmpty()) {
+			throw new InvalidTokenException("Missing token");
+		}
+		long now = System.currentTimeMillis() / 1000;
+		String tokenHash = hash(token);
+		JwtClaims claims = this.claimsCache.get(tokenHash);
+		if (claims == null) {
+			claims = parseAndVerify(token);
+			this.claimsCache.put(tokenHash, claims, now);
+		}
+		if (!claims.isActive(now, this.skewSeconds)) {
+			throw new InvalidTokenException("Token expired or not yet valid");
+		}
+		return claims;
+	}
+
+	/**
+	 * Refresh the key set now, keeping the current keys if it fails.
+	 */
+	public void refreshKeys() {
+		try {
+			loadKeys();
+		}
+		catch (Exception ex) {
+			log.warn("Failed to refresh the JSON web key set", ex);
+		}
+	}
+
+	@Override
+	public void close() {
+		this.scheduler.shutdownNow();
+	}
+
+	private JwtClaims parseAndVerify(String token) {
+		int first = token.indexOf('.');
+		int second = token.indexOf('.', first + 1);
+		if (first < 0 || second < 0 || token.indexOf('.', second + 1) >= 0) {
+			throw new InvalidTokenException("Malformed token");
+		}
+		Map<String, Object> header;
+		Map<String, Object> payload;
+		byte[] signature;
+		try {
+			Base64.Decoder decoder = Base64.getUrlDecoder();
+			header = JacksonUtils.toObj(decoder.decode(token.substring(0, first)), CLAIMS_TYPE);
+			payload = JacksonUtils.toObj(decoder.decode(token.substring(first + 1, second)), CLAIMS_TYPE);
+			signature = decoder.decode(token.substring(second + 1));
+		}
+		catch (RuntimeException ex) {
+			throw new InvalidTokenException("Malformed token", ex);
+		}
+		// JSON null decodes to null, the other values that are not objects fail to decode
+		if (header == null || payload == null) {
+			throw new InvalidTokenException("Malformed token");
+		}
+
+		String algorithm = String.valueOf(header.get("alg"));
+		Object kid = header.get("kid");
+		JsonWebKey key = key(kid != null ? String.valueOf(kid) : this.config.getDefaultKid());
+		if (key.algorithm != null && !key.algorithm.equals(algorithm)) {
+			throw new InvalidTokenException("Token algorithm " + algorithm + " does not match its key");
+		}
+		byte[] signingInput = token.substring(0, second).getBytes(StandardCharsets.US_ASCII);
+		if (!verifySignature(algorithm, key.publicKey, signingInput, signature)) {
+			throw new InvalidTokenException("Invalid token signature");
+		}
+
+		JwtClaims claims = new JwtClaims(payload);
+		if (claims.getExpiresAt() == null) {
+			throw new InvalidTokenException("Token has no expiry");
+		}
+		if (this.config.getIssuer() != null && !this.config.getIssuer().equals(claims.getIssuer())) {
+			throw new InvalidTokenException("Token issued by " + claims.getIssuer());
+		}
+		if (this.config.getAudience() != null && !claims.getAudience().contains(this.config.getAudience())) {
+			throw new InvalidTokenException("Token not issued for " + this.config.getAudience());
+		}
+		return claims;
+	}
+
+	private JsonWebKey key(String kid) {
+		if (kid == null) {
+			throw new InvalidTokenException("Token has no key id");
+		}
+		JsonWebKeys current = this.keys;
+		if (current == null) {
+			synchronized (this) {
+				if (this.keys == null) {
+					loadKeysOrFail();
+				}
+			}
+			current = this.keys;
+		}
+		JsonWebKey key = current.get(kid);
+		if (key == null) {
+			// the keys may have been rotated
+			synchronized (this) {
+				long elapsed = System.nanoTime() - this.keysLoadedAt;
+				if (this.keys == current && elapsed >= this.config.getMinKeysRefreshInterval().toNanos()) {
+					loadKeysOrFail();
+				}
+			}
+			key = this.keys.get(kid);
+		}
+		if (key == null) {
+			throw new InvalidTokenException("Token signed with unknown key " + kid);
+		}
+		return key;
+	}
+
+	private void loadKeysOrFail() {
+		try {
+			loadKeys();
+		}
+		catch (Exception ex) {
+			if (this.keys == null) {
+				throw new AuthenticationException("Failed to load the JSON web key set", ex);
+			}
+			log.warn("Failed to refresh the JSON web key set", ex);
+		}
+	}
+
+	private void loadKeys() throws Exception {
+		JsonWebKeys loaded = JsonWebKeys.parse(this.jwksSource.getKeySet());
+		log.debug("Loaded {} JSON web keys", loaded.size());
+		this.keysLoadedAt = System.nanoTime();
+		this.keys = loaded;
+	}
+
+	private static boolean verifySignature(String algorithm, PublicKey publicKey, byte[] signingInput,
+			byte[] signature) {
+		try {
+			Signature verifier;
+			switch (algorithm) {
+				case "RS256":
+				case "RS384":
+				case "RS512":
+					requireKey(publicKey instanceof RSAPublicKey, algorithm);
+					verifier = Signature.getInstance("SHA" + algorithm.substring(2) + "withRSA");
+					break;
+				case "PS256":
+				case "PS384":
+				case "PS512":
+					requireKey(publicKey instanceof RSAPublicKey, algorithm);
+					String digest = "SHA-" + algorithm.substring(2);
+					verifier = Signature.getInstance("RSASSA-PSS");
+					verifier.setParameter(new PSSParameterSpec(digest, "MGF1", new MGF1ParameterSpec(digest),
+							Integer.parseInt(algorithm.substring(2)) / 8, 1));
+					break;
+				case "ES256":
+				case "ES384":
+				case "ES512":
+					requireKey(publicKey instanceof ECPublicKey, algorithm);
+					verifier = Signature.getInstance("SHA" + algorithm.substring(2) + "withECDSAinP1363Format");
+					break;
+				default:
+					throw new InvalidTokenException("Unsupported token algorithm " + algorithm);
+			}
+			verifier.initVerify(publicKey);
+			verifier.update(signingInput);
+			return verifier.verify(signature);
+		}
+		catch (GeneralSecurityException ex) {
+			throw new InvalidTokenException("Invalid token signature", ex);
+		}
+	}
+
+	private static void requireKey(boolean matches, String algorithm) {
+		if (!matches) {
+			throw new InvalidTokenException("Token algorithm " + algorithm + " does not match its key");
+		}
+	}
+
+	private static String hash(String token) {
+		MessageDigest digest = SHA_256.get();
+		byte[] hash = digest.digest(token.getBytes(StandardCharsets.US_ASCII));
+		return Base64.getEncoder().withoutPadding().encodeToString(hash);
+	}
+
+}
@@ -0,0 +1,63 @@
+package top.wecoding.iam.sdk.jwt;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Configuration of a {@link JwtVerifier}.
+ *
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+@Getter
+@Builder
+public class JwtVerifierConfig {
+
+	/**
+	 * Audience the tokens must be issued for, not checked when null.
+	 */
+	private final String audience;
+
+	/**
+	 * Issuer of the tokens, not checked when null.
+	 */
+	private final String issuer;
+
+	/**
+	 * Key id of the tokens whose header has none, the {@code kid} of the client
+	 * configuration.
+	 */
+	private final String defaultKid;
+
+	/**
+	 * Tolerated clock difference with the issuer when checking the expiry.
+	 */
+	@Builder.Default
+	private final Duration clockSkew = Duration.ofSeconds(30);
+
+	/**
+	 * Interval of the background refresh of the key set.
+	 */
+	@Builder.Default
+	private final Duration keysRefreshInterval = Duration.ofMinutes(10);
+
+	/**
+	 * Minimum interval between two refreshes of the key set triggered by tokens signed
+	 * with an unknown key.
+	 */
+	@Builder.Default
+	private final Duration minKeysRefreshInterval = Duration.ofSeconds(30);
+
+	/**
+	 * Maximum number of verified tokens whose claims are cached.
+	 */
+	@Builder.Default
+	private final int claimsCacheSize = 10000;
+
+	public static JwtVerifierConfig ofDefaults() {
+		return builder().build();
+	}
+
+}
@@ -0,0 +1,4 @@
+/**
+ * offline verification of the JWT access tokens issued by IAM.
+ */
+package top.wecoding.iam.sdk.jwt;
@@ -3,9 +3,11 @@ package top.wecoding.iam.sdk.model;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
+import top.wecoding.iam.sdk.util.JacksonUtils;
 
 import java.io.Serial;
 import java.io.Serializable;
+import java.lang.reflect.Type;
 import java.util.Collection;
 import java.util.Map;
 
@@ -19,12 +21,12 @@ public class ApiResult<T> implements Serializable {
 	@Serial
 	private static final long serialVersionUID = 1L;
 
+	public static final int SUCCESS_CODE = 100001;
+
 	private static final String ERROR = "error";
 
 	private static final String SUCCESS = "success";
 
-	private static final int SUCCESS_CODE = 100001;
-
 	@JsonProperty("code")
 	private int code;
 
@@ -43,8 +45,22 @@ public class ApiResult<T> implements Serializable {
 	@JsonInclude(JsonInclude.Include.NON_NULL)
 	private Map<String, String> headers;
 
+	/**
+	 * The response type of an {@code ApiResult} whose data is decoded to the given type,
+	 * e.g. {@code apiClient.get(path, requestEntity, ApiResult.typeOf(UserInfo.class))}.
+	 * @param dataType the type of the data
+	 * @return the response type
+	 */
+	public static Type typeOf(Type dataType) {
+		return JacksonUtils.constructParametricType(ApiResult.class, dataType);
+	}
+
 	public static <T> boolean isSuccessCode(ApiResult<T> apiResult) {
-		return apiResult != null && SUCCESS_CODE == apiResult.getCode();
+		return apiResult != null && isSuccessCode(apiResult.getCode());
+	}
+
+	public static boolean isSuccessCode(int code) {
+		return SUCCESS_CODE == code;
 	}
 
 	public static <T> boolean isSuccess(ApiResult<T> apiResult) {
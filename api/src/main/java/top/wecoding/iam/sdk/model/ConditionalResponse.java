@@ -0,0 +1,43 @@
+package top.wecoding.iam.sdk.model;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Response of a conditional request, sent with {@code If-None-Match} or
+ * {@code If-Modified-Since}: either the body with its validators, or a
+ * {@code 304 Not Modified} without body.
+ *
+ * @param <T> the type of the body
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+@Getter
+@ToString
+public class ConditionalResponse<T> {
+
+	/**
+	 * The body, null when not modified.
+	 */
+	private final T body;
+
+	/**
+	 * The {@code ETag} header, may be null.
+	 */
+	private final String eTag;
+
+	/**
+	 * The {@code Last-Modified} header, may be null.
+	 */
+	private final String lastModified;
+
+	private final boolean notModified;
+
+	public ConditionalResponse(T body, String eTag, String lastModified, boolean notModified) {
+		this.body = body;
+		this.eTag = eTag;
+		this.lastModified = lastModified;
+		this.notModified = notModified;
+	}
+
+}
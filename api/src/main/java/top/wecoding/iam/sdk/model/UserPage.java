@@ -0,0 +1,24 @@
+package top.wecoding.iam.sdk.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+@Data
+public class UserPage {
+
+	@JsonProperty("users")
+	private List<UserInfo> users;
+
+	/**
+	 * Token of the next page, null on the last page.
+	 */
+	@JsonProperty("next_page_token")
+	private String nextPageToken;
+
+}
@@ -0,0 +1,30 @@
+package top.wecoding.iam.sdk.model.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Query of a page of users, sent as the {@code filter}, {@code page_size} and
+ * {@code page_token} query parameters.
+ *
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class ListUsersRequest {
+
+	private String filter;
+
+	private Integer pageSize;
+
+	/**
+	 * The {@code next_page_token} of the previous page, null for the first page.
+	 */
+	private String pageToken;
+
+}
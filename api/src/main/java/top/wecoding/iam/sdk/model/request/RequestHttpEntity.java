@@ -30,6 +30,18 @@ public class RequestHttpEntity {
 
 	private final String[] authNames;
 
+	/**
+	 * Template of the request path, such as {@code /api/v1/users/{id}}, identifying the
+	 * circuit breaker of the endpoint.
+	 */
+	private String routeTemplate;
+
+	/**
+	 * Whether the request is an idempotent read, which may be hedged and coalesced with
+	 * identical reads in flight.
+	 */
+	private boolean idempotentRead;
+
 	public RequestHttpEntity(Header header, Query query, String[] authNames) {
 		this(null, header, query, authNames);
 	}
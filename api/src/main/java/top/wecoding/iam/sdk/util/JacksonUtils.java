@@ -3,13 +3,13 @@ package top.wecoding.iam.sdk.util;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.jsontype.NamedType;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import top.wecoding.iam.sdk.codec.JacksonCodec;
 import top.wecoding.iam.sdk.exception.ApiException;
 
 import java.io.IOException;
@@ -22,12 +22,10 @@ import java.lang.reflect.Type;
  */
 public class JacksonUtils {
 
-	static ObjectMapper mapper = new ObjectMapper();
-
-	static {
-		mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
-		mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
-	}
+	/**
+	 * A copy of the mapper of the default codec, which omits the null values.
+	 */
+	static volatile ObjectMapper mapper = copyDefaultMapper();
 
 	public static <T> T convertValue(Object obj, Class<T> toValueType) {
 		return mapper.convertValue(obj, toValueType);
@@ -223,12 +221,21 @@ public class JacksonUtils {
 	}
 
 	/**
-	 * Register sub type for child class.
+	 * Register sub type for child class, in the default codec of the clients created
+	 * afterwards, see {@link JacksonCodec#registerDefaultSubtype(Class, String)}.
 	 * @param clz child class
 	 * @param type type name of child class
 	 */
-	public static void registerSubtype(Class<?> clz, String type) {
-		mapper.registerSubtypes(new NamedType(clz, type));
+	public static synchronized void registerSubtype(Class<?> clz, String type) {
+		JacksonCodec.registerDefaultSubtype(clz, type);
+		mapper = copyDefaultMapper();
+	}
+
+	private static ObjectMapper copyDefaultMapper() {
+		return JacksonCodec.getDefault()
+			.getObjectMapper()
+			.copy()
+			.setSerializationInclusion(JsonInclude.Include.NON_NULL);
 	}
 
 	/**
@@ -262,7 +269,31 @@ public class JacksonUtils {
 	 * @return JavaType {@link JavaType}
 	 */
 	public static JavaType constructJavaType(Type type) {
-		return mapper.constructType(type);
+		return JacksonCodec.getDefault().constructType(type);
+	}
+
+	/**
+	 * construct generic type -> Jackson Java Type, e.g. {@code ApiResult<UserInfo>}.
+	 * @param rawType the generic class
+	 * @param parameterTypes the type arguments
+	 * @return JavaType {@link JavaType}
+	 */
+	public static JavaType constructParametricType(Class<?> rawType, Type... parameterTypes) {
+		JavaType[] parameters = new JavaType[parameterTypes.length];
+		for (int i = 0; i < parameterTypes.length; i++) {
+			parameters[i] = mapper.constructType(parameterTypes[i]);
+		}
+		return mapper.getTypeFactory().constructParametricType(rawType, parameters);
+	}
+
+	/**
+	 * Get the reusable, thread-safe {@link ObjectReader} of the default codec for the
+	 * given type.
+	 * @param javaType Jackson Java Type
+	 * @return ObjectReader {@link ObjectReader}
+	 */
+	public static ObjectReader reader(JavaType javaType) {
+		return JacksonCodec.getDefault().reader(javaType);
 	}
 
 }
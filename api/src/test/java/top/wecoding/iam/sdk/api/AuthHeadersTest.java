@@ -0,0 +1,91 @@
+package top.wecoding.iam.sdk.api;
+
+import org.junit.jupiter.api.Test;
+import top.wecoding.iam.sdk.client.ApiClient;
+import top.wecoding.iam.sdk.client.auth.Authentication;
+import top.wecoding.iam.sdk.client.auth.HttpBasicAuth;
+import top.wecoding.iam.sdk.client.auth.HttpBearerAuth;
+import top.wecoding.iam.sdk.client.auth.TokenManager;
+import top.wecoding.iam.sdk.client.param.Cookie;
+import top.wecoding.iam.sdk.client.param.Header;
+import top.wecoding.iam.sdk.client.param.Query;
+import top.wecoding.iam.sdk.model.TokenInfo;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+class AuthHeadersTest {
+
+	private static final String[] AUTH_NAMES = new String[] { HttpBasicAuth.NAME, HttpBearerAuth.NAME };
+
+	@Test
+	void resolvesTheCredentialsOfTheLastScheme() {
+		ApiClient apiClient = new ApiClient();
+		assertNull(AuthHeaders.credentials(apiClient, AUTH_NAMES));
+
+		((HttpBasicAuth) apiClient.getAuthentication(HttpBasicAuth.NAME)).setCredentials("alice", "secret");
+		assertEquals("Basic YWxpY2U6c2VjcmV0", AuthHeaders.credentials(apiClient, AUTH_NAMES));
+
+		assertEquals("Bearer t1", AuthHeaders.credentials(apiClient.withBearerToken("t1"), AUTH_NAMES));
+	}
+
+	@Test
+	void doesNotRequestTheFirstToken() {
+		AtomicInteger refreshes = new AtomicInteger();
+		TokenManager tokenManager = new TokenManager(current -> {
+			refreshes.incrementAndGet();
+			return token("t1");
+		}, null);
+		ApiClient apiClient = new ApiClient();
+		apiClient.setTokenManager(tokenManager);
+		try {
+			assertNull(AuthHeaders.credentials(apiClient, AUTH_NAMES));
+			assertEquals(0, refreshes.get());
+
+			tokenManager.getAccessToken();
+			assertEquals("Bearer t1", AuthHeaders.credentials(apiClient, AUTH_NAMES));
+			assertEquals(1, refreshes.get());
+		}
+		finally {
+			tokenManager.close();
+		}
+	}
+
+	@Test
+	void resolvesTheCredentialsOfCustomAuthentications() {
+		ApiClient apiClient = new ApiClient();
+		apiClient.setBearerAuthentication(new Authentication() {
+
+			@Override
+			public void apply(Query queryParams, Header headerParams, Cookie cookieParams) {
+				headerParams.addParam("Authorization", "Custom c1");
+			}
+
+			@Override
+			public String getCredentials() {
+				return "Custom c1";
+			}
+
+		});
+		assertEquals("Custom c1", AuthHeaders.credentials(apiClient, AUTH_NAMES));
+	}
+
+	@Test
+	void resolvesTheCredentialsOfAToken() {
+		assertEquals("Bearer t1", AuthHeaders.bearerCredentials(token("t1")));
+		assertNull(AuthHeaders.bearerCredentials(null));
+	}
+
+	private static TokenInfo token(String accessToken) {
+		TokenInfo tokenInfo = new TokenInfo();
+		tokenInfo.setAccessToken(accessToken);
+		return tokenInfo;
+	}
+
+}
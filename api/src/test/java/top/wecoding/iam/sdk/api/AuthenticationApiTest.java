@@ -0,0 +1,215 @@
+package top.wecoding.iam.sdk.api;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+import top.wecoding.iam.sdk.cache.UserInfoCache;
+import top.wecoding.iam.sdk.client.ApiClient;
+import top.wecoding.iam.sdk.client.auth.StoredToken;
+import top.wecoding.iam.sdk.client.auth.TokenManager;
+import top.wecoding.iam.sdk.client.auth.TokenStore;
+import top.wecoding.iam.sdk.client.circuit.CircuitBreaker;
+import top.wecoding.iam.sdk.client.circuit.CircuitBreakerConfig;
+import top.wecoding.iam.sdk.client.circuit.CircuitBreakerRegistry;
+import top.wecoding.iam.sdk.exception.CallNotPermittedException;
+import top.wecoding.iam.sdk.model.ApiResult;
+import top.wecoding.iam.sdk.model.TokenInfo;
+import top.wecoding.iam.sdk.model.request.AuthenticationRequest;
+import top.wecoding.iam.sdk.model.response.UserInfoResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+class AuthenticationApiTest {
+
+	private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+
+	@Test
+	void surfacesTheRejectionOfAnOpenCircuitBreaker() {
+		CircuitBreakerRegistry registry = openCircuitBreakers("/api/v1/login", "/api/v1/auth/refresh-token",
+				"/api/v1/auth/user-info");
+		ApiClient apiClient = new ApiClient();
+		apiClient.setCircuitBreakerRegistry(registry);
+		AuthenticationApi authenticationApi = new AuthenticationApi(apiClient);
+
+		CallNotPermittedException failure = assertThrows(CallNotPermittedException.class,
+				() -> authenticationApi.authenticate("alice", "secret"));
+		assertEquals("/api/v1/login", failure.getRouteTemplate());
+		assertThrows(CallNotPermittedException.class, () -> authenticationApi.refreshToken("r1"));
+		assertThrows(CallNotPermittedException.class, authenticationApi::currentUserInfo);
+	}
+
+	@Test
+	void surfacesTheRejectionOfAnOpenCircuitBreakerToTheUserApi() {
+		ApiClient apiClient = new ApiClient();
+		apiClient.setCircuitBreakerRegistry(openCircuitBreakers("/api/v1/users/{id}"));
+		UserApi userApi = new UserApi(apiClient);
+
+		CallNotPermittedException failure = assertThrows(CallNotPermittedException.class,
+				() -> userApi.getUserInfo("u1"));
+		assertEquals("/api/v1/users/{id}", failure.getRouteTemplate());
+	}
+
+	@Test
+	void discardsTheCachedUserInfoOfTheRefreshedToken() throws Exception {
+		HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/", exchange -> {
+			byte[] body = "{\"code\":100001,\"data\":{\"access_token\":\"t2\"}}".getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().add("Content-Type", "application/json");
+			exchange.sendResponseHeaders(200, body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		});
+		server.start();
+		try {
+			ApiClient apiClient = new ApiClient().withBearerToken("other");
+			apiClient.setBasePath("http://127.0.0.1:" + server.getAddress().getPort());
+			UserInfoCache userInfoCache = new UserInfoCache(100, Duration.ofMinutes(1), 1);
+			userInfoCache.get("Bearer t1", AuthenticationApiTest::userInfo);
+			userInfoCache.get("Bearer other", AuthenticationApiTest::userInfo);
+
+			TokenInfo tokenInfo = new TokenInfo();
+			tokenInfo.setAccessToken("t1");
+			tokenInfo.setRefreshToken("r1");
+			new AuthenticationApi(apiClient, userInfoCache).refreshToken(tokenInfo);
+			// the token of the client is not the refreshed one
+			assertEquals(1, userInfoCache.size());
+			AtomicInteger loads = new AtomicInteger();
+			userInfoCache.get("Bearer other", () -> {
+				loads.incrementAndGet();
+				return userInfo();
+			});
+			assertEquals(0, loads.get());
+		}
+		finally {
+			server.stop(0);
+		}
+	}
+
+	@Test
+	void clearsTheStoredTokenWhoseRefreshIsRejected() throws Exception {
+		MemoryTokenStore tokenStore = new MemoryTokenStore(expiredToken());
+		HttpServer server = serve(401);
+		try {
+			TokenManager tokenManager = new AuthenticationApi(apiClient(server))
+				.manageToken(new AuthenticationRequest("alice", "secret"), tokenStore);
+			tokenManager.close();
+			assertEquals(1, tokenStore.clears);
+			assertEquals("t2", tokenStore.token.getTokenInfo().getAccessToken());
+		}
+		finally {
+			server.stop(0);
+		}
+	}
+
+	@Test
+	void keepsTheStoredTokenWhenTheRefreshFails() throws Exception {
+		MemoryTokenStore tokenStore = new MemoryTokenStore(expiredToken());
+		HttpServer server = serve(503);
+		try {
+			new AuthenticationApi(apiClient(server))
+				.manageToken(new AuthenticationRequest("alice", "secret"), tokenStore)
+				.close();
+			assertEquals(0, tokenStore.clears);
+		}
+		finally {
+			server.stop(0);
+		}
+	}
+
+	/**
+	 * Serve the login, and answer the refreshes with the given status.
+	 */
+	private static HttpServer serve(int refreshStatus) throws IOException {
+		HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/", exchange -> {
+			boolean refresh = exchange.getRequestURI().getPath().startsWith("/api/v1/auth/refresh-token");
+			byte[] body = (refresh ? "{\"code\":100401}" : "{\"code\":100001,\"data\":{\"access_token\":\"t2\"}}")
+				.getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().add("Content-Type", "application/json");
+			exchange.sendResponseHeaders(refresh ? refreshStatus : 200, body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		});
+		server.start();
+		return server;
+	}
+
+	private static ApiClient apiClient(HttpServer server) {
+		ApiClient apiClient = new ApiClient();
+		apiClient.setBasePath("http://127.0.0.1:" + server.getAddress().getPort());
+		return apiClient;
+	}
+
+	private static StoredToken expiredToken() {
+		TokenInfo tokenInfo = new TokenInfo();
+		tokenInfo.setAccessToken("t1");
+		tokenInfo.setRefreshToken("r1");
+		tokenInfo.setExpiresIn(60);
+		return new StoredToken(tokenInfo, Instant.now().minus(Duration.ofHours(1)));
+	}
+
+	private static UserInfoResponse userInfo() {
+		UserInfoResponse response = new UserInfoResponse();
+		response.setCode(ApiResult.SUCCESS_CODE);
+		return response;
+	}
+
+	private static CircuitBreakerRegistry openCircuitBreakers(String... routeTemplates) {
+		CircuitBreakerRegistry registry = new CircuitBreakerRegistry(CircuitBreakerConfig.builder()
+			.slidingWindowSize(4)
+			.minimumNumberOfCalls(4)
+			.waitDurationInOpenState(Duration.ofHours(1))
+			.build());
+		for (String routeTemplate : routeTemplates) {
+			CircuitBreaker circuitBreaker = registry.circuitBreaker(routeTemplate);
+			for (int i = 0; i < 4; i++) {
+				circuitBreaker.onResult(FAST, true);
+			}
+		}
+		return registry;
+	}
+
+	private static final class MemoryTokenStore implements TokenStore {
+
+		private StoredToken token;
+
+		private int clears;
+
+		private MemoryTokenStore(StoredToken token) {
+			this.token = token;
+		}
+
+		@Override
+		public StoredToken load() {
+			return this.token;
+		}
+
+		@Override
+		public void save(StoredToken token) {
+			this.token = token;
+		}
+
+		@Override
+		public void clear() {
+			this.token = null;
+			this.clears++;
+		}
+
+	}
+
+}
@@ -0,0 +1,245 @@
+package top.wecoding.iam.sdk.api;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import top.wecoding.iam.sdk.cache.UserCache;
+import top.wecoding.iam.sdk.client.ApiClient;
+import top.wecoding.iam.sdk.client.AsyncApiClient;
+import top.wecoding.iam.sdk.client.Clients;
+import top.wecoding.iam.sdk.client.limit.ConcurrencyLimiter;
+import top.wecoding.iam.sdk.client.limit.Limit;
+import top.wecoding.iam.sdk.client.retry.BackoffRetryStrategy;
+import top.wecoding.iam.sdk.exception.ApiException;
+import top.wecoding.iam.sdk.exception.LimitExceededException;
+import top.wecoding.iam.sdk.model.ApiResult;
+import top.wecoding.iam.sdk.model.UserInfo;
+import top.wecoding.iam.sdk.model.request.CreateUserRequest;
+import top.wecoding.iam.sdk.model.request.ListUsersRequest;
+import top.wecoding.iam.sdk.model.response.UserInfoResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+class UserApiTest {
+
+	private HttpServer server;
+
+	private volatile Headers requestHeaders;
+
+	@AfterEach
+	void stopServer() {
+		if (this.server != null) {
+			this.server.stop(0);
+		}
+	}
+
+	@Test
+	void surfacesTheRejectionOfTheConcurrencyLimiter() {
+		ApiClient apiClient = new ApiClient();
+		apiClient.setConcurrencyLimiter(new ConcurrencyLimiter(() -> new FixedLimit(0), path -> "users"));
+		UserApi userApi = new UserApi(apiClient);
+
+		LimitExceededException failure = assertThrows(LimitExceededException.class, () -> userApi.getUserInfo("u1"));
+		assertEquals("users", failure.getGroup());
+		assertThrows(LimitExceededException.class, () -> userApi.deleteUser("u1"));
+	}
+
+	@Test
+	void keepsTheCodeOfTheFailedResult() throws IOException {
+		UserApi userApi = new UserApi(serve("{\"code\":100404,\"msg\":\"User not found\"}"));
+
+		ApiException failure = assertThrows(ApiException.class, () -> userApi.deleteUser("u1"));
+		assertEquals(100404, failure.getCode());
+		assertEquals("User not found", failure.getMessage());
+		assertNull(failure.getCause());
+	}
+
+	@Test
+	void doesNotWrapTheMissingPage() throws IOException {
+		UserApi userApi = new UserApi(serve("{\"code\":100001}"));
+
+		ApiException failure = assertThrows(ApiException.class,
+				() -> userApi.listUserPage(ListUsersRequest.builder().build()));
+		assertEquals("No user page in the response", failure.getMessage());
+		assertNull(failure.getCause());
+	}
+
+	@Test
+	void sendsTheIdempotencyKeyOnlyWhenGiven() throws IOException {
+		UserApi userApi = new UserApi(serve("{\"code\":100001}"));
+		CreateUserRequest createReq = CreateUserRequest.builder().name("alice").build();
+
+		userApi.createUser(createReq, "k1");
+		assertEquals("k1", this.requestHeaders.getFirst(BackoffRetryStrategy.IDEMPOTENCY_KEY_HEADER));
+		userApi.createUser(createReq);
+		assertFalse(this.requestHeaders.containsKey(BackoffRetryStrategy.IDEMPOTENCY_KEY_HEADER));
+	}
+
+	@Test
+	void streamsTheUsersOfAllThePages() throws IOException {
+		UserApi userApi = new UserApi(serve(query -> query.contains("page_token=p2")
+				? "{\"code\":100001,\"data\":{\"users\":[{\"alias\":\"carol\"}]}}"
+				: "{\"code\":100001,\"data\":{\"users\":[{\"alias\":\"alice\"},{\"alias\":\"bob\"}],"
+						+ "\"next_page_token\":\"p2\"}}"));
+
+		try (Stream<UserInfo> users = userApi.listUsers(ListUsersRequest.builder().pageSize(2).build())) {
+			assertEquals(List.of("alice", "bob", "carol"), users.map(UserInfo::getAlias).collect(Collectors.toList()));
+		}
+	}
+
+	@Test
+	void revalidatesTheExpiredCachedUser() throws Exception {
+		List<String> validators = new CopyOnWriteArrayList<>();
+		ApiClient apiClient = serveUser("\"v1\"", validators);
+		UserCache userCache = new UserCache(100, Duration.ofMillis(50), Duration.ZERO);
+		apiClient.setUserCache(userCache);
+		UserApi userApi = new UserApi(apiClient);
+
+		assertEquals("alice", userApi.getUserInfo("u1").getUserInfo().getAlias());
+		// served from the cache
+		assertEquals("alice", userApi.getUserInfo("u1").getUserInfo().getAlias());
+		Thread.sleep(100);
+		UserInfoResponse revalidated = userApi.getUserInfo("u1");
+		assertEquals(ApiResult.SUCCESS_CODE, revalidated.getCode());
+		assertEquals("alice", revalidated.getUserInfo().getAlias());
+
+		assertEquals(Arrays.asList(null, "\"v1\""), validators);
+		assertEquals(1, userCache.stats().getRevalidationCount());
+		// fresh again
+		assertEquals("alice", userApi.getUserInfo("u1").getUserInfo().getAlias());
+		assertEquals(2, validators.size());
+	}
+
+	@Test
+	void replacesTheModifiedCachedUser() throws Exception {
+		List<String> validators = new CopyOnWriteArrayList<>();
+		ApiClient apiClient = serveUser("\"v2\"", validators);
+		UserCache userCache = new UserCache(100, Duration.ofMillis(50), Duration.ZERO);
+		userCache.put("u1", userInfo("alice"), "\"v1\"", null, userCache.stamp("u1"));
+		Thread.sleep(100);
+		apiClient.setUserCache(userCache);
+
+		assertEquals("alice", new UserApi(apiClient).getUserInfo("u1").getUserInfo().getAlias());
+		assertEquals(List.of("\"v1\""), validators);
+		assertEquals(0, userCache.stats().getRevalidationCount());
+		assertEquals("\"v2\"", userCache.getForRevalidation("u1").getETag());
+	}
+
+	@Test
+	void revalidatesTheExpiredCachedUserAsynchronously() throws Exception {
+		List<String> validators = new CopyOnWriteArrayList<>();
+		serveUser("\"v1\"", validators);
+		try (AsyncApiClient apiClient = Clients.builder()
+			.setBaseUrl("http://127.0.0.1:" + this.server.getAddress().getPort())
+			.buildAsync()) {
+			UserCache userCache = new UserCache(100, Duration.ofMillis(50), Duration.ZERO);
+			apiClient.setUserCache(userCache);
+			AsyncUserApi userApi = new AsyncUserApi(apiClient);
+
+			assertEquals("alice", userApi.getUserInfo("u1").get(5, TimeUnit.SECONDS).getUserInfo().getAlias());
+			Thread.sleep(100);
+			assertEquals("alice", userApi.getUserInfo("u1").get(5, TimeUnit.SECONDS).getUserInfo().getAlias());
+			assertEquals(Arrays.asList(null, "\"v1\""), validators);
+			assertEquals(1, userCache.stats().getRevalidationCount());
+		}
+	}
+
+	/**
+	 * Serve the user u1 with the given entity tag, answering the requests with that tag
+	 * as not modified, and record the entity tag of each request.
+	 */
+	private ApiClient serveUser(String eTag, List<String> validators) throws IOException {
+		this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		this.server.createContext("/", exchange -> {
+			String validator = exchange.getRequestHeaders().getFirst("If-None-Match");
+			validators.add(validator);
+			exchange.getResponseHeaders().add("ETag", eTag);
+			if (eTag.equals(validator)) {
+				exchange.sendResponseHeaders(304, -1);
+				exchange.close();
+				return;
+			}
+			byte[] bytes = "{\"code\":100001,\"data\":{\"alias\":\"alice\"}}".getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().add("Content-Type", "application/json");
+			exchange.sendResponseHeaders(200, bytes.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(bytes);
+			}
+		});
+		this.server.start();
+		ApiClient apiClient = new ApiClient();
+		apiClient.setBasePath("http://127.0.0.1:" + this.server.getAddress().getPort());
+		return apiClient;
+	}
+
+	private static UserInfo userInfo(String alias) {
+		UserInfo userInfo = new UserInfo();
+		userInfo.setAlias(alias);
+		return userInfo;
+	}
+
+	private ApiClient serve(String body) throws IOException {
+		return serve(query -> body);
+	}
+
+	/**
+	 * Serve the body of the query of each request.
+	 */
+	private ApiClient serve(Function<String, String> bodyOfQuery) throws IOException {
+		this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		this.server.createContext("/", exchange -> {
+			this.requestHeaders = exchange.getRequestHeaders();
+			byte[] bytes = bodyOfQuery.apply(exchange.getRequestURI().getQuery()).getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().add("Content-Type", "application/json");
+			exchange.sendResponseHeaders(200, bytes.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(bytes);
+			}
+		});
+		this.server.start();
+		ApiClient apiClient = new ApiClient();
+		apiClient.setBasePath("http://127.0.0.1:" + this.server.getAddress().getPort());
+		return apiClient;
+	}
+
+	private static final class FixedLimit implements Limit {
+
+		private final int limit;
+
+		private FixedLimit(int limit) {
+			this.limit = limit;
+		}
+
+		@Override
+		public int getLimit() {
+			return this.limit;
+		}
+
+		@Override
+		public void onSample(long rttNanos, int inFlight, boolean dropped) {
+		}
+
+	}
+
+}
@@ -0,0 +1,153 @@
+package top.wecoding.iam.sdk.api;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import top.wecoding.iam.sdk.client.AsyncApiClient;
+import top.wecoding.iam.sdk.client.Clients;
+import top.wecoding.iam.sdk.exception.ApiException;
+import top.wecoding.iam.sdk.model.response.UserInfoResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+class UserLoaderTest {
+
+	private static final Duration LONG_WINDOW = Duration.ofHours(1);
+
+	private final List<String> requestedIds = new CopyOnWriteArrayList<>();
+
+	private HttpServer server;
+
+	private AsyncApiClient apiClient;
+
+	@BeforeEach
+	void startServer() throws IOException {
+		this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		this.server.createContext("/api/v1/users/", exchange -> {
+			String userId = exchange.getRequestURI().getPath().substring("/api/v1/users/".length());
+			this.requestedIds.add(userId);
+			boolean missing = userId.startsWith("missing");
+			byte[] body = (missing ? "{}" : "{\"code\":100001,\"data\":{\"alias\":\"" + userId + "\"}}")
+				.getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().add("Content-Type", "application/json");
+			exchange.sendResponseHeaders(missing ? 404 : 200, body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		});
+		this.server.start();
+		this.apiClient = Clients.builder()
+			.setBaseUrl("http://127.0.0.1:" + this.server.getAddress().getPort())
+			.buildAsync();
+	}
+
+	@AfterEach
+	void stopServer() throws IOException {
+		this.apiClient.close();
+		this.server.stop(0);
+	}
+
+	@Test
+	void requestsAnIdOncePerBatch() throws Exception {
+		UserLoader userLoader = new UserLoader(this.apiClient, LONG_WINDOW, 100);
+		List<CompletableFuture<UserInfoResponse>> loads = new ArrayList<>();
+		for (String userId : List.of("u1", "u2", "u1", "u1")) {
+			loads.add(userLoader.load(userId));
+		}
+		assertTrue(this.requestedIds.isEmpty());
+
+		userLoader.dispatch();
+		assertEquals("u1", alias(loads.get(0)));
+		assertEquals("u2", alias(loads.get(1)));
+		assertEquals("u1", alias(loads.get(3)));
+		assertEquals(List.of("u1", "u2"), sorted(this.requestedIds));
+	}
+
+	@Test
+	void dispatchesAFullBatchAtOnce() throws Exception {
+		UserLoader userLoader = new UserLoader(this.apiClient, LONG_WINDOW, 2);
+		CompletableFuture<UserInfoResponse> first = userLoader.load("u1");
+		CompletableFuture<UserInfoResponse> second = userLoader.load("u2");
+		CompletableFuture<UserInfoResponse> third = userLoader.load("u3");
+
+		assertEquals("u1", alias(first));
+		assertEquals("u2", alias(second));
+		// waits for the next batch
+		assertFalse(third.isDone());
+		assertEquals(List.of("u1", "u2"), sorted(this.requestedIds));
+	}
+
+	@Test
+	void dispatchesAtTheEndOfTheWindow() throws Exception {
+		UserLoader userLoader = new UserLoader(this.apiClient, Duration.ofMillis(10), 100);
+		assertEquals("u1", alias(userLoader.load("u1")));
+	}
+
+	@Test
+	void loadsManyIdsInTheirOrder() throws Exception {
+		UserLoader userLoader = new UserLoader(this.apiClient, LONG_WINDOW, 100);
+		CompletableFuture<Map<String, UserInfoResponse>> users = userLoader.loadMany(List.of("u2", "u1", "u2"));
+		userLoader.dispatch();
+
+		Map<String, UserInfoResponse> loaded = users.get(5, TimeUnit.SECONDS);
+		assertEquals(List.of("u2", "u1"), new ArrayList<>(loaded.keySet()));
+		assertEquals("u1", loaded.get("u1").getUserInfo().getAlias());
+		assertEquals(2, this.requestedIds.size());
+	}
+
+	@Test
+	void failsOnlyTheMissingUser() throws Exception {
+		UserLoader userLoader = new UserLoader(this.apiClient, LONG_WINDOW, 100);
+		CompletableFuture<UserInfoResponse> missing = userLoader.load("missing");
+		CompletableFuture<UserInfoResponse> found = userLoader.load("u1");
+		userLoader.dispatch();
+
+		ExecutionException failure = assertThrows(ExecutionException.class, () -> missing.get(5, TimeUnit.SECONDS));
+		assertInstanceOf(ApiException.class, failure.getCause());
+		assertEquals("u1", alias(found));
+	}
+
+	@Test
+	void givesEachCallerItsOwnFuture() throws Exception {
+		UserLoader userLoader = new UserLoader(this.apiClient, LONG_WINDOW, 100);
+		CompletableFuture<UserInfoResponse> cancelled = userLoader.load("u1");
+		CompletableFuture<UserInfoResponse> other = userLoader.load("u1");
+		cancelled.cancel(false);
+		userLoader.dispatch();
+		assertEquals("u1", alias(other));
+	}
+
+	private static String alias(CompletableFuture<UserInfoResponse> load) throws Exception {
+		return load.get(5, TimeUnit.SECONDS).getUserInfo().getAlias();
+	}
+
+	private static List<String> sorted(List<String> ids) {
+		List<String> sorted = new ArrayList<>(ids);
+		Collections.sort(sorted);
+		return sorted;
+	}
+
+}
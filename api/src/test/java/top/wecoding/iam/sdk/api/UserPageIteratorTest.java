@@ -0,0 +1,124 @@
+package top.wecoding.iam.sdk.api;
+
+import org.junit.jupiter.api.Test;
+import top.wecoding.iam.sdk.exception.ApiException;
+import top.wecoding.iam.sdk.model.UserInfo;
+import top.wecoding.iam.sdk.model.UserPage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+class UserPageIteratorTest {
+
+	private final List<String> fetched = new CopyOnWriteArrayList<>();
+
+	@Test
+	void iteratesOverAllThePages() {
+		Map<String, UserPage> pages = Map.of("first", page("p2", "alice", "bob"), "p2", page("p3"), "p3",
+				page(null, "carol"));
+		UserPageIterator iterator = new UserPageIterator("first", fetcher(pages));
+		assertEquals(List.of(), this.fetched);
+
+		assertEquals(List.of("alice", "bob", "carol"), aliases(iterator));
+		assertFalse(iterator.hasNext());
+		assertThrows(NoSuchElementException.class, iterator::next);
+		assertEquals(List.of("first", "p2", "p3"), this.fetched);
+	}
+
+	@Test
+	void prefetchesTheNextPageWhileTheCurrentOneIsConsumed() throws InterruptedException {
+		CountDownLatch prefetched = new CountDownLatch(1);
+		Map<String, UserPage> pages = Map.of("first", page("p2", "alice", "bob"), "p2", page(null, "carol"));
+		UserPageIterator iterator = new UserPageIterator("first", pageToken -> {
+			if ("p2".equals(pageToken)) {
+				prefetched.countDown();
+			}
+			return fetcher(pages).apply(pageToken);
+		});
+
+		assertEquals("alice", alias(iterator.next()));
+		assertTrue(prefetched.await(5, TimeUnit.SECONDS));
+		assertEquals(List.of("first", "p2"), this.fetched);
+		assertEquals(List.of("bob", "carol"), aliases(iterator));
+	}
+
+	@Test
+	void stopsAtTheLastPage() {
+		UserPageIterator iterator = new UserPageIterator(null, fetcher(Map.of()));
+		assertFalse(iterator.hasNext());
+		// the first page has no token
+		assertEquals(Arrays.asList((String) null), this.fetched);
+	}
+
+	@Test
+	void stopsOnceClosed() {
+		Map<String, UserPage> pages = Map.of("first", page("p2", "alice", "bob"), "p2", page(null, "carol"));
+		UserPageIterator iterator = new UserPageIterator("first", fetcher(pages));
+		assertEquals("alice", alias(iterator.next()));
+		iterator.close();
+		assertFalse(iterator.hasNext());
+	}
+
+	@Test
+	void surfacesTheFailureOfAPage() {
+		ApiException rejected = new ApiException(403, "Forbidden");
+		UserPageIterator iterator = new UserPageIterator("first", pageToken -> {
+			throw rejected;
+		});
+		assertSame(rejected, assertThrows(ApiException.class, iterator::hasNext));
+
+		IllegalStateException failure = new IllegalStateException("broken");
+		UserPageIterator other = new UserPageIterator("first", pageToken -> {
+			throw failure;
+		});
+		assertSame(failure, assertThrows(ApiException.class, other::hasNext).getCause());
+	}
+
+	private Function<String, UserPage> fetcher(Map<String, UserPage> pages) {
+		return pageToken -> {
+			this.fetched.add(pageToken);
+			return pageToken != null ? pages.get(pageToken) : page(null);
+		};
+	}
+
+	private static List<String> aliases(UserPageIterator iterator) {
+		List<String> aliases = new ArrayList<>();
+		iterator.forEachRemaining(userInfo -> aliases.add(alias(userInfo)));
+		return aliases;
+	}
+
+	private static String alias(UserInfo userInfo) {
+		return userInfo.getAlias();
+	}
+
+	private static UserPage page(String nextPageToken, String... aliases) {
+		List<UserInfo> users = new ArrayList<>();
+		for (String alias : aliases) {
+			UserInfo userInfo = new UserInfo();
+			userInfo.setAlias(alias);
+			users.add(userInfo);
+		}
+		UserPage page = new UserPage();
+		page.setUsers(users);
+		page.setNextPageToken(nextPageToken);
+		return page;
+	}
+
+}
@@ -0,0 +1,185 @@
+package top.wecoding.iam.sdk.bulk;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+class BulkExecutorTest {
+
+	private static final Executor LATER = CompletableFuture.delayedExecutor(1, TimeUnit.MILLISECONDS);
+
+	@Test
+	void boundsTheOperationsInFlight() {
+		AtomicInteger inFlight = new AtomicInteger();
+		AtomicInteger maxInFlight = new AtomicInteger();
+		AtomicInteger read = new AtomicInteger();
+		AtomicInteger completed = new AtomicInteger();
+		AtomicInteger maxReadAhead = new AtomicInteger();
+		Iterator<Integer> source = IntStream.range(0, 100).iterator();
+		Iterator<Integer> countingSource = new Iterator<>() {
+
+			@Override
+			public boolean hasNext() {
+				return source.hasNext();
+			}
+
+			@Override
+			public Integer next() {
+				maxReadAhead.accumulateAndGet(read.incrementAndGet() - completed.get(), Math::max);
+				return source.next();
+			}
+
+		};
+
+		BulkResult<Integer, Integer> result = executor(4).execute(countingSource, item -> {
+			maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+			return CompletableFuture.supplyAsync(() -> {
+				inFlight.decrementAndGet();
+				completed.incrementAndGet();
+				return item;
+			}, LATER);
+		}, null);
+
+		assertTrue(result.isSuccess());
+		assertEquals(100, result.getSucceeded());
+		assertEquals(4, maxInFlight.get());
+		// the source is read one item per free slot
+		assertTrue(maxReadAhead.get() <= 4);
+	}
+
+	@Test
+	void recordsTheFailedItemsAndGoesOn() {
+		BulkExecutor executor = new BulkExecutor(
+				BulkOptions.builder().concurrency(2).progressInterval(0).maxRecordedFailures(2).build());
+		BulkResult<Integer, Integer> result = executor.execute(IntStream.range(0, 10).iterator(), item -> {
+			if (item % 3 == 0) {
+				throw new IllegalStateException("rejected " + item);
+			}
+			if (item % 3 == 1) {
+				return CompletableFuture.supplyAsync(() -> {
+					throw new IllegalArgumentException("failed " + item);
+				}, LATER);
+			}
+			return CompletableFuture.completedFuture(item);
+		}, null);
+
+		assertFalse(result.isSuccess());
+		assertEquals(3, result.getSucceeded());
+		assertEquals(7, result.getFailed());
+		assertEquals(10, result.getTotal());
+		assertEquals(2, result.getFailures().size());
+		for (BulkItemResult<Integer, Integer> failure : result.getFailures()) {
+			assertFalse(failure.isSuccess());
+			assertFalse(failure.getError() instanceof CompletionException);
+			assertEquals(failure.getItem().longValue(), failure.getIndex());
+		}
+	}
+
+	@Test
+	void reportsEveryItemAndTheProgress() {
+		List<Long> progress = new ArrayList<>();
+		AtomicInteger items = new AtomicInteger();
+		BulkExecutor executor = new BulkExecutor(BulkOptions.builder().concurrency(3).progressInterval(4).build());
+		executor.execute(IntStream.range(0, 10).iterator(), item -> CompletableFuture.supplyAsync(() -> item, LATER),
+				new BulkListener<Integer, Integer>() {
+
+					@Override
+					public void onItem(BulkItemResult<Integer, Integer> itemResult) {
+						assertEquals(itemResult.getItem(), itemResult.getResult());
+						items.incrementAndGet();
+					}
+
+					@Override
+					public void onProgress(BulkProgress bulkProgress) {
+						progress.add(bulkProgress.getCompleted());
+					}
+
+				});
+
+		assertEquals(10, items.get());
+		assertEquals(List.of(4L, 8L, 10L), progress);
+	}
+
+	@Test
+	void keepsGoingWhenTheListenerFails() {
+		BulkResult<Integer, Integer> result = executor(2).execute(IntStream.range(0, 5).iterator(),
+				CompletableFuture::completedFuture, new BulkListener<>() {
+
+					@Override
+					public void onItem(BulkItemResult<Integer, Integer> itemResult) {
+						throw new IllegalStateException("listener failure");
+					}
+
+				});
+		assertEquals(5, result.getSucceeded());
+	}
+
+	@Test
+	void waitsForTheOperationsInFlightWhenTheSourceFails() {
+		AtomicInteger completed = new AtomicInteger();
+		Iterator<Integer> source = new Iterator<>() {
+
+			private int next;
+
+			@Override
+			public boolean hasNext() {
+				return true;
+			}
+
+			@Override
+			public Integer next() {
+				if (this.next == 3) {
+					throw new IllegalStateException("source failure");
+				}
+				return this.next++;
+			}
+
+		};
+		IllegalStateException failure = assertThrows(IllegalStateException.class,
+				() -> executor(4).execute(source, item -> CompletableFuture.supplyAsync(() -> {
+					completed.incrementAndGet();
+					return item;
+				}, LATER), null));
+		assertEquals("source failure", failure.getMessage());
+		assertEquals(3, completed.get());
+	}
+
+	@Test
+	void stopsReadingTheSourceWhenInterrupted() {
+		Thread.currentThread().interrupt();
+		try {
+			BulkResult<Integer, Integer> result = executor(1).execute(IntStream.range(0, 5).iterator(),
+					CompletableFuture::completedFuture, null);
+			assertTrue(result.isInterrupted());
+			assertEquals(0, result.getTotal());
+			assertFalse(result.isSuccess());
+			assertTrue(Thread.currentThread().isInterrupted());
+		}
+		finally {
+			Thread.interrupted();
+		}
+	}
+
+	private static BulkExecutor executor(int concurrency) {
+		return new BulkExecutor(BulkOptions.builder().concurrency(concurrency).build());
+	}
+
+}
@@ -0,0 +1,193 @@
+package top.wecoding.iam.sdk.cache;
+
+import org.junit.jupiter.api.Test;
+import top.wecoding.iam.sdk.model.Metadata;
+import top.wecoding.iam.sdk.model.UserInfo;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+class UserCacheTest {
+
+	private static final Duration NONE = Duration.ZERO;
+
+	private static final Duration SHORT = Duration.ofMillis(100);
+
+	@Test
+	void servesTheUserUntilItsTimeToLiveElapsed() throws Exception {
+		UserCache cache = new UserCache(100, SHORT, NONE);
+		cache.put("u1", user("alice"));
+		assertEquals("alice", cache.getIfPresent("u1").getAlias());
+
+		Thread.sleep(SHORT.toMillis() + 50);
+		assertNull(cache.getIfPresent("u1"));
+		assertEquals(0, cache.size());
+		CacheStats stats = cache.stats();
+		assertEquals(1, stats.getHitCount());
+		assertEquals(1, stats.getMissCount());
+		assertEquals(1, stats.getExpirationCount());
+	}
+
+	@Test
+	void keepsTheUserWithoutTimeToLive() throws Exception {
+		UserCache cache = new UserCache(100, NONE, NONE);
+		cache.put("u1", user("alice"));
+		Thread.sleep(50);
+		assertEquals("alice", cache.getIfPresent("u1").getAlias());
+	}
+
+	@Test
+	void expiresTheUserNotReadWithinItsTimeToIdle() throws Exception {
+		UserCache cache = new UserCache(100, NONE, Duration.ofMillis(200));
+		cache.put("u1", user("alice"));
+		for (int i = 0; i < 3; i++) {
+			// each read extends the time to idle
+			Thread.sleep(100);
+			assertNotNull(cache.getIfPresent("u1"));
+		}
+		Thread.sleep(250);
+		assertNull(cache.getIfPresent("u1"));
+	}
+
+	@Test
+	void keepsTheStaleUserWithValidatorForRevalidation() throws Exception {
+		UserCache cache = new UserCache(100, SHORT, NONE);
+		cache.put("u1", user("alice"), "\"v1\"", null, cache.stamp("u1"));
+
+		Thread.sleep(SHORT.toMillis() + 50);
+		assertNull(cache.getIfPresent("u1"));
+		UserCache.CachedUser stale = cache.getForRevalidation("u1");
+		assertEquals("\"v1\"", stale.getETag());
+
+		cache.revalidate("u1", stale);
+		assertEquals("alice", cache.getIfPresent("u1").getAlias());
+		assertEquals(1, cache.stats().getRevalidationCount());
+	}
+
+	@Test
+	void usesTheUpdateDateOfTheUserAsValidator() {
+		UserCache cache = new UserCache(100, SHORT, NONE);
+		UserInfo user = user("alice");
+		user.getMetadata().setUpdatedAt("2024-01-02T04:04:05+01:00");
+		cache.put("u1", user, null, null, cache.stamp("u1"));
+		assertEquals("Tue, 2 Jan 2024 03:04:05 GMT", cache.getForRevalidation("u1").getLastModified());
+
+		cache.put("u2", user("bob"), null, null, cache.stamp("u2"));
+		assertNull(cache.getForRevalidation("u2"));
+	}
+
+	@Test
+	void invalidatesTheUser() {
+		UserCache cache = new UserCache(100, NONE, NONE);
+		cache.put("u1", user("alice"));
+		cache.put("u2", user("bob"));
+		cache.invalidate("u1");
+		assertNull(cache.getIfPresent("u1"));
+		assertEquals("bob", cache.getIfPresent("u2").getAlias());
+
+		cache.invalidateAll();
+		assertNull(cache.getIfPresent("u2"));
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	void discardsTheFetchedUserInvalidatedDuringTheRequest() {
+		UserCache cache = new UserCache(100, NONE, NONE);
+		long stamp = cache.stamp("u1");
+		cache.invalidate("u1");
+		cache.put("u1", user("deleted"), "\"v1\"", null, stamp);
+		assertNull(cache.getIfPresent("u1"));
+
+		stamp = cache.stamp("u1");
+		cache.invalidateAll();
+		cache.put("u1", user("deleted"), "\"v1\"", null, stamp);
+		assertNull(cache.getIfPresent("u1"));
+	}
+
+	@Test
+	void keepsTheUserWrittenDuringTheRequest() {
+		UserCache cache = new UserCache(100, NONE, NONE);
+		long stamp = cache.stamp("u1");
+		cache.put("u1", user("updated"));
+		cache.put("u1", user("outdated"), "\"v1\"", null, stamp);
+		assertEquals("updated", cache.getIfPresent("u1").getAlias());
+	}
+
+	@Test
+	void doesNotRevalidateTheInvalidatedUser() {
+		UserCache cache = new UserCache(100, NONE, NONE);
+		cache.put("u1", user("alice"), "\"v1\"", null, cache.stamp("u1"));
+		UserCache.CachedUser cached = cache.getForRevalidation("u1");
+		cache.invalidate("u1");
+		cache.revalidate("u1", cached);
+		assertNull(cache.getIfPresent("u1"));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void isolatesTheCachedUserFromTheCallers() {
+		UserCache cache = new UserCache(100, NONE, NONE);
+		UserInfo user = user("alice");
+		cache.put("u1", user);
+		user.setAlias("changed");
+		user.getMetadata().getExtend().put("role", "changed");
+
+		UserInfo read = cache.getIfPresent("u1");
+		assertEquals("alice", read.getAlias());
+		assertEquals("admin", read.getMetadata().getExtend().get("role"));
+		read.setAlias("changed");
+		((List<Object>) read.getMetadata().getExtend().get("groups")).add("changed");
+
+		UserInfo again = cache.getIfPresent("u1");
+		assertEquals("alice", again.getAlias());
+		assertEquals(List.of("dev"), again.getMetadata().getExtend().get("groups"));
+	}
+
+	@Test
+	void admitsNewUsersUsedMoreOftenThanTheCachedOnes() {
+		UserCache cache = new UserCache(2, NONE, NONE);
+		cache.put("hot1", user("hot1"));
+		cache.put("hot2", user("hot2"));
+		for (int i = 0; i < 5; i++) {
+			cache.getIfPresent("hot1");
+			cache.getIfPresent("hot2");
+		}
+
+		cache.put("cold", user("cold"));
+		assertNull(cache.getIfPresent("cold"));
+		assertEquals(2, cache.size());
+		assertEquals(1, cache.stats().getEvictionCount());
+
+		for (int i = 0; i < 10; i++) {
+			cache.getIfPresent("new");
+		}
+		cache.put("new", user("new"));
+		assertEquals("new", cache.getIfPresent("new").getAlias());
+		assertEquals(2, cache.size());
+	}
+
+	private static UserInfo user(String alias) {
+		Map<String, Object> extend = new HashMap<>();
+		extend.put("role", "admin");
+		extend.put("groups", new ArrayList<>(List.of("dev")));
+		Metadata metadata = new Metadata();
+		metadata.setName(alias);
+		metadata.setExtend(extend);
+		UserInfo userInfo = new UserInfo();
+		userInfo.setAlias(alias);
+		userInfo.setMetadata(metadata);
+		return userInfo;
+	}
+
+}
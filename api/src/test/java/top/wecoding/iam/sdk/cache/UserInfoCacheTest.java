@@ -0,0 +1,167 @@
+package top.wecoding.iam.sdk.cache;
+
+import org.junit.jupiter.api.Test;
+import top.wecoding.iam.sdk.model.ApiResult;
+import top.wecoding.iam.sdk.model.UserInfo;
+import top.wecoding.iam.sdk.model.response.UserInfoResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+class UserInfoCacheTest {
+
+	private final AtomicInteger loads = new AtomicInteger();
+
+	@Test
+	void servesTheCachedUserInfo() throws Exception {
+		UserInfoCache cache = new UserInfoCache(100, Duration.ofMinutes(1), 1);
+		UserInfoResponse first = cache.get("Bearer t1", () -> load(ApiResult.SUCCESS_CODE));
+		assertSame(first, cache.get("Bearer t1", () -> load(ApiResult.SUCCESS_CODE)));
+		assertEquals(1, this.loads.get());
+
+		cache.get("Bearer t2", () -> load(ApiResult.SUCCESS_CODE));
+		assertEquals(2, this.loads.get());
+	}
+
+	@Test
+	void doesNotCacheFailedResults() throws Exception {
+		UserInfoCache cache = new UserInfoCache(100, Duration.ofMinutes(1), 1);
+		assertEquals(100401, cache.get("Bearer t1", () -> load(100401)).getCode());
+		assertEquals(0, cache.size());
+
+		assertEquals(ApiResult.SUCCESS_CODE, cache.get("Bearer t1", () -> load(ApiResult.SUCCESS_CODE)).getCode());
+		assertEquals(2, this.loads.get());
+	}
+
+	@Test
+	void doesNotCacheFailures() throws Exception {
+		UserInfoCache cache = new UserInfoCache(100, Duration.ofMinutes(1), 1);
+		assertThrows(IllegalStateException.class, () -> cache.get("Bearer t1", () -> {
+			throw new IllegalStateException("unavailable");
+		}));
+		assertEquals(0, cache.size());
+		cache.get("Bearer t1", () -> load(ApiResult.SUCCESS_CODE));
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	void sendsASingleRequestForConcurrentMisses() throws Exception {
+		UserInfoCache cache = new UserInfoCache(100, Duration.ofMinutes(1), 1);
+		CompletableFuture<UserInfoResponse> response = new CompletableFuture<>();
+		List<CompletableFuture<UserInfoResponse>> userInfos = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			userInfos.add(cache.getAsync("Bearer t1", () -> {
+				this.loads.incrementAndGet();
+				return response;
+			}));
+		}
+		response.complete(userInfo(ApiResult.SUCCESS_CODE));
+		for (CompletableFuture<UserInfoResponse> userInfo : userInfos) {
+			assertSame(response.get(), userInfo.get(5, TimeUnit.SECONDS));
+		}
+		assertEquals(1, this.loads.get());
+	}
+
+	@Test
+	void keepsServingTheEntryWhenTheRefreshFails() throws Exception {
+		UserInfoCache cache = new UserInfoCache(100, Duration.ofMinutes(1), 0.000001);
+		UserInfoResponse cached = cache.get("Bearer t1", () -> load(ApiResult.SUCCESS_CODE));
+		Thread.sleep(10);
+		// reloaded in the background, answering a failed result
+		assertSame(cached, cache.getAsync("Bearer t1", () -> CompletableFuture.completedFuture(userInfo(100401)))
+			.get(5, TimeUnit.SECONDS));
+		assertSame(cached, cache.get("Bearer t1", () -> load(ApiResult.SUCCESS_CODE)));
+	}
+
+	@Test
+	void expiresTheEntries() throws Exception {
+		UserInfoCache cache = new UserInfoCache(100, Duration.ofMillis(50), 1);
+		cache.get("Bearer t1", () -> load(ApiResult.SUCCESS_CODE));
+		Thread.sleep(100);
+		cache.get("Bearer t1", () -> load(ApiResult.SUCCESS_CODE));
+		assertEquals(2, this.loads.get());
+	}
+
+	@Test
+	void invalidatesTheCredentials() throws Exception {
+		UserInfoCache cache = new UserInfoCache(100, Duration.ofMinutes(1), 1);
+		cache.get("Bearer t1", () -> load(ApiResult.SUCCESS_CODE));
+		cache.get("Bearer t2", () -> load(ApiResult.SUCCESS_CODE));
+		cache.invalidate("Bearer t1");
+		assertEquals(1, cache.size());
+		cache.get("Bearer t1", () -> load(ApiResult.SUCCESS_CODE));
+		assertEquals(3, this.loads.get());
+	}
+
+	@Test
+	void refreshesTheEntriesAhead() throws Exception {
+		UserInfoCache cache = new UserInfoCache(100, Duration.ofMinutes(1), 0.000001);
+		UserInfoResponse cached = cache.get("Bearer t1", () -> load(ApiResult.SUCCESS_CODE));
+		Thread.sleep(10);
+		UserInfoResponse refreshed = userInfo(ApiResult.SUCCESS_CODE);
+		// served while reloaded
+		assertSame(cached, cache.getAsync("Bearer t1", () -> CompletableFuture.completedFuture(refreshed))
+			.get(5, TimeUnit.SECONDS));
+		assertSame(refreshed, cache.get("Bearer t1", () -> load(ApiResult.SUCCESS_CODE)));
+		assertEquals(1, this.loads.get());
+	}
+
+	@Test
+	void expiresTheEntriesWithTheirToken() throws Exception {
+		UserInfoCache cache = new UserInfoCache(100, Duration.ofMinutes(1), 1);
+		String expired = "Bearer " + jwt(System.currentTimeMillis() / 1000 - 60);
+		cache.get(expired, () -> load(ApiResult.SUCCESS_CODE));
+		cache.get(expired, () -> load(ApiResult.SUCCESS_CODE));
+		assertEquals(2, this.loads.get());
+
+		String valid = "Bearer " + jwt(System.currentTimeMillis() / 1000 + 600);
+		cache.get(valid, () -> load(ApiResult.SUCCESS_CODE));
+		cache.get(valid, () -> load(ApiResult.SUCCESS_CODE));
+		assertEquals(3, this.loads.get());
+	}
+
+	@Test
+	void evictsTheEntriesBeyondTheMaximumSize() throws Exception {
+		UserInfoCache cache = new UserInfoCache(10, Duration.ofMinutes(1), 1);
+		for (int i = 0; i < 11; i++) {
+			cache.get("Bearer t" + i, () -> load(ApiResult.SUCCESS_CODE));
+		}
+		assertTrue(cache.size() <= 10);
+	}
+
+	private UserInfoResponse load(int code) {
+		this.loads.incrementAndGet();
+		return userInfo(code);
+	}
+
+	private static String jwt(long exp) {
+		Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+		String payload = encoder.encodeToString(("{\"exp\":" + exp + "}").getBytes(StandardCharsets.UTF_8));
+		return encoder.encodeToString("{\"alg\":\"none\"}".getBytes(StandardCharsets.UTF_8)) + "." + payload + ".";
+	}
+
+	private static UserInfoResponse userInfo(int code) {
+		UserInfoResponse response = new UserInfoResponse();
+		response.setCode(code);
+		if (ApiResult.isSuccessCode(code)) {
+			response.setUserInfo(new UserInfo());
+		}
+		return response;
+	}
+
+}
@@ -0,0 +1,200 @@
+package top.wecoding.iam.sdk.client;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.ParseException;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.junit.jupiter.api.Test;
+import top.wecoding.iam.sdk.client.auth.Authentication;
+import top.wecoding.iam.sdk.client.auth.HttpBasicAuth;
+import top.wecoding.iam.sdk.client.auth.HttpBearerAuth;
+import top.wecoding.iam.sdk.client.entity.EncodedHttpEntity;
+import top.wecoding.iam.sdk.client.entity.JsonHttpEntity;
+import top.wecoding.iam.sdk.client.handler.AbstractResponseHandler;
+import top.wecoding.iam.sdk.client.handler.ResponseHandler;
+import top.wecoding.iam.sdk.codec.JacksonCodec;
+import top.wecoding.iam.sdk.model.UserInfo;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+class ApiClientTest {
+
+	private static final Map<String, String> SMALL = Map.of("name", "alice");
+
+	private static final Map<String, String> LARGE = Map.of("name", "a".repeat(1000));
+
+	@Test
+	void sendsTheLengthOfTheJsonBodies() {
+		ApiClient apiClient = new ApiClient();
+		HttpEntity entity = serialize(apiClient, LARGE);
+		assertInstanceOf(JsonHttpEntity.class, entity);
+		assertEquals(1011, entity.getContentLength());
+		assertNull(entity.getContentEncoding());
+	}
+
+	@Test
+	void compressesTheBodiesFromTheThreshold() {
+		ApiClient apiClient = new ApiClient();
+		apiClient.setRequestCompressionThreshold(100);
+		assertNull(serialize(apiClient, SMALL).getContentEncoding());
+
+		HttpEntity entity = serialize(apiClient, LARGE);
+		assertEquals("gzip", entity.getContentEncoding());
+		assertEquals(false, entity.isChunked());
+	}
+
+	@Test
+	void compressesTheChunkedBodiesFromTheThreshold() {
+		ApiClient apiClient = new ApiClient();
+		apiClient.setChunkedRequestBody(true);
+		apiClient.setRequestCompressionThreshold(100);
+
+		HttpEntity small = serialize(apiClient, SMALL);
+		assertNull(small.getContentEncoding());
+		assertEquals(16, small.getContentLength());
+
+		HttpEntity large = serialize(apiClient, LARGE);
+		assertInstanceOf(EncodedHttpEntity.class, large);
+		assertEquals("gzip", large.getContentEncoding());
+		assertEquals(-1, large.getContentLength());
+	}
+
+	@Test
+	void streamsTheChunkedBodiesWithoutCompression() {
+		ApiClient apiClient = new ApiClient();
+		apiClient.setChunkedRequestBody(true);
+		apiClient.setRequestCompressionThreshold(100);
+		apiClient.setContentCodings(List.of());
+		HttpEntity entity = serialize(apiClient, LARGE);
+		assertInstanceOf(JsonHttpEntity.class, entity);
+		assertEquals(-1, entity.getContentLength());
+	}
+
+	@Test
+	void encodesTheBodiesWithItsCodec() throws IOException, ParseException {
+		ApiClient apiClient = new ApiClient();
+		UserInfo userInfo = new UserInfo();
+		userInfo.setAlias("alice");
+		assertTrue(EntityUtils.toString(serialize(apiClient, userInfo)).contains("\"email\":null"));
+
+		ObjectMapper objectMapper = JacksonCodec.createObjectMapper(false)
+			.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+		apiClient.setCodec(new JacksonCodec(objectMapper));
+		assertEquals("{\"alias\":\"alice\"}", EntityUtils.toString(serialize(apiClient, userInfo)));
+	}
+
+	@Test
+	void resolvesTheResponseHandlersPerCodec() {
+		ApiClient apiClient = new ApiClient();
+		ResponseHandler<?> handler = apiClient.selectResponseHandler(UserInfo.class);
+		assertSame(handler, apiClient.selectResponseHandler(UserInfo.class));
+
+		ApiClient view = apiClient.withBearerToken("t1");
+		apiClient.setCodec(new JacksonCodec(JacksonCodec.createObjectMapper(false)));
+		assertNotSame(handler, apiClient.selectResponseHandler(UserInfo.class));
+		// the views keep their codec
+		assertSame(JacksonCodec.getDefault(), view.getCodec());
+	}
+
+	@Test
+	void bindsACachedHandlerToEachResponseType() {
+		ApiClient apiClient = new ApiClient();
+		Type usersType = new TypeReference<List<UserInfo>>() {
+		}.getType();
+		AbstractResponseHandler<?> userHandler = (AbstractResponseHandler<?>) apiClient
+			.selectResponseHandler(UserInfo.class);
+		AbstractResponseHandler<?> usersHandler = (AbstractResponseHandler<?>) apiClient
+			.selectResponseHandler(usersType);
+
+		assertNotSame(userHandler, usersHandler);
+		assertEquals(UserInfo.class, userHandler.getResponseType());
+		assertEquals(usersType, usersHandler.getResponseType());
+		assertSame(usersHandler, apiClient.selectResponseHandler(usersType));
+		assertSame(apiClient.selectResponseHandler(String.class), apiClient.selectResponseHandler(null));
+	}
+
+	@Test
+	void bindsTheRegisteredHandlersToTheirResponseType() {
+		ApiClient apiClient = new ApiClient();
+		ResponseHandler<?> cached = apiClient.selectResponseHandler(UserInfo.class);
+		LegacyResponseHandler legacy = new LegacyResponseHandler();
+		apiClient.registerResponseHandler(UserInfo.class.getName(), legacy);
+
+		assertSame(legacy, apiClient.selectResponseHandler(UserInfo.class));
+		assertNotSame(cached, legacy);
+		assertEquals(UserInfo.class, legacy.responseType);
+	}
+
+	@Test
+	void replacesTheAuthenticationsAsAWhole() {
+		ApiClient apiClient = new ApiClient();
+		Map<String, Authentication> snapshot = apiClient.getAuthentications();
+		HttpBearerAuth bearerAuth = new HttpBearerAuth();
+		apiClient.replaceAuthentication(HttpBearerAuth.NAME, bearerAuth);
+
+		assertSame(bearerAuth, apiClient.getAuthentication(HttpBearerAuth.NAME));
+		assertNotSame(bearerAuth, snapshot.get(HttpBearerAuth.NAME));
+		assertThrows(UnsupportedOperationException.class,
+				() -> apiClient.getAuthentications().put(HttpBearerAuth.NAME, bearerAuth));
+	}
+
+	@Test
+	void derivesViewsWithTheirOwnAuthentications() {
+		ApiClient apiClient = new ApiClient();
+		apiClient.setRequestCoalescingEnabled(true);
+		ApiClient view = apiClient.withBearerToken("t1");
+
+		assertEquals("Bearer t1", view.getAuthentication(HttpBearerAuth.NAME).getCredentials());
+		assertNull(apiClient.getAuthentication(HttpBearerAuth.NAME).getCredentials());
+		assertSame(apiClient.getAuthentication(HttpBasicAuth.NAME), view.getAuthentication(HttpBasicAuth.NAME));
+		assertSame(apiClient.getHttpClient(), view.getHttpClient());
+		assertTrue(view.isRequestCoalescingEnabled());
+
+		assertThrows(IllegalArgumentException.class, () -> apiClient.withAuthentication(HttpBearerAuth.NAME, null));
+		assertThrows(RuntimeException.class, () -> apiClient.withAuthentication("oauth", new HttpBearerAuth()));
+	}
+
+	private static HttpEntity serialize(ApiClient apiClient, Object body) {
+		return apiClient.serialize(body, Map.of(), ContentType.APPLICATION_JSON);
+	}
+
+	/**
+	 * A handler written before the handlers were bound to their response type.
+	 */
+	private static final class LegacyResponseHandler implements ResponseHandler<Object> {
+
+		private Type responseType;
+
+		@Override
+		@SuppressWarnings("deprecation")
+		public void setResponseType(Type responseType) {
+			this.responseType = responseType;
+		}
+
+		@Override
+		public Object handleResponse(ClassicHttpResponse response) {
+			return null;
+		}
+
+	}
+
+}
@@ -0,0 +1,158 @@
+package top.wecoding.iam.sdk.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import top.wecoding.iam.sdk.client.auth.HttpBearerAuth;
+import top.wecoding.iam.sdk.client.param.Header;
+import top.wecoding.iam.sdk.client.param.Query;
+import top.wecoding.iam.sdk.exception.ApiException;
+import top.wecoding.iam.sdk.model.ApiResult;
+import top.wecoding.iam.sdk.model.request.RequestHttpEntity;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+class AsyncApiClientTest {
+
+	private final CountDownLatch answer = new CountDownLatch(1);
+
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+
+	private HttpServer server;
+
+	private volatile String authorization;
+
+	@BeforeEach
+	void startServer() throws IOException {
+		this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		this.server.createContext("/ok", exchange -> {
+			try {
+				this.answer.await(5, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			this.authorization = exchange.getRequestHeaders().getFirst("Authorization");
+			respond(exchange, 200, "{\"code\":100001,\"data\":{\"name\":\"alice\"}}");
+		});
+		this.server.createContext("/unavailable", exchange -> respond(exchange, 503, "{}"));
+		// the held answers do not delay the others
+		this.server.setExecutor(this.executor);
+		this.server.start();
+	}
+
+	@AfterEach
+	void stopServer() {
+		this.server.stop(0);
+		this.executor.shutdownNow();
+	}
+
+	@Test
+	void doesNotBlockTheCallerThread() throws Exception {
+		try (AsyncApiClient apiClient = buildAsync(baseUrl())) {
+			CompletableFuture<ApiResult<?>> future = apiClient.getAsync("/ok", requestEntity(), ApiResult.class);
+			assertFalse(future.isDone());
+
+			this.answer.countDown();
+			ApiResult<?> result = future.get(5, TimeUnit.SECONDS);
+			assertEquals(ApiResult.SUCCESS_CODE, result.getCode());
+			assertEquals("alice", ((Map<?, ?>) result.getData()).get("name"));
+		}
+	}
+
+	@Test
+	void failsWithTheStatusOfTheErrorResponses() throws Exception {
+		try (AsyncApiClient apiClient = buildAsync(baseUrl())) {
+			CompletableFuture<ApiResult<?>> future = apiClient.getAsync("/unavailable", requestEntity(),
+					ApiResult.class);
+			ExecutionException failure = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+			ApiException cause = assertInstanceOf(ApiException.class, failure.getCause());
+			assertEquals(503, cause.getCode());
+			// not wrapped again
+			assertNull(cause.getCause());
+
+			ApiException blockingFailure = assertThrows(ApiException.class,
+					() -> apiClient.get("/unavailable", requestEntity(), ApiResult.class));
+			assertEquals(503, blockingFailure.getCode());
+		}
+	}
+
+	@Test
+	void keepsTheCauseOfTheConnectionFailures() throws Exception {
+		String baseUrl = baseUrl();
+		this.server.stop(0);
+		try (AsyncApiClient apiClient = buildAsync(baseUrl)) {
+			CompletableFuture<ApiResult<?>> future = apiClient.getAsync("/ok", requestEntity(), ApiResult.class);
+			ExecutionException failure = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+			ApiException cause = assertInstanceOf(ApiException.class, failure.getCause());
+			assertInstanceOf(ConnectException.class, cause.getCause());
+
+			ApiException blockingFailure = assertThrows(ApiException.class,
+					() -> apiClient.get("/ok", requestEntity(), ApiResult.class));
+			assertInstanceOf(ConnectException.class, blockingFailure.getCause());
+		}
+	}
+
+	@Test
+	void sendsTheCredentialsOfItsViewsOverTheSharedTransport() throws Exception {
+		this.answer.countDown();
+		try (AsyncApiClient apiClient = buildAsync(baseUrl())) {
+			try (AsyncApiClient view = apiClient.withBearerToken("t1")) {
+				view.getAsync("/ok", bearerEntity(), ApiResult.class).get(5, TimeUnit.SECONDS);
+				assertEquals("Bearer t1", this.authorization);
+			}
+			// closing the view leaves the transport open
+			apiClient.getAsync("/ok", bearerEntity(), ApiResult.class).get(5, TimeUnit.SECONDS);
+			assertNull(this.authorization);
+		}
+	}
+
+	private String baseUrl() {
+		return "http://127.0.0.1:" + this.server.getAddress().getPort();
+	}
+
+	private static AsyncApiClient buildAsync(String baseUrl) {
+		return Clients.builder().setBaseUrl(baseUrl).buildAsync();
+	}
+
+	private static RequestHttpEntity requestEntity() {
+		return new RequestHttpEntity(Header.EMPTY, Query.EMPTY, new String[] {});
+	}
+
+	private static RequestHttpEntity bearerEntity() {
+		return new RequestHttpEntity(Header.EMPTY, Query.EMPTY, new String[] { HttpBearerAuth.NAME });
+	}
+
+	private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+}
@@ -0,0 +1,126 @@
+package top.wecoding.iam.sdk.client;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import top.wecoding.iam.sdk.client.entity.StandardContentCoding;
+import top.wecoding.iam.sdk.client.param.Header;
+import top.wecoding.iam.sdk.client.param.Query;
+import top.wecoding.iam.sdk.model.ApiResult;
+import top.wecoding.iam.sdk.model.request.RequestHttpEntity;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+class ContentCodingNegotiationTest {
+
+	private static final String NAME = "a".repeat(200);
+
+	private HttpServer server;
+
+	private volatile Headers requestHeaders;
+
+	private volatile String requestBody;
+
+	@BeforeEach
+	void startServer() throws IOException {
+		this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		this.server.createContext("/", exchange -> {
+			this.requestHeaders = exchange.getRequestHeaders();
+			InputStream body = exchange.getRequestBody();
+			if ("gzip".equals(exchange.getRequestHeaders().getFirst("Content-Encoding"))) {
+				body = StandardContentCoding.GZIP.decode(body);
+			}
+			this.requestBody = new String(body.readAllBytes(), StandardCharsets.UTF_8);
+
+			byte[] response = ("{\"code\":100001,\"data\":{\"name\":\"" + NAME + "\"}}")
+				.getBytes(StandardCharsets.UTF_8);
+			String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+			if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+				response = StandardContentCoding.GZIP.encode(response);
+				exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+			}
+			exchange.getResponseHeaders().add("Content-Type", "application/json");
+			exchange.sendResponseHeaders(200, response.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(response);
+			}
+		});
+		this.server.start();
+	}
+
+	@AfterEach
+	void stopServer() {
+		this.server.stop(0);
+	}
+
+	@Test
+	void decodesTheGzipResponses() throws Exception {
+		ApiClient apiClient = builder().build();
+		assertEquals(NAME, name(apiClient.get("/api/v1/users/u1", requestEntity(null), ApiResult.class)));
+		assertEquals("gzip, deflate", this.requestHeaders.getFirst("Accept-Encoding"));
+	}
+
+	@Test
+	void acceptsOnlyIdentityWithoutCodings() throws Exception {
+		ApiClient apiClient = builder().setContentCodings(List.of()).build();
+		assertEquals(NAME, name(apiClient.get("/api/v1/users/u1", requestEntity(null), ApiResult.class)));
+		assertNull(this.requestHeaders.getFirst("Accept-Encoding"));
+	}
+
+	@Test
+	void compressesTheRequestBodiesFromTheThreshold() throws Exception {
+		ApiClient apiClient = builder().setRequestCompressionEnabled(true).setRequestCompressionThreshold(100).build();
+
+		apiClient.post("/api/v1/users", requestEntity(Map.of("name", "alice")), ApiResult.class);
+		assertNull(this.requestHeaders.getFirst("Content-Encoding"));
+		assertEquals("{\"name\":\"alice\"}", this.requestBody);
+
+		apiClient.post("/api/v1/users", requestEntity(Map.of("name", NAME)), ApiResult.class);
+		assertEquals("gzip", this.requestHeaders.getFirst("Content-Encoding"));
+		assertEquals("{\"name\":\"" + NAME + "\"}", this.requestBody);
+	}
+
+	@Test
+	void negotiatesTheCodingsAsynchronously() throws Exception {
+		try (AsyncApiClient apiClient = builder().setRequestCompressionEnabled(true)
+			.setRequestCompressionThreshold(100)
+			.buildAsync()) {
+			ApiResult<?> apiResult = apiClient
+				.<ApiResult<?>>postAsync("/api/v1/users", requestEntity(Map.of("name", NAME)), ApiResult.class)
+				.get(5, TimeUnit.SECONDS);
+			assertEquals(NAME, name(apiResult));
+			assertEquals("gzip, deflate", this.requestHeaders.getFirst("Accept-Encoding"));
+			assertEquals("gzip", this.requestHeaders.getFirst("Content-Encoding"));
+			assertEquals("{\"name\":\"" + NAME + "\"}", this.requestBody);
+		}
+	}
+
+	private ClientBuilder builder() {
+		return Clients.builder().setBaseUrl("http://127.0.0.1:" + this.server.getAddress().getPort());
+	}
+
+	private static RequestHttpEntity requestEntity(Object body) {
+		return new RequestHttpEntity(Header.EMPTY, Query.EMPTY, body, new String[] {});
+	}
+
+	private static String name(ApiResult<?> apiResult) {
+		return (String) ((Map<?, ?>) apiResult.getData()).get("name");
+	}
+
+}
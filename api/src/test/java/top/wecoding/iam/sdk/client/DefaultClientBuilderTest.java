@@ -0,0 +1,137 @@
+package top.wecoding.iam.sdk.client;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.core5.pool.PoolStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import top.wecoding.iam.sdk.client.param.Header;
+import top.wecoding.iam.sdk.client.param.Query;
+import top.wecoding.iam.sdk.model.ApiResult;
+import top.wecoding.iam.sdk.model.request.RequestHttpEntity;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+class DefaultClientBuilderTest {
+
+	private final AtomicInteger attempts = new AtomicInteger();
+
+	private HttpServer server;
+
+	@BeforeEach
+	void startServer() throws IOException {
+		this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		this.server.createContext("/", exchange -> {
+			this.attempts.incrementAndGet();
+			// a body keeps the connection alive for the retries
+			byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+			exchange.sendResponseHeaders(503, body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		});
+		this.server.start();
+	}
+
+	@AfterEach
+	void stopServer() {
+		this.server.stop(0);
+	}
+
+	@Test
+	void doesNotRetryByDefault() {
+		ApiClient apiClient = builder().build();
+		assertThrows(Exception.class, () -> get(apiClient));
+		assertEquals(1, this.attempts.get());
+	}
+
+	@Test
+	void countsTheFirstAttemptInTheMaximumAttempts() {
+		ApiClient apiClient = builder().setRetryMaxAttempts(3).build();
+		assertThrows(Exception.class, () -> get(apiClient));
+		assertEquals(3, this.attempts.get());
+	}
+
+	@Test
+	void sendsTheFirstAttemptWhateverTheMaximumAttempts() {
+		ApiClient apiClient = builder().setRetryMaxAttempts(0).build();
+		assertThrows(Exception.class, () -> get(apiClient));
+		assertEquals(1, this.attempts.get());
+	}
+
+	@Test
+	void reportsTheStatisticsOfTheConnectionPool() {
+		ApiClient apiClient = builder().setMaxConnTotal(7).setMaxConnPerRoute(3).build();
+		assertEquals(7, apiClient.getPoolStats().getMax());
+		assertTrue(apiClient.getRoutePoolStats().isEmpty());
+
+		assertThrows(Exception.class, () -> get(apiClient));
+		PoolStats total = apiClient.getPoolStats();
+		assertEquals(0, total.getLeased());
+		assertEquals(1, total.getAvailable());
+		Map<HttpRoute, PoolStats> routeStats = apiClient.getRoutePoolStats();
+		assertEquals(1, routeStats.size());
+		assertEquals(3, routeStats.values().iterator().next().getMax());
+	}
+
+	@Test
+	void reportsTheStatisticsOfTheAsyncConnectionPool() throws IOException {
+		try (AsyncApiClient apiClient = builder().setMaxConnTotal(7).buildAsync()) {
+			assertEquals(7, apiClient.getPoolStats().getMax());
+		}
+		try (AsyncApiClient apiClient = builder().setHttp2Enabled(true).buildAsync()) {
+			// HTTP/2 multiplexes a connection per route
+			assertNull(apiClient.getPoolStats());
+			assertTrue(apiClient.getRoutePoolStats().isEmpty());
+		}
+	}
+
+	@Test
+	void blocksOnTheAsyncTransportOverHttp2() throws IOException {
+		ApiClient apiClient = builder().setHttp2Enabled(true).setMaxStreamsInFlight(10).build();
+		try (AsyncApiClient asyncApiClient = assertInstanceOf(AsyncApiClient.class, apiClient)) {
+			assertNotNull(asyncApiClient.getStreamLimiter());
+		}
+		try (AsyncApiClient asyncApiClient = builder().setMaxStreamsInFlight(10).buildAsync()) {
+			// streams are only limited over HTTP/2
+			assertNull(asyncApiClient.getStreamLimiter());
+		}
+	}
+
+	@Test
+	void rejectsTheSettingsTheHttp2TransportDoesNotSupport() {
+		assertThrows(IllegalStateException.class,
+				() -> builder().setHttp2Enabled(true)
+					.setProxy(new Proxy("127.0.0.1", 3128, null, null, false))
+					.build());
+		assertThrows(IllegalStateException.class,
+				() -> builder().setHttp2Enabled(true).setEvictExpiredConnections(true).buildAsync());
+	}
+
+	private ClientBuilder builder() {
+		return Clients.builder().setBaseUrl("http://127.0.0.1:" + this.server.getAddress().getPort());
+	}
+
+	private static void get(ApiClient apiClient) throws Exception {
+		RequestHttpEntity requestEntity = new RequestHttpEntity(Header.EMPTY, Query.EMPTY, new String[] {});
+		apiClient.get("/api/v1/users/u1", requestEntity, ApiResult.class);
+	}
+
+}
@@ -0,0 +1,141 @@
+package top.wecoding.iam.sdk.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import top.wecoding.iam.sdk.client.hedge.HedgingPolicy;
+import top.wecoding.iam.sdk.client.param.Header;
+import top.wecoding.iam.sdk.client.param.Query;
+import top.wecoding.iam.sdk.model.ApiResult;
+import top.wecoding.iam.sdk.model.request.RequestHttpEntity;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+class HedgedReadTest {
+
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+
+	private final AtomicInteger requests = new AtomicInteger();
+
+	// the slow first attempt stopped when its connection was aborted
+	private final CountDownLatch aborted = new CountDownLatch(1);
+
+	private HttpServer server;
+
+	@BeforeEach
+	void startServer() throws IOException {
+		this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		this.server.createContext("/", exchange -> {
+			if (this.requests.incrementAndGet() == 1) {
+				trickle(exchange);
+				return;
+			}
+			byte[] body = "{\"code\":100001}".getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().add("Content-Type", "application/json");
+			exchange.sendResponseHeaders(200, body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		});
+		this.server.setExecutor(this.executor);
+		this.server.start();
+	}
+
+	@AfterEach
+	void stopServer() {
+		this.server.stop(0);
+		this.executor.shutdownNow();
+	}
+
+	@Test
+	void answersWithTheHedgeAndAbortsTheSlowAttempt() throws Exception {
+		ApiClient apiClient = builder().build();
+
+		ApiResult<?> result = apiClient.get("/api/v1/users/u1", readEntity(), ApiResult.class);
+		assertEquals(ApiResult.SUCCESS_CODE, result.getCode());
+		assertEquals(2, this.requests.get());
+		assertTrue(this.aborted.await(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void answersWithTheHedgeAndCancelsTheSlowAttemptAsynchronously() throws Exception {
+		try (AsyncApiClient apiClient = builder().buildAsync()) {
+			ApiResult<?> result = apiClient.<ApiResult<?>>getAsync("/api/v1/users/u1", readEntity(), ApiResult.class)
+				.get(5, TimeUnit.SECONDS);
+			assertEquals(ApiResult.SUCCESS_CODE, result.getCode());
+			assertEquals(2, this.requests.get());
+			assertTrue(this.aborted.await(5, TimeUnit.SECONDS));
+		}
+	}
+
+	@Test
+	void doesNotHedgeTheRequestsThatAreNotIdempotentReads() throws Exception {
+		try (AsyncApiClient apiClient = builder().buildAsync()) {
+			RequestHttpEntity requestEntity = new RequestHttpEntity(Header.EMPTY, Query.EMPTY, new String[] {});
+			CompletableFuture<ApiResult<?>> future = apiClient.getAsync("/api/v1/users/u1", requestEntity,
+					ApiResult.class);
+			// well past the hedge delay
+			Thread.sleep(200);
+			assertEquals(1, this.requests.get());
+			future.cancel(true);
+			assertTrue(this.aborted.await(5, TimeUnit.SECONDS));
+		}
+	}
+
+	private ClientBuilder builder() {
+		return Clients.builder()
+			.setBaseUrl("http://127.0.0.1:" + this.server.getAddress().getPort())
+			.setHedgingPolicy(HedgingPolicy.fixedDelay(Duration.ofMillis(20), 0.05));
+	}
+
+	private static RequestHttpEntity readEntity() {
+		RequestHttpEntity requestEntity = new RequestHttpEntity(Header.EMPTY, Query.EMPTY, new String[] {});
+		requestEntity.setIdempotentRead(true);
+		return requestEntity;
+	}
+
+	/**
+	 * Stream whitespace until the client aborts the exchange, for at most 5 seconds.
+	 */
+	private void trickle(HttpExchange exchange) throws IOException {
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(200, 0);
+		OutputStream out = exchange.getResponseBody();
+		try {
+			for (int i = 0; i < 500; i++) {
+				out.write(' ');
+				out.flush();
+				Thread.sleep(10);
+			}
+		}
+		catch (IOException ex) {
+			this.aborted.countDown();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		finally {
+			exchange.close();
+		}
+	}
+
+}
@@ -0,0 +1,125 @@
+package top.wecoding.iam.sdk.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+class RequestCoalescerTest {
+
+	private final RequestCoalescer coalescer = new RequestCoalescer();
+
+	private final AtomicInteger calls = new AtomicInteger();
+
+	@Test
+	void sharesTheResultOfTheCallInFlight() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> {
+			try {
+				return this.coalescer.execute("k1", () -> {
+					this.calls.incrementAndGet();
+					started.countDown();
+					release.await(5, TimeUnit.SECONDS);
+					return "alice";
+				});
+			}
+			catch (Exception ex) {
+				throw new IllegalStateException(ex);
+			}
+		});
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		CompletableFuture<String> second = new CompletableFuture<>();
+		Thread waiter = new Thread(() -> {
+			try {
+				second.complete(this.coalescer.execute("k1", this::call));
+			}
+			catch (Exception ex) {
+				second.completeExceptionally(ex);
+			}
+		});
+		waiter.start();
+		// waiting for the flight
+		while (waiter.getState() != Thread.State.WAITING) {
+			Thread.sleep(1);
+		}
+
+		release.countDown();
+		assertEquals("alice", first.get(5, TimeUnit.SECONDS));
+		assertEquals("alice", second.get(5, TimeUnit.SECONDS));
+		assertEquals(1, this.calls.get());
+	}
+
+	@Test
+	void releasesTheFlightOnceCompleted() throws Exception {
+		assertEquals("call 1", this.coalescer.execute("k1", this::call));
+		assertEquals("call 2", this.coalescer.execute("k1", this::call));
+	}
+
+	@Test
+	void releasesTheFlightOnceFailed() throws Exception {
+		IOException failure = new IOException("Connection reset");
+		assertSame(failure, assertThrows(IOException.class, () -> this.coalescer.execute("k1", () -> {
+			throw failure;
+		})));
+		assertEquals("call 1", this.coalescer.execute("k1", this::call));
+	}
+
+	@Test
+	void sharesTheOutcomeOfTheAsyncCallInFlight() throws Exception {
+		CompletableFuture<String> response = new CompletableFuture<>();
+		CompletableFuture<String> first = this.coalescer.executeAsync("k1", () -> {
+			this.calls.incrementAndGet();
+			return response;
+		});
+		CompletableFuture<String> second = this.coalescer.executeAsync("k1", this::callAsync);
+		CompletableFuture<String> other = this.coalescer.executeAsync("k2", this::callAsync);
+		assertEquals(2, this.calls.get());
+
+		// cancelling a waiting call does not cancel the shared one
+		second.cancel(true);
+		assertFalse(response.isCancelled());
+		IOException failure = new IOException("Connection reset");
+		response.completeExceptionally(failure);
+		ExecutionException shared = assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+		assertSame(failure, shared.getCause());
+		assertEquals("call 2", other.get(5, TimeUnit.SECONDS));
+
+		assertEquals("call 3", this.coalescer.<String>executeAsync("k1", this::callAsync).get(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void releasesTheFlightOfAnAsyncCallThatThrows() throws Exception {
+		CompletableFuture<String> failed = this.coalescer.executeAsync("k1", () -> {
+			throw new IllegalStateException("Not built");
+		});
+		ExecutionException failure = assertThrows(ExecutionException.class, () -> failed.get(5, TimeUnit.SECONDS));
+		assertInstanceOf(IllegalStateException.class, failure.getCause());
+
+		assertEquals("call 1", this.coalescer.<String>executeAsync("k1", this::callAsync).get(5, TimeUnit.SECONDS));
+	}
+
+	private String call() {
+		return "call " + this.calls.incrementAndGet();
+	}
+
+	private CompletableFuture<String> callAsync() {
+		return CompletableFuture.completedFuture(call());
+	}
+
+}
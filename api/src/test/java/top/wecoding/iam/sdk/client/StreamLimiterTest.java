@@ -0,0 +1,63 @@
+package top.wecoding.iam.sdk.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+class StreamLimiterTest {
+
+	@Test
+	void queuesTheExchangesBeyondTheLimit() {
+		StreamLimiter limiter = new StreamLimiter(2);
+		List<Integer> dispatched = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			int exchange = i;
+			limiter.submit(() -> dispatched.add(exchange));
+		}
+		assertEquals(List.of(0, 1), dispatched);
+
+		limiter.release();
+		assertEquals(List.of(0, 1, 2), dispatched);
+		limiter.release();
+		limiter.release();
+		assertEquals(List.of(0, 1, 2, 3), dispatched);
+	}
+
+	@Test
+	void dispatchesOnTheReleasingThread() throws InterruptedException {
+		StreamLimiter limiter = new StreamLimiter(1);
+		List<Thread> threads = new ArrayList<>();
+		limiter.submit(() -> threads.add(Thread.currentThread()));
+		limiter.submit(() -> threads.add(Thread.currentThread()));
+
+		Thread releasing = new Thread(limiter::release);
+		releasing.start();
+		releasing.join();
+		assertEquals(List.of(Thread.currentThread(), releasing), threads);
+	}
+
+	@Test
+	void dispatchesTheQueuedExchangesOfAnExchangeReleasingInline() {
+		StreamLimiter limiter = new StreamLimiter(1);
+		List<Integer> dispatched = new ArrayList<>();
+		limiter.submit(() -> dispatched.add(0));
+		for (int i = 1; i < 4; i++) {
+			int exchange = i;
+			// e.g. failed on submission
+			limiter.submit(() -> {
+				dispatched.add(exchange);
+				limiter.release();
+			});
+		}
+		limiter.release();
+		assertEquals(List.of(0, 1, 2, 3), dispatched);
+	}
+
+}
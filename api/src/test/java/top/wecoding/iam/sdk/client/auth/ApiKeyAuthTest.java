@@ -0,0 +1,58 @@
+package top.wecoding.iam.sdk.client.auth;
+
+import org.junit.jupiter.api.Test;
+import top.wecoding.iam.sdk.client.param.Cookie;
+import top.wecoding.iam.sdk.client.param.Header;
+import top.wecoding.iam.sdk.client.param.Query;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+class ApiKeyAuthTest {
+
+	@Test
+	void prefixesTheKey() {
+		ApiKeyAuth auth = new ApiKeyAuth("header", "Authorization");
+		assertNull(auth.getCredentials());
+
+		auth.setApiKeyPrefix("Token");
+		// no key, no credentials
+		assertNull(auth.getCredentials());
+		auth.setApiKey("k1");
+		assertEquals("Token k1", auth.getCredentials());
+		auth.setApiKeyPrefix(null);
+		assertEquals("k1", auth.getCredentials());
+	}
+
+	@Test
+	void appliesTheKeyToItsLocation() {
+		Query query = Query.newInstance();
+		Header header = Header.newInstance();
+		Cookie cookie = Cookie.newInstance();
+		apiKeyAuth("query").apply(query, header, cookie);
+		apiKeyAuth("header").apply(query, header, cookie);
+		apiKeyAuth("cookie").apply(query, header, cookie);
+
+		assertEquals("k1", query.getValue("api_key"));
+		assertEquals("k1", header.getValue("api_key"));
+		assertEquals("k1", cookie.getValue("api_key"));
+	}
+
+	@Test
+	void appliesNothingWithoutKey() {
+		Header header = Header.newInstance();
+		new ApiKeyAuth("header", "api_key").apply(Query.newInstance(), header, Cookie.newInstance());
+		assertNull(header.getValue("api_key"));
+	}
+
+	private static ApiKeyAuth apiKeyAuth(String location) {
+		ApiKeyAuth auth = new ApiKeyAuth(location, "api_key");
+		auth.setApiKey("k1");
+		return auth;
+	}
+
+}
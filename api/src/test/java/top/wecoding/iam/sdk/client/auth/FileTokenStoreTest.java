@@ -0,0 +1,103 @@
+package top.wecoding.iam.sdk.client.auth;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import top.wecoding.iam.sdk.model.TokenInfo;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+class FileTokenStoreTest {
+
+	private static final Instant ISSUED_AT = Instant.ofEpochSecond(1700000000);
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void roundTripsTheTokenWithAKey() throws Exception {
+		Path file = this.directory.resolve("token");
+		FileTokenStore tokenStore = new FileTokenStore(file, aesKey());
+		assertNull(tokenStore.load());
+
+		tokenStore.save(new StoredToken(token("t1"), ISSUED_AT));
+		StoredToken stored = tokenStore.load();
+		assertEquals("t1", stored.getTokenInfo().getAccessToken());
+		assertEquals("r1", stored.getTokenInfo().getRefreshToken());
+		assertEquals(ISSUED_AT.getEpochSecond(), stored.getIssuedAt());
+		// encrypted at rest
+		assertFalse(new String(Files.readAllBytes(file), StandardCharsets.ISO_8859_1).contains("t1"));
+	}
+
+	@Test
+	void roundTripsTheTokenWithAPassword() throws Exception {
+		Path file = this.directory.resolve("token");
+		new FileTokenStore(file, "secret".toCharArray()).save(new StoredToken(token("t1"), ISSUED_AT));
+		assertEquals("t1", new FileTokenStore(file, "secret".toCharArray()).load().getTokenInfo().getAccessToken());
+		assertThrows(IOException.class, () -> new FileTokenStore(file, "other".toCharArray()).load());
+	}
+
+	@Test
+	void rejectsATamperedFile() throws Exception {
+		Path file = this.directory.resolve("token");
+		SecretKey key = aesKey();
+		FileTokenStore tokenStore = new FileTokenStore(file, key);
+		tokenStore.save(new StoredToken(token("t1"), ISSUED_AT));
+
+		byte[] content = Files.readAllBytes(file);
+		content[content.length - 1] ^= 1;
+		Files.write(file, content);
+		assertThrows(IOException.class, tokenStore::load);
+
+		Files.write(file, "not a token".getBytes(StandardCharsets.US_ASCII));
+		assertThrows(IOException.class, tokenStore::load);
+	}
+
+	@Test
+	void rejectsAnotherKey() throws Exception {
+		Path file = this.directory.resolve("token");
+		new FileTokenStore(file, aesKey()).save(new StoredToken(token("t1"), ISSUED_AT));
+		assertThrows(IOException.class, () -> new FileTokenStore(file, aesKey()).load());
+	}
+
+	@Test
+	void clearsTheToken() throws Exception {
+		Path file = this.directory.resolve("token");
+		FileTokenStore tokenStore = new FileTokenStore(file, aesKey());
+		tokenStore.save(new StoredToken(token("t1"), ISSUED_AT));
+		tokenStore.clear();
+		assertFalse(Files.exists(file));
+		assertNull(tokenStore.load());
+		// already cleared
+		tokenStore.clear();
+	}
+
+	private static SecretKey aesKey() throws Exception {
+		KeyGenerator generator = KeyGenerator.getInstance("AES");
+		generator.init(256);
+		return generator.generateKey();
+	}
+
+	private static TokenInfo token(String accessToken) {
+		TokenInfo tokenInfo = new TokenInfo();
+		tokenInfo.setAccessToken(accessToken);
+		tokenInfo.setRefreshToken("r1");
+		tokenInfo.setExpiresIn(3600);
+		return tokenInfo;
+	}
+
+}
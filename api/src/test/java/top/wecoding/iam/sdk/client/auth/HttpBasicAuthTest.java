@@ -0,0 +1,74 @@
+package top.wecoding.iam.sdk.client.auth;
+
+import org.junit.jupiter.api.Test;
+import top.wecoding.iam.sdk.client.param.Cookie;
+import top.wecoding.iam.sdk.client.param.Header;
+import top.wecoding.iam.sdk.client.param.Query;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+class HttpBasicAuthTest {
+
+	@Test
+	void encodesTheCredentials() {
+		HttpBasicAuth auth = new HttpBasicAuth();
+		assertNull(auth.getCredentials());
+		assertNull(authorization(auth));
+
+		auth.setUsername("alice");
+		assertEquals(basic("alice:"), auth.getCredentials());
+		auth.setPassword("secret");
+		assertEquals(basic("alice:secret"), auth.getCredentials());
+		assertEquals(basic("alice:secret"), authorization(auth));
+	}
+
+	@Test
+	void neverMixesTheUsernameAndThePasswordOfDifferentCredentials() throws InterruptedException {
+		HttpBasicAuth auth = new HttpBasicAuth("alice", "a1");
+		Set<String> expected = Set.of(basic("alice:a1"), basic("bob:b2"));
+		AtomicBoolean stop = new AtomicBoolean();
+		Thread writer = new Thread(() -> {
+			for (int i = 0; !stop.get(); i++) {
+				if (i % 2 == 0) {
+					auth.setCredentials("bob", "b2");
+				}
+				else {
+					auth.setCredentials("alice", "a1");
+				}
+			}
+		});
+		writer.start();
+		try {
+			for (int i = 0; i < 100000; i++) {
+				String credentials = authorization(auth);
+				assertTrue(expected.contains(credentials), credentials);
+			}
+		}
+		finally {
+			stop.set(true);
+			writer.join();
+		}
+	}
+
+	private static String authorization(Authentication auth) {
+		Header header = Header.newInstance();
+		auth.apply(Query.newInstance(), header, Cookie.newInstance());
+		return header.getValue("Authorization");
+	}
+
+	private static String basic(String credentials) {
+		return "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
@@ -0,0 +1,45 @@
+package top.wecoding.iam.sdk.client.auth;
+
+import org.junit.jupiter.api.Test;
+import top.wecoding.iam.sdk.client.param.Cookie;
+import top.wecoding.iam.sdk.client.param.Header;
+import top.wecoding.iam.sdk.client.param.Query;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+class HttpBearerAuthTest {
+
+	@Test
+	void prefixesTheTokenWithTheScheme() {
+		HttpBearerAuth auth = new HttpBearerAuth();
+		auth.setBearerToken("t1");
+		assertEquals("Bearer t1", auth.getCredentials());
+		assertEquals("Bearer t1", authorization(auth));
+
+		HttpBearerAuth custom = new HttpBearerAuth("DPoP");
+		custom.setBearerToken("t1");
+		assertEquals("DPoP t1", custom.getCredentials());
+	}
+
+	@Test
+	void appliesNothingOnceTheTokenIsCleared() {
+		HttpBearerAuth auth = new HttpBearerAuth();
+		auth.setBearerToken("t1");
+		auth.setBearerToken(null);
+		assertNull(auth.getBearerToken());
+		assertNull(auth.getCredentials());
+		assertNull(authorization(auth));
+	}
+
+	private static String authorization(Authentication auth) {
+		Header header = Header.newInstance();
+		auth.apply(Query.newInstance(), header, Cookie.newInstance());
+		return header.getValue("Authorization");
+	}
+
+}
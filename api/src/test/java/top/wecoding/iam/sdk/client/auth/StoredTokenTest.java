@@ -0,0 +1,53 @@
+package top.wecoding.iam.sdk.client.auth;
+
+import org.junit.jupiter.api.Test;
+import top.wecoding.iam.sdk.model.TokenInfo;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+class StoredTokenTest {
+
+	private static final Instant ISSUED_AT = Instant.ofEpochSecond(1700000000);
+
+	@Test
+	void countsTheRemainingLifetimeFromNow() {
+		StoredToken stored = new StoredToken(token(3600), ISSUED_AT);
+		assertEquals(ISSUED_AT.plusSeconds(3600), stored.getExpiresAt());
+
+		TokenInfo remaining = stored.getRemainingToken(ISSUED_AT.plusSeconds(600));
+		assertEquals("t1", remaining.getAccessToken());
+		assertEquals("r1", remaining.getRefreshToken());
+		assertEquals(3000, remaining.getExpiresIn());
+	}
+
+	@Test
+	void hasNoRemainingTokenOnceExpired() {
+		StoredToken stored = new StoredToken(token(3600), ISSUED_AT);
+		assertNull(stored.getRemainingToken(ISSUED_AT.plusSeconds(3600)));
+	}
+
+	@Test
+	void keepsATokenThatDoesNotExpire() {
+		TokenInfo tokenInfo = token(0);
+		StoredToken stored = new StoredToken(tokenInfo, ISSUED_AT);
+		assertNull(stored.getExpiresAt());
+		assertSame(tokenInfo, stored.getRemainingToken(ISSUED_AT.plusSeconds(86400)));
+	}
+
+	private static TokenInfo token(int expiresIn) {
+		TokenInfo tokenInfo = new TokenInfo();
+		tokenInfo.setAccessToken("t1");
+		tokenInfo.setRefreshToken("r1");
+		tokenInfo.setExpiresIn(expiresIn);
+		return tokenInfo;
+	}
+
+}
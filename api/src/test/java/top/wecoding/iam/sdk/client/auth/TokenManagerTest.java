@@ -0,0 +1,264 @@
+package top.wecoding.iam.sdk.client.auth;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import top.wecoding.iam.sdk.client.param.Header;
+import top.wecoding.iam.sdk.client.param.Query;
+import top.wecoding.iam.sdk.exception.AuthenticationException;
+import top.wecoding.iam.sdk.model.TokenInfo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+class TokenManagerTest {
+
+	private final AtomicInteger refreshes = new AtomicInteger();
+
+	private final List<TokenManager> tokenManagers = new ArrayList<>();
+
+	@AfterEach
+	void closeTokenManagers() {
+		this.tokenManagers.forEach(TokenManager::close);
+	}
+
+	@Test
+	void rejectsInvalidArguments() {
+		assertThrows(IllegalArgumentException.class, () -> new TokenManager(null, token("t1", 0)));
+		assertThrows(IllegalArgumentException.class, () -> new TokenManager(current -> null, token("t1", 0), 0));
+		assertThrows(IllegalArgumentException.class, () -> new TokenManager(current -> null, token("t1", 0), 1.5));
+		assertThrows(AuthenticationException.class, () -> new TokenManager(current -> null, token(null, 0)));
+	}
+
+	@Test
+	void appliesTheCurrentToken() {
+		TokenManager tokenManager = manage(current -> token("t2", 0), token("t1", 0));
+		Header header = Header.newInstance();
+		tokenManager.apply(Query.newInstance(), header, null);
+		assertEquals("Bearer t1", header.getValue("Authorization"));
+		assertEquals("t1", tokenManager.getAccessToken());
+		assertEquals(0, this.refreshes.get());
+	}
+
+	@Test
+	void sendsASingleRefreshForConcurrentCallers() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		TokenManager tokenManager = manage(current -> {
+			await(release);
+			return token("t2", 0);
+		}, token("t1", 0));
+
+		List<CompletableFuture<TokenInfo>> refreshes = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			refreshes.add(tokenManager.refresh());
+		}
+		// requests keep using the current token during the refresh
+		assertEquals("t1", tokenManager.getAccessToken());
+		release.countDown();
+
+		for (CompletableFuture<TokenInfo> refresh : refreshes) {
+			assertEquals("t2", refresh.get(5, TimeUnit.SECONDS).getAccessToken());
+		}
+		assertEquals(1, this.refreshes.get());
+		assertEquals("t2", tokenManager.getAccessToken());
+	}
+
+	@Test
+	void waitsForASingleFirstToken() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		TokenManager tokenManager = manage(current -> {
+			await(release);
+			return token("t1", 0);
+		}, null);
+		assertNull(tokenManager.getTokenInfo());
+
+		ExecutorService executor = Executors.newFixedThreadPool(10);
+		try {
+			List<Future<String>> accessTokens = new ArrayList<>();
+			for (int i = 0; i < 10; i++) {
+				accessTokens.add(executor.submit(tokenManager::getAccessToken));
+			}
+			Thread.sleep(100);
+			release.countDown();
+			for (Future<String> accessToken : accessTokens) {
+				assertEquals("t1", accessToken.get(5, TimeUnit.SECONDS));
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		assertEquals(1, this.refreshes.get());
+	}
+
+	@Test
+	void refreshesInTheBackgroundBeforeTheTokenExpires() throws Exception {
+		TokenManager tokenManager = manage(current -> token("t2", 0), token("t1", 1), 0.1);
+		assertEquals("t1", tokenManager.getAccessToken());
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!"t2".equals(tokenManager.getTokenInfo().getAccessToken()) && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		assertEquals("t2", tokenManager.getTokenInfo().getAccessToken());
+		assertEquals(1, this.refreshes.get());
+	}
+
+	@Test
+	void failedRefreshDoesNotBlockTheNextOne() throws Exception {
+		TokenManager tokenManager = manage(current -> {
+			if (this.refreshes.get() == 1) {
+				throw new AuthenticationException("rejected");
+			}
+			return token("t2", 0);
+		}, token("t1", 0));
+
+		ExecutionException failure = assertThrows(ExecutionException.class,
+				() -> tokenManager.refresh().get(5, TimeUnit.SECONDS));
+		assertInstanceOf(AuthenticationException.class, failure.getCause());
+		assertEquals("t1", tokenManager.getAccessToken());
+
+		assertEquals("t2", tokenManager.refresh().get(5, TimeUnit.SECONDS).getAccessToken());
+		assertEquals(2, this.refreshes.get());
+	}
+
+	@Test
+	void errorInTheRefresherDoesNotBlockTheNextRefresh() throws Exception {
+		TokenManager tokenManager = manage(current -> {
+			if (this.refreshes.get() == 1) {
+				throw new LinkageError("refresher error");
+			}
+			return token("t2", 0);
+		}, token("t1", 0));
+
+		ExecutionException failure = assertThrows(ExecutionException.class,
+				() -> tokenManager.refresh().get(5, TimeUnit.SECONDS));
+		assertInstanceOf(LinkageError.class, failure.getCause());
+
+		assertEquals("t2", tokenManager.refresh().get(5, TimeUnit.SECONDS).getAccessToken());
+	}
+
+	@Test
+	void failsTheFirstTokenWithTheRefresherException() {
+		TokenManager tokenManager = manage(current -> {
+			throw new AuthenticationException("rejected");
+		}, null);
+		AuthenticationException failure = assertThrows(AuthenticationException.class, tokenManager::getAccessToken);
+		assertEquals("rejected", failure.getMessage());
+		// requested again on the next use
+		assertThrows(AuthenticationException.class, tokenManager::getAccessToken);
+		assertEquals(2, this.refreshes.get());
+	}
+
+	@Test
+	void retriesAFailedRefreshInTheBackground() throws Exception {
+		List<Integer> failures = new CopyOnWriteArrayList<>();
+		TokenManager tokenManager = manage(current -> {
+			if (this.refreshes.get() == 1) {
+				throw new AuthenticationException("unavailable");
+			}
+			return token("t2", 0);
+		}, token("t1", 0));
+		tokenManager.setRefreshListener((failure, consecutiveFailures, retrying) -> {
+			if (retrying) {
+				failures.add(consecutiveFailures);
+			}
+		});
+
+		assertThrows(ExecutionException.class, () -> tokenManager.refresh().get(5, TimeUnit.SECONDS));
+		assertEquals(List.of(1), failures);
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!"t2".equals(tokenManager.getTokenInfo().getAccessToken()) && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		assertEquals("t2", tokenManager.getTokenInfo().getAccessToken());
+		assertEquals(2, this.refreshes.get());
+	}
+
+	@Test
+	void countsTheConsecutiveFailedRefreshes() throws Exception {
+		List<Integer> failures = new CopyOnWriteArrayList<>();
+		TokenManager tokenManager = manage(current -> {
+			if (this.refreshes.get() != 3) {
+				throw new AuthenticationException("unavailable");
+			}
+			return token("t2", 0);
+		}, token("t1", 0));
+		tokenManager.setRefreshListener((failure, consecutiveFailures, retrying) -> failures.add(consecutiveFailures));
+
+		assertThrows(ExecutionException.class, () -> tokenManager.refresh().get(5, TimeUnit.SECONDS));
+		assertThrows(ExecutionException.class, () -> tokenManager.refresh().get(5, TimeUnit.SECONDS));
+		assertEquals("t2", tokenManager.refresh().get(5, TimeUnit.SECONDS).getAccessToken());
+		assertThrows(ExecutionException.class, () -> tokenManager.refresh().get(5, TimeUnit.SECONDS));
+		assertEquals(List.of(1, 2, 1), failures);
+	}
+
+	@Test
+	void doesNotRetryTheFirstToken() {
+		List<Boolean> retries = new CopyOnWriteArrayList<>();
+		TokenManager tokenManager = manage(current -> {
+			throw new AuthenticationException("rejected");
+		}, null);
+		tokenManager.setRefreshListener((failure, consecutiveFailures, retrying) -> retries.add(retrying));
+		assertThrows(AuthenticationException.class, tokenManager::getAccessToken);
+		assertEquals(List.of(false), retries);
+	}
+
+	@Test
+	void doesNotRefreshOnceClosed() {
+		TokenManager tokenManager = manage(current -> token("t2", 0), token("t1", 0));
+		tokenManager.close();
+		ExecutionException failure = assertThrows(ExecutionException.class,
+				() -> tokenManager.refresh().get(5, TimeUnit.SECONDS));
+		assertInstanceOf(IllegalStateException.class, failure.getCause());
+		assertEquals(0, this.refreshes.get());
+	}
+
+	private TokenManager manage(TokenManager.TokenRefresher refresher, TokenInfo tokenInfo) {
+		return manage(refresher, tokenInfo, TokenManager.DEFAULT_REFRESH_RATIO);
+	}
+
+	private TokenManager manage(TokenManager.TokenRefresher refresher, TokenInfo tokenInfo, double refreshRatio) {
+		TokenManager tokenManager = new TokenManager(current -> {
+			this.refreshes.incrementAndGet();
+			return refresher.refresh(current);
+		}, tokenInfo, refreshRatio);
+		this.tokenManagers.add(tokenManager);
+		return tokenManager;
+	}
+
+	private static TokenInfo token(String accessToken, int expiresIn) {
+		TokenInfo tokenInfo = new TokenInfo();
+		tokenInfo.setAccessToken(accessToken);
+		tokenInfo.setExpiresIn(expiresIn);
+		return tokenInfo;
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			if (!latch.await(5, TimeUnit.SECONDS)) {
+				throw new IllegalStateException("not released");
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(ex);
+		}
+	}
+
+}
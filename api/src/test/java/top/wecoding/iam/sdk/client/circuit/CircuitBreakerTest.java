@@ -0,0 +1,197 @@
+package top.wecoding.iam.sdk.client.circuit;
+
+import org.junit.jupiter.api.Test;
+import top.wecoding.iam.sdk.client.circuit.CircuitBreaker.State;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+class CircuitBreakerTest {
+
+	private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+
+	private static final long SLOW = TimeUnit.SECONDS.toNanos(2);
+
+	private final List<String> transitions = new CopyOnWriteArrayList<>();
+
+	@Test
+	void staysClosedUntilTheMinimumNumberOfCalls() {
+		CircuitBreaker circuitBreaker = circuitBreaker(Duration.ofHours(1));
+		for (int i = 0; i < 3; i++) {
+			circuitBreaker.onResult(FAST, true);
+		}
+		assertEquals(State.CLOSED, circuitBreaker.getState());
+		assertTrue(circuitBreaker.tryAcquirePermission());
+	}
+
+	@Test
+	void opensWhenTheFailureRateReachesTheThreshold() {
+		CircuitBreaker circuitBreaker = circuitBreaker(Duration.ofHours(1));
+		circuitBreaker.onResult(FAST, true);
+		circuitBreaker.onResult(FAST, false);
+		circuitBreaker.onResult(FAST, false);
+		circuitBreaker.onResult(FAST, true);
+		assertEquals(State.OPEN, circuitBreaker.getState());
+		assertEquals(List.of("CLOSED->OPEN"), this.transitions);
+	}
+
+	@Test
+	void opensWhenTheSlowCallRateReachesTheThreshold() {
+		CircuitBreaker circuitBreaker = circuitBreaker(Duration.ofHours(1));
+		circuitBreaker.onResult(SLOW, false);
+		circuitBreaker.onResult(SLOW, false);
+		circuitBreaker.onResult(FAST, false);
+		assertEquals(State.CLOSED, circuitBreaker.getState());
+		circuitBreaker.onResult(SLOW, false);
+		assertEquals(State.OPEN, circuitBreaker.getState());
+	}
+
+	@Test
+	void evictsTheOldestOutcomesFromTheWindow() {
+		CircuitBreaker circuitBreaker = circuitBreaker(Duration.ofHours(1));
+		circuitBreaker.onResult(FAST, true);
+		for (int i = 0; i < 4; i++) {
+			circuitBreaker.onResult(FAST, false);
+		}
+		// one failure out of the last four calls
+		circuitBreaker.onResult(FAST, true);
+		assertEquals(State.CLOSED, circuitBreaker.getState());
+		// two failures out of the last four calls, three out of all the calls
+		circuitBreaker.onResult(FAST, true);
+		assertEquals(State.OPEN, circuitBreaker.getState());
+	}
+
+	@Test
+	void rejectsCallsWhileOpen() {
+		CircuitBreaker circuitBreaker = circuitBreaker(Duration.ofHours(1));
+		open(circuitBreaker);
+		assertFalse(circuitBreaker.tryAcquirePermission());
+		assertEquals(State.OPEN, circuitBreaker.getState());
+	}
+
+	@Test
+	void ignoresCallsSentBeforeTheCircuitOpened() {
+		CircuitBreaker circuitBreaker = circuitBreaker(Duration.ofHours(1));
+		open(circuitBreaker);
+		for (int i = 0; i < 10; i++) {
+			circuitBreaker.onResult(FAST, false);
+		}
+		assertEquals(State.OPEN, circuitBreaker.getState());
+		assertEquals(List.of("CLOSED->OPEN"), this.transitions);
+	}
+
+	@Test
+	void permitsTheProbesOnceTheWaitElapsed() {
+		CircuitBreaker circuitBreaker = circuitBreaker(Duration.ZERO);
+		open(circuitBreaker);
+		assertTrue(circuitBreaker.tryAcquirePermission());
+		assertEquals(State.HALF_OPEN, circuitBreaker.getState());
+		assertTrue(circuitBreaker.tryAcquirePermission());
+		assertFalse(circuitBreaker.tryAcquirePermission());
+		assertEquals(List.of("CLOSED->OPEN", "OPEN->HALF_OPEN"), this.transitions);
+	}
+
+	@Test
+	void releasedProbePermitsCanBeAcquiredAgain() {
+		CircuitBreaker circuitBreaker = circuitBreaker(Duration.ZERO);
+		open(circuitBreaker);
+		assertTrue(circuitBreaker.tryAcquirePermission());
+		assertTrue(circuitBreaker.tryAcquirePermission());
+		circuitBreaker.releasePermission();
+		assertTrue(circuitBreaker.tryAcquirePermission());
+		assertFalse(circuitBreaker.tryAcquirePermission());
+	}
+
+	@Test
+	void closesWhenTheProbesSucceed() {
+		CircuitBreaker circuitBreaker = circuitBreaker(Duration.ZERO);
+		open(circuitBreaker);
+		assertTrue(circuitBreaker.tryAcquirePermission());
+		assertTrue(circuitBreaker.tryAcquirePermission());
+		circuitBreaker.onResult(FAST, false);
+		assertEquals(State.HALF_OPEN, circuitBreaker.getState());
+		circuitBreaker.onResult(FAST, false);
+		assertEquals(State.CLOSED, circuitBreaker.getState());
+		assertEquals(List.of("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->CLOSED"), this.transitions);
+
+		// the window starts empty again
+		for (int i = 0; i < 3; i++) {
+			circuitBreaker.onResult(FAST, true);
+		}
+		assertEquals(State.CLOSED, circuitBreaker.getState());
+	}
+
+	@Test
+	void opensAgainWhenTheProbesFail() {
+		CircuitBreaker circuitBreaker = circuitBreaker(Duration.ZERO);
+		open(circuitBreaker);
+		assertTrue(circuitBreaker.tryAcquirePermission());
+		assertTrue(circuitBreaker.tryAcquirePermission());
+		circuitBreaker.onResult(FAST, false);
+		circuitBreaker.onResult(FAST, true);
+		assertEquals(State.OPEN, circuitBreaker.getState());
+		assertEquals(List.of("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->OPEN"), this.transitions);
+	}
+
+	@Test
+	void survivesFailingListeners() {
+		CircuitBreakerRegistry registry = new CircuitBreakerRegistry(config(Duration.ofHours(1)));
+		registry.addListener((circuitBreaker, from, to) -> {
+			throw new IllegalStateException("listener failure");
+		});
+		CircuitBreaker circuitBreaker = registry.circuitBreaker("/api/v1/users/{id}");
+		open(circuitBreaker);
+		assertEquals(State.OPEN, circuitBreaker.getState());
+	}
+
+	@Test
+	void keepsOneCircuitBreakerPerRoute() {
+		CircuitBreakerRegistry registry = new CircuitBreakerRegistry(config(Duration.ofHours(1)));
+		CircuitBreaker users = registry.circuitBreaker("/api/v1/users/{id}");
+		assertSame(users, registry.circuitBreaker("/api/v1/users/{id}"));
+		CircuitBreaker login = registry.circuitBreaker("/api/v1/login");
+		assertNotSame(users, login);
+
+		open(users);
+		assertEquals(State.OPEN, users.getState());
+		assertEquals(State.CLOSED, login.getState());
+		assertEquals(2, registry.getCircuitBreakers().size());
+	}
+
+	private CircuitBreaker circuitBreaker(Duration waitDurationInOpenState) {
+		CircuitBreakerRegistry registry = new CircuitBreakerRegistry(config(waitDurationInOpenState));
+		registry.addListener((circuitBreaker, from, to) -> this.transitions.add(from + "->" + to));
+		return registry.circuitBreaker("/api/v1/users/{id}");
+	}
+
+	private static CircuitBreakerConfig config(Duration waitDurationInOpenState) {
+		return CircuitBreakerConfig.builder()
+			.failureRateThreshold(50)
+			.slowCallRateThreshold(75)
+			.slowCallDuration(Duration.ofSeconds(1))
+			.slidingWindowSize(4)
+			.minimumNumberOfCalls(4)
+			.waitDurationInOpenState(waitDurationInOpenState)
+			.permittedCallsInHalfOpenState(2)
+			.build();
+	}
+
+	private static void open(CircuitBreaker circuitBreaker) {
+		for (int i = 0; i < 4; i++) {
+			circuitBreaker.onResult(FAST, true);
+		}
+	}
+
+}
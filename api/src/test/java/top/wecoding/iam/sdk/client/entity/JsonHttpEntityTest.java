@@ -0,0 +1,91 @@
+package top.wecoding.iam.sdk.client.entity;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+class JsonHttpEntityTest {
+
+	private static final ObjectWriter WRITER = new ObjectMapper().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+		.writer();
+
+	private static final byte[] JSON = "{\"name\":\"alice\"}".getBytes(StandardCharsets.UTF_8);
+
+	@Test
+	void sendsTheLengthOfTheSerializedObject() throws IOException {
+		JsonHttpEntity entity = entity(false);
+		assertFalse(entity.isChunked());
+		assertEquals(JSON.length, entity.getContentLength());
+		assertArrayEquals(JSON, written(entity));
+		// repeatable for the retries
+		assertArrayEquals(JSON, written(entity));
+		assertArrayEquals(JSON, EntityUtils.toByteArray(entity));
+	}
+
+	@Test
+	void streamsTheChunkedObject() throws IOException {
+		JsonHttpEntity entity = entity(true);
+		assertTrue(entity.isChunked());
+		assertEquals(-1, entity.getContentLength());
+		assertArrayEquals(JSON, written(entity));
+		assertArrayEquals(JSON, written(entity));
+	}
+
+	@Test
+	void serializesOnlyTheShortObjects() throws IOException {
+		JsonHttpEntity entity = entity(true);
+		assertArrayEquals(JSON, entity.toByteArray(JSON.length));
+		assertNull(entity.toByteArray(JSON.length - 1));
+		assertNull(entity.toByteArray(-1));
+		// still streamed as a whole
+		assertArrayEquals(JSON, written(entity));
+	}
+
+	@Test
+	void encodesTheWrappedEntity() throws IOException {
+		EncodedHttpEntity entity = new EncodedHttpEntity(entity(true), StandardContentCoding.GZIP);
+		assertEquals("gzip", entity.getContentEncoding());
+		assertTrue(entity.isChunked());
+		assertArrayEquals(JSON, gunzip(written(entity)));
+		assertArrayEquals(JSON, gunzip(entity.toByteArray()));
+	}
+
+	private static JsonHttpEntity entity(boolean chunked) {
+		return new JsonHttpEntity(Map.of("name", "alice"), WRITER, ContentType.APPLICATION_JSON, chunked);
+	}
+
+	private static byte[] written(HttpEntity entity) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		entity.writeTo(out);
+		return out.toByteArray();
+	}
+
+	private static byte[] gunzip(byte[] encoded) throws IOException {
+		try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(encoded))) {
+			return in.readAllBytes();
+		}
+	}
+
+}
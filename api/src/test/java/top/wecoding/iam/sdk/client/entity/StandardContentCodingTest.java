@@ -0,0 +1,59 @@
+package top.wecoding.iam.sdk.client.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+class StandardContentCodingTest {
+
+	private static final byte[] CONTENT = "{\"name\":\"alice\"}".repeat(100).getBytes(StandardCharsets.UTF_8);
+
+	@Test
+	void roundTripsTheContent() throws IOException {
+		for (StandardContentCoding coding : StandardContentCoding.values()) {
+			byte[] encoded = coding.encode(CONTENT);
+			assertTrue(encoded.length < CONTENT.length, coding.getName());
+			assertArrayEquals(CONTENT, decode(coding, encoded), coding.getName());
+		}
+	}
+
+	@Test
+	void decodesTheRawDeflateStreams() throws IOException {
+		ByteArrayOutputStream raw = new ByteArrayOutputStream();
+		try (DeflaterOutputStream out = new DeflaterOutputStream(raw,
+				new Deflater(Deflater.DEFAULT_COMPRESSION, true))) {
+			out.write(CONTENT);
+		}
+		assertArrayEquals(CONTENT, decode(StandardContentCoding.DEFLATE, raw.toByteArray()));
+	}
+
+	@Test
+	void prefersGzip() {
+		assertEquals(List.of(StandardContentCoding.GZIP, StandardContentCoding.DEFLATE),
+				StandardContentCoding.defaults());
+		assertEquals("gzip", StandardContentCoding.GZIP.getName());
+		assertEquals("deflate", StandardContentCoding.DEFLATE.getName());
+	}
+
+	private static byte[] decode(ContentCoding coding, byte[] encoded) throws IOException {
+		try (InputStream in = coding.decode(new ByteArrayInputStream(encoded))) {
+			return in.readAllBytes();
+		}
+	}
+
+}
@@ -0,0 +1,116 @@
+package top.wecoding.iam.sdk.client.handler;
+
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.io.entity.StringEntity;
+import org.apache.hc.core5.http.message.BasicClassicHttpResponse;
+import org.junit.jupiter.api.Test;
+import top.wecoding.iam.sdk.exception.ApiException;
+import top.wecoding.iam.sdk.model.ApiResult;
+import top.wecoding.iam.sdk.model.UserInfo;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+class ApiResultResponseHandlerTest {
+
+	private static final String USER = "{\"code\":100001,\"msg\":\"success\",\"request_id\":\"r1\","
+			+ "\"data\":{\"alias\":\"alice\",\"unknown\":true}}";
+
+	@Test
+	void decodesTheDataToTheTypeArgument() throws IOException {
+		ApiResultResponseHandler<ApiResult<UserInfo>> handler = new ApiResultResponseHandler<>(
+				ApiResult.typeOf(UserInfo.class));
+		ApiResult<UserInfo> apiResult = handler.handleResponse(response(200, USER));
+		assertEquals(ApiResult.SUCCESS_CODE, apiResult.getCode());
+		assertEquals("r1", apiResult.getRequestId());
+		assertEquals("alice", apiResult.getData().getAlias());
+	}
+
+	@Test
+	void decodesTheDataOfARawResultToMaps() throws IOException {
+		ApiResultResponseHandler<ApiResult<?>> handler = new ApiResultResponseHandler<>(ApiResult.class);
+		ApiResult<?> apiResult = handler.handleResponse(response(200, USER));
+		Map<?, ?> data = assertInstanceOf(Map.class, apiResult.getData());
+		assertEquals("alice", data.get("alias"));
+	}
+
+	@Test
+	void rebindsTheResponseType() throws Exception {
+		ResponseHandler<ApiResult<UserInfo>> handler = new ApiResultResponseHandler<ApiResult<UserInfo>>()
+			.withResponseType(ApiResult.typeOf(UserInfo.class));
+		assertEquals("alice", handler.handleResponse(response(200, USER)).getData().getAlias());
+	}
+
+	@Test
+	void exposesTheResponseHeaders() throws IOException {
+		BasicClassicHttpResponse response = response(200, USER);
+		response.addHeader("X-Trace", "t1");
+		response.addHeader("x-trace", "t2");
+		response.addHeader("ETag", "\"v1\"");
+		Map<String, String> headers = new ApiResultResponseHandler<ApiResult<?>>(ApiResult.class)
+			.handleResponse(response)
+			.getHeaders();
+
+		assertEquals("t2", headers.get("X-TRACE"));
+		assertEquals("\"v1\"", headers.get("etag"));
+		assertTrue(headers.containsKey("Etag"));
+		assertNull(headers.get("Missing"));
+		assertFalse(headers.isEmpty());
+		assertEquals(List.of("X-Trace", "x-trace", "ETag"), List.copyOf(headers.keySet()));
+		assertThrows(UnsupportedOperationException.class, () -> headers.put("X-Trace", "t3"));
+	}
+
+	@Test
+	void serializesTheResponseHeadersAsAMap() throws Exception {
+		BasicClassicHttpResponse response = response(200, USER);
+		response.addHeader("X-Trace", "t1");
+		ApiResult<?> apiResult = new ApiResultResponseHandler<ApiResult<?>>(ApiResult.class).handleResponse(response);
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(apiResult.getHeaders());
+		}
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			assertEquals(new LinkedHashMap<>(Map.of("X-Trace", "t1")), in.readObject());
+		}
+	}
+
+	@Test
+	void failsOnAnErrorStatus() {
+		ApiException failure = assertThrows(ApiException.class,
+				() -> new ApiResultResponseHandler<ApiResult<?>>(ApiResult.class)
+					.handleResponse(response(404, "{\"code\":100404}")));
+		assertEquals(404, failure.getCode());
+		assertEquals("{\"code\":100404}", failure.getResponseBody());
+	}
+
+	@Test
+	void failsOnAMalformedBody() {
+		assertThrows(ApiException.class, () -> new ApiResultResponseHandler<ApiResult<?>>(ApiResult.class)
+			.handleResponse(response(200, "{\"code\":")));
+	}
+
+	private static BasicClassicHttpResponse response(int code, String body) {
+		BasicClassicHttpResponse response = new BasicClassicHttpResponse(code);
+		response.setEntity(new StringEntity(body, ContentType.APPLICATION_JSON));
+		return response;
+	}
+
+}
@@ -0,0 +1,76 @@
+package top.wecoding.iam.sdk.client.hedge;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+class HedgingPolicyTest {
+
+	private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+	@Test
+	void hedgesAfterTheFixedDelay() {
+		HedgingPolicy policy = HedgingPolicy.fixedDelay(Duration.ofMillis(50), 0.05);
+		for (int i = 0; i < 100; i++) {
+			policy.recordLatency("/api/v1/users/{id}", MILLI);
+		}
+		assertEquals(50 * MILLI, policy.getDelayNanos("/api/v1/users/{id}"));
+	}
+
+	@Test
+	void hedgesAfterThePercentileOfTheRoute() {
+		HedgingPolicy policy = HedgingPolicy.percentile(95, Duration.ofMillis(50), 0.05);
+		for (int i = 1; i <= 19; i++) {
+			policy.recordLatency("/api/v1/users/{id}", i * MILLI);
+		}
+		assertEquals(50 * MILLI, policy.getDelayNanos("/api/v1/users/{id}"));
+
+		policy.recordLatency("/api/v1/users/{id}", 20 * MILLI);
+		long delay = policy.getDelayNanos("/api/v1/users/{id}");
+		assertTrue(delay >= 19 * MILLI && delay <= 25 * MILLI, "delay " + delay);
+		// the other routes wait for their own latencies
+		assertEquals(50 * MILLI, policy.getDelayNanos("/api/v1/auth/user-info"));
+	}
+
+	@Test
+	void capsTheShareOfHedgedRequests() {
+		HedgingPolicy policy = HedgingPolicy.fixedDelay(Duration.ZERO, 0.1);
+		// the budget starts full
+		for (int i = 0; i < 10; i++) {
+			assertTrue(policy.tryAcquireHedge());
+		}
+		assertFalse(policy.tryAcquireHedge());
+		for (int i = 0; i < 10; i++) {
+			policy.onRequest();
+		}
+		assertTrue(policy.tryAcquireHedge());
+		assertFalse(policy.tryAcquireHedge());
+	}
+
+	@Test
+	void schedulesTheHedges() throws InterruptedException {
+		HedgingPolicy policy = HedgingPolicy.fixedDelay(Duration.ZERO, 0.05);
+		CountDownLatch hedged = new CountDownLatch(1);
+		policy.schedule(() -> policy.executor().execute(hedged::countDown), MILLI);
+		assertTrue(hedged.await(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void rejectsTheInvalidPercentiles() {
+		assertThrows(IllegalArgumentException.class, () -> HedgingPolicy.percentile(0, Duration.ZERO, 0.05));
+		assertThrows(IllegalArgumentException.class, () -> HedgingPolicy.percentile(100, Duration.ZERO, 0.05));
+		assertThrows(IllegalArgumentException.class, () -> HedgingPolicy.fixedDelay(Duration.ofMillis(-1), 0.05));
+	}
+
+}
@@ -0,0 +1,55 @@
+package top.wecoding.iam.sdk.client.hedge;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+class LatencyHistogramTest {
+
+	private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+	@Test
+	void doesNotKnowThePercentilesOfTooFewSamples() {
+		LatencyHistogram histogram = new LatencyHistogram(1000);
+		for (int i = 0; i < 19; i++) {
+			histogram.record(MILLI);
+		}
+		assertEquals(-1, histogram.percentile(95, 20));
+		histogram.record(MILLI);
+		assertTrue(histogram.percentile(95, 20) >= 0);
+	}
+
+	@Test
+	void boundsThePercentileWithinAQuarterOctave() {
+		LatencyHistogram histogram = new LatencyHistogram(1000);
+		for (int i = 1; i <= 100; i++) {
+			histogram.record(i * MILLI);
+		}
+		long p95 = histogram.percentile(95, 20);
+		assertTrue(p95 >= 95 * MILLI, "p95 " + p95);
+		assertTrue(p95 <= 95 * MILLI * 5 / 4, "p95 " + p95);
+		long p50 = histogram.percentile(50, 20);
+		assertTrue(p50 >= 50 * MILLI && p50 <= 50 * MILLI * 5 / 4, "p50 " + p50);
+	}
+
+	@Test
+	void followsTheRecentLatencies() {
+		LatencyHistogram histogram = new LatencyHistogram(100);
+		for (int i = 0; i < 100; i++) {
+			histogram.record(100 * MILLI);
+		}
+		// the old samples are halved at each interval
+		for (int i = 0; i < 300; i++) {
+			histogram.record(MILLI);
+		}
+		assertTrue(histogram.percentile(90, 20) <= 2 * MILLI);
+	}
+
+}
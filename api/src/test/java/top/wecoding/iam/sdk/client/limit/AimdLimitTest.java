@@ -0,0 +1,87 @@
+package top.wecoding.iam.sdk.client.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+class AimdLimitTest {
+
+	private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+
+	private static final long SLOW = TimeUnit.SECONDS.toNanos(2);
+
+	@Test
+	void clampsTheInitialLimit() {
+		assertEquals(5, new AimdLimit(1, 5, 50, 0.9, Duration.ofSeconds(1)).getLimit());
+		assertEquals(50, new AimdLimit(100, 5, 50, 0.9, Duration.ofSeconds(1)).getLimit());
+	}
+
+	@Test
+	void rejectsInvalidArguments() {
+		assertThrows(IllegalArgumentException.class, () -> new AimdLimit(10, 0, 50, 0.9, Duration.ofSeconds(1)));
+		assertThrows(IllegalArgumentException.class, () -> new AimdLimit(10, 20, 10, 0.9, Duration.ofSeconds(1)));
+		assertThrows(IllegalArgumentException.class, () -> new AimdLimit(10, 1, 50, 0.4, Duration.ofSeconds(1)));
+		assertThrows(IllegalArgumentException.class, () -> new AimdLimit(10, 1, 50, 1, Duration.ofSeconds(1)));
+	}
+
+	@Test
+	void growsByOneWhileTheLimitIsUsed() {
+		AimdLimit limit = new AimdLimit(10, 1, 50, 0.9, Duration.ofSeconds(1));
+		limit.onSample(FAST, 10, false);
+		assertEquals(11, limit.getLimit());
+		limit.onSample(FAST, 6, false);
+		assertEquals(12, limit.getLimit());
+	}
+
+	@Test
+	void doesNotGrowWhileTheLimitIsUnused() {
+		AimdLimit limit = new AimdLimit(10, 1, 50, 0.9, Duration.ofSeconds(1));
+		for (int i = 0; i < 100; i++) {
+			limit.onSample(FAST, 4, false);
+		}
+		assertEquals(10, limit.getLimit());
+	}
+
+	@Test
+	void growsUpToTheMaximum() {
+		AimdLimit limit = new AimdLimit(10, 1, 12, 0.9, Duration.ofSeconds(1));
+		for (int i = 0; i < 10; i++) {
+			limit.onSample(FAST, limit.getLimit(), false);
+		}
+		assertEquals(12, limit.getLimit());
+	}
+
+	@Test
+	void backsOffOnDrops() {
+		AimdLimit limit = new AimdLimit(20, 1, 50, 0.5, Duration.ofSeconds(1));
+		limit.onSample(FAST, 20, true);
+		assertEquals(10, limit.getLimit());
+		limit.onSample(FAST, 10, true);
+		assertEquals(5, limit.getLimit());
+	}
+
+	@Test
+	void backsOffOnRequestsSlowerThanTheTimeout() {
+		AimdLimit limit = new AimdLimit(20, 1, 50, 0.5, Duration.ofSeconds(1));
+		limit.onSample(SLOW, 20, false);
+		assertEquals(10, limit.getLimit());
+	}
+
+	@Test
+	void backsOffDownToTheMinimum() {
+		AimdLimit limit = new AimdLimit(20, 4, 50, 0.5, Duration.ofSeconds(1));
+		for (int i = 0; i < 10; i++) {
+			limit.onSample(FAST, 1, true);
+		}
+		assertEquals(4, limit.getLimit());
+	}
+
+}
@@ -0,0 +1,111 @@
+package top.wecoding.iam.sdk.client.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+class VegasLimitTest {
+
+	private static final long NO_LOAD = TimeUnit.MILLISECONDS.toNanos(10);
+
+	private static final long LOADED = TimeUnit.MILLISECONDS.toNanos(100);
+
+	@Test
+	void clampsTheInitialLimit() {
+		assertEquals(1, new VegasLimit(0, 50).getLimit());
+		assertEquals(50, new VegasLimit(100, 50).getLimit());
+		assertThrows(IllegalArgumentException.class, () -> new VegasLimit(10, 0));
+	}
+
+	@Test
+	void growsWhileTheQueueIsShortAndTheLimitIsUsed() {
+		VegasLimit limit = new VegasLimit(10, 100, 0);
+		limit.onSample(NO_LOAD, 10, false);
+		assertEquals(11, limit.getLimit());
+		limit.onSample(NO_LOAD, 11, false);
+		assertEquals(12, limit.getLimit());
+	}
+
+	@Test
+	void doesNotGrowWhileTheLimitIsUnused() {
+		VegasLimit limit = new VegasLimit(10, 100, 0);
+		for (int i = 0; i < 100; i++) {
+			limit.onSample(NO_LOAD, 2, false);
+		}
+		assertEquals(10, limit.getLimit());
+	}
+
+	@Test
+	void growsUpToTheMaximum() {
+		VegasLimit limit = new VegasLimit(10, 15, 0);
+		for (int i = 0; i < 20; i++) {
+			limit.onSample(NO_LOAD, limit.getLimit(), false);
+		}
+		assertEquals(15, limit.getLimit());
+	}
+
+	@Test
+	void growsFasterWithLargerLimits() {
+		VegasLimit limit = new VegasLimit(100, 1000, 0);
+		limit.onSample(NO_LOAD, 100, false);
+		assertEquals(102, limit.getLimit());
+	}
+
+	@Test
+	void shrinksWhenTheQueueBuildsUp() {
+		VegasLimit limit = new VegasLimit(20, 100, 0);
+		limit.onSample(NO_LOAD, 1, false);
+		// queue of 20 * (1 - 10 / 100) = 18 requests
+		limit.onSample(LOADED, 20, false);
+		assertEquals(19, limit.getLimit());
+	}
+
+	@Test
+	void keepsTheLimitBetweenTheThresholds() {
+		VegasLimit limit = new VegasLimit(10, 100, 0);
+		limit.onSample(NO_LOAD, 1, false);
+		// queue of 10 * (1 - 10 / 20) = 5 requests, between alpha = 3 and beta = 6
+		limit.onSample(TimeUnit.MILLISECONDS.toNanos(20), 10, false);
+		assertEquals(10, limit.getLimit());
+	}
+
+	@Test
+	void shrinksOnDropsDownToOne() {
+		VegasLimit limit = new VegasLimit(3, 100, 0);
+		limit.onSample(NO_LOAD, 3, true);
+		assertEquals(2, limit.getLimit());
+		limit.onSample(NO_LOAD, 2, true);
+		limit.onSample(NO_LOAD, 1, true);
+		assertEquals(1, limit.getLimit());
+	}
+
+	@Test
+	void ignoresSamplesWithoutRoundTripTime() {
+		VegasLimit limit = new VegasLimit(10, 100, 0);
+		limit.onSample(0, 10, true);
+		assertEquals(10, limit.getLimit());
+	}
+
+	@Test
+	void probesTheUnloadedLatencyAgain() {
+		VegasLimit limit = new VegasLimit(10, 100, 3);
+		limit.onSample(NO_LOAD, 10, false);
+		assertEquals(11, limit.getLimit());
+		// slower than the unloaded latency, the queue is long
+		limit.onSample(LOADED, 11, false);
+		assertEquals(10, limit.getLimit());
+		// the third sample is the new unloaded latency
+		limit.onSample(LOADED, 10, false);
+		assertEquals(10, limit.getLimit());
+		limit.onSample(LOADED, 10, false);
+		assertEquals(11, limit.getLimit());
+	}
+
+}
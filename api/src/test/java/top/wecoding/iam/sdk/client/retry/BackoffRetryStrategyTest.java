@@ -0,0 +1,134 @@
+package top.wecoding.iam.sdk.client.retry;
+
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.message.BasicHttpRequest;
+import org.apache.hc.core5.http.message.BasicHttpResponse;
+import org.apache.hc.core5.util.TimeValue;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+class BackoffRetryStrategyTest {
+
+	private final BackoffRetryStrategy strategy = new BackoffRetryStrategy(3, Duration.ZERO, new RetryBudget(0.1, 100));
+
+	@Test
+	void retriesTheUnprocessedRequestsWhateverTheMethod() {
+		assertTrue(retry(request("POST"), 503));
+		assertTrue(retry(request("POST"), 429));
+		assertTrue(retry(request("POST"), new ConnectException("Connection refused")));
+	}
+
+	@Test
+	void retriesTheOtherFailuresOfIdempotentRequestsOnly() {
+		assertTrue(retry(request("GET"), 502));
+		assertTrue(retry(request("DELETE"), new IOException("Connection reset")));
+		assertFalse(retry(request("POST"), 504));
+		assertFalse(retry(request("POST"), new IOException("Connection reset")));
+
+		HttpRequest keyed = request("POST");
+		keyed.addHeader(BackoffRetryStrategy.IDEMPOTENCY_KEY_HEADER, "k1");
+		assertTrue(retry(keyed, 504));
+		assertTrue(retry(keyed, new IOException("Connection reset")));
+	}
+
+	@Test
+	void doesNotRetryTheFailuresARetryCannotFix() {
+		assertFalse(retry(request("GET"), 500));
+		assertFalse(retry(request("GET"), 404));
+		assertFalse(retry(request("GET"), new UnknownHostException("iam.example.com")));
+		assertFalse(retry(request("GET"), new SocketTimeoutException("Read timed out")));
+	}
+
+	@Test
+	void stopsAfterTheMaximumRetries() {
+		HttpClientContext context = context(request("GET"));
+		BasicHttpResponse response = new BasicHttpResponse(503);
+		for (int execCount = 1; execCount <= 3; execCount++) {
+			assertTrue(this.strategy.retryRequest(response, execCount, context));
+		}
+		assertFalse(this.strategy.retryRequest(response, 4, context));
+	}
+
+	@Test
+	void waitsForTheRetryAfterDelay() {
+		HttpClientContext context = context(request("GET"));
+		HttpResponse response = new BasicHttpResponse(503);
+		response.addHeader("Retry-After", "2");
+		assertTrue(this.strategy.retryRequest(response, 1, context));
+		assertEquals(TimeValue.ofMilliseconds(2000), this.strategy.getRetryInterval(response, 1, context));
+
+		// longer than the maximum delay
+		response.setHeader("Retry-After", "60");
+		assertFalse(this.strategy.retryRequest(response, 1, context));
+	}
+
+	@Test
+	void boundsTheBackoffExponentially() {
+		BackoffRetryStrategy strategy = new BackoffRetryStrategy(10, Duration.ZERO, Duration.ofMillis(100),
+				Duration.ofMillis(400), new RetryBudget(0.1, 1000));
+		HttpClientContext context = context(request("GET"));
+		BasicHttpResponse response = new BasicHttpResponse(502);
+		for (int i = 0; i < 100; i++) {
+			assertTrue(interval(strategy, response, 1, context) <= 100);
+			assertTrue(interval(strategy, response, 2, context) <= 200);
+			assertTrue(interval(strategy, response, 8, context) <= 400);
+		}
+	}
+
+	@Test
+	void doesNotRetryBeyondTheTimeBudget() {
+		BackoffRetryStrategy strategy = new BackoffRetryStrategy(3, Duration.ofSeconds(1), new RetryBudget(0.1, 100));
+		HttpClientContext context = context(request("GET"));
+		context.setAttribute(BackoffRetryStrategy.START_TIME_ATTRIBUTE, System.nanoTime());
+		HttpResponse response = new BasicHttpResponse(503);
+		response.addHeader("Retry-After", "2");
+		assertFalse(strategy.retryRequest(response, 1, context));
+	}
+
+	@Test
+	void doesNotRetryOnceTheRetryBudgetIsSpent() {
+		BackoffRetryStrategy strategy = new BackoffRetryStrategy(3, Duration.ZERO, new RetryBudget(0.1, 1));
+		assertTrue(strategy.retryRequest(new BasicHttpResponse(503), 1, context(request("GET"))));
+		assertFalse(strategy.retryRequest(new BasicHttpResponse(503), 1, context(request("GET"))));
+	}
+
+	private boolean retry(HttpRequest request, int status) {
+		return this.strategy.retryRequest(new BasicHttpResponse(status), 1, context(request));
+	}
+
+	private boolean retry(HttpRequest request, IOException exception) {
+		return this.strategy.retryRequest(request, exception, 1, context(request));
+	}
+
+	private static long interval(BackoffRetryStrategy strategy, HttpResponse response, int execCount,
+			HttpClientContext context) {
+		assertTrue(strategy.retryRequest(response, execCount, context));
+		return strategy.getRetryInterval(response, execCount, context).toMilliseconds();
+	}
+
+	private static HttpRequest request(String method) {
+		return new BasicHttpRequest(method, "/api/v1/users/u1");
+	}
+
+	private static HttpClientContext context(HttpRequest request) {
+		HttpClientContext context = HttpClientContext.create();
+		context.setAttribute(HttpClientContext.HTTP_REQUEST, request);
+		return context;
+	}
+
+}
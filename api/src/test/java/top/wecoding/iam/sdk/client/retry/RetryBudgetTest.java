@@ -0,0 +1,52 @@
+package top.wecoding.iam.sdk.client.retry;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+class RetryBudgetTest {
+
+	@Test
+	void startsFull() {
+		RetryBudget budget = new RetryBudget(0.1, 2);
+		assertTrue(budget.tryWithdraw());
+		assertTrue(budget.tryWithdraw());
+		assertFalse(budget.tryWithdraw());
+	}
+
+	@Test
+	void earnsARetryEveryTenthOfTheRatio() {
+		RetryBudget budget = new RetryBudget(0.1, 2);
+		budget.tryWithdraw();
+		budget.tryWithdraw();
+		for (int i = 0; i < 9; i++) {
+			budget.deposit();
+		}
+		assertFalse(budget.tryWithdraw());
+		budget.deposit();
+		assertTrue(budget.tryWithdraw());
+	}
+
+	@Test
+	void savesUpToTheCapacity() {
+		RetryBudget budget = new RetryBudget(1, 1);
+		for (int i = 0; i < 10; i++) {
+			budget.deposit();
+		}
+		assertTrue(budget.tryWithdraw());
+		assertFalse(budget.tryWithdraw());
+	}
+
+	@Test
+	void rejectsTheNegativeSettings() {
+		assertThrows(IllegalArgumentException.class, () -> new RetryBudget(-0.1, 1));
+		assertThrows(IllegalArgumentException.class, () -> new RetryBudget(0.1, -1));
+	}
+
+}
@@ -0,0 +1,100 @@
+package top.wecoding.iam.sdk.codec;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.junit.jupiter.api.Test;
+import top.wecoding.iam.sdk.model.ApiResult;
+import top.wecoding.iam.sdk.model.UserInfo;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+class JacksonCodecTest {
+
+	@Test
+	void roundTripsAnObject() throws Exception {
+		Codec codec = JacksonCodec.getDefault();
+		UserInfo userInfo = new UserInfo();
+		userInfo.setAlias("alice");
+
+		byte[] json = codec.writer(UserInfo.class).writeValueAsBytes(userInfo);
+		UserInfo decoded = codec.reader(UserInfo.class).readValue(json);
+		assertEquals(userInfo, decoded);
+	}
+
+	@Test
+	void roundTripsAGenericResult() throws Exception {
+		Codec codec = JacksonCodec.getDefault();
+		ApiResult<UserInfo> apiResult = new ApiResult<>();
+		apiResult.setCode(ApiResult.SUCCESS_CODE);
+		apiResult.setData(new UserInfo());
+		apiResult.getData().setAlias("alice");
+
+		byte[] json = codec.writer(apiResult.getClass()).writeValueAsBytes(apiResult);
+		ApiResult<UserInfo> decoded = codec.reader(ApiResult.typeOf(UserInfo.class)).readValue(json);
+		assertEquals("alice", decoded.getData().getAlias());
+		assertEquals(ApiResult.SUCCESS_CODE, decoded.getCode());
+	}
+
+	@Test
+	void ignoresUnknownPropertiesAndWritesNulls() throws Exception {
+		Codec codec = JacksonCodec.getDefault();
+		UserInfo decoded = codec.reader(UserInfo.class).readValue("{\"alias\":\"alice\",\"unknown\":1}");
+		assertEquals("alice", decoded.getAlias());
+		// a request can clear a property
+		assertTrue(codec.writer(UserInfo.class).writeValueAsString(new UserInfo()).contains("\"alias\":null"));
+	}
+
+	@Test
+	void cachesTheReadersAndWritersPerType() {
+		Codec codec = new JacksonCodec(JacksonCodec.createObjectMapper(false));
+		assertSame(codec.reader(UserInfo.class), codec.reader(UserInfo.class));
+		assertSame(codec.writer(UserInfo.class), codec.writer(UserInfo.class));
+		assertNotSame(codec.reader(UserInfo.class), codec.reader(ApiResult.typeOf(UserInfo.class)));
+	}
+
+	@Test
+	void doesNotCloseTheStreamItWritesTo() throws Exception {
+		ObjectWriter writer = JacksonCodec.getDefault().writer(UserInfo.class);
+		TrackingOutputStream out = new TrackingOutputStream();
+		writer.writeValue(out, new UserInfo());
+		assertFalse(out.closed);
+		out.write('\n');
+		assertTrue(out.toString(StandardCharsets.UTF_8).endsWith("}\n"));
+	}
+
+	@Test
+	void acceleratesAsTheDefaultCodec() throws Exception {
+		Codec codec = JacksonCodec.accelerated();
+		assertNotSame(JacksonCodec.getDefault().getObjectMapper(), codec.getObjectMapper());
+		UserInfo decoded = codec.reader(UserInfo.class).readValue("{\"alias\":\"alice\",\"unknown\":1}");
+		assertEquals("alice", decoded.getAlias());
+	}
+
+	@Test
+	void rejectsANullMapper() {
+		assertThrows(IllegalArgumentException.class, () -> new JacksonCodec(null));
+	}
+
+	private static final class TrackingOutputStream extends ByteArrayOutputStream {
+
+		private boolean closed;
+
+		@Override
+		public void close() {
+			this.closed = true;
+		}
+
+	}
+
+}
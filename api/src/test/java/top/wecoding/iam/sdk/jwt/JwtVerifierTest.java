@@ -0,0 +1,268 @@
+package top.wecoding.iam.sdk.jwt;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import top.wecoding.iam.sdk.exception.InvalidTokenException;
+import top.wecoding.iam.sdk.util.JacksonUtils;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+class JwtVerifierTest {
+
+	private static final String ISSUER = "https://iam.example.com";
+
+	private static final String AUDIENCE = "client";
+
+	private static KeyPair rsaKeyPair;
+
+	private static KeyPair ecKeyPair;
+
+	private final AtomicInteger keySetLoads = new AtomicInteger();
+
+	private JwtVerifier verifier;
+
+	@BeforeAll
+	static void generateKeys() throws Exception {
+		KeyPairGenerator rsa = KeyPairGenerator.getInstance("RSA");
+		rsa.initialize(2048);
+		rsaKeyPair = rsa.generateKeyPair();
+		KeyPairGenerator ec = KeyPairGenerator.getInstance("EC");
+		ec.initialize(new ECGenParameterSpec("secp256r1"));
+		ecKeyPair = ec.generateKeyPair();
+	}
+
+	@BeforeEach
+	void createVerifier() {
+		String keySet = keySet();
+		JwtVerifierConfig config = JwtVerifierConfig.builder()
+			.issuer(ISSUER)
+			.audience(AUDIENCE)
+			.clockSkew(Duration.ofSeconds(30))
+			.minKeysRefreshInterval(Duration.ZERO)
+			.keysRefreshInterval(Duration.ofHours(1))
+			.build();
+		this.verifier = new JwtVerifier(() -> {
+			this.keySetLoads.incrementAndGet();
+			return keySet;
+		}, config);
+	}
+
+	@AfterEach
+	void closeVerifier() {
+		this.verifier.close();
+	}
+
+	@Test
+	void verifiesRsaSignedToken() {
+		JwtClaims claims = this.verifier.verify(sign("RS256", "rsa", claims(), rsaKeyPair.getPrivate()));
+		assertEquals("alice", claims.getSubject());
+		assertEquals(List.of(AUDIENCE), claims.getAudience());
+	}
+
+	@Test
+	void verifiesEcSignedToken() {
+		JwtClaims claims = this.verifier.verify(sign("ES256", "ec", claims(), ecKeyPair.getPrivate()));
+		assertEquals("alice", claims.getSubject());
+	}
+
+	@Test
+	void rejectsTamperedPayload() {
+		String token = sign("RS256", "rsa", claims(), rsaKeyPair.getPrivate());
+		Map<String, Object> claims = claims();
+		claims.put("sub", "mallory");
+		String[] parts = token.split("\\.");
+		String tampered = parts[0] + "." + encode(JacksonUtils.toJsonBytes(claims)) + "." + parts[2];
+		assertThrows(InvalidTokenException.class, () -> this.verifier.verify(tampered));
+	}
+
+	@Test
+	void rejectsSignatureOfAnotherKey() throws Exception {
+		KeyPairGenerator rsa = KeyPairGenerator.getInstance("RSA");
+		rsa.initialize(2048);
+		PrivateKey otherKey = rsa.generateKeyPair().getPrivate();
+		assertThrows(InvalidTokenException.class, () -> this.verifier.verify(sign("RS256", "rsa", claims(), otherKey)));
+	}
+
+	@Test
+	void rejectsAlgorithmNotMatchingTheKey() {
+		assertThrows(InvalidTokenException.class,
+				() -> this.verifier.verify(sign("RS384", "rsa", claims(), rsaKeyPair.getPrivate())));
+		assertThrows(InvalidTokenException.class,
+				() -> this.verifier.verify(sign("ES256", "rsa-any", claims(), ecKeyPair.getPrivate())));
+	}
+
+	@Test
+	void rejectsUnsignedToken() {
+		String token = encode(JacksonUtils.toJsonBytes(Map.of("alg", "none", "kid", "rsa-any"))) + "."
+				+ encode(JacksonUtils.toJsonBytes(claims())) + ".";
+		assertThrows(InvalidTokenException.class, () -> this.verifier.verify(token));
+	}
+
+	@Test
+	void rejectsHmacSignedWithThePublicKey() {
+		String token = encode(JacksonUtils.toJsonBytes(Map.of("alg", "HS256", "kid", "rsa-any"))) + "."
+				+ encode(JacksonUtils.toJsonBytes(claims())) + "." + encode(new byte[32]);
+		assertThrows(InvalidTokenException.class, () -> this.verifier.verify(token));
+	}
+
+	@Test
+	void rejectsUnknownKeyAfterReloadingTheKeySet() {
+		assertThrows(InvalidTokenException.class,
+				() -> this.verifier.verify(sign("RS256", "rotated", claims(), rsaKeyPair.getPrivate())));
+		// the initial load and the reload for the unknown key
+		assertEquals(2, this.keySetLoads.get());
+	}
+
+	@Test
+	void rejectsExpiredTokenBeyondTheClockSkew() {
+		Map<String, Object> expired = claims();
+		expired.put("exp", now() - 60);
+		assertThrows(InvalidTokenException.class,
+				() -> this.verifier.verify(sign("RS256", "rsa", expired, rsaKeyPair.getPrivate())));
+
+		Map<String, Object> justExpired = claims();
+		justExpired.put("exp", now() - 10);
+		this.verifier.verify(sign("RS256", "rsa", justExpired, rsaKeyPair.getPrivate()));
+	}
+
+	@Test
+	void rejectsTokenWithoutExpiry() {
+		Map<String, Object> claims = claims();
+		claims.remove("exp");
+		assertThrows(InvalidTokenException.class,
+				() -> this.verifier.verify(sign("RS256", "rsa", claims, rsaKeyPair.getPrivate())));
+	}
+
+	@Test
+	void rejectsTokenNotYetValidBeyondTheClockSkew() {
+		Map<String, Object> notYetValid = claims();
+		notYetValid.put("nbf", now() + 60);
+		assertThrows(InvalidTokenException.class,
+				() -> this.verifier.verify(sign("RS256", "rsa", notYetValid, rsaKeyPair.getPrivate())));
+
+		Map<String, Object> almostValid = claims();
+		almostValid.put("nbf", now() + 10);
+		this.verifier.verify(sign("RS256", "rsa", almostValid, rsaKeyPair.getPrivate()));
+	}
+
+	@Test
+	void rejectsTokenIssuedInTheFutureBeyondTheClockSkew() {
+		Map<String, Object> future = claims();
+		future.put("iat", now() + 60);
+		assertThrows(InvalidTokenException.class,
+				() -> this.verifier.verify(sign("RS256", "rsa", future, rsaKeyPair.getPrivate())));
+
+		Map<String, Object> skewed = claims();
+		skewed.put("iat", now() + 10);
+		this.verifier.verify(sign("RS256", "rsa", skewed, rsaKeyPair.getPrivate()));
+	}
+
+	@Test
+	void rejectsOtherIssuer() {
+		Map<String, Object> claims = claims();
+		claims.put("iss", "https://evil.example.com");
+		assertThrows(InvalidTokenException.class,
+				() -> this.verifier.verify(sign("RS256", "rsa", claims, rsaKeyPair.getPrivate())));
+	}
+
+	@Test
+	void rejectsOtherAudience() {
+		Map<String, Object> claims = claims();
+		claims.put("aud", "other-client");
+		assertThrows(InvalidTokenException.class,
+				() -> this.verifier.verify(sign("RS256", "rsa", claims, rsaKeyPair.getPrivate())));
+	}
+
+	@Test
+	void acceptsAudienceArrayContainingTheClient() {
+		Map<String, Object> claims = claims();
+		claims.put("aud", List.of("other-client", AUDIENCE));
+		this.verifier.verify(sign("RS256", "rsa", claims, rsaKeyPair.getPrivate()));
+	}
+
+	@Test
+	void rejectsMalformedTokens() {
+		String nullJson = encode("null".getBytes(StandardCharsets.UTF_8));
+		String header = encode(JacksonUtils.toJsonBytes(Map.of("alg", "RS256", "kid", "rsa")));
+		String payload = encode(JacksonUtils.toJsonBytes(claims()));
+		for (String token : List.of("", "abc", "a.b", "a.b.c.d", nullJson + "." + payload + ".c2ln",
+				header + "." + nullJson + ".c2ln", header + ".WzFd.c2ln")) {
+			assertThrows(InvalidTokenException.class, () -> this.verifier.verify(token), token);
+		}
+	}
+
+	private static Map<String, Object> claims() {
+		Map<String, Object> claims = new LinkedHashMap<>();
+		claims.put("sub", "alice");
+		claims.put("iss", ISSUER);
+		claims.put("aud", AUDIENCE);
+		claims.put("iat", now());
+		claims.put("exp", now() + 300);
+		return claims;
+	}
+
+	private static long now() {
+		return System.currentTimeMillis() / 1000;
+	}
+
+	private static String sign(String algorithm, String kid, Map<String, Object> claims, PrivateKey privateKey) {
+		String signingInput = encode(JacksonUtils.toJsonBytes(Map.of("alg", algorithm, "kid", kid))) + "."
+				+ encode(JacksonUtils.toJsonBytes(claims));
+		try {
+			Signature signer = Signature
+				.getInstance(algorithm.startsWith("ES") ? "SHA" + algorithm.substring(2) + "withECDSAinP1363Format"
+						: "SHA" + algorithm.substring(2) + "withRSA");
+			signer.initSign(privateKey);
+			signer.update(signingInput.getBytes(StandardCharsets.US_ASCII));
+			return signingInput + "." + encode(signer.sign());
+		}
+		catch (Exception ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private static String keySet() {
+		RSAPublicKey rsaPublicKey = (RSAPublicKey) rsaKeyPair.getPublic();
+		ECPublicKey ecPublicKey = (ECPublicKey) ecKeyPair.getPublic();
+		Map<String, Object> rsaKey = Map.of("kty", "RSA", "kid", "rsa", "alg", "RS256", "n",
+				encode(rsaPublicKey.getModulus()), "e", encode(rsaPublicKey.getPublicExponent()));
+		// the same key, without algorithm
+		Map<String, Object> rsaAnyKey = Map.of("kty", "RSA", "kid", "rsa-any", "n", encode(rsaPublicKey.getModulus()),
+				"e", encode(rsaPublicKey.getPublicExponent()));
+		Map<String, Object> ecKey = Map.of("kty", "EC", "kid", "ec", "crv", "P-256", "x",
+				encode(ecPublicKey.getW().getAffineX()), "y", encode(ecPublicKey.getW().getAffineY()));
+		return JacksonUtils.toJson(Map.of("keys", List.of(rsaKey, rsaAnyKey, ecKey)));
+	}
+
+	private static String encode(BigInteger value) {
+		return encode(value.toByteArray());
+	}
+
+	private static String encode(byte[] bytes) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+	}
+
+}
@@ -0,0 +1,106 @@
+package top.wecoding.iam.sdk.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import top.wecoding.iam.sdk.codec.Codec;
+import top.wecoding.iam.sdk.codec.JacksonCodec;
+import top.wecoding.iam.sdk.model.Metadata;
+import top.wecoding.iam.sdk.model.UserInfo;
+import top.wecoding.iam.sdk.model.request.CreateUserRequest;
+import top.wecoding.iam.sdk.model.response.UserInfoResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the codecs decoding a user response and encoding a user creation, with the
+ * legacy paths as baseline: a reader resolved for each response, and bodies built as
+ * strings by a mapper of the client.
+ *
+ * @author Wecoding Liu
+ * @since 0.8
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CodecBenchmark {
+
+	@Param({ "default", "accelerated" })
+	private String codecName;
+
+	private Codec codec;
+
+	private ObjectMapper legacyMapper;
+
+	private byte[] response;
+
+	private CreateUserRequest createReq;
+
+	@Setup
+	public void setup() throws IOException {
+		this.codec = "accelerated".equals(this.codecName) ? JacksonCodec.accelerated() : JacksonCodec.getDefault();
+		this.legacyMapper = JacksonCodec.createObjectMapper(false);
+
+		Metadata metadata = new Metadata();
+		metadata.setInstanceId("b5b8c0e2-6f0e-4a51-9d5e-2f1f4c1f8a7e");
+		metadata.setName("jane.doe");
+		metadata.setCreatedAt("2024-05-01T10:00:00Z");
+		metadata.setUpdatedAt("2024-05-02T11:30:00Z");
+		metadata.setExtend(Map.of("department", "engineering", "level", 3));
+		UserInfo userInfo = new UserInfo();
+		userInfo.setMetadata(metadata);
+		userInfo.setAlias("Jane Doe");
+		userInfo.setEmail("jane.doe@example.com");
+		userInfo.setPhone("+33 6 12 34 56 78");
+		userInfo.setUserType("default");
+		UserInfoResponse userInfoResponse = new UserInfoResponse();
+		userInfoResponse.setCode(100001);
+		userInfoResponse.setMsg("success");
+		userInfoResponse.setUserInfo(userInfo);
+		this.response = this.legacyMapper.writeValueAsBytes(userInfoResponse);
+
+		this.createReq = new CreateUserRequest();
+		this.createReq.setName("jane.doe");
+		this.createReq.setPassword("s3cr3t-passw0rd");
+		this.createReq.setAlias("Jane Doe");
+		this.createReq.setEmail("jane.doe@example.com");
+		this.createReq.setPhone("+33 6 12 34 56 78");
+	}
+
+	@Benchmark
+	public UserInfoResponse decode() throws IOException {
+		return this.codec.reader(UserInfoResponse.class).readValue(this.response);
+	}
+
+	@Benchmark
+	public UserInfoResponse decodeUncachedReader() throws IOException {
+		ObjectMapper mapper = this.codec.getObjectMapper();
+		return mapper.readerFor(mapper.constructType(UserInfoResponse.class)).readValue(this.response);
+	}
+
+	@Benchmark
+	public byte[] encode() throws IOException {
+		return this.codec.writer(CreateUserRequest.class).writeValueAsBytes(this.createReq);
+	}
+
+	@Benchmark
+	public byte[] encodeString() throws IOException {
+		return this.legacyMapper.writeValueAsString(this.createReq).getBytes(StandardCharsets.UTF_8);
+	}
+
+}